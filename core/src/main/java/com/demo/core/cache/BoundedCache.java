@@ -0,0 +1,381 @@
+package com.demo.core.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 有界本地缓存
+ * 按键的哈希值分段，每段是一个按访问顺序排列的LRU表并使用独立的锁，降低并发访问时的锁竞争；
+ * 支持按写入时间过期、淘汰监听和命中率统计
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public final class BoundedCache<K, V> {
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    
+    // 写入后的存活时间（纳秒），0表示不过期
+    private final long expireAfterWriteNanos;
+    
+    private final LongSupplier ticker;
+    private final EvictionListener<K, V> evictionListener;
+    
+    // 统计信息
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    
+    @SuppressWarnings("unchecked")
+    private BoundedCache(Builder<K, V> builder) {
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(builder.segments, builder.maximumSize)));
+        long perSegment = (builder.maximumSize + segmentCount - 1) / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>((int) Math.max(1, perSegment));
+        }
+        this.segmentMask = segmentCount - 1;
+        this.expireAfterWriteNanos = builder.expireAfterWrite != null ? builder.expireAfterWrite.toNanos() : 0L;
+        this.ticker = builder.ticker;
+        this.evictionListener = builder.evictionListener;
+    }
+    
+    /**
+     * 创建缓存构建器
+     * @param <K> 键类型
+     * @param <V> 值类型
+     * @return 构建器
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+    
+    /**
+     * 获取缓存值
+     * @param key 键
+     * @return 缓存值，不存在或已过期时返回null
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = ticker.getAsLong();
+        CacheEntry<V> expired = null;
+        V value = null;
+        synchronized (segment) {
+            CacheEntry<V> entry = segment.get(key);
+            if (entry != null) {
+                if (isExpired(entry, now)) {
+                    segment.remove(key);
+                    expired = entry;
+                } else {
+                    value = entry.value;
+                }
+            }
+        }
+        if (value != null) {
+            hitCount.increment();
+            return value;
+        }
+        missCount.increment();
+        if (expired != null) {
+            notifyEviction(key, expired.value, RemovalCause.EXPIRED);
+        }
+        return null;
+    }
+    
+    /**
+     * 获取缓存值，不存在时通过加载函数计算并写入缓存
+     * 加载函数在锁外执行，并发加载同一个键时可能会计算多次
+     * @param key 键
+     * @param loader 加载函数，返回null时不写入缓存
+     * @return 缓存值或加载的值
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+    
+    /**
+     * 写入缓存，超出容量时淘汰最近最少使用的条目
+     * @param key 键
+     * @param value 值，不能为null
+     */
+    public void put(K key, V value) {
+        Objects.requireNonNull(value, "value");
+        Segment<K, V> segment = segmentFor(key);
+        long expireAt = expireAfterWriteNanos > 0 ? ticker.getAsLong() + expireAfterWriteNanos : 0L;
+        List<Map.Entry<K, CacheEntry<V>>> evicted = null;
+        synchronized (segment) {
+            segment.put(key, new CacheEntry<>(value, expireAt));
+            if (segment.size() > segment.capacity) {
+                evicted = new ArrayList<>(1);
+                Iterator<Map.Entry<K, CacheEntry<V>>> iterator = segment.entrySet().iterator();
+                while (segment.size() > segment.capacity && iterator.hasNext()) {
+                    Map.Entry<K, CacheEntry<V>> eldest = iterator.next();
+                    evicted.add(Map.entry(eldest.getKey(), eldest.getValue()));
+                    iterator.remove();
+                }
+            }
+        }
+        if (evicted != null) {
+            for (Map.Entry<K, CacheEntry<V>> entry : evicted) {
+                evictionCount.increment();
+                notifyEviction(entry.getKey(), entry.getValue().value, RemovalCause.SIZE);
+            }
+        }
+    }
+    
+    /**
+     * 删除缓存值
+     * @param key 键
+     * @return 被删除的值，不存在时返回null
+     */
+    public V invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        CacheEntry<V> removed;
+        synchronized (segment) {
+            removed = segment.remove(key);
+        }
+        if (removed == null) {
+            return null;
+        }
+        notifyEviction(key, removed.value, RemovalCause.EXPLICIT);
+        return removed.value;
+    }
+    
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            List<Map.Entry<K, CacheEntry<V>>> removed;
+            synchronized (segment) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                removed = evictionListener != null ? new ArrayList<>(segment.entrySet()) : null;
+                segment.clear();
+            }
+            if (removed != null) {
+                for (Map.Entry<K, CacheEntry<V>> entry : removed) {
+                    notifyEviction(entry.getKey(), entry.getValue().value, RemovalCause.EXPLICIT);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 清理所有已过期的条目
+     * 过期条目默认只在被访问时清理，长期不被访问的过期条目需要定期调用该方法释放
+     * @return 清理的条目数量
+     */
+    public int cleanUp() {
+        if (expireAfterWriteNanos <= 0) {
+            return 0;
+        }
+        int cleaned = 0;
+        for (Segment<K, V> segment : segments) {
+            List<Map.Entry<K, CacheEntry<V>>> expired = null;
+            long now = ticker.getAsLong();
+            synchronized (segment) {
+                Iterator<Map.Entry<K, CacheEntry<V>>> iterator = segment.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<K, CacheEntry<V>> entry = iterator.next();
+                    if (isExpired(entry.getValue(), now)) {
+                        if (expired == null) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(Map.entry(entry.getKey(), entry.getValue()));
+                        iterator.remove();
+                    }
+                }
+            }
+            if (expired != null) {
+                cleaned += expired.size();
+                for (Map.Entry<K, CacheEntry<V>> entry : expired) {
+                    notifyEviction(entry.getKey(), entry.getValue().value, RemovalCause.EXPIRED);
+                }
+            }
+        }
+        return cleaned;
+    }
+    
+    /**
+     * 获取缓存条目数量（可能包含尚未清理的过期条目）
+     * @return 条目数量
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+    
+    /**
+     * 获取统计信息
+     * @return 统计信息快照
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+    
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & segmentMask];
+    }
+    
+    private boolean isExpired(CacheEntry<V> entry, long now) {
+        return entry.expireAt != 0L && now - entry.expireAt >= 0;
+    }
+    
+    private void notifyEviction(K key, V value, RemovalCause cause) {
+        if (evictionListener != null) {
+            evictionListener.onEviction(key, value, cause);
+        }
+    }
+    
+    /**
+     * 缓存段，按访问顺序排列的LRU表
+     */
+    private static final class Segment<K, V> extends LinkedHashMap<K, CacheEntry<V>> {
+        private final int capacity;
+        
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+    }
+    
+    /**
+     * 缓存条目
+     */
+    private static final class CacheEntry<V> {
+        private final V value;
+        
+        // 过期时间（纳秒时钟），0表示不过期
+        private final long expireAt;
+        
+        private CacheEntry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+    
+    /**
+     * 条目被移除的原因
+     */
+    public enum RemovalCause {
+        SIZE,     // 超出容量被淘汰
+        EXPIRED,  // 已过期
+        EXPLICIT  // 被显式删除
+    }
+    
+    /**
+     * 淘汰监听器，在锁外回调
+     * @param <K> 键类型
+     * @param <V> 值类型
+     */
+    @FunctionalInterface
+    public interface EvictionListener<K, V> {
+        
+        /**
+         * 条目被移除时回调
+         * @param key 键
+         * @param value 值
+         * @param cause 移除原因
+         */
+        void onEviction(K key, V value, RemovalCause cause);
+    }
+    
+    /**
+     * 缓存构建器
+     * @param <K> 键类型
+     * @param <V> 值类型
+     */
+    public static final class Builder<K, V> {
+        private int maximumSize = 10000;
+        private int segments = 16;
+        private Duration expireAfterWrite;
+        private LongSupplier ticker = System::nanoTime;
+        private EvictionListener<K, V> evictionListener;
+        
+        private Builder() {
+        }
+        
+        /**
+         * 设置最大条目数
+         * @param maximumSize 最大条目数
+         * @return 构建器
+         */
+        public Builder<K, V> maximumSize(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+        
+        /**
+         * 设置分段数量，会向下取整为2的幂
+         * @param segments 分段数量
+         * @return 构建器
+         */
+        public Builder<K, V> segments(int segments) {
+            this.segments = segments;
+            return this;
+        }
+        
+        /**
+         * 设置写入后的存活时间
+         * @param expireAfterWrite 存活时间，为null或不大于0时不过期
+         * @return 构建器
+         */
+        public Builder<K, V> expireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite != null && !expireAfterWrite.isZero()
+                    && !expireAfterWrite.isNegative() ? expireAfterWrite : null;
+            return this;
+        }
+        
+        /**
+         * 设置纳秒时钟，主要用于测试
+         * @param ticker 纳秒时钟
+         * @return 构建器
+         */
+        public Builder<K, V> ticker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+        
+        /**
+         * 设置淘汰监听器
+         * @param evictionListener 淘汰监听器
+         * @return 构建器
+         */
+        public Builder<K, V> evictionListener(EvictionListener<K, V> evictionListener) {
+            this.evictionListener = evictionListener;
+            return this;
+        }
+        
+        public BoundedCache<K, V> build() {
+            return new BoundedCache<>(this);
+        }
+    }
+}
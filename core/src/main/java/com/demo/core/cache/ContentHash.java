@@ -0,0 +1,156 @@
+package com.demo.core.cache;
+
+/**
+ * 128位内容哈希
+ * 使用MurmurHash3 x64_128算法直接对字符序列的UTF-16编码单元计算哈希，不需要先编码为字节数组；
+ * 128位的哈希值碰撞概率可以忽略，适合作为大段文本的缓存键，避免在缓存中保存原文
+ */
+public final class ContentHash {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    
+    // 哈希值的高64位
+    private final long high;
+    
+    // 哈希值的低64位
+    private final long low;
+    
+    private ContentHash(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+    
+    /**
+     * 计算内容的哈希值
+     * @param content 内容
+     * @return 哈希值
+     */
+    public static ContentHash of(CharSequence content) {
+        return of(content, 0L);
+    }
+    
+    /**
+     * 使用指定种子计算内容的哈希值
+     * @param content 内容
+     * @param seed 种子
+     * @return 哈希值
+     */
+    public static ContentHash of(CharSequence content, long seed) {
+        int length = content.length();
+        long h1 = seed;
+        long h2 = seed;
+        
+        // 每次处理8个字符（16字节）
+        int blockEnd = length & ~7;
+        for (int i = 0; i < blockEnd; i += 8) {
+            long k1 = pack(content, i);
+            long k2 = pack(content, i + 4);
+            
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        
+        // 处理剩余不足8个字符的部分
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = blockEnd; i < length; i++) {
+            long c = content.charAt(i);
+            int offset = i - blockEnd;
+            if (offset < 4) {
+                k1 |= c << (16 * offset);
+            } else {
+                k2 |= c << (16 * (offset - 4));
+            }
+        }
+        if (length - blockEnd > 4) {
+            h2 ^= mixK2(k2);
+        }
+        if (length > blockEnd) {
+            h1 ^= mixK1(k1);
+        }
+        
+        // 长度按字节计算
+        long byteLength = 2L * length;
+        h1 ^= byteLength;
+        h2 ^= byteLength;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new ContentHash(h1, h2);
+    }
+    
+    public long getHigh() {
+        return high;
+    }
+    
+    public long getLow() {
+        return low;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContentHash)) {
+            return false;
+        }
+        ContentHash other = (ContentHash) o;
+        return high == other.high && low == other.low;
+    }
+    
+    @Override
+    public int hashCode() {
+        // 哈希值本身已经充分混合，直接取低位即可
+        return (int) low;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+    
+    /**
+     * 将4个字符按小端顺序拼接为64位整数
+     */
+    private static long pack(CharSequence content, int index) {
+        return (long) content.charAt(index)
+                | (long) content.charAt(index + 1) << 16
+                | (long) content.charAt(index + 2) << 32
+                | (long) content.charAt(index + 3) << 48;
+    }
+    
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        return k1;
+    }
+    
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        return k2;
+    }
+    
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,198 @@
+package com.demo.core.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮，用于大量条目的到期管理
+ * 共4层，每层64个槽，第0层每槽约1秒（1024毫秒），逐层放大64倍，最高层覆盖约199天，更远的到期时间暂存在最高层并在到达时重新安排。
+ * 安排、取消都是O(1)的链表操作；推进时间时只处理经过的槽，未到期的条目下沉到更低的层，到期的条目最迟延后所在层一个槽的跨度被处理。
+ * 该类不是线程安全的，调用方需要自行加锁
+ * @param <T> 条目值类型
+ */
+public final class TimerWheel<T> {
+
+    // 每层的槽数
+    private static final int BUCKETS = 64;
+
+    // 每层每槽的时间跨度，以2的幂表示（毫秒）
+    private static final int[] SHIFTS = {10, 16, 22, 28};
+
+    // 每个槽是一个以哨兵节点开头的双向循环链表
+    private final Node<T>[][] wheel;
+
+    // 时间轮当前时间（毫秒）
+    private long currentTime;
+
+    // 已安排的条目数量
+    private int size;
+
+    /**
+     * 构造函数
+     * @param now 当前时间（毫秒）
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long now) {
+        this.wheel = new Node[SHIFTS.length][BUCKETS];
+        for (Node<T>[] level : wheel) {
+            for (int i = 0; i < BUCKETS; i++) {
+                Node<T> sentinel = new Node<>(null);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+        this.currentTime = now;
+    }
+
+    /**
+     * 安排条目在指定时间到期，已安排的条目会先从原来的槽中移除
+     * @param node 条目
+     * @param deadline 到期时间（毫秒）
+     */
+    public void schedule(Node<T> node, long deadline) {
+        if (node.isScheduled()) {
+            unlink(node);
+        }
+        node.deadline = deadline;
+        Node<T> sentinel = findBucket(deadline);
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+        size++;
+    }
+
+    /**
+     * 取消条目的到期安排
+     * @param node 条目
+     */
+    public void deschedule(Node<T> node) {
+        if (node.isScheduled()) {
+            unlink(node);
+        }
+    }
+
+    /**
+     * 推进时间轮，处理经过的槽
+     * 到期的条目从时间轮中移除后交给回调处理，回调中可以重新安排该条目
+     * @param now 当前时间（毫秒）
+     * @param expiredAction 到期回调
+     * @return 到期的条目数量
+     */
+    public int advance(long now, Consumer<Node<T>> expiredAction) {
+        long previousTime = currentTime;
+        if (now <= previousTime) {
+            return 0;
+        }
+        currentTime = now;
+
+        int expired = 0;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            long previousTicks = previousTime >>> SHIFTS[level];
+            long currentTicks = now >>> SHIFTS[level];
+            if (currentTicks <= previousTicks) {
+                break;
+            }
+            expired += expire(level, previousTicks, currentTicks - previousTicks, now, expiredAction);
+        }
+        return expired;
+    }
+
+    /**
+     * 获取已安排的条目数量
+     * @return 条目数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 处理某一层中经过的槽
+     */
+    private int expire(int level, long previousTicks, long delta, long now, Consumer<Node<T>> expiredAction) {
+        Node<T>[] buckets = wheel[level];
+        int mask = BUCKETS - 1;
+        int start = (int) (previousTicks & mask);
+        int steps = (int) Math.min(delta, BUCKETS);
+        int expired = 0;
+        for (int i = start; i < start + steps; i++) {
+            // 先摘下整个槽，回调中重新安排的条目不会再次被本轮处理
+            Node<T> sentinel = buckets[i & mask];
+            Node<T> node = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (node != sentinel) {
+                Node<T> next = node.next;
+                node.prev = null;
+                node.next = null;
+                size--;
+                if (node.deadline <= now) {
+                    expired++;
+                    expiredAction.accept(node);
+                } else {
+                    schedule(node, node.deadline);
+                }
+                node = next;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 根据到期时间找到对应的槽，已过期的条目放入当前时间所在的槽，在下一次推进时处理
+     */
+    private Node<T> findBucket(long deadline) {
+        long effective = Math.max(deadline, currentTime);
+        long duration = effective - currentTime;
+        int last = SHIFTS.length - 1;
+        for (int level = 0; level < last; level++) {
+            if (duration < (1L << SHIFTS[level + 1])) {
+                return wheel[level][(int) ((effective >>> SHIFTS[level]) & (BUCKETS - 1))];
+            }
+        }
+        return wheel[last][(int) ((effective >>> SHIFTS[last]) & (BUCKETS - 1))];
+    }
+
+    private void unlink(Node<T> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        size--;
+    }
+
+    /**
+     * 时间轮中的条目，可被继承以附加其他字段
+     * @param <T> 条目值类型
+     */
+    public static class Node<T> {
+        private final T value;
+        private long deadline;
+        private Node<T> prev;
+        private Node<T> next;
+
+        public Node(T value) {
+            this.value = value;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * 获取安排的到期时间
+         * @return 到期时间（毫秒）
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * 是否已安排在时间轮中
+         * @return 是否已安排
+         */
+        public boolean isScheduled() {
+            return next != null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.demo.core.config;
 
+import com.demo.core.filter.LexiconManager;
 import com.demo.core.filter.TextContentFilter;
 import com.demo.core.registry.ModelInfo;
 import com.demo.core.registry.ModelRegistry;
@@ -19,10 +20,13 @@ public class ApplicationInitializer implements ApplicationRunner {
     
     private final ModelRegistry modelRegistry;
     private final TextContentFilter textContentFilter;
+    private final LexiconManager lexiconManager;
     
-    public ApplicationInitializer(ModelRegistry modelRegistry, TextContentFilter textContentFilter) {
+    public ApplicationInitializer(ModelRegistry modelRegistry, TextContentFilter textContentFilter,
+                                  LexiconManager lexiconManager) {
         this.modelRegistry = modelRegistry;
         this.textContentFilter = textContentFilter;
+        this.lexiconManager = lexiconManager;
     }
     
     @Override
@@ -39,6 +43,8 @@ public class ApplicationInitializer implements ApplicationRunner {
      */
     private void initializeContentFilters() {
         textContentFilter.initialize();
+        // 加载外部敏感词库（如已配置），并定时检查更新
+        lexiconManager.start();
         // 可以初始化更多过滤器
     }
     
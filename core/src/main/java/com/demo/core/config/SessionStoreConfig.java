@@ -0,0 +1,60 @@
+package com.demo.core.config;
+
+import com.demo.core.context.store.InMemorySessionReplicationClient;
+import com.demo.core.context.store.MappedSessionStore;
+import com.demo.core.context.store.NearCachedSessionStore;
+import com.demo.core.context.store.ReplicatedSessionStore;
+import com.demo.core.context.store.SessionReplicationClient;
+import com.demo.core.context.store.SessionStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * 会话存储配置类，根据context.session-store.type创建会话存储
+ * none（默认）：会话只保存在本节点内存中；mapped：本地内存映射文件，重启后会话不丢失；
+ * replicated：多节点共享存储加近端缓存，未提供SessionReplicationClient时使用进程内替身
+ */
+@Configuration
+public class SessionStoreConfig {
+
+    private static final int MB = 1024 * 1024;
+
+    // 内存映射文件以int寻址，最大映射大小不能超过2GB
+    private static final int MAX_MAPPED_SIZE_MB = Integer.MAX_VALUE / MB;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "context.session-store.type", havingValue = "mapped")
+    public SessionStore mappedSessionStore(@Value("${context.session-store.path:data/sessions.db}") String path,
+                                           @Value("${context.session-store.initial-size-mb:16}") int initialSizeMb,
+                                           @Value("${context.session-store.max-size-mb:1024}") int maxSizeMb) {
+        if (initialSizeMb <= 0 || maxSizeMb < initialSizeMb || maxSizeMb > MAX_MAPPED_SIZE_MB) {
+            throw new IllegalArgumentException("Invalid context.session-store size: initial-size-mb=" + initialSizeMb
+                    + ", max-size-mb=" + maxSizeMb + " (expected 0 < initial-size-mb <= max-size-mb <= "
+                    + MAX_MAPPED_SIZE_MB + ")");
+        }
+        return new MappedSessionStore(Paths.get(path), initialSizeMb * MB, maxSizeMb * MB);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "context.session-store.type", havingValue = "replicated")
+    @ConditionalOnMissingBean
+    public SessionReplicationClient sessionReplicationClient() {
+        return new InMemorySessionReplicationClient();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "context.session-store.type", havingValue = "replicated")
+    public SessionStore replicatedSessionStore(SessionReplicationClient client,
+                                               @Value("${context.session-store.near-cache-size:10000}") int nearCacheSize,
+                                               @Value("${context.session-store.near-cache-ttl-ms:5000}") long nearCacheTtlMillis) {
+        // 近端缓存在订阅失效通知的监听器中失效，见NearCachedSessionStore#addInvalidationListener
+        return new NearCachedSessionStore(new ReplicatedSessionStore(client),
+                nearCacheSize, Duration.ofMillis(nearCacheTtlMillis));
+    }
+}
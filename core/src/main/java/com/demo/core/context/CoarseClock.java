@@ -0,0 +1,67 @@
+package com.demo.core.context;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 粗粒度时钟，由后台守护线程定期刷新并缓存在volatile字段中
+ * 读取只是一次volatile读，不调用系统时钟也不分配对象，适用于访问时间记录等不需要精确时间的高频场景。
+ * 每次刷新都读取系统时间，跟随NTP等对系统时间的校正，可以与其他节点记录的时间比较；
+ * 系统时间回拨时保持已经读到的最大值，单调不减
+ */
+public final class CoarseClock {
+
+    // 刷新间隔（毫秒），也是该时钟的精度
+    public static final long RESOLUTION_MILLIS = 10;
+
+    // 当前时间（毫秒）
+    private static volatile long currentMillis = System.currentTimeMillis();
+
+    static {
+        Thread ticker = new Thread(CoarseClock::run, "coarse-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    private CoarseClock() {
+    }
+
+    /**
+     * 获取当前时间
+     * @return Unix纪元毫秒数，精度为RESOLUTION_MILLIS
+     */
+    public static long currentTimeMillis() {
+        return currentMillis;
+    }
+
+    /**
+     * 将毫秒时间转换为本地时间，仅在需要展示时使用
+     * @param millis Unix纪元毫秒数
+     * @return 本地时间
+     */
+    public static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 计算刷新后的时间
+     * @param current 当前缓存的时间
+     * @param systemMillis 刚读取的系统时间
+     * @return 两者中的较大值，系统时间回拨时保持不变
+     */
+    static long advance(long current, long systemMillis) {
+        return Math.max(current, systemMillis);
+    }
+
+    private static void run() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(RESOLUTION_MILLIS);
+        while (true) {
+            LockSupport.parkNanos(intervalNanos);
+            // 只有刷新线程写入，读-比较-写不需要原子操作
+            currentMillis = advance(currentMillis, System.currentTimeMillis());
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.demo.core.context;
 
+import com.demo.core.context.store.SessionSnapshot;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -14,26 +21,99 @@ public class SessionContext {
     // 会话唯一标识
     private final String sessionId;
     
-    // 会话创建时间
-    private final LocalDateTime createdAt;
+    // 会话创建时间（Unix纪元毫秒数）
+    private final long createdAtMillis;
     
-    // 最后访问时间
-    private LocalDateTime lastAccessedAt;
+    // 最后访问时间（Unix纪元毫秒数），取自CoarseClock，访问时只写一个volatile long，只能通过touch更新
+    @Setter(AccessLevel.NONE)
+    private volatile long lastAccessMillis;
     
     // 会话属性存储
     private final Map<String, Object> attributes;
     
+    // 属性是否有尚未写入会话存储的修改，由属性修改和生成快照维护
+    @Setter(AccessLevel.NONE)
+    private volatile boolean dirty;
+    
+    // 自上次生成快照以来修改过的属性键，从会话存储刷新时这些键保留本地值
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Set<String> modifiedKeys = ConcurrentHashMap.newKeySet();
+    
+    // 自上次生成快照以来是否清空过属性，清空过时刷新以本地属性为准
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile boolean cleared;
+    
+    // 属性从未修改变为已修改时的回调，由TenantContextManager设置，用于将会话加入待持久化队列
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile Runnable modificationListener;
+    
     /**
      * 构造函数
      * @param sessionId 会话ID
      */
     public SessionContext(String sessionId) {
+        this(sessionId, CoarseClock.currentTimeMillis());
+    }
+    
+    /**
+     * 构造函数
+     * @param sessionId 会话ID
+     * @param nowMillis 创建时间（Unix纪元毫秒数）
+     */
+    SessionContext(String sessionId, long nowMillis) {
         this.sessionId = sessionId;
-        this.createdAt = LocalDateTime.now();
-        this.lastAccessedAt = LocalDateTime.now();
+        this.createdAtMillis = nowMillis;
+        this.lastAccessMillis = nowMillis;
         this.attributes = new ConcurrentHashMap<>();
     }
     
+    /**
+     * 从会话存储中的快照恢复会话
+     * @param sessionId 会话ID
+     * @param nowMillis 当前时间（Unix纪元毫秒数）
+     * @param snapshot 会话快照
+     */
+    SessionContext(String sessionId, long nowMillis, SessionSnapshot snapshot) {
+        this.sessionId = sessionId;
+        this.createdAtMillis = snapshot.getCreatedAtMillis();
+        this.lastAccessMillis = nowMillis;
+        this.attributes = new ConcurrentHashMap<>(snapshot.getAttributes());
+    }
+    
+    /**
+     * 获取会话创建时间
+     * @return 创建时间
+     */
+    public LocalDateTime getCreatedAt() {
+        return CoarseClock.toLocalDateTime(createdAtMillis);
+    }
+    
+    /**
+     * 获取最后访问时间
+     * @return 最后访问时间
+     */
+    public LocalDateTime getLastAccessedAt() {
+        return CoarseClock.toLocalDateTime(lastAccessMillis);
+    }
+    
+    /**
+     * 判断会话是否在指定时间之前最后一次被访问
+     * @param cutoffMillis 截止时间（Unix纪元毫秒数）
+     * @return 是否空闲
+     */
+    public boolean isIdleSince(long cutoffMillis) {
+        return lastAccessMillis < cutoffMillis;
+    }
+    
     /**
      * 设置会话属性
      * @param key 属性键
@@ -42,7 +122,10 @@ public class SessionContext {
      */
     public Object setAttribute(String key, Object value) {
         updateLastAccessedAt();
-        return attributes.put(key, value);
+        Object previous = attributes.put(key, value);
+        modifiedKeys.add(key);
+        markModified();
+        return previous;
     }
     
     /**
@@ -62,7 +145,12 @@ public class SessionContext {
      */
     public Object removeAttribute(String key) {
         updateLastAccessedAt();
-        return attributes.remove(key);
+        Object removed = attributes.remove(key);
+        if (removed != null) {
+            modifiedKeys.add(key);
+            markModified();
+        }
+        return removed;
     }
     
     /**
@@ -80,13 +168,76 @@ public class SessionContext {
      */
     public void clearAttributes() {
         updateLastAccessedAt();
+        cleared = true;
+        modifiedKeys.clear();
         attributes.clear();
+        markModified();
     }
     
     /**
      * 更新最后访问时间
      */
     private void updateLastAccessedAt() {
-        this.lastAccessedAt = LocalDateTime.now();
+        touch(CoarseClock.currentTimeMillis());
+    }
+    
+    /**
+     * 设置属性修改回调
+     * @param modificationListener 回调
+     */
+    void setModificationListener(Runnable modificationListener) {
+        this.modificationListener = modificationListener;
+    }
+    
+    /**
+     * 生成会话快照并清除修改标记，快照生成后的修改会再次标记并触发回调
+     * @return 会话快照
+     */
+    SessionSnapshot snapshot() {
+        dirty = false;
+        cleared = false;
+        modifiedKeys.clear();
+        return new SessionSnapshot(createdAtMillis, lastAccessMillis, attributes);
+    }
+    
+    /**
+     * 用会话存储中其他节点写入的快照刷新属性
+     * 自上次生成快照以来本地修改过的属性保留本地值，之后写回存储时与其他节点的修改合并；其余属性以快照为准
+     * @param snapshot 会话存储中的快照
+     */
+    void refresh(SessionSnapshot snapshot) {
+        if (cleared) {
+            return;
+        }
+        Map<String, Object> stored = snapshot.getAttributes();
+        for (Map.Entry<String, Object> entry : stored.entrySet()) {
+            if (!modifiedKeys.contains(entry.getKey())) {
+                attributes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        attributes.keySet().removeIf(key -> !stored.containsKey(key) && !modifiedKeys.contains(key));
+    }
+    
+    /**
+     * 标记属性已修改，只在从未修改变为已修改时触发回调
+     */
+    private void markModified() {
+        if (!dirty) {
+            dirty = true;
+            Runnable listener = modificationListener;
+            if (listener != null) {
+                listener.run();
+            }
+        }
+    }
+    
+    /**
+     * 记录访问，同一时钟刻度内的重复访问不重复写入
+     * @param nowMillis 当前时间（Unix纪元毫秒数）
+     */
+    void touch(long nowMillis) {
+        if (lastAccessMillis != nowMillis) {
+            lastAccessMillis = nowMillis;
+        }
     }
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.demo.core.context;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 租户上下文类，存储特定租户的上下文信息
@@ -15,11 +18,12 @@ public class TenantContext {
     // 租户唯一标识
     private final String tenantId;
     
-    // 上下文创建时间
-    private final LocalDateTime createdAt;
+    // 上下文创建时间（Unix纪元毫秒数）
+    private final long createdAtMillis;
     
-    // 最后访问时间
-    private LocalDateTime lastAccessedAt;
+    // 最后访问时间（Unix纪元毫秒数），取自CoarseClock，访问时只写一个volatile long，只能通过touch更新
+    @Setter(AccessLevel.NONE)
+    private volatile long lastAccessMillis;
     
     // 会话上下文存储
     private final Map<String, SessionContext> sessions;
@@ -32,13 +36,38 @@ public class TenantContext {
      * @param tenantId 租户唯一标识
      */
     public TenantContext(String tenantId) {
+        this(tenantId, CoarseClock.currentTimeMillis());
+    }
+    
+    /**
+     * 构造函数
+     * @param tenantId 租户唯一标识
+     * @param nowMillis 创建时间（Unix纪元毫秒数）
+     */
+    TenantContext(String tenantId, long nowMillis) {
         this.tenantId = tenantId;
-        this.createdAt = LocalDateTime.now();
-        this.lastAccessedAt = LocalDateTime.now();
+        this.createdAtMillis = nowMillis;
+        this.lastAccessMillis = nowMillis;
         this.sessions = new ConcurrentHashMap<>();
         this.configuration = new ConcurrentHashMap<>();
     }
     
+    /**
+     * 获取上下文创建时间
+     * @return 创建时间
+     */
+    public LocalDateTime getCreatedAt() {
+        return CoarseClock.toLocalDateTime(createdAtMillis);
+    }
+    
+    /**
+     * 获取最后访问时间
+     * @return 最后访问时间
+     */
+    public LocalDateTime getLastAccessedAt() {
+        return CoarseClock.toLocalDateTime(lastAccessMillis);
+    }
+    
     /**
      * 创建或获取会话上下文
      * @param sessionId 会话ID，如果为null则生成新的会话ID
@@ -47,7 +76,7 @@ public class TenantContext {
     public SessionContext getOrCreateSession(String sessionId) {
         updateLastAccessedAt();
         String effectiveSessionId = sessionId != null ? sessionId : UUID.randomUUID().toString();
-        return sessions.computeIfAbsent(effectiveSessionId, id -> new SessionContext(id));
+        return sessions.computeIfAbsent(effectiveSessionId, SessionContext::new);
     }
     
     /**
@@ -75,14 +104,24 @@ public class TenantContext {
      * @param maxInactiveTimeMinutes 最大不活动时间（分钟）
      */
     public void cleanupExpiredSessions(int maxInactiveTimeMinutes) {
-        LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(maxInactiveTimeMinutes);
-        sessions.entrySet().removeIf(entry -> entry.getValue().getLastAccessedAt().isBefore(cutoffTime));
+        long cutoffMillis = CoarseClock.currentTimeMillis() - TimeUnit.MINUTES.toMillis(maxInactiveTimeMinutes);
+        sessions.values().removeIf(session -> session.isIdleSince(cutoffMillis));
     }
     
     /**
      * 更新最后访问时间
      */
     private void updateLastAccessedAt() {
-        this.lastAccessedAt = LocalDateTime.now();
+        touch(CoarseClock.currentTimeMillis());
+    }
+    
+    /**
+     * 记录访问，同一时钟刻度内的重复访问不重复写入
+     * @param nowMillis 当前时间（Unix纪元毫秒数）
+     */
+    void touch(long nowMillis) {
+        if (lastAccessMillis != nowMillis) {
+            lastAccessMillis = nowMillis;
+        }
     }
 }
\ No newline at end of file
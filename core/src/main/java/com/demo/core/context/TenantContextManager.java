@@ -0,0 +1,749 @@
+package com.demo.core.context;
+
+import com.demo.core.cache.BoundedCache.RemovalCause;
+import com.demo.core.cache.TimerWheel;
+import com.demo.core.context.store.SessionSnapshot;
+import com.demo.core.context.store.SessionStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 租户上下文管理器，统一管理租户上下文和会话上下文的生命周期
+ * 租户数量和每个租户的会话数量都有上限，超出时按CLOCK（二次机会）算法淘汰最近未被访问的条目；
+ * 超过空闲时间未被访问的条目由分层时间轮到期清理，不需要扫描全部会话。
+ * 查找已存在的条目不加锁，只在上下文上记录访问时间，到期时再检查是否确实空闲，未空闲的条目重新安排到期时间。
+ * 配置了会话存储时，本节点不存在的会话从存储中恢复，属性被修改的会话在定时任务中批量写回存储。
+ * 共享存储通知会话被其他节点修改后，本节点的会话副本在下次访问或写回前从存储中刷新，本地未写回的修改与存储中的内容合并
+ */
+@Component
+public class TenantContextManager {
+
+    // 所有租户
+    private final Map<String, TenantEntry> tenants = new ConcurrentHashMap<>();
+
+    // 淘汰监听器
+    private final List<ContextEvictionListener> listeners = new CopyOnWriteArrayList<>();
+
+    // 容量和空闲时间配置
+    private final int maxTenants;
+    private final int maxSessionsPerTenant;
+    private final long sessionIdleTimeoutMillis;
+    private final long tenantIdleTimeoutMillis;
+    private final long expiryIntervalMillis;
+
+    // 时钟（毫秒）
+    private final LongSupplier clock;
+
+    // 会话存储，为null时会话只保存在本节点内存中
+    private final SessionStore sessionStore;
+
+    // 属性已修改、等待写回会话存储的会话
+    private final Queue<SessionEntry> modifiedSessions = new ConcurrentLinkedQueue<>();
+
+    // 本节点已写入、尚未收到对应失效通知的次数，键为SessionStore#key生成的存储键
+    private final Map<String, Integer> pendingOwnWrites = new ConcurrentHashMap<>();
+
+    // 以下字段由本对象的锁保护
+    private final TimerWheel<Object> timerWheel;
+
+    // 租户的CLOCK淘汰队列
+    private final ClockQueue tenantQueue = new ClockQueue();
+
+    private int sessionCount;
+
+    private Scheduler scheduler;
+    private Disposable expiryTask;
+
+    /**
+     * 构造函数
+     * @param maxTenants 最大租户数量
+     * @param maxSessionsPerTenant 每个租户的最大会话数量
+     * @param sessionIdleTimeoutMillis 会话空闲超时时间（毫秒）
+     * @param tenantIdleTimeoutMillis 租户空闲超时时间（毫秒）
+     * @param expiryIntervalMillis 清理到期条目的间隔（毫秒）
+     * @param sessionStoreProvider 会话存储，未配置时会话只保存在本节点内存中
+     */
+    @Autowired
+    public TenantContextManager(@Value("${context.max-tenants:10000}") int maxTenants,
+                                @Value("${context.max-sessions-per-tenant:1000}") int maxSessionsPerTenant,
+                                @Value("${context.session-idle-timeout-ms:1800000}") long sessionIdleTimeoutMillis,
+                                @Value("${context.tenant-idle-timeout-ms:3600000}") long tenantIdleTimeoutMillis,
+                                @Value("${context.expiry-interval-ms:1000}") long expiryIntervalMillis,
+                                ObjectProvider<SessionStore> sessionStoreProvider) {
+        this(maxTenants, maxSessionsPerTenant, sessionIdleTimeoutMillis, tenantIdleTimeoutMillis,
+                expiryIntervalMillis, CoarseClock::currentTimeMillis, sessionStoreProvider.getIfAvailable());
+    }
+
+    /**
+     * 构造函数
+     * @param maxTenants 最大租户数量
+     * @param maxSessionsPerTenant 每个租户的最大会话数量
+     * @param sessionIdleTimeoutMillis 会话空闲超时时间（毫秒）
+     * @param tenantIdleTimeoutMillis 租户空闲超时时间（毫秒）
+     * @param expiryIntervalMillis 清理到期条目的间隔（毫秒）
+     * @param clock 时钟（Unix纪元毫秒数），生产环境应与上下文自身记录访问时间所用的CoarseClock一致
+     */
+    public TenantContextManager(int maxTenants, int maxSessionsPerTenant, long sessionIdleTimeoutMillis,
+                                long tenantIdleTimeoutMillis, long expiryIntervalMillis, LongSupplier clock) {
+        this(maxTenants, maxSessionsPerTenant, sessionIdleTimeoutMillis, tenantIdleTimeoutMillis,
+                expiryIntervalMillis, clock, null);
+    }
+
+    /**
+     * 构造函数
+     * @param maxTenants 最大租户数量
+     * @param maxSessionsPerTenant 每个租户的最大会话数量
+     * @param sessionIdleTimeoutMillis 会话空闲超时时间（毫秒）
+     * @param tenantIdleTimeoutMillis 租户空闲超时时间（毫秒）
+     * @param expiryIntervalMillis 清理到期条目和写回会话存储的间隔（毫秒）
+     * @param clock 时钟（Unix纪元毫秒数），生产环境应与上下文自身记录访问时间所用的CoarseClock一致
+     * @param sessionStore 会话存储，为null时会话只保存在本节点内存中
+     */
+    public TenantContextManager(int maxTenants, int maxSessionsPerTenant, long sessionIdleTimeoutMillis,
+                                long tenantIdleTimeoutMillis, long expiryIntervalMillis, LongSupplier clock,
+                                SessionStore sessionStore) {
+        if (maxTenants <= 0 || maxSessionsPerTenant <= 0) {
+            throw new IllegalArgumentException("Context capacity must be positive");
+        }
+        if (sessionIdleTimeoutMillis <= 0 || tenantIdleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Idle timeout must be positive");
+        }
+        this.maxTenants = maxTenants;
+        this.maxSessionsPerTenant = maxSessionsPerTenant;
+        this.sessionIdleTimeoutMillis = sessionIdleTimeoutMillis;
+        this.tenantIdleTimeoutMillis = tenantIdleTimeoutMillis;
+        this.expiryIntervalMillis = expiryIntervalMillis;
+        this.clock = clock;
+        this.sessionStore = sessionStore;
+        this.timerWheel = new TimerWheel<>(clock.getAsLong());
+        if (sessionStore != null) {
+            sessionStore.addInvalidationListener(this::onInvalidated);
+        }
+    }
+
+    /**
+     * 启动定时清理任务
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (expiryTask != null || expiryIntervalMillis <= 0) {
+            return;
+        }
+        scheduler = Schedulers.newSingle("context-expiry", true);
+        expiryTask = scheduler.schedulePeriodically(this::expire,
+                expiryIntervalMillis, expiryIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止定时清理任务，并将尚未写回的会话写入会话存储
+     */
+    @PreDestroy
+    public void stop() {
+        synchronized (this) {
+            if (expiryTask != null) {
+                expiryTask.dispose();
+                expiryTask = null;
+            }
+            if (scheduler != null) {
+                scheduler.dispose();
+                scheduler = null;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * 添加淘汰监听器，条目因容量、到期或显式删除被移除时在锁外回调
+     * @param listener 监听器
+     */
+    public void addEvictionListener(ContextEvictionListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 获取租户上下文
+     * @param tenantId 租户ID
+     * @return 租户上下文，不存在时返回null
+     */
+    public TenantContext getTenant(String tenantId) {
+        TenantEntry tenant = tenants.get(tenantId);
+        if (tenant == null) {
+            return null;
+        }
+        touch(tenant, clock.getAsLong());
+        return tenant.context();
+    }
+
+    /**
+     * 获取或创建租户上下文，租户数量达到上限时淘汰最近未被访问的租户
+     * @param tenantId 租户ID
+     * @return 租户上下文
+     */
+    public TenantContext getOrCreateTenant(String tenantId) {
+        return getOrCreateTenantEntry(tenantId).context();
+    }
+
+    /**
+     * 获取会话上下文
+     * @param tenantId 租户ID
+     * @param sessionId 会话ID
+     * @return 会话上下文，不存在时返回null
+     */
+    public SessionContext getSession(String tenantId, String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+        TenantEntry tenant = tenants.get(tenantId);
+        SessionEntry session = tenant != null ? tenant.sessions.get(sessionId) : null;
+        if (session != null) {
+            long now = clock.getAsLong();
+            touch(tenant, now);
+            touch(session, now);
+            if (session.stale && !refresh(session)) {
+                // 会话已被其他节点删除
+                return null;
+            }
+            return session.context();
+        }
+        // 本节点不存在的会话可能由其他节点或重启前的本节点创建
+        SessionSnapshot snapshot = loadSnapshot(tenantId, sessionId);
+        return snapshot != null ? createSession(tenantId, sessionId, snapshot) : null;
+    }
+
+    /**
+     * 获取或创建会话上下文，租户的会话数量达到上限时淘汰该租户最近未被访问的会话
+     * @param tenantId 租户ID
+     * @param sessionId 会话ID，为null时生成新的会话ID
+     * @return 会话上下文
+     */
+    public SessionContext getOrCreateSession(String tenantId, String sessionId) {
+        if (sessionId != null) {
+            SessionContext existing = getSession(tenantId, sessionId);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        String effectiveSessionId = sessionId != null ? sessionId : UUID.randomUUID().toString();
+        return createSession(tenantId, effectiveSessionId, null);
+    }
+
+    /**
+     * 删除会话上下文
+     * @param tenantId 租户ID
+     * @param sessionId 会话ID
+     * @return 是否删除成功
+     */
+    public boolean removeSession(String tenantId, String sessionId) {
+        List<Removal> removals = new ArrayList<>();
+        synchronized (this) {
+            TenantEntry tenant = tenants.get(tenantId);
+            SessionEntry session = tenant != null && sessionId != null ? tenant.sessions.get(sessionId) : null;
+            if (session == null) {
+                return false;
+            }
+            removeSessionLocked(session, RemovalCause.EXPLICIT, removals);
+        }
+        onRemoved(removals);
+        return true;
+    }
+
+    /**
+     * 删除租户上下文及其所有会话
+     * @param tenantId 租户ID
+     * @return 是否删除成功
+     */
+    public boolean removeTenant(String tenantId) {
+        List<Removal> removals = new ArrayList<>();
+        synchronized (this) {
+            TenantEntry tenant = tenants.get(tenantId);
+            if (tenant == null) {
+                return false;
+            }
+            removeTenantLocked(tenant, RemovalCause.EXPLICIT, removals);
+        }
+        onRemoved(removals);
+        return true;
+    }
+
+    /**
+     * 清理空闲超时的租户和会话，由定时任务调用
+     * @return 被清理的条目数量
+     */
+    public int expire() {
+        List<Removal> removals = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.getAsLong();
+            timerWheel.advance(now, node -> {
+                if (node instanceof SessionEntry) {
+                    SessionEntry session = (SessionEntry) node;
+                    long deadline = session.lastAccessMillis() + sessionIdleTimeoutMillis;
+                    if (deadline > now) {
+                        timerWheel.schedule(session, deadline);
+                    } else {
+                        removeSessionLocked(session, RemovalCause.EXPIRED, removals);
+                    }
+                } else {
+                    TenantEntry tenant = (TenantEntry) node;
+                    long deadline = tenant.lastAccessMillis() + tenantIdleTimeoutMillis;
+                    if (deadline > now) {
+                        timerWheel.schedule(tenant, deadline);
+                    } else {
+                        removeTenantLocked(tenant, RemovalCause.EXPIRED, removals);
+                    }
+                }
+            });
+        }
+        onRemoved(removals);
+        flush();
+        return removals.size();
+    }
+
+    /**
+     * 将属性已修改的会话写回会话存储，由定时任务调用
+     * @return 写回的会话数量
+     */
+    public int flush() {
+        if (sessionStore == null) {
+            modifiedSessions.clear();
+            return 0;
+        }
+        int flushed = 0;
+        SessionEntry session;
+        while ((session = modifiedSessions.poll()) != null) {
+            TenantEntry tenant = session.tenant;
+            String sessionId = session.context().getSessionId();
+            // 已被移除的会话在移除时处理
+            if (session.context().isDirty() && tenant.sessions.get(sessionId) == session) {
+                // 其他节点修改过的会话先合并存储中的内容，避免用旧副本覆盖
+                if (session.stale && !refresh(session)) {
+                    continue;
+                }
+                saveSnapshot(tenant.context().getTenantId(), session.context());
+                flushed++;
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * 获取租户数量
+     * @return 租户数量
+     */
+    public int getTenantCount() {
+        return tenants.size();
+    }
+
+    /**
+     * 获取所有租户的会话总数
+     * @return 会话数量
+     */
+    public synchronized int getSessionCount() {
+        return sessionCount;
+    }
+
+    private SessionContext createSession(String tenantId, String sessionId, SessionSnapshot snapshot) {
+        List<Removal> removals = new ArrayList<>();
+        SessionEntry session;
+        synchronized (this) {
+            TenantEntry tenant = getOrCreateTenantLocked(tenantId, removals);
+            long now = clock.getAsLong();
+            touch(tenant, now);
+            session = tenant.sessions.get(sessionId);
+            if (session != null) {
+                touch(session, now);
+            } else {
+                while (tenant.sessions.size() >= maxSessionsPerTenant) {
+                    SessionEntry victim = (SessionEntry) tenant.sessionQueue.evictionCandidate();
+                    removeSessionLocked(victim, RemovalCause.SIZE, removals);
+                }
+                SessionContext context = snapshot != null
+                        ? new SessionContext(sessionId, now, snapshot)
+                        : new SessionContext(sessionId, now);
+                SessionEntry entry = new SessionEntry(tenant, context);
+                if (sessionStore != null) {
+                    context.setModificationListener(() -> modifiedSessions.offer(entry));
+                }
+                tenant.sessions.put(sessionId, entry);
+                tenant.context().getSessions().put(sessionId, context);
+                tenant.sessionQueue.add(entry);
+                timerWheel.schedule(entry, now + sessionIdleTimeoutMillis);
+                sessionCount++;
+                session = entry;
+            }
+        }
+        onRemoved(removals);
+        return session.context();
+    }
+
+    private TenantEntry getOrCreateTenantEntry(String tenantId) {
+        TenantEntry tenant = tenants.get(tenantId);
+        if (tenant != null) {
+            touch(tenant, clock.getAsLong());
+            return tenant;
+        }
+        List<Removal> removals = new ArrayList<>();
+        synchronized (this) {
+            tenant = getOrCreateTenantLocked(tenantId, removals);
+        }
+        onRemoved(removals);
+        return tenant;
+    }
+
+    private TenantEntry getOrCreateTenantLocked(String tenantId, List<Removal> removals) {
+        TenantEntry tenant = tenants.get(tenantId);
+        long now = clock.getAsLong();
+        if (tenant != null) {
+            touch(tenant, now);
+            return tenant;
+        }
+        while (tenants.size() >= maxTenants) {
+            removeTenantLocked((TenantEntry) tenantQueue.evictionCandidate(), RemovalCause.SIZE, removals);
+        }
+        tenant = new TenantEntry(new TenantContext(tenantId, now));
+        tenants.put(tenantId, tenant);
+        tenantQueue.add(tenant);
+        timerWheel.schedule(tenant, now + tenantIdleTimeoutMillis);
+        return tenant;
+    }
+
+    private void removeSessionLocked(SessionEntry session, RemovalCause cause, List<Removal> removals) {
+        TenantEntry tenant = session.tenant;
+        String sessionId = session.context().getSessionId();
+        if (!tenant.sessions.remove(sessionId, session)) {
+            return;
+        }
+        tenant.context().getSessions().remove(sessionId, session.context());
+        tenant.sessionQueue.remove(session);
+        timerWheel.deschedule(session);
+        sessionCount--;
+        removals.add(new Removal(tenant.context(), session.context(), cause));
+    }
+
+    private void removeTenantLocked(TenantEntry tenant, RemovalCause cause, List<Removal> removals) {
+        if (!tenants.remove(tenant.context().getTenantId(), tenant)) {
+            return;
+        }
+        for (SessionEntry session : new ArrayList<>(tenant.sessions.values())) {
+            removeSessionLocked(session, cause, removals);
+        }
+        tenantQueue.remove(tenant);
+        timerWheel.deschedule(tenant);
+        removals.add(new Removal(tenant.context(), null, cause));
+    }
+
+    /**
+     * 记录访问，不加锁
+     */
+    private static void touch(ClockEntry entry, long now) {
+        entry.touch(now);
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+    }
+
+    /**
+     * 会话存储通知会话快照被修改或删除，标记本节点的副本需要刷新
+     * 本节点自身写回引起的通知直接忽略，本地副本已经是最新内容
+     */
+    private void onInvalidated(String tenantId, String sessionId) {
+        if (consumeOwnWrite(SessionStore.key(tenantId, sessionId))) {
+            return;
+        }
+        TenantEntry tenant = tenants.get(tenantId);
+        SessionEntry session = tenant != null ? tenant.sessions.get(sessionId) : null;
+        if (session != null) {
+            session.stale = true;
+        }
+    }
+
+    /**
+     * 从会话存储刷新本节点的会话副本，不持有锁
+     * @return 会话是否仍然存在，存储中的会话已被删除时同时移除本地副本并返回false
+     */
+    private boolean refresh(SessionEntry session) {
+        // 先清除标记，刷新期间收到的通知会再次标记
+        session.stale = false;
+        String tenantId = session.tenant.context().getTenantId();
+        SessionSnapshot snapshot;
+        try {
+            snapshot = sessionStore.load(tenantId, session.context().getSessionId());
+        } catch (RuntimeException e) {
+            // 存储不可用时继续使用本地副本
+            System.err.println("Failed to refresh session " + session.context().getSessionId() + ": " + e.getMessage());
+            return true;
+        }
+        if (snapshot != null) {
+            session.context().refresh(snapshot);
+            return true;
+        }
+        List<Removal> removals = new ArrayList<>();
+        synchronized (this) {
+            removeSessionLocked(session, RemovalCause.EXPLICIT, removals);
+        }
+        onRemoved(removals);
+        return false;
+    }
+
+    /**
+     * 在锁外处理移除的条目：同步会话存储并通知监听器
+     * 显式删除的会话从存储中删除；因容量被淘汰的会话写回存储，之后访问时可以恢复。
+     * 空闲到期的会话在本地存储中删除，在共享存储中只写回，其他节点可能仍在使用，由共享存储的过期机制清理
+     */
+    private void onRemoved(List<Removal> removals) {
+        if (removals.isEmpty()) {
+            return;
+        }
+        if (sessionStore != null) {
+            for (Removal removal : removals) {
+                if (removal.session == null) {
+                    continue;
+                }
+                boolean keep = removal.cause == RemovalCause.SIZE
+                        || (removal.cause == RemovalCause.EXPIRED && sessionStore.isShared());
+                if (!keep) {
+                    deleteSnapshot(removal.tenant.getTenantId(), removal.session.getSessionId());
+                } else if (removal.session.isDirty()) {
+                    saveSnapshot(removal.tenant.getTenantId(), removal.session);
+                }
+            }
+        }
+        for (Removal removal : removals) {
+            for (ContextEvictionListener listener : listeners) {
+                try {
+                    if (removal.session != null) {
+                        listener.onSessionRemoved(removal.tenant, removal.session, removal.cause);
+                    } else {
+                        listener.onTenantRemoved(removal.tenant, removal.cause);
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Context eviction listener failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // 会话存储不可用时降级为只使用本节点内存，不影响请求处理
+    private SessionSnapshot loadSnapshot(String tenantId, String sessionId) {
+        if (sessionStore == null) {
+            return null;
+        }
+        try {
+            return sessionStore.load(tenantId, sessionId);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to load session " + sessionId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveSnapshot(String tenantId, SessionContext session) {
+        // 写入前登记，通知可能在save返回之前同步到达
+        String key = SessionStore.key(tenantId, session.getSessionId());
+        pendingOwnWrites.merge(key, 1, Integer::sum);
+        try {
+            sessionStore.save(tenantId, session.getSessionId(), session.snapshot());
+        } catch (RuntimeException e) {
+            consumeOwnWrite(key);
+            System.err.println("Failed to save session " + session.getSessionId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 抵消一次本节点的写入
+     * @param key 存储键
+     * @return 是否存在尚未抵消的本节点写入
+     */
+    private boolean consumeOwnWrite(String key) {
+        boolean[] own = new boolean[1];
+        pendingOwnWrites.computeIfPresent(key, (k, count) -> {
+            own[0] = true;
+            return count > 1 ? count - 1 : null;
+        });
+        return own[0];
+    }
+
+    private void deleteSnapshot(String tenantId, String sessionId) {
+        try {
+            sessionStore.delete(tenantId, sessionId);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to delete session " + sessionId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 上下文淘汰监听器
+     */
+    public interface ContextEvictionListener {
+
+        /**
+         * 会话被移除时回调，租户被移除时其下每个会话都会先回调一次
+         * @param tenant 所属租户上下文
+         * @param session 会话上下文
+         * @param cause 移除原因
+         */
+        void onSessionRemoved(TenantContext tenant, SessionContext session, RemovalCause cause);
+
+        /**
+         * 租户被移除时回调
+         * @param tenant 租户上下文
+         * @param cause 移除原因
+         */
+        default void onTenantRemoved(TenantContext tenant, RemovalCause cause) {
+        }
+    }
+
+    /**
+     * 同时位于时间轮和CLOCK淘汰队列中的条目
+     */
+    private abstract static class ClockEntry extends TimerWheel.Node<Object> {
+        // 自上次被淘汰算法检查以来是否被访问过
+        volatile boolean referenced;
+
+        // CLOCK淘汰队列中的前后条目，由管理器的锁保护
+        ClockEntry queuePrev;
+        ClockEntry queueNext;
+
+        ClockEntry(Object value) {
+            super(value);
+        }
+
+        /**
+         * 在上下文上记录访问时间，上下文自身的属性访问也会更新该时间
+         */
+        abstract void touch(long now);
+
+        abstract long lastAccessMillis();
+    }
+
+    private static final class TenantEntry extends ClockEntry {
+        private final Map<String, SessionEntry> sessions = new ConcurrentHashMap<>();
+        private final ClockQueue sessionQueue = new ClockQueue();
+
+        TenantEntry(TenantContext context) {
+            super(context);
+        }
+
+        TenantContext context() {
+            return (TenantContext) getValue();
+        }
+
+        @Override
+        void touch(long now) {
+            context().touch(now);
+        }
+
+        @Override
+        long lastAccessMillis() {
+            return context().getLastAccessMillis();
+        }
+    }
+
+    private static final class SessionEntry extends ClockEntry {
+        private final TenantEntry tenant;
+
+        // 会话存储中的快照已被修改，本地副本需要在下次访问或写回前刷新
+        volatile boolean stale;
+
+        SessionEntry(TenantEntry tenant, SessionContext context) {
+            super(context);
+            this.tenant = tenant;
+        }
+
+        SessionContext context() {
+            return (SessionContext) getValue();
+        }
+
+        @Override
+        void touch(long now) {
+            context().touch(now);
+        }
+
+        @Override
+        long lastAccessMillis() {
+            return context().getLastAccessMillis();
+        }
+    }
+
+    /**
+     * CLOCK淘汰队列，按加入顺序排列的双向链表
+     * 选择淘汰对象时从队首开始检查，被访问过的条目清除标记后移到队尾，获得第二次机会
+     */
+    private static final class ClockQueue {
+        private ClockEntry head;
+        private ClockEntry tail;
+
+        void add(ClockEntry entry) {
+            entry.queuePrev = tail;
+            entry.queueNext = null;
+            if (tail != null) {
+                tail.queueNext = entry;
+            } else {
+                head = entry;
+            }
+            tail = entry;
+        }
+
+        void remove(ClockEntry entry) {
+            if (entry.queuePrev != null) {
+                entry.queuePrev.queueNext = entry.queueNext;
+            } else if (head == entry) {
+                head = entry.queueNext;
+            }
+            if (entry.queueNext != null) {
+                entry.queueNext.queuePrev = entry.queuePrev;
+            } else if (tail == entry) {
+                tail = entry.queuePrev;
+            }
+            entry.queuePrev = null;
+            entry.queueNext = null;
+        }
+
+        /**
+         * 选出淘汰对象，最多绕队列一圈
+         * @return 淘汰对象，队列为空时返回null
+         */
+        ClockEntry evictionCandidate() {
+            while (head != null && head.referenced) {
+                ClockEntry entry = head;
+                entry.referenced = false;
+                if (entry != tail) {
+                    remove(entry);
+                    add(entry);
+                }
+            }
+            return head;
+        }
+    }
+
+    /**
+     * 待通知的移除事件
+     */
+    private static final class Removal {
+        private final TenantContext tenant;
+        private final SessionContext session;
+        private final RemovalCause cause;
+
+        Removal(TenantContext tenant, SessionContext session, RemovalCause cause) {
+            this.tenant = tenant;
+            this.session = session;
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.demo.core.context.store;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内的共享存储替身，用于单机开发和测试
+ * 同一个实例可以被多个ReplicatedSessionStore共用，模拟多个节点访问同一个分布式存储，
+ * 写入和删除时同步通知所有订阅者
+ */
+public class InMemorySessionReplicationClient implements SessionReplicationClient {
+
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public byte[] get(String key) {
+        return values.get(key);
+    }
+
+    @Override
+    public void put(String key, byte[] value) {
+        values.put(key, value);
+        publish(key);
+    }
+
+    @Override
+    public boolean delete(String key) {
+        boolean removed = values.remove(key) != null;
+        if (removed) {
+            publish(key);
+        }
+        return removed;
+    }
+
+    @Override
+    public void addInvalidationListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 获取存储的条目数量
+     * @return 条目数量
+     */
+    public int size() {
+        return values.size();
+    }
+
+    private void publish(String key) {
+        for (Consumer<String> listener : listeners) {
+            listener.accept(key);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.demo.core.context.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 基于内存映射文件的本地会话存储
+ * 会话快照以追加日志的形式写入映射到堆外内存的文件，堆上只保留存储键到记录位置的索引，
+ * 大量会话属性不占用Java堆，也不增加GC负担；进程重启后扫描日志重建索引，会话不会丢失。
+ * 覆盖和删除产生的失效记录超过映射区域一半时压缩日志，空间不足时按倍数扩大映射区域，直到达到上限。
+ * 写入记录时最后写入记录长度，进程异常退出时未写完的记录在重建索引时被丢弃。
+ * 映射的页由操作系统异步写回磁盘，操作系统崩溃时可能丢失最近的写入
+ */
+public class MappedSessionStore implements SessionStore {
+
+    // 文件头：魔数和格式版本
+    private static final int MAGIC = 0x53455353;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    // 记录类型
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    // 记录头：长度（int）、类型（byte）和存储键长度（short）
+    private static final int RECORD_HEADER_SIZE = 7;
+
+    private final Path file;
+    private final int maxBytes;
+
+    // 读操作共享，写入、压缩和扩容独占
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 存储键到记录起始位置的索引
+    private final Map<String, Integer> index = new HashMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    // 下一条记录的写入位置
+    private int writePosition;
+
+    // 有效记录占用的字节数，其余为失效记录
+    private long liveBytes;
+
+    /**
+     * 构造函数，文件已存在时从中恢复会话
+     * @param file 存储文件路径
+     * @param initialBytes 初始映射大小（字节）
+     * @param maxBytes 最大映射大小（字节），不超过2GB
+     */
+    public MappedSessionStore(Path file, int initialBytes, int maxBytes) {
+        if (initialBytes <= HEADER_SIZE || maxBytes < initialBytes) {
+            throw new IllegalArgumentException("Invalid session store size: initial=" + initialBytes + ", max=" + maxBytes);
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long existing = channel.size();
+            if (existing > maxBytes) {
+                throw new IllegalStateException("Session store file " + file + " exceeds max size " + maxBytes);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(existing, initialBytes));
+            if (existing >= HEADER_SIZE && buffer.getInt(0) == MAGIC) {
+                if (buffer.getInt(4) != VERSION) {
+                    throw new IllegalStateException("Unsupported session store version in " + file);
+                }
+                recover();
+            } else {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                writePosition = HEADER_SIZE;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open session store " + file, e);
+        }
+    }
+
+    @Override
+    public SessionSnapshot load(String tenantId, String sessionId) {
+        String key = SessionStore.key(tenantId, sessionId);
+        lock.readLock().lock();
+        try {
+            Integer position = index.get(key);
+            if (position == null) {
+                return null;
+            }
+            int length = buffer.getInt(position);
+            int keyLength = buffer.getShort(position + 5) & 0xFFFF;
+            int payloadOffset = position + RECORD_HEADER_SIZE + keyLength;
+            int payloadLength = length - (RECORD_HEADER_SIZE - 4) - keyLength;
+            // 直接从映射区域解码，不复制记录
+            return SessionAttributeCodec.decode(buffer.slice(payloadOffset, payloadLength));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void save(String tenantId, String sessionId, SessionSnapshot snapshot) {
+        byte[] key = SessionStore.key(tenantId, sessionId).getBytes(StandardCharsets.UTF_8);
+        byte[] payload = SessionAttributeCodec.encode(snapshot);
+        lock.writeLock().lock();
+        try {
+            int position = append(PUT, key, payload);
+            Integer previous = index.put(new String(key, StandardCharsets.UTF_8), position);
+            if (previous != null) {
+                liveBytes -= recordSize(previous);
+            }
+            liveBytes += recordSize(position);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(String tenantId, String sessionId) {
+        String key = SessionStore.key(tenantId, sessionId);
+        lock.writeLock().lock();
+        try {
+            Integer previous = index.remove(key);
+            if (previous == null) {
+                return false;
+            }
+            liveBytes -= recordSize(previous);
+            // 写入删除记录，重启后不会恢复已删除的会话
+            append(DELETE, key.getBytes(StandardCharsets.UTF_8), new byte[0]);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 获取存储的会话数量
+     * @return 会话数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 获取当前映射区域的大小
+     * @return 映射大小（字节）
+     */
+    public int getMappedBytes() {
+        lock.readLock().lock();
+        try {
+            return buffer.capacity();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (channel != null) {
+                buffer.force();
+                channel.close();
+                channel = null;
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to close session store " + file + ": " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 追加一条记录，空间不足时先压缩，仍不足时扩大映射区域
+     * @return 记录起始位置
+     */
+    private int append(byte type, byte[] key, byte[] payload) {
+        if (key.length > 0xFFFF) {
+            throw new IllegalArgumentException("Session key too long");
+        }
+        int size = RECORD_HEADER_SIZE + key.length + payload.length;
+        ensureCapacity(size);
+        int position = writePosition;
+        buffer.put(position + 4, type);
+        buffer.putShort(position + 5, (short) key.length);
+        buffer.put(position + RECORD_HEADER_SIZE, key);
+        buffer.put(position + RECORD_HEADER_SIZE + key.length, payload);
+        // 先写入下一条记录位置的结束标记，再写入本记录的长度，长度非0的记录一定是完整的，
+        // 之前未写完的记录残留的数据也不会在重建索引时被读到
+        buffer.putInt(position + size, 0);
+        buffer.putInt(position, size - 4);
+        writePosition += size;
+        return position;
+    }
+
+    private void ensureCapacity(int size) {
+        // 末尾保留4个字节的0作为日志结束标记
+        long required = (long) size + 4;
+        if (writePosition + required <= buffer.capacity()) {
+            return;
+        }
+        long garbage = writePosition - HEADER_SIZE - liveBytes;
+        if (garbage >= buffer.capacity() / 2) {
+            compact();
+            if (writePosition + required <= buffer.capacity()) {
+                return;
+            }
+        }
+        long capacity = buffer.capacity();
+        while (HEADER_SIZE + liveBytes + required > capacity / 2 && capacity < maxBytes) {
+            capacity = Math.min(capacity * 2, maxBytes);
+        }
+        if (HEADER_SIZE + liveBytes + required > capacity) {
+            throw new IllegalStateException("Session store " + file + " is full");
+        }
+        try {
+            if (writePosition + required > capacity) {
+                compact();
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow session store " + file, e);
+        }
+    }
+
+    /**
+     * 将有效记录复制到新文件并替换原文件
+     */
+    private void compact() {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = target.map(FileChannel.MapMode.READ_WRITE, 0, buffer.capacity());
+            out.putInt(0, MAGIC);
+            out.putInt(4, VERSION);
+            int position = HEADER_SIZE;
+            for (Map.Entry<String, Integer> entry : index.entrySet()) {
+                int size = recordSize(entry.getValue());
+                out.put(position, buffer, entry.getValue(), size);
+                entry.setValue(position);
+                position += size;
+            }
+            out.putInt(position, 0);
+            out.force();
+            channel.close();
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, out.capacity());
+            writePosition = position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact session store " + file, e);
+        }
+    }
+
+    /**
+     * 扫描日志重建索引
+     */
+    private void recover() {
+        int position = HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length < RECORD_HEADER_SIZE - 4 || position + 4L + length > buffer.capacity()) {
+                break;
+            }
+            byte type = buffer.get(position + 4);
+            int keyLength = buffer.getShort(position + 5) & 0xFFFF;
+            byte[] key = new byte[keyLength];
+            buffer.get(position + RECORD_HEADER_SIZE, key);
+            Integer previous = type == PUT
+                    ? index.put(new String(key, StandardCharsets.UTF_8), position)
+                    : index.remove(new String(key, StandardCharsets.UTF_8));
+            if (previous != null) {
+                liveBytes -= recordSize(previous);
+            }
+            if (type == PUT) {
+                liveBytes += length + 4;
+            }
+            position += length + 4;
+        }
+        writePosition = position;
+    }
+
+    private int recordSize(int position) {
+        return buffer.getInt(position) + 4;
+    }
+}
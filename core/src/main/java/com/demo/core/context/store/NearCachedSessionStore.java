@@ -0,0 +1,97 @@
+package com.demo.core.context.store;
+
+import com.demo.core.cache.BoundedCache;
+import com.demo.core.cache.CacheStats;
+
+import java.time.Duration;
+import java.util.function.BiConsumer;
+
+/**
+ * 带近端缓存的会话存储装饰器
+ * 在本节点内存中缓存最近读写的会话快照，命中时不访问底层存储，读取速度与本地内存相同。
+ * 写入和删除时同步更新缓存；其他节点的修改在底层存储的失效通知到达时生效（需有订阅者通过
+ * addInvalidationListener订阅），或在缓存条目过期后生效
+ */
+public class NearCachedSessionStore implements SessionStore {
+
+    private final SessionStore delegate;
+
+    // 近端缓存，键为SessionStore#key生成的存储键
+    private final BoundedCache<String, SessionSnapshot> cache;
+
+    /**
+     * 构造函数
+     * @param delegate 底层会话存储
+     * @param maximumSize 近端缓存的最大条目数
+     * @param ttl 近端缓存条目的存活时间，限制未收到失效通知时读到旧快照的时长
+     */
+    public NearCachedSessionStore(SessionStore delegate, int maximumSize, Duration ttl) {
+        this.delegate = delegate;
+        this.cache = BoundedCache.<String, SessionSnapshot>builder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public SessionSnapshot load(String tenantId, String sessionId) {
+        String key = SessionStore.key(tenantId, sessionId);
+        SessionSnapshot snapshot = cache.get(key);
+        if (snapshot == null) {
+            // 不存在的会话不缓存，避免其他节点刚创建的会话在本节点不可见
+            snapshot = delegate.load(tenantId, sessionId);
+            if (snapshot != null) {
+                cache.put(key, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void save(String tenantId, String sessionId, SessionSnapshot snapshot) {
+        delegate.save(tenantId, sessionId, snapshot);
+        cache.put(SessionStore.key(tenantId, sessionId), snapshot);
+    }
+
+    @Override
+    public boolean delete(String tenantId, String sessionId) {
+        cache.invalidate(SessionStore.key(tenantId, sessionId));
+        return delegate.delete(tenantId, sessionId);
+    }
+
+    @Override
+    public boolean isShared() {
+        return delegate.isShared();
+    }
+
+    @Override
+    public void addInvalidationListener(BiConsumer<String, String> listener) {
+        // 先使近端缓存失效，回调中重新加载时不会读到旧快照
+        delegate.addInvalidationListener((tenantId, sessionId) -> {
+            cache.invalidate(SessionStore.key(tenantId, sessionId));
+            listener.accept(tenantId, sessionId);
+        });
+    }
+
+    /**
+     * 使近端缓存中的快照失效，用于响应其他节点的修改通知
+     * @param key 存储键
+     */
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * 获取近端缓存统计信息
+     * @return 统计信息
+     */
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    @Override
+    public void close() {
+        cache.invalidateAll();
+        delegate.close();
+    }
+}
@@ -0,0 +1,60 @@
+package com.demo.core.context.store;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 基于多节点共享存储的会话存储适配器
+ * 会话快照以SessionAttributeCodec编码后写入共享存储，任意节点都能读取，不再需要粘滞会话
+ */
+public class ReplicatedSessionStore implements SessionStore {
+
+    private final SessionReplicationClient client;
+
+    /**
+     * 构造函数
+     * @param client 共享存储客户端
+     */
+    public ReplicatedSessionStore(SessionReplicationClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public SessionSnapshot load(String tenantId, String sessionId) {
+        byte[] bytes = client.get(SessionStore.key(tenantId, sessionId));
+        return bytes != null ? SessionAttributeCodec.decode(bytes) : null;
+    }
+
+    @Override
+    public void save(String tenantId, String sessionId, SessionSnapshot snapshot) {
+        client.put(SessionStore.key(tenantId, sessionId), SessionAttributeCodec.encode(snapshot));
+    }
+
+    @Override
+    public boolean delete(String tenantId, String sessionId) {
+        return client.delete(SessionStore.key(tenantId, sessionId));
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    public void addInvalidationListener(BiConsumer<String, String> listener) {
+        client.addInvalidationListener(key -> {
+            // 存储键格式为"租户ID长度:租户ID:会话ID"，见SessionStore#key
+            int separator = key.indexOf(':');
+            if (separator <= 0) {
+                return;
+            }
+            try {
+                int tenantEnd = separator + 1 + Integer.parseInt(key.substring(0, separator));
+                if (tenantEnd < key.length() && key.charAt(tenantEnd) == ':') {
+                    listener.accept(key.substring(separator + 1, tenantEnd), key.substring(tenantEnd + 1));
+                }
+            } catch (NumberFormatException e) {
+                // 不是会话存储键，忽略
+            }
+        });
+    }
+}
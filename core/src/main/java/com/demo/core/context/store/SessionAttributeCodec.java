@@ -0,0 +1,282 @@
+package com.demo.core.context.store;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 会话快照的紧凑二进制编码
+ * 整数使用变长编码（有符号数先做ZigZag变换），字符串使用UTF-8，每个值前有一个字节的类型标记。
+ * 支持null、字符串、整数、长整数、浮点数、布尔值、字节数组以及由这些类型组成的List和字符串键的Map；
+ * 不支持的类型在编码时直接拒绝，不回退到Java序列化，避免反序列化任意类型带来的安全问题
+ */
+public final class SessionAttributeCodec {
+
+    // 编码格式版本
+    private static final byte VERSION = 1;
+
+    // 值类型标记
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte TRUE = 6;
+    private static final byte FALSE = 7;
+    private static final byte BYTES = 8;
+    private static final byte LIST = 9;
+    private static final byte MAP = 10;
+
+    private SessionAttributeCodec() {
+    }
+
+    /**
+     * 编码会话快照
+     * @param snapshot 会话快照
+     * @return 编码结果
+     * @throws IllegalArgumentException 属性值类型不受支持时抛出
+     */
+    public static byte[] encode(SessionSnapshot snapshot) {
+        Output out = new Output(64 + snapshot.getAttributes().size() * 32);
+        out.writeByte(VERSION);
+        out.writeVarLong(snapshot.getCreatedAtMillis());
+        out.writeVarLong(snapshot.getLastAccessMillis());
+        writeMap(out, snapshot.getAttributes());
+        return out.toByteArray();
+    }
+
+    /**
+     * 解码会话快照
+     * @param bytes 编码结果
+     * @return 会话快照
+     * @throws IllegalArgumentException 数据损坏或版本不兼容时抛出
+     */
+    public static SessionSnapshot decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * 从缓冲区当前位置解码会话快照，解码后缓冲区位置移动到数据末尾
+     * @param buffer 缓冲区
+     * @return 会话快照
+     * @throws IllegalArgumentException 数据损坏或版本不兼容时抛出
+     */
+    public static SessionSnapshot decode(ByteBuffer buffer) {
+        try {
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported session snapshot version: " + version);
+            }
+            long createdAtMillis = readVarLong(buffer);
+            long lastAccessMillis = readVarLong(buffer);
+            return new SessionSnapshot(createdAtMillis, lastAccessMillis, readMap(buffer));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated session snapshot", e);
+        }
+    }
+
+    private static void writeValue(Output out, Object value) {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            out.writeString((String) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(INT);
+            out.writeVarLong(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeVarLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeVarLong(Float.floatToRawIntBits((Float) value));
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(BYTES);
+            out.writeVarInt(bytes.length);
+            out.writeBytes(bytes);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(LIST);
+            out.writeVarInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Map) {
+            out.writeByte(MAP);
+            writeMap(out, (Map<?, ?>) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported session attribute type: " + value.getClass().getName());
+        }
+    }
+
+    private static void writeMap(Output out, Map<?, ?> map) {
+        out.writeVarInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!(entry.getKey() instanceof String)) {
+                throw new IllegalArgumentException("Session attribute map keys must be strings");
+            }
+            out.writeString((String) entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static Object readValue(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(buffer);
+            case INT:
+                return (int) readVarLong(buffer);
+            case LONG:
+                return readVarLong(buffer);
+            case DOUBLE:
+                return Double.longBitsToDouble(buffer.getLong());
+            case FLOAT:
+                return Float.intBitsToFloat((int) readVarLong(buffer));
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case BYTES: {
+                byte[] bytes = new byte[readLength(buffer)];
+                buffer.get(bytes);
+                return bytes;
+            }
+            case LIST: {
+                int size = readLength(buffer);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(buffer));
+                }
+                return list;
+            }
+            case MAP:
+                return readMap(buffer);
+            default:
+                throw new IllegalArgumentException("Unknown session attribute type: " + type);
+        }
+    }
+
+    private static Map<String, Object> readMap(ByteBuffer buffer) {
+        int size = readLength(buffer);
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = readString(buffer);
+            map.put(key, readValue(buffer));
+        }
+        return map;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readLength(buffer);
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset() + buffer.position();
+            buffer.position(buffer.position() + length);
+            return new String(buffer.array(), offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取长度，超过剩余字节数的长度视为数据损坏，避免按损坏的长度分配大数组
+     */
+    private static int readLength(ByteBuffer buffer) {
+        long length = readVarLong(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupted session snapshot length: " + length);
+        }
+        return (int) length;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long raw = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            raw |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                // ZigZag解码
+                return (raw >>> 1) ^ -(raw & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+
+    /**
+     * 可自动扩容的字节输出
+     */
+    private static final class Output {
+        private byte[] buffer;
+        private int size;
+
+        Output(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        /**
+         * 写入ZigZag变长整数，绝对值小的负数也只占少量字节
+         */
+        void writeVarLong(long value) {
+            long raw = (value << 1) ^ (value >> 63);
+            ensureCapacity(10);
+            while ((raw & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((raw & 0x7F) | 0x80);
+                raw >>>= 7;
+            }
+            buffer[size++] = (byte) raw;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.demo.core.context.store;
+
+import java.util.function.Consumer;
+
+/**
+ * 多节点共享的键值存储客户端，ReplicatedSessionStore通过它读写会话快照
+ * 生产环境可由Redis、Hazelcast等分布式存储实现，写入和删除后需要向所有节点广播失效通知，
+ * 使各节点的近端缓存和内存中的会话副本及时丢弃旧快照。每次写入向每个节点（包括写入节点自身）
+ * 恰好通知一次，节点据此识别并忽略自身写入引起的通知。
+ * 节点不会因本地副本空闲到期而删除共享的快照，实现应为写入的值设置不短于会话空闲超时的过期时间
+ */
+public interface SessionReplicationClient {
+
+    /**
+     * 读取值
+     * @param key 存储键
+     * @return 值，不存在时返回null
+     */
+    byte[] get(String key);
+
+    /**
+     * 写入值并广播失效通知
+     * @param key 存储键
+     * @param value 值
+     */
+    void put(String key, byte[] value);
+
+    /**
+     * 删除值并广播失效通知
+     * @param key 存储键
+     * @return 是否存在并被删除
+     */
+    boolean delete(String key);
+
+    /**
+     * 订阅失效通知
+     * @param listener 收到被修改的存储键时的回调
+     */
+    void addInvalidationListener(Consumer<String> listener);
+}
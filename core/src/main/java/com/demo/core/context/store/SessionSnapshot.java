@@ -0,0 +1,36 @@
+package com.demo.core.context.store;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 会话快照，会话存储中保存的不可变内容
+ */
+public final class SessionSnapshot {
+
+    // 会话创建时间和最后访问时间（Unix纪元毫秒数）
+    private final long createdAtMillis;
+    private final long lastAccessMillis;
+
+    // 会话属性，值只能是SessionAttributeCodec支持的类型
+    private final Map<String, Object> attributes;
+
+    public SessionSnapshot(long createdAtMillis, long lastAccessMillis, Map<String, Object> attributes) {
+        this.createdAtMillis = createdAtMillis;
+        this.lastAccessMillis = lastAccessMillis;
+        this.attributes = Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+}
@@ -0,0 +1,67 @@
+package com.demo.core.context.store;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 会话存储SPI，用于在进程外保存会话属性
+ * 会话存储使节点重启后会话不丢失，并允许同一会话的请求落到任意节点。
+ * 实现需要线程安全；加载和保存可能涉及磁盘或网络I/O，调用方不应在持有锁时调用
+ */
+public interface SessionStore {
+
+    /**
+     * 加载会话快照
+     * @param tenantId 租户ID
+     * @param sessionId 会话ID
+     * @return 会话快照，不存在时返回null
+     */
+    SessionSnapshot load(String tenantId, String sessionId);
+
+    /**
+     * 保存会话快照，覆盖已有的快照
+     * @param tenantId 租户ID
+     * @param sessionId 会话ID
+     * @param snapshot 会话快照
+     */
+    void save(String tenantId, String sessionId, SessionSnapshot snapshot);
+
+    /**
+     * 删除会话快照
+     * @param tenantId 租户ID
+     * @param sessionId 会话ID
+     * @return 是否存在并被删除
+     */
+    boolean delete(String tenantId, String sessionId);
+
+    /**
+     * 是否为多个节点共享的存储
+     * 共享存储中的会话可能正被其他节点使用，本节点的会话副本空闲到期时不删除存储中的快照，由存储自身的过期机制清理
+     * @return 是否共享
+     */
+    default boolean isShared() {
+        return false;
+    }
+
+    /**
+     * 订阅会话快照被修改或删除的通知，用于使各节点内存中的会话副本失效；不支持通知的存储忽略该订阅
+     * @param listener 回调，参数为租户ID和会话ID
+     */
+    default void addInvalidationListener(BiConsumer<String, String> listener) {
+    }
+
+    /**
+     * 关闭存储并释放资源
+     */
+    default void close() {
+    }
+
+    /**
+     * 生成存储键，租户ID以长度前缀区分，任意租户ID和会话ID的组合都不会冲突
+     * @param tenantId 租户ID
+     * @param sessionId 会话ID
+     * @return 存储键
+     */
+    static String key(String tenantId, String sessionId) {
+        return tenantId.length() + ":" + tenantId + ":" + sessionId;
+    }
+}
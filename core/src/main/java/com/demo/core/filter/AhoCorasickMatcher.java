@@ -0,0 +1,289 @@
+package com.demo.core.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 基于Aho–Corasick自动机的多模式匹配器
+ * 构建完成后不可变，可被多个线程同时使用；一次扫描即可找出文本中所有敏感词的出现位置，
+ * 时间复杂度与文本长度和匹配数量成线性关系，与词库大小无关
+ */
+public final class AhoCorasickMatcher {
+
+    // 根状态
+    public static final int ROOT = 0;
+
+    // 空词库对应的匹配器
+    private static final AhoCorasickMatcher EMPTY = build(List.of());
+
+    // 词库，下标即词ID
+    private final String[] words;
+
+    // 根状态的稠密转移表，按字符直接索引
+    private final int[] rootTransitions;
+
+    // 非根状态的稀疏转移表：按字符排序的边标签及目标状态
+    private final char[][] labels;
+    private final int[][] targets;
+
+    // 失配指针
+    private final int[] fail;
+
+    // 在该状态结束的词ID，-1表示无
+    private final int[] output;
+
+    // 沿失配链找到的下一个有输出的状态，-1表示无
+    private final int[] dictionaryLink;
+
+    // 状态深度，即从根到该状态的字符数
+    private final int[] depth;
+
+    // 最长词的长度
+    private final int maxWordLength;
+
+    private AhoCorasickMatcher(String[] words, int[] rootTransitions, char[][] labels, int[][] targets,
+                               int[] fail, int[] output, int[] dictionaryLink, int[] depth, int maxWordLength) {
+        this.words = words;
+        this.rootTransitions = rootTransitions;
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.output = output;
+        this.dictionaryLink = dictionaryLink;
+        this.depth = depth;
+        this.maxWordLength = maxWordLength;
+    }
+
+    /**
+     * 获取空词库的匹配器
+     * @return 空匹配器
+     */
+    public static AhoCorasickMatcher empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 根据词库构建匹配器，空字符串和重复的词会被忽略
+     * @param wordList 词库
+     * @return 匹配器
+     */
+    public static AhoCorasickMatcher build(Collection<String> wordList) {
+        Set<String> uniqueWords = new LinkedHashSet<>();
+        for (String word : wordList) {
+            if (word != null && !word.isEmpty()) {
+                uniqueWords.add(word);
+            }
+        }
+        String[] words = uniqueWords.toArray(new String[0]);
+
+        // 构建字典树
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(-1);
+        depths.add(0);
+        int maxWordLength = 0;
+        for (int wordId = 0; wordId < words.length; wordId++) {
+            String word = words[wordId];
+            maxWordLength = Math.max(maxWordLength, word.length());
+            int state = ROOT;
+            for (int i = 0; i < word.length(); i++) {
+                Map<Character, Integer> children = trie.get(state);
+                Integer next = children.get(word.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    children.put(word.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    outputs.add(-1);
+                    depths.add(i + 1);
+                }
+                state = next;
+            }
+            outputs.set(state, wordId);
+        }
+
+        // 压缩为数组结构
+        int stateCount = trie.size();
+        char[][] labels = new char[stateCount][];
+        int[][] targets = new int[stateCount][];
+        int[] output = new int[stateCount];
+        int[] depth = new int[stateCount];
+        for (int state = 0; state < stateCount; state++) {
+            TreeMap<Character, Integer> children = trie.get(state);
+            labels[state] = new char[children.size()];
+            targets[state] = new int[children.size()];
+            int index = 0;
+            for (Map.Entry<Character, Integer> child : children.entrySet()) {
+                labels[state][index] = child.getKey();
+                targets[state][index] = child.getValue();
+                index++;
+            }
+            output[state] = outputs.get(state);
+            depth[state] = depths.get(state);
+        }
+        int[] rootTransitions = new int[Character.MAX_VALUE + 1];
+        for (int i = 0; i < labels[ROOT].length; i++) {
+            rootTransitions[labels[ROOT][i]] = targets[ROOT][i];
+        }
+
+        // 按广度优先顺序计算失配指针和输出链接
+        int[] fail = new int[stateCount];
+        int[] dictionaryLink = new int[stateCount];
+        Arrays.fill(dictionaryLink, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[ROOT]) {
+            fail[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                char c = labels[state][i];
+                int child = targets[state][i];
+                int fallback = fail[state];
+                int next;
+                while (true) {
+                    next = fallback == ROOT ? rootTransitions[c] : findChild(labels[fallback], targets[fallback], c);
+                    if (next >= 0 || fallback == ROOT) {
+                        break;
+                    }
+                    fallback = fail[fallback];
+                }
+                fail[child] = next > 0 ? next : ROOT;
+                int failState = fail[child];
+                dictionaryLink[child] = output[failState] >= 0 ? failState : dictionaryLink[failState];
+                queue.add(child);
+            }
+        }
+
+        return new AhoCorasickMatcher(words, rootTransitions, labels, targets, fail, output,
+                dictionaryLink, depth, maxWordLength);
+    }
+
+    /**
+     * 读入一个字符后转移到下一个状态
+     * @param state 当前状态
+     * @param c 读入的字符
+     * @return 下一个状态
+     */
+    public int nextState(int state, char c) {
+        while (state != ROOT) {
+            int next = findChild(labels[state], targets[state], c);
+            if (next >= 0) {
+                return next;
+            }
+            state = fail[state];
+        }
+        return rootTransitions[c];
+    }
+
+    /**
+     * 判断某状态下是否有词匹配结束（包括沿失配链的较短词）
+     * @param state 状态
+     * @return 是否有匹配
+     */
+    public boolean hasMatch(int state) {
+        return output[state] >= 0 || dictionaryLink[state] >= 0;
+    }
+
+    /**
+     * 报告在某状态结束的所有词
+     * @param state 状态
+     * @param end 匹配结束位置（不含）
+     * @param handler 匹配处理器
+     */
+    public void reportMatches(int state, int end, MatchHandler handler) {
+        int current = output[state] >= 0 ? state : dictionaryLink[state];
+        while (current >= 0) {
+            int wordId = output[current];
+            handler.onMatch(wordId, end - words[wordId].length(), end);
+            current = dictionaryLink[current];
+        }
+    }
+
+    /**
+     * 扫描文本并报告所有匹配（包括重叠的匹配）
+     * @param text 文本
+     * @param handler 匹配处理器
+     */
+    public void scan(CharSequence text, MatchHandler handler) {
+        if (words.length == 0) {
+            return;
+        }
+        int state = ROOT;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = nextState(state, text.charAt(i));
+            if (hasMatch(state)) {
+                reportMatches(state, i + 1, handler);
+            }
+        }
+    }
+
+    /**
+     * 获取状态深度，即当前已读入且可能成为某个词前缀的字符数
+     * @param state 状态
+     * @return 深度
+     */
+    public int getDepth(int state) {
+        return depth[state];
+    }
+
+    /**
+     * 根据词ID获取词
+     * @param wordId 词ID
+     * @return 词
+     */
+    public String getWord(int wordId) {
+        return words[wordId];
+    }
+
+    /**
+     * 获取词数量
+     * @return 词数量
+     */
+    public int getWordCount() {
+        return words.length;
+    }
+
+    /**
+     * 获取最长词的长度
+     * @return 最长词的长度
+     */
+    public int getMaxWordLength() {
+        return maxWordLength;
+    }
+
+    /**
+     * 在按字符排序的边中查找目标状态
+     * @return 目标状态，不存在时返回-1
+     */
+    private static int findChild(char[] labels, int[] targets, char c) {
+        int index = Arrays.binarySearch(labels, c);
+        return index >= 0 ? targets[index] : -1;
+    }
+
+    /**
+     * 匹配处理器
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+
+        /**
+         * 处理一次匹配
+         * @param wordId 词ID
+         * @param start 匹配开始位置（含）
+         * @param end 匹配结束位置（不含）
+         */
+        void onMatch(int wordId, int start, int end);
+    }
+}
@@ -1,12 +1,14 @@
 package com.demo.core.filter;
 
+import com.demo.core.exception.ContentFilterException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * 内容过滤器接口，定义了内容过滤的基本操作
  */
 public interface ContentFilter {
-    
+
     /**
      * 初始化过滤器
      */
@@ -26,6 +28,24 @@ public interface ContentFilter {
      */
     Mono<FilterResult> filterAsync(String content);
     
+    /**
+     * 流式过滤文本内容，适用于逐个分片输出的模型结果
+     * 默认实现等待所有分片到达后整体过滤，支持增量过滤的实现应覆盖该方法以尽早输出安全的文本
+     * @param chunks 文本分片流
+     * @return 过滤后的文本分片流，拼接后与整体过滤的结果一致；内容未通过过滤时以
+     *         {@link ContentFilterException}结束，异常中携带过滤结果
+     */
+    default Flux<String> filterStream(Flux<String> chunks) {
+        return chunks.collect(StringBuilder::new, StringBuilder::append)
+                .map(StringBuilder::toString)
+                .flatMap(content -> filter(content)
+                        .flatMap(result -> result.isPassed()
+                                ? Mono.just(result.getFilteredContent() != null ? result.getFilteredContent() : content)
+                                : Mono.error(new ContentFilterException(result.getReason(), result))))
+                .filter(content -> !content.isEmpty())
+                .flux();
+    }
+    
     /**
      * 获取过滤器ID
      * @return 过滤器ID
@@ -0,0 +1,374 @@
+package com.demo.core.filter;
+
+import com.demo.core.metrics.MetricsCollector;
+import com.demo.core.tracing.Span;
+import com.demo.core.tracing.Tracer;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 内容过滤器链，将多个相互独立的过滤器并行执行并合并结果
+ * 每个过滤器在有界的线程池中执行，并拥有各自的耗时预算；任一过滤器报告高风险时立即短路，
+ * 取消仍在执行的其他过滤器。过滤器超时或出错时按其失败策略放行或拒绝
+ */
+@Component
+public class ContentFilterChain {
+
+    // 过滤器耗时指标名称
+    private static final String LATENCY_METRIC = "content.filter.latency";
+    
+    // 过滤器失败次数指标名称
+    private static final String FAILURE_METRIC = "content.filter.failures";
+    
+    private final List<ContentFilter> filters;
+    private final MetricsCollector metricsCollector;
+    private final Tracer tracer;
+    private final Scheduler scheduler;
+    
+    // 未单独配置的过滤器使用的默认策略
+    private final FilterPolicy defaultPolicy;
+    
+    // 按过滤器ID单独配置的策略
+    private final Map<String, FilterPolicy> policies;
+    
+    // 正在执行或排队等待执行的过滤器数量
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    // 按过滤器下标预先绑定的耗时指标，每个过滤器对应四种执行结果
+    private final Timer[][] latencyTimers;
+    
+    /**
+     * 构造函数
+     * @param filters 所有过滤器
+     * @param metricsCollector 指标收集器
+     * @param tracer 链路追踪器
+     * @param threadCap 执行过滤器的最大线程数，不大于0时使用CPU核数的2倍
+     * @param defaultBudgetMillis 默认耗时预算（毫秒）
+     * @param defaultFailurePolicy 默认失败策略
+     * @param policies 单独配置的策略，格式为"过滤器ID=预算毫秒数:失败策略"，多个配置以逗号分隔
+     */
+    @Autowired
+    public ContentFilterChain(List<ContentFilter> filters, MetricsCollector metricsCollector, Tracer tracer,
+                              @Value("${filter.chain.thread-cap:0}") int threadCap,
+                              @Value("${filter.chain.default-budget-ms:200}") long defaultBudgetMillis,
+                              @Value("${filter.chain.default-failure-policy:FAIL_CLOSED}") FailurePolicy defaultFailurePolicy,
+                              @Value("${filter.chain.policies:}") String policies) {
+        this(filters, metricsCollector, tracer,
+                Schedulers.newBoundedElastic(threadCap > 0 ? threadCap : Runtime.getRuntime().availableProcessors() * 2,
+                        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "content-filter", 60, true),
+                new FilterPolicy(Duration.ofMillis(defaultBudgetMillis), defaultFailurePolicy),
+                parsePolicies(policies));
+    }
+    
+    /**
+     * 构造函数
+     * @param filters 所有过滤器
+     * @param metricsCollector 指标收集器
+     * @param tracer 链路追踪器
+     * @param scheduler 执行过滤器的调度器，关闭过滤器链时一并释放
+     * @param defaultPolicy 默认策略
+     * @param policies 按过滤器ID单独配置的策略
+     */
+    ContentFilterChain(List<ContentFilter> filters, MetricsCollector metricsCollector, Tracer tracer, Scheduler scheduler,
+                       FilterPolicy defaultPolicy, Map<String, FilterPolicy> policies) {
+        this.filters = List.copyOf(filters);
+        this.metricsCollector = metricsCollector;
+        this.tracer = tracer;
+        this.scheduler = scheduler;
+        this.defaultPolicy = defaultPolicy;
+        this.policies = Map.copyOf(policies);
+        this.latencyTimers = new Timer[this.filters.size()][];
+        for (int i = 0; i < this.filters.size(); i++) {
+            String filterId = this.filters.get(i).getFilterId();
+            latencyTimers[i] = new Timer[LatencyOutcome.values().length];
+            for (LatencyOutcome outcome : LatencyOutcome.values()) {
+                latencyTimers[i][outcome.ordinal()] = metricsCollector.timer(LATENCY_METRIC,
+                        "filter", filterId, "outcome", outcome.tag);
+            }
+        }
+        metricsCollector.registerGauge("content.filter.inflight", inFlight, AtomicInteger::get);
+    }
+    
+    /**
+     * 使用所有过滤器并行过滤内容
+     * @param content 要过滤的文本内容
+     * @return 合并后的过滤结果
+     */
+    public Mono<FilterResult> filter(String content) {
+        if (filters.isEmpty() || content == null || content.isEmpty()) {
+            return Mono.just(FilterResult.builder()
+                    .passed(true)
+                    .reason("内容安全")
+                    .riskItems(new ArrayList<>())
+                    .filteredContent(content)
+                    .build());
+        }
+        
+        // 过滤器在其他线程上执行，在调用线程上取得父阶段后显式传递
+        Span parent = tracer.currentSpan();
+        return Flux.range(0, filters.size())
+                .flatMap(index -> runFilter(index, content, parent))
+                // 出现高风险时停止等待，其余过滤器的订阅会被取消
+                .takeUntil(Outcome::isHighRisk)
+                .collectList()
+                .flatMap(outcomes -> merge(content, outcomes));
+    }
+    
+    /**
+     * 获取过滤器链中的过滤器
+     * @return 过滤器列表
+     */
+    public List<ContentFilter> getFilters() {
+        return filters;
+    }
+    
+    /**
+     * 关闭过滤器链，释放线程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+    
+    /**
+     * 在线程池中执行单个过滤器，并应用耗时预算和失败策略
+     */
+    private Mono<Outcome> runFilter(int index, String content, Span parent) {
+        ContentFilter filter = filters.get(index);
+        FilterPolicy policy = policyOf(filter);
+        return Mono.defer(() -> {
+                    long startTime = System.nanoTime();
+                    Span span = tracer.startDetachedSpan("content.filter", Span.Kind.INTERNAL, parent)
+                            .setAttribute("filter", filter.getFilterId());
+                    // 完成信号和短路触发的取消可能在不同线程上同时到达，只记录先到达的一个
+                    AtomicBoolean recorded = new AtomicBoolean();
+                    inFlight.incrementAndGet();
+                    return Mono.defer(() -> filter.filter(content))
+                            // 没有返回结果视为执行失败，按失败策略处理
+                            .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                                    "Filter " + filter.getFilterId() + " returned no result")))
+                            .subscribeOn(scheduler)
+                            .timeout(policy.budget)
+                            .doFinally(signal -> inFlight.decrementAndGet())
+                            .doOnSuccess(result -> recordLatency(index, startTime, LatencyOutcome.SUCCESS, span, recorded))
+                            .doOnError(error -> recordLatency(index, startTime,
+                                    error instanceof TimeoutException ? LatencyOutcome.TIMEOUT : LatencyOutcome.ERROR,
+                                    span, recorded))
+                            .doOnCancel(() -> recordLatency(index, startTime, LatencyOutcome.CANCELLED, span, recorded));
+                })
+                .map(result -> new Outcome(index, result))
+                .onErrorResume(error -> Mono.just(new Outcome(index, failureResult(filter, policy, error))));
+    }
+    
+    /**
+     * 根据失败策略生成过滤器失败时的结果
+     */
+    private FilterResult failureResult(ContentFilter filter, FilterPolicy policy, Throwable error) {
+        boolean failOpen = policy.failurePolicy == FailurePolicy.FAIL_OPEN;
+        metricsCollector.incrementCounter(FAILURE_METRIC, "filter", filter.getFilterId(),
+                "policy", policy.failurePolicy.name());
+        
+        String reason = error instanceof TimeoutException ? "过滤器超时" : "过滤器执行失败";
+        List<FilterResult.RiskItem> riskItems = new ArrayList<>();
+        riskItems.add(FilterResult.RiskItem.builder()
+                .riskType(failOpen ? "filter_skipped" : "filter_unavailable")
+                .riskLevel(failOpen ? FilterResult.RiskItem.RiskLevel.LOW : FilterResult.RiskItem.RiskLevel.HIGH)
+                .content(filter.getFilterId())
+                .recommendation(reason)
+                .build());
+        return FilterResult.builder()
+                .passed(failOpen)
+                .reason(reason)
+                .riskItems(riskItems)
+                .build();
+    }
+    
+    private FilterPolicy policyOf(ContentFilter filter) {
+        return policies.getOrDefault(filter.getFilterId(), defaultPolicy);
+    }
+    
+    /**
+     * 合并各过滤器的结果
+     * 风险项按过滤器顺序排列；只有一个过滤器修改了内容时直接采用其结果，
+     * 多个过滤器都修改了内容时，在已修改的内容上依次重新执行这些过滤器，使各自的修改都能生效。
+     * 重新执行同样受各过滤器的耗时预算和失败策略约束
+     */
+    private Mono<FilterResult> merge(String content, List<Outcome> outcomes) {
+        outcomes.sort(Comparator.comparingInt(outcome -> outcome.index));
+        
+        List<FilterResult.RiskItem> riskItems = new ArrayList<>();
+        List<ContentFilter> modifyingFilters = new ArrayList<>();
+        String filteredContent = content;
+        boolean passed = true;
+        for (Outcome outcome : outcomes) {
+            FilterResult result = outcome.result;
+            if (result.getRiskItems() != null) {
+                riskItems.addAll(result.getRiskItems());
+            }
+            passed &= result.isPassed() && !outcome.isHighRisk();
+            String modified = result.getFilteredContent();
+            if (modified != null && !modified.equals(content)) {
+                modifyingFilters.add(filters.get(outcome.index));
+                filteredContent = modified;
+            }
+        }
+        
+        Mono<String> contentMono = Mono.just(filteredContent);
+        // 重新执行的过滤器依次执行，失败结果按顺序追加，不存在并发修改
+        AtomicBoolean reapplyPassed = new AtomicBoolean(true);
+        if (modifyingFilters.size() > 1) {
+            contentMono = Mono.just(content);
+            for (ContentFilter filter : modifyingFilters) {
+                contentMono = contentMono.flatMap(text -> reapply(filter, text, riskItems, reapplyPassed));
+            }
+        }
+        
+        boolean outcomesPassed = passed;
+        return contentMono.map(text -> {
+            boolean chainPassed = outcomesPassed && reapplyPassed.get();
+            return FilterResult.builder()
+                    .passed(chainPassed)
+                    .reason(chainPassed ? "内容安全" : "包含不安全内容")
+                    .riskItems(riskItems)
+                    .filteredContent(text)
+                    .build();
+        });
+    }
+    
+    /**
+     * 在已修改的内容上重新执行过滤器
+     * 超时或出错时保留传入的内容，并按失败策略追加风险项；失败策略为拒绝时整个过滤器链不通过
+     */
+    private Mono<String> reapply(ContentFilter filter, String text, List<FilterResult.RiskItem> riskItems,
+                                 AtomicBoolean passed) {
+        FilterPolicy policy = policyOf(filter);
+        return Mono.defer(() -> filter.filter(text))
+                .subscribeOn(scheduler)
+                .timeout(policy.budget)
+                .map(result -> result.getFilteredContent() != null ? result.getFilteredContent() : text)
+                .defaultIfEmpty(text)
+                .onErrorResume(error -> {
+                    FilterResult failure = failureResult(filter, policy, error);
+                    riskItems.addAll(failure.getRiskItems());
+                    if (!failure.isPassed()) {
+                        passed.set(false);
+                    }
+                    return Mono.just(text);
+                });
+    }
+    
+    private void recordLatency(int index, long startTime, LatencyOutcome outcome, Span span, AtomicBoolean recorded) {
+        if (!recorded.compareAndSet(false, true)) {
+            return;
+        }
+        latencyTimers[index][outcome.ordinal()].record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        span.setAttribute("outcome", outcome.tag);
+        if (outcome == LatencyOutcome.TIMEOUT || outcome == LatencyOutcome.ERROR) {
+            span.recordError(outcome.tag);
+        }
+        span.end();
+    }
+    
+    /**
+     * 解析策略配置字符串
+     * @param policies 策略配置
+     * @return 过滤器ID到策略的映射
+     */
+    private static Map<String, FilterPolicy> parsePolicies(String policies) {
+        Map<String, FilterPolicy> result = new HashMap<>();
+        if (policies == null || policies.isBlank()) {
+            return result;
+        }
+        for (String policy : policies.split(",")) {
+            int separator = policy.indexOf('=');
+            int policySeparator = policy.indexOf(':', separator + 1);
+            if (separator <= 0 || policySeparator < 0) {
+                throw new IllegalArgumentException("Invalid filter policy: " + policy);
+            }
+            long budgetMillis = Long.parseLong(policy.substring(separator + 1, policySeparator).trim());
+            FailurePolicy failurePolicy = FailurePolicy.valueOf(policy.substring(policySeparator + 1).trim());
+            result.put(policy.substring(0, separator).trim(), new FilterPolicy(Duration.ofMillis(budgetMillis), failurePolicy));
+        }
+        return result;
+    }
+    
+    /**
+     * 过滤器超时或出错时的处理策略
+     */
+    public enum FailurePolicy {
+        FAIL_OPEN,   // 放行，记录低风险项
+        FAIL_CLOSED  // 拒绝，记录高风险项
+    }
+    
+    /**
+     * 过滤器执行结果，对应耗时指标的outcome标签
+     */
+    private enum LatencyOutcome {
+        SUCCESS("success"),
+        TIMEOUT("timeout"),
+        ERROR("error"),
+        CANCELLED("cancelled");
+        
+        private final String tag;
+        
+        LatencyOutcome(String tag) {
+            this.tag = tag;
+        }
+    }
+    
+    /**
+     * 单个过滤器的执行策略
+     */
+    static final class FilterPolicy {
+        private final Duration budget;
+        private final FailurePolicy failurePolicy;
+        
+        FilterPolicy(Duration budget, FailurePolicy failurePolicy) {
+            this.budget = budget;
+            this.failurePolicy = failurePolicy;
+        }
+    }
+    
+    /**
+     * 单个过滤器的执行结果
+     */
+    private static final class Outcome {
+        private final int index;
+        private final FilterResult result;
+        
+        private Outcome(int index, FilterResult result) {
+            this.index = index;
+            this.result = result;
+        }
+        
+        private boolean isHighRisk() {
+            if (result.getRiskItems() == null) {
+                return false;
+            }
+            for (FilterResult.RiskItem item : result.getRiskItems()) {
+                if (item.getRiskLevel() == FilterResult.RiskItem.RiskLevel.HIGH) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.demo.core.filter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于文件的敏感词库来源
+ * 文件使用UTF-8编码，每行一个敏感词或正则表达式，空行和以'#'开头的行会被忽略
+ */
+public class FileLexiconSource implements LexiconSource {
+
+    // 敏感词文件，为null时不提供敏感词
+    private final Path wordsFile;
+    
+    // 敏感正则表达式文件，为null时不提供敏感正则表达式
+    private final Path patternsFile;
+    
+    /**
+     * 构造函数
+     * @param wordsFile 敏感词文件，可以为null
+     * @param patternsFile 敏感正则表达式文件，可以为null
+     */
+    public FileLexiconSource(Path wordsFile, Path patternsFile) {
+        this.wordsFile = wordsFile;
+        this.patternsFile = patternsFile;
+    }
+    
+    @Override
+    public String getFingerprint() throws IOException {
+        return fingerprint(wordsFile) + "|" + fingerprint(patternsFile);
+    }
+    
+    @Override
+    public List<String> loadWords() throws IOException {
+        return readEntries(wordsFile);
+    }
+    
+    @Override
+    public List<String> loadPatterns() throws IOException {
+        return readEntries(patternsFile);
+    }
+    
+    /**
+     * 根据文件大小和修改时间生成指纹
+     */
+    private static String fingerprint(Path file) throws IOException {
+        if (file == null) {
+            return "-";
+        }
+        return Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
+    }
+    
+    /**
+     * 读取文件中的词条，未配置文件时返回null
+     */
+    private static List<String> readEntries(Path file) throws IOException {
+        if (file == null) {
+            return null;
+        }
+        List<String> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String entry = line.trim();
+            if (!entry.isEmpty() && !entry.startsWith("#")) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+}
@@ -47,6 +47,14 @@ public class FilterResult {
         // 建议处理方式
         private String recommendation;
         
+        // 风险内容在原文中的开始位置（含），-1表示未知
+        @Builder.Default
+        private int startOffset = -1;
+        
+        // 风险内容在原文中的结束位置（不含），-1表示未知
+        @Builder.Default
+        private int endOffset = -1;
+        
         /**
          * 风险级别枚举
          */
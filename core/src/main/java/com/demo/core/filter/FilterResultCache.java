@@ -0,0 +1,169 @@
+package com.demo.core.filter;
+
+import com.demo.core.cache.BoundedCache;
+import com.demo.core.cache.CacheStats;
+import com.demo.core.cache.ContentHash;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 过滤结果缓存
+ * 以内容的128位哈希和词库版本作为键，不保存原文；过滤后内容与原文相同时只记录标志，
+ * 命中时直接复用调用方传入的字符串，尽量降低每个条目的内存占用
+ */
+public class FilterResultCache {
+
+    private final BoundedCache<Key, CachedResult> cache;
+    
+    // 超过该长度的内容不缓存
+    private final int maxContentLength;
+    
+    /**
+     * 构造函数
+     * @param maximumSize 最大条目数
+     * @param ttl 条目存活时间，为null时不过期
+     * @param maxContentLength 可缓存内容的最大长度
+     */
+    public FilterResultCache(int maximumSize, Duration ttl, int maxContentLength) {
+        this.cache = BoundedCache.<Key, CachedResult>builder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.maxContentLength = maxContentLength;
+    }
+    
+    /**
+     * 查询缓存的过滤结果
+     * @param content 内容
+     * @param lexiconVersion 词库版本
+     * @return 过滤结果，未命中时返回null
+     */
+    public FilterResult get(String content, long lexiconVersion) {
+        if (!isCacheable(content)) {
+            return null;
+        }
+        CachedResult cached = cache.get(new Key(ContentHash.of(content), lexiconVersion));
+        return cached != null ? cached.toResult(content) : null;
+    }
+    
+    /**
+     * 缓存过滤结果
+     * @param content 内容
+     * @param lexiconVersion 词库版本
+     * @param result 过滤结果
+     */
+    public void put(String content, long lexiconVersion, FilterResult result) {
+        if (!isCacheable(content)) {
+            return;
+        }
+        cache.put(new Key(ContentHash.of(content), lexiconVersion), CachedResult.of(content, result));
+    }
+    
+    /**
+     * 清空缓存，词库更新时调用
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    /**
+     * 获取缓存统计信息
+     * @return 统计信息
+     */
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+    
+    private boolean isCacheable(String content) {
+        return content != null && !content.isEmpty() && content.length() <= maxContentLength;
+    }
+    
+    /**
+     * 缓存键
+     */
+    private static final class Key {
+        private final ContentHash hash;
+        private final long lexiconVersion;
+        
+        private Key(ContentHash hash, long lexiconVersion) {
+            this.hash = hash;
+            this.lexiconVersion = lexiconVersion;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return lexiconVersion == other.lexiconVersion && hash.equals(other.hash);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash.hashCode() * 31 + Long.hashCode(lexiconVersion);
+        }
+    }
+    
+    /**
+     * 紧凑的过滤结果，风险项保存为数组，未修改的内容不重复保存
+     */
+    private static final class CachedResult {
+        private final boolean passed;
+        private final String reason;
+        private final FilterResult.RiskItem[] riskItems;
+        
+        // 过滤后的内容，与原文相同时为null
+        private final String filteredContent;
+        
+        private CachedResult(boolean passed, String reason, FilterResult.RiskItem[] riskItems, String filteredContent) {
+            this.passed = passed;
+            this.reason = reason;
+            this.riskItems = riskItems;
+            this.filteredContent = filteredContent;
+        }
+        
+        private static CachedResult of(String content, FilterResult result) {
+            List<FilterResult.RiskItem> items = result.getRiskItems();
+            FilterResult.RiskItem[] riskItems = new FilterResult.RiskItem[items != null ? items.size() : 0];
+            for (int i = 0; i < riskItems.length; i++) {
+                riskItems[i] = copyOf(items.get(i));
+            }
+            String filtered = result.getFilteredContent();
+            return new CachedResult(result.isPassed(), result.getReason(), riskItems,
+                    content.equals(filtered) ? null : filtered);
+        }
+        
+        /**
+         * 还原为过滤结果，风险项为副本，调用方修改结果不会影响缓存
+         */
+        private FilterResult toResult(String content) {
+            List<FilterResult.RiskItem> items = new ArrayList<>(riskItems.length);
+            for (FilterResult.RiskItem item : riskItems) {
+                items.add(copyOf(item));
+            }
+            return FilterResult.builder()
+                    .passed(passed)
+                    .reason(reason)
+                    .riskItems(items)
+                    .filteredContent(filteredContent != null ? filteredContent : content)
+                    .build();
+        }
+        
+        private static FilterResult.RiskItem copyOf(FilterResult.RiskItem item) {
+            return FilterResult.RiskItem.builder()
+                    .riskType(item.getRiskType())
+                    .riskLevel(item.getRiskLevel())
+                    .content(item.getContent())
+                    .recommendation(item.getRecommendation())
+                    .startOffset(item.getStartOffset())
+                    .endOffset(item.getEndOffset())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.demo.core.filter;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 敏感词库管理器，负责从外部来源加载词库并热更新到文本内容过滤器
+ * 词库的读取和编译都在独立的后台线程中完成，编译成功后一次性替换过滤器的快照，
+ * 更新期间请求不会被阻塞；加载或编译失败时保留原有快照
+ */
+@Component
+public class LexiconManager {
+    
+    private final TextContentFilter textContentFilter;
+    
+    // 词库来源，为null时表示未配置外部词库
+    private final LexiconSource source;
+    
+    // 检查词库变化的间隔（毫秒），不大于0时只在启动时加载一次
+    private final long refreshIntervalMillis;
+    
+    // 最近一次成功加载的词库指纹
+    private volatile String loadedFingerprint;
+    
+    private Scheduler scheduler;
+    private Disposable refreshTask;
+    
+    /**
+     * 构造函数
+     * @param textContentFilter 文本内容过滤器
+     * @param wordsFile 敏感词文件路径，为空时不加载敏感词
+     * @param patternsFile 敏感正则表达式文件路径，为空时不加载敏感正则表达式
+     * @param refreshIntervalMillis 检查词库变化的间隔（毫秒）
+     */
+    @Autowired
+    public LexiconManager(TextContentFilter textContentFilter,
+                          @Value("${filter.lexicon.words-file:}") String wordsFile,
+                          @Value("${filter.lexicon.patterns-file:}") String patternsFile,
+                          @Value("${filter.lexicon.refresh-interval-ms:30000}") long refreshIntervalMillis) {
+        this(textContentFilter, createFileSource(wordsFile, patternsFile), refreshIntervalMillis);
+    }
+    
+    /**
+     * 构造函数，可用于接入数据库等其他词库来源
+     * @param textContentFilter 文本内容过滤器
+     * @param source 词库来源，为null时不加载外部词库
+     * @param refreshIntervalMillis 检查词库变化的间隔（毫秒）
+     */
+    public LexiconManager(TextContentFilter textContentFilter, LexiconSource source, long refreshIntervalMillis) {
+        this.textContentFilter = textContentFilter;
+        this.source = source;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+    
+    /**
+     * 加载外部词库并启动定时检查
+     * 未配置外部词库时过滤器继续使用默认词库
+     */
+    public synchronized void start() {
+        if (source == null || refreshTask != null) {
+            return;
+        }
+        refresh();
+        if (refreshIntervalMillis > 0) {
+            scheduler = Schedulers.newSingle("lexicon-refresh", true);
+            refreshTask = scheduler.schedulePeriodically(this::refresh,
+                    refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * 检查词库是否变化，变化时重新加载并编译
+     * @return 是否更新了词库
+     */
+    public synchronized boolean refresh() {
+        if (source == null) {
+            return false;
+        }
+        try {
+            String fingerprint = source.getFingerprint();
+            if (fingerprint != null && fingerprint.equals(loadedFingerprint)) {
+                return false;
+            }
+            List<String> words = source.loadWords();
+            List<String> patterns = source.loadPatterns();
+            LexiconSnapshot snapshot = compile(textContentFilter.getLexicon(), words, patterns);
+            if (snapshot == null) {
+                loadedFingerprint = fingerprint;
+                return false;
+            }
+            textContentFilter.applyLexicon(snapshot);
+            loadedFingerprint = fingerprint;
+            System.out.println("敏感词库已更新，版本: " + snapshot.getVersion()
+                    + "，敏感词: " + snapshot.getWords().size() + "，正则表达式: " + snapshot.getPatterns().size());
+            return true;
+        } catch (Exception e) {
+            // 加载失败时保留原有词库
+            System.err.println("Failed to reload lexicon: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 获取当前生效的词库版本
+     * @return 版本号
+     */
+    public long getCurrentVersion() {
+        return textContentFilter.getLexicon().getVersion();
+    }
+    
+    /**
+     * 停止定时检查
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+            refreshTask = null;
+        }
+        if (scheduler != null) {
+            scheduler.dispose();
+            scheduler = null;
+        }
+    }
+    
+    /**
+     * 编译新的词库快照，来源未提供的一侧沿用当前快照（默认词库或上一次加载的结果）
+     * @return 新快照，两侧都未提供时返回null
+     */
+    private static LexiconSnapshot compile(LexiconSnapshot current, List<String> words, List<String> patterns) {
+        if (words == null && patterns == null) {
+            return null;
+        }
+        if (words == null) {
+            return current.withPatterns(patterns);
+        }
+        if (patterns == null) {
+            return current.withWords(words);
+        }
+        return LexiconSnapshot.compile(words, patterns);
+    }
+    
+    private static LexiconSource createFileSource(String wordsFile, String patternsFile) {
+        boolean hasWords = wordsFile != null && !wordsFile.isBlank();
+        boolean hasPatterns = patternsFile != null && !patternsFile.isBlank();
+        if (!hasWords && !hasPatterns) {
+            return null;
+        }
+        return new FileLexiconSource(hasWords ? Path.of(wordsFile.trim()) : null,
+                hasPatterns ? Path.of(patternsFile.trim()) : null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.demo.core.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 敏感词库快照
+ * 敏感词和敏感正则表达式在加载时预编译为匹配器，快照构建完成后不可变；
+ * 过滤器通过替换整个快照完成更新，正在执行的过滤继续使用取到的快照，不会读到更新到一半的词库
+ */
+public final class LexiconSnapshot {
+
+    // 版本号生成器，0保留给空快照
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    
+    // 空快照
+    private static final LexiconSnapshot EMPTY = new LexiconSnapshot(0L, List.of(), List.of(),
+            AhoCorasickMatcher.empty(), PatternScanner.empty());
+    
+    // 版本号，每次编译生成新的快照时递增
+    private final long version;
+    
+    // 敏感词列表
+    private final List<String> words;
+    
+    // 敏感正则表达式列表
+    private final List<String> patterns;
+    
+    // 预编译的敏感词匹配器
+    private final AhoCorasickMatcher wordMatcher;
+    
+    // 预编译的敏感正则表达式扫描器
+    private final PatternScanner patternScanner;
+    
+    private LexiconSnapshot(long version, List<String> words, List<String> patterns,
+                            AhoCorasickMatcher wordMatcher, PatternScanner patternScanner) {
+        this.version = version;
+        this.words = words;
+        this.patterns = patterns;
+        this.wordMatcher = wordMatcher;
+        this.patternScanner = patternScanner;
+    }
+    
+    /**
+     * 获取空快照
+     * @return 空快照
+     */
+    public static LexiconSnapshot empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * 编译敏感词和敏感正则表达式，生成新版本的快照
+     * @param words 敏感词列表
+     * @param patterns 敏感正则表达式列表（RE2语法）
+     * @return 快照
+     * @throws com.google.re2j.PatternSyntaxException 如果某个表达式不合法
+     */
+    public static LexiconSnapshot compile(Collection<String> words, Collection<String> patterns) {
+        return new LexiconSnapshot(VERSIONS.incrementAndGet(), copyOf(words), copyOf(patterns),
+                AhoCorasickMatcher.build(words), PatternScanner.compile(patterns));
+    }
+    
+    /**
+     * 替换敏感词，生成新版本的快照，敏感正则表达式沿用当前快照已编译的结果
+     * @param newWords 敏感词列表
+     * @return 新快照
+     */
+    public LexiconSnapshot withWords(Collection<String> newWords) {
+        return new LexiconSnapshot(VERSIONS.incrementAndGet(), copyOf(newWords), patterns,
+                AhoCorasickMatcher.build(newWords), patternScanner);
+    }
+    
+    /**
+     * 替换敏感正则表达式，生成新版本的快照，敏感词沿用当前快照已编译的结果
+     * @param newPatterns 敏感正则表达式列表（RE2语法）
+     * @return 新快照
+     */
+    public LexiconSnapshot withPatterns(Collection<String> newPatterns) {
+        return new LexiconSnapshot(VERSIONS.incrementAndGet(), words, copyOf(newPatterns),
+                wordMatcher, PatternScanner.compile(newPatterns));
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public List<String> getWords() {
+        return words;
+    }
+    
+    public List<String> getPatterns() {
+        return patterns;
+    }
+    
+    public AhoCorasickMatcher getWordMatcher() {
+        return wordMatcher;
+    }
+    
+    public PatternScanner getPatternScanner() {
+        return patternScanner;
+    }
+    
+    private static List<String> copyOf(Collection<String> values) {
+        return Collections.unmodifiableList(new ArrayList<>(values));
+    }
+}
@@ -0,0 +1,31 @@
+package com.demo.core.filter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 敏感词库来源，可以基于文件、数据库或配置中心实现
+ */
+public interface LexiconSource {
+
+    /**
+     * 获取词库内容的指纹，指纹未变化时不会重新加载和编译
+     * @return 指纹
+     * @throws IOException 如果读取失败
+     */
+    String getFingerprint() throws IOException;
+    
+    /**
+     * 加载敏感词列表
+     * @return 敏感词列表，来源不提供敏感词时返回null，沿用当前词库中的敏感词
+     * @throws IOException 如果读取失败
+     */
+    List<String> loadWords() throws IOException;
+    
+    /**
+     * 加载敏感正则表达式列表
+     * @return 敏感正则表达式列表（RE2语法），来源不提供正则表达式时返回null，沿用当前词库中的正则表达式
+     * @throws IOException 如果读取失败
+     */
+    List<String> loadPatterns() throws IOException;
+}
@@ -0,0 +1,135 @@
+package com.demo.core.filter;
+
+import com.google.re2j.Matcher;
+import com.google.re2j.Pattern;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 敏感正则表达式扫描器
+ * 将所有正则表达式预编译为一个组合的RE2自动机，一次扫描即可找出所有模式的匹配；
+ * RE2不使用回溯，匹配时间与输入长度成线性关系，不会因为恶意构造的输入而退化
+ */
+public final class PatternScanner {
+
+    // 空模式列表对应的扫描器
+    private static final PatternScanner EMPTY = compile(List.of());
+
+    // 原始正则表达式，下标即模式ID
+    private final String[] patterns;
+
+    // 组合后的正则表达式，没有模式时为null
+    private final Pattern combined;
+
+    // 每个模式在组合表达式中对应的捕获组编号
+    private final int[] groupIndexes;
+
+    private PatternScanner(String[] patterns, Pattern combined, int[] groupIndexes) {
+        this.patterns = patterns;
+        this.combined = combined;
+        this.groupIndexes = groupIndexes;
+    }
+
+    /**
+     * 获取空扫描器
+     * @return 空扫描器
+     */
+    public static PatternScanner empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 编译正则表达式列表
+     * 正则表达式使用RE2语法，不支持反向引用和环视断言
+     * @param regexes 正则表达式列表
+     * @return 扫描器
+     * @throws com.google.re2j.PatternSyntaxException 如果某个表达式不合法
+     */
+    public static PatternScanner compile(Collection<String> regexes) {
+        List<String> patterns = new ArrayList<>();
+        for (String regex : regexes) {
+            if (regex != null && !regex.isEmpty()) {
+                patterns.add(regex);
+            }
+        }
+        if (patterns.isEmpty()) {
+            return new PatternScanner(new String[0], null, new int[0]);
+        }
+
+        // 每个模式包裹在一个捕获组中，通过命中的捕获组判断是哪个模式匹配
+        StringBuilder combinedRegex = new StringBuilder();
+        int[] groupIndexes = new int[patterns.size()];
+        int nextGroup = 1;
+        for (int i = 0; i < patterns.size(); i++) {
+            String regex = patterns.get(i);
+            if (i > 0) {
+                combinedRegex.append('|');
+            }
+            combinedRegex.append('(').append(regex).append(')');
+            groupIndexes[i] = nextGroup;
+            nextGroup += 1 + Pattern.compile(regex).matcher("").groupCount();
+        }
+
+        return new PatternScanner(patterns.toArray(new String[0]), Pattern.compile(combinedRegex.toString()), groupIndexes);
+    }
+
+    /**
+     * 扫描文本，按从左到右的顺序报告所有不重叠的匹配
+     * 同一位置有多个模式可以匹配时，取配置顺序中靠前的模式
+     * @param text 文本
+     * @param handler 匹配处理器
+     */
+    public void scan(CharSequence text, MatchHandler handler) {
+        if (combined == null) {
+            return;
+        }
+        Matcher matcher = combined.matcher(text);
+        while (matcher.find()) {
+            int start = matcher.start();
+            int end = matcher.end();
+            if (start == end) {
+                continue;
+            }
+            for (int patternId = 0; patternId < groupIndexes.length; patternId++) {
+                if (matcher.start(groupIndexes[patternId]) >= 0) {
+                    handler.onMatch(patternId, start, end);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 根据模式ID获取原始正则表达式
+     * @param patternId 模式ID
+     * @return 正则表达式
+     */
+    public String getPattern(int patternId) {
+        return patterns[patternId];
+    }
+
+    /**
+     * 获取模式数量
+     * @return 模式数量
+     */
+    public int getPatternCount() {
+        return patterns.length;
+    }
+
+    /**
+     * 匹配处理器
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+
+        /**
+         * 处理一次匹配
+         * @param patternId 模式ID
+         * @param start 匹配开始位置（含）
+         * @param end 匹配结束位置（不含）
+         */
+        void onMatch(int patternId, int start, int end);
+    }
+}
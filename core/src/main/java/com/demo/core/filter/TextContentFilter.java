@@ -1,34 +1,82 @@
 package com.demo.core.filter;
 
+import com.demo.core.cache.CacheStats;
+import com.demo.core.exception.ContentFilterException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 文本内容过滤器实现，用于过滤文本中的不安全内容
  */
 @Component("textContentFilter")
 public class TextContentFilter implements ContentFilter {
-    
+
     private static final String FILTER_ID = "text_filter";
     private static final String FILTER_NAME = "文本内容过滤器";
     
-    // 这里可以配置敏感词列表
-    private List<String> sensitiveWords = new ArrayList<>();
+    // 敏感模式的替换文本
+    private static final String PATTERN_MASK = "***";
+    
+    // 默认敏感词，未配置外部词库时使用
+    private static final List<String> DEFAULT_WORDS = List.of(
+            "敏感词1",
+            "敏感词2"
+            // 可以添加更多敏感词
+    );
+    
+    // 默认敏感正则表达式，未配置外部词库时使用
+    private static final List<String> DEFAULT_PATTERNS = List.of(
+            "[0-9]{17}[0-9Xx]", // 身份证号
+            "[0-9]{16,19}" // 银行卡号
+            // 可以添加更多正则表达式
+    );
+    
+    // 当前词库快照，更新时整体替换，读取方无需加锁
+    private final AtomicReference<LexiconSnapshot> lexicon = new AtomicReference<>(LexiconSnapshot.empty());
+    
+    // 流式过滤时为敏感模式保留的字符数，应不小于任一敏感模式可能匹配的最大长度
+    @Value("${filter.stream.pattern-lookahead:64}")
+    private int patternLookahead = 64;
+    
+    // 过滤结果缓存，键中包含词库版本，词库更新后旧条目不会再被命中
+    private final FilterResultCache resultCache;
+    
+    /**
+     * 使用默认缓存配置的构造函数
+     */
+    public TextContentFilter() {
+        this(10000, 600, 4096);
+    }
     
-    // 这里可以配置敏感正则表达式
-    private List<Pattern> sensitivePatterns = new ArrayList<>();
+    /**
+     * 构造函数
+     * @param cacheMaxEntries 过滤结果缓存的最大条目数
+     * @param cacheTtlSeconds 过滤结果缓存的存活时间（秒），不大于0时不过期
+     * @param cacheMaxContentLength 可缓存内容的最大长度
+     */
+    @Autowired
+    public TextContentFilter(@Value("${filter.cache.max-entries:10000}") int cacheMaxEntries,
+                             @Value("${filter.cache.ttl-seconds:600}") long cacheTtlSeconds,
+                             @Value("${filter.cache.max-content-length:4096}") int cacheMaxContentLength) {
+        this.resultCache = new FilterResultCache(cacheMaxEntries, Duration.ofSeconds(cacheTtlSeconds), cacheMaxContentLength);
+    }
     
     @Override
     public void initialize() {
-        // 初始化敏感词和正则表达式
-        // 实际应用中，这些配置可能会从数据库或配置文件中加载
-        initSensitiveWords();
-        initSensitivePatterns();
+        // 初始化默认的敏感词和正则表达式
+        // 配置了外部词库时，由LexiconManager加载后替换
+        applyLexicon(LexiconSnapshot.compile(DEFAULT_WORDS, DEFAULT_PATTERNS));
     }
     
     @Override
@@ -40,48 +88,62 @@ public class TextContentFilter implements ContentFilter {
                     .build());
         }
         
-        List<FilterResult.RiskItem> riskItems = new ArrayList<>();
-        String filteredContent = content;
+        // 整个过滤过程使用同一个快照，敏感词和正则表达式始终来自同一版本的词库
+        LexiconSnapshot snapshot = lexicon.get();
         
-        // 检测敏感词
-        for (String sensitiveWord : sensitiveWords) {
-            if (content.contains(sensitiveWord)) {
-                riskItems.add(FilterResult.RiskItem.builder()
-                        .riskType("sensitive_word")
-                        .riskLevel(FilterResult.RiskItem.RiskLevel.MEDIUM)
-                        .content(sensitiveWord)
-                        .recommendation("移除敏感词")
-                        .build());
-                // 替换敏感词（实际应用中可能需要更复杂的替换策略）
-                filteredContent = filteredContent.replace(sensitiveWord, "*".repeat(sensitiveWord.length()));
-            }
+        // 相同内容在同一版本词库下的过滤结果相同，命中缓存时无需重新扫描
+        FilterResult cached = resultCache.get(content, snapshot.getVersion());
+        if (cached != null) {
+            return Mono.just(cached);
         }
         
-        // 检测敏感模式
-        for (Pattern pattern : sensitivePatterns) {
-            java.util.regex.Matcher matcher = pattern.matcher(content);
-            if (matcher.find()) {
-                String matchedContent = matcher.group();
-                riskItems.add(FilterResult.RiskItem.builder()
-                        .riskType("sensitive_pattern")
-                        .riskLevel(FilterResult.RiskItem.RiskLevel.HIGH)
-                        .content(matchedContent)
-                        .recommendation("移除敏感模式")
-                        .build());
-                // 替换敏感模式（实际应用中可能需要更复杂的替换策略）
-                filteredContent = filteredContent.replaceAll(pattern.pattern(), "***");
-            }
-        }
+        List<FilterResult.RiskItem> riskItems = new ArrayList<>();
+        
+        // 检测敏感词：一次扫描找出所有匹配，并在同一个缓冲区中完成掩码
+        AhoCorasickMatcher currentWordMatcher = snapshot.getWordMatcher();
+        WordMaskingHandler wordHandler = new WordMaskingHandler(currentWordMatcher, content, riskItems);
+        currentWordMatcher.scan(content, wordHandler);
+        
+        // 检测敏感模式：所有正则表达式组合为一次扫描，记录每个匹配的位置
+        PatternScanner currentPatternScanner = snapshot.getPatternScanner();
+        PatternCollectingHandler patternHandler = new PatternCollectingHandler(content, riskItems);
+        currentPatternScanner.scan(content, patternHandler);
+        
+        // 一次遍历生成过滤后的内容
+        String filteredContent = rewrite(content, wordHandler.buffer, patternHandler.spans, patternHandler.spanCount);
         
         boolean passed = riskItems.isEmpty() || riskItems.stream().allMatch(item -> 
                 item.getRiskLevel() != FilterResult.RiskItem.RiskLevel.HIGH);
         
-        return Mono.just(FilterResult.builder()
+        FilterResult result = FilterResult.builder()
                 .passed(passed)
                 .reason(passed ? "内容安全" : "包含不安全内容")
                 .riskItems(riskItems)
                 .filteredContent(filteredContent)
-                .build());
+                .build();
+        resultCache.put(content, snapshot.getVersion(), result);
+        return Mono.just(result);
+    }
+    
+    /**
+     * 流式过滤文本内容
+     * 敏感词自动机的状态跨分片保留，被分片拆开的敏感词同样能被识别；每个分片处理后，
+     * 只保留可能成为敏感词前缀的字符以及敏感模式所需的前瞻窗口，其余文本立即输出。
+     * 确认高风险内容后流立即以{@link ContentFilterException}结束，调用方可以据此中止生成，
+     * 异常中的过滤结果包含截至此时发现的全部风险项，偏移量相对于整个流
+     * @param chunks 文本分片流
+     * @return 过滤后的文本分片流
+     */
+    @Override
+    public Flux<String> filterStream(Flux<String> chunks) {
+        return Flux.defer(() -> {
+            // 每个流固定使用订阅时的词库，重新加载不影响正在进行的流
+            LexiconSnapshot snapshot = lexicon.get();
+            StreamSession session = new StreamSession(snapshot.getWordMatcher(), snapshot.getPatternScanner(), patternLookahead);
+            return chunks.map(session::accept)
+                    .concatWith(Mono.fromSupplier(session::finish))
+                    .filter(chunk -> !chunk.isEmpty());
+        });
     }
     
     @Override
@@ -102,30 +164,351 @@ public class TextContentFilter implements ContentFilter {
     
     @Override
     public void shutdown() {
-        // 清理资源
-        sensitiveWords.clear();
-        sensitivePatterns.clear();
+        // 替换为空快照即可，正在执行的过滤仍持有各自的快照
+        lexicon.set(LexiconSnapshot.empty());
+        resultCache.invalidateAll();
+    }
+    
+    /**
+     * 替换词库快照
+     * 快照应在请求路径之外编译完成，替换本身只是一次引用赋值
+     * @param snapshot 新的词库快照
+     */
+    public void applyLexicon(LexiconSnapshot snapshot) {
+        lexicon.set(snapshot);
+        resultCache.invalidateAll();
+    }
+    
+    /**
+     * 获取当前的词库快照
+     * @return 词库快照
+     */
+    public LexiconSnapshot getLexicon() {
+        return lexicon.get();
+    }
+    
+    /**
+     * 重新加载敏感词，敏感正则表达式保持不变
+     * @param words 敏感词列表
+     */
+    public void reloadSensitiveWords(Collection<String> words) {
+        lexicon.updateAndGet(current -> current.withWords(words));
+        resultCache.invalidateAll();
+    }
+    
+    /**
+     * 重新加载敏感正则表达式，敏感词保持不变
+     * @param regexes 正则表达式列表（RE2语法）
+     */
+    public void reloadSensitivePatterns(Collection<String> regexes) {
+        lexicon.updateAndGet(current -> current.withPatterns(regexes));
+        resultCache.invalidateAll();
+    }
+    
+    /**
+     * 获取过滤结果缓存的统计信息
+     * @return 统计信息
+     */
+    public CacheStats getCacheStats() {
+        return resultCache.getStats();
+    }
+    
+    /**
+     * 根据敏感词掩码结果和敏感模式的匹配位置生成过滤后的内容
+     * @param content 原始内容
+     * @param maskedWords 敏感词掩码后的字符，没有命中敏感词时为null
+     * @param spans 敏感模式匹配位置，依次存放开始和结束位置
+     * @param spanCount 匹配数量
+     * @return 过滤后的内容
+     */
+    private static String rewrite(String content, char[] maskedWords, int[] spans, int spanCount) {
+        if (spanCount == 0) {
+            return maskedWords != null ? new String(maskedWords) : content;
+        }
+        StringBuilder output = new StringBuilder(content.length());
+        int position = 0;
+        for (int i = 0; i < spanCount; i++) {
+            int start = spans[2 * i];
+            appendRange(output, content, maskedWords, position, start);
+            output.append(PATTERN_MASK);
+            position = spans[2 * i + 1];
+        }
+        appendRange(output, content, maskedWords, position, content.length());
+        return output.toString();
+    }
+    
+    private static void appendRange(StringBuilder output, String content, char[] maskedWords, int start, int end) {
+        if (maskedWords != null) {
+            output.append(maskedWords, start, end - start);
+        } else {
+            output.append(content, start, end);
+        }
+    }
+    
+    /**
+     * 敏感词匹配处理器，记录每个命中的敏感词并在字符缓冲区中掩码
+     */
+    private static final class WordMaskingHandler implements AhoCorasickMatcher.MatchHandler {
+        
+        private final AhoCorasickMatcher matcher;
+        private final String content;
+        private final List<FilterResult.RiskItem> riskItems;
+        
+        // 已报告的敏感词ID，同一个敏感词只生成一个风险项
+        private BitSet reportedWords;
+        
+        // 掩码后的字符缓冲区，首次命中时才创建
+        private char[] buffer;
+        
+        private WordMaskingHandler(AhoCorasickMatcher matcher, String content, List<FilterResult.RiskItem> riskItems) {
+            this.matcher = matcher;
+            this.content = content;
+            this.riskItems = riskItems;
+        }
+        
+        @Override
+        public void onMatch(int wordId, int start, int end) {
+            if (buffer == null) {
+                buffer = content.toCharArray();
+                reportedWords = new BitSet(matcher.getWordCount());
+            }
+            Arrays.fill(buffer, start, end, '*');
+            
+            if (!reportedWords.get(wordId)) {
+                reportedWords.set(wordId);
+                riskItems.add(FilterResult.RiskItem.builder()
+                        .riskType("sensitive_word")
+                        .riskLevel(FilterResult.RiskItem.RiskLevel.MEDIUM)
+                        .content(matcher.getWord(wordId))
+                        .recommendation("移除敏感词")
+                        .startOffset(start)
+                        .endOffset(end)
+                        .build());
+            }
+        }
     }
     
     /**
-     * 初始化敏感词列表
+     * 敏感模式匹配处理器，为每个匹配生成风险项并记录匹配位置
      */
-    private void initSensitiveWords() {
-        // 示例敏感词，实际应用中可能会从配置中加载
-        sensitiveWords.addAll(Arrays.asList(
-                "敏感词1",
-                "敏感词2"
-                // 可以添加更多敏感词
-        ));
+    private static final class PatternCollectingHandler implements PatternScanner.MatchHandler {
+        
+        private final String content;
+        private final List<FilterResult.RiskItem> riskItems;
+        
+        // 匹配位置，依次存放开始和结束位置
+        private int[] spans = new int[0];
+        private int spanCount;
+        
+        private PatternCollectingHandler(String content, List<FilterResult.RiskItem> riskItems) {
+            this.content = content;
+            this.riskItems = riskItems;
+        }
+        
+        @Override
+        public void onMatch(int patternId, int start, int end) {
+            if (2 * spanCount == spans.length) {
+                spans = Arrays.copyOf(spans, Math.max(8, spans.length * 2));
+            }
+            spans[2 * spanCount] = start;
+            spans[2 * spanCount + 1] = end;
+            spanCount++;
+            
+            riskItems.add(FilterResult.RiskItem.builder()
+                    .riskType("sensitive_pattern")
+                    .riskLevel(FilterResult.RiskItem.RiskLevel.HIGH)
+                    .content(content.substring(start, end))
+                    .recommendation("移除敏感模式")
+                    .startOffset(start)
+                    .endOffset(end)
+                    .build());
+        }
     }
     
     /**
-     * 初始化敏感正则表达式
+     * 流式过滤会话，保存跨分片的自动机状态和尚未输出的文本
+     * 会话只在单个流内按顺序使用，不需要同步
      */
-    private void initSensitivePatterns() {
-        // 示例正则表达式，实际应用中可能会从配置中加载
-        sensitivePatterns.add(Pattern.compile("[0-9]{17}[0-9Xx]")); // 身份证号
-        sensitivePatterns.add(Pattern.compile("[0-9]{16,19}")); // 银行卡号
-        // 可以添加更多正则表达式
+    private static final class StreamSession {
+        
+        private final AhoCorasickMatcher matcher;
+        private final PatternScanner scanner;
+        private final int patternLookahead;
+        
+        // 尚未输出的原始文本，敏感模式在原始文本上匹配
+        private final StringBuilder pendingOriginal = new StringBuilder();
+        
+        // 尚未输出的文本，其中的敏感词已被掩码
+        private final StringBuilder pendingMasked = new StringBuilder();
+        
+        // 敏感词自动机的当前状态
+        private int state = AhoCorasickMatcher.ROOT;
+        
+        // 本轮扫描到的敏感模式匹配位置，依次存放开始和结束位置
+        private int[] spans = new int[8];
+        private int spanCount;
+        
+        // 已经输出的原始文本长度，用于计算风险项在整个流中的偏移量
+        private int offset;
+        
+        // 已发现的风险项，同一个敏感词只生成一个风险项
+        private final List<FilterResult.RiskItem> riskItems = new ArrayList<>();
+        private BitSet reportedWords;
+        
+        private final AhoCorasickMatcher.MatchHandler wordMasker = this::maskWord;
+        private final PatternScanner.MatchHandler spanCollector = this::collectSpan;
+        
+        private StreamSession(AhoCorasickMatcher matcher, PatternScanner scanner, int patternLookahead) {
+            this.matcher = matcher;
+            this.scanner = scanner;
+            this.patternLookahead = Math.max(0, patternLookahead);
+        }
+        
+        /**
+         * 处理一个分片
+         * @param chunk 文本分片
+         * @return 可以安全输出的文本，可能为空字符串
+         */
+        private String accept(String chunk) {
+            for (int i = 0; i < chunk.length(); i++) {
+                char c = chunk.charAt(i);
+                pendingOriginal.append(c);
+                pendingMasked.append(c);
+                state = matcher.nextState(state, c);
+                if (matcher.hasMatch(state)) {
+                    matcher.reportMatches(state, pendingMasked.length(), wordMasker);
+                }
+            }
+            // 自动机深度即当前可能成为敏感词前缀的字符数，这部分暂不输出
+            return drain(pendingMasked.length() - matcher.getDepth(state), false);
+        }
+        
+        /**
+         * 流结束时输出剩余的全部文本
+         * @return 剩余文本
+         */
+        private String finish() {
+            return drain(pendingMasked.length(), true);
+        }
+        
+        /**
+         * 输出待处理文本中已经确定的部分
+         * @param wordLimit 敏感词允许输出的位置上限
+         * @param last 是否为流的最后一次输出
+         * @return 过滤后的文本
+         */
+        private String drain(int wordLimit, boolean last) {
+            int length = pendingOriginal.length();
+            if (scanner.getPatternCount() == 0) {
+                return emit(last ? length : wordLimit, 0);
+            }
+            int boundary = last ? length : Math.min(wordLimit, length - patternLookahead);
+            if (boundary <= 0) {
+                return emit(Math.max(0, boundary), 0);
+            }
+            
+            spanCount = 0;
+            scanner.scan(pendingOriginal, spanCollector);
+            int accepted = 0;
+            for (int i = 0; i < spanCount; i++) {
+                int start = spans[2 * i];
+                int end = spans[2 * i + 1];
+                if (start >= boundary) {
+                    break;
+                }
+                if (end > boundary || (!last && end >= length)) {
+                    // 匹配跨越输出边界：匹配已经确定且不含待定的敏感词前缀时一并输出，否则从匹配开始处截断
+                    if (last || (end < length && end <= wordLimit)) {
+                        boundary = end;
+                        accepted = i + 1;
+                    } else {
+                        boundary = start;
+                    }
+                    break;
+                }
+                accepted = i + 1;
+            }
+            return emit(boundary, accepted);
+        }
+        
+        /**
+         * 输出指定位置之前的文本，并将其中的敏感模式替换为掩码
+         * 敏感模式均为高风险，存在已确认的匹配时不再输出，直接拒绝整个流
+         * @param boundary 输出位置
+         * @param accepted 需要替换的敏感模式匹配数量
+         * @return 过滤后的文本
+         * @throws ContentFilterException 存在已确认的敏感模式匹配时抛出
+         */
+        private String emit(int boundary, int accepted) {
+            if (accepted > 0) {
+                reject(accepted);
+            }
+            if (boundary == 0) {
+                return "";
+            }
+            StringBuilder output = new StringBuilder(boundary);
+            int position = 0;
+            for (int i = 0; i < accepted; i++) {
+                output.append(pendingMasked, position, spans[2 * i]);
+                output.append(PATTERN_MASK);
+                position = spans[2 * i + 1];
+            }
+            output.append(pendingMasked, position, boundary);
+            pendingOriginal.delete(0, boundary);
+            pendingMasked.delete(0, boundary);
+            offset += boundary;
+            return output.toString();
+        }
+        
+        private void reject(int accepted) {
+            for (int i = 0; i < accepted; i++) {
+                int start = spans[2 * i];
+                int end = spans[2 * i + 1];
+                riskItems.add(FilterResult.RiskItem.builder()
+                        .riskType("sensitive_pattern")
+                        .riskLevel(FilterResult.RiskItem.RiskLevel.HIGH)
+                        .content(pendingOriginal.substring(start, end))
+                        .recommendation("移除敏感模式")
+                        .startOffset(offset + start)
+                        .endOffset(offset + end)
+                        .build());
+            }
+            FilterResult result = FilterResult.builder()
+                    .passed(false)
+                    .reason("包含不安全内容")
+                    .riskItems(new ArrayList<>(riskItems))
+                    .build();
+            throw new ContentFilterException(result.getReason(), result);
+        }
+        
+        private void maskWord(int wordId, int start, int end) {
+            for (int i = start; i < end; i++) {
+                pendingMasked.setCharAt(i, '*');
+            }
+            
+            if (reportedWords == null) {
+                reportedWords = new BitSet(matcher.getWordCount());
+            }
+            if (!reportedWords.get(wordId)) {
+                reportedWords.set(wordId);
+                riskItems.add(FilterResult.RiskItem.builder()
+                        .riskType("sensitive_word")
+                        .riskLevel(FilterResult.RiskItem.RiskLevel.MEDIUM)
+                        .content(matcher.getWord(wordId))
+                        .recommendation("移除敏感词")
+                        .startOffset(offset + start)
+                        .endOffset(offset + end)
+                        .build());
+            }
+        }
+        
+        private void collectSpan(int patternId, int start, int end) {
+            if (2 * spanCount == spans.length) {
+                spans = Arrays.copyOf(spans, spans.length * 2);
+            }
+            spans[2 * spanCount] = start;
+            spans[2 * spanCount + 1] = end;
+            spanCount++;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.demo.core.license;
+
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * License校验错误类型
+ * 每种错误的JSON响应体在类加载时预先编码，网关返回错误时直接复用，避免逐请求拼接字符串
+ */
+public enum LicenseError {
+
+    NOT_FOUND(HttpStatus.FORBIDDEN, "LICENSE_NOT_FOUND", "未找到对应的License"),
+    INVALID(HttpStatus.FORBIDDEN, "LICENSE_INVALID", "License无效"),
+    EXPIRED(HttpStatus.FORBIDDEN, "LICENSE_EXPIRED", "License已过期"),
+    CALLS_EXHAUSTED(HttpStatus.FORBIDDEN, "LICENSE_CALLS_EXHAUSTED", "License调用次数已用完"),
+    DECREMENT_FAILED(HttpStatus.FORBIDDEN, "LICENSE_DECREMENT_FAILED", "License调用次数减少失败"),
+    RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMIT_EXCEEDED", "请求速率超出限制");
+
+    private final HttpStatus status;
+    private final String code;
+    private final String message;
+    private final byte[] body;
+
+    LicenseError(HttpStatus status, String code, String message) {
+        this.status = status;
+        this.code = code;
+        this.message = message;
+        String error = status == HttpStatus.TOO_MANY_REQUESTS ? "Rate limit exceeded" : "License validation failed";
+        this.body = ("{\"error\":\"" + error + "\",\"code\":\"" + code + "\",\"message\":\"" + message + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 获取预编码的JSON响应体，调用方只能读取，不能修改
+     * @return UTF-8编码的响应体
+     */
+    byte[] getBody() {
+        return body;
+    }
+}
@@ -38,4 +38,10 @@ public class LicenseInfo {
     
     // 颁发时间
     private LocalDateTime issuedAt;
+    
+    // 每秒允许的请求数（令牌补充速率），小于等于0表示不限流
+    private int rateLimitPerSecond;
+    
+    // 允许的突发请求数（令牌桶容量），小于等于0时按1处理
+    private int rateLimitBurst;
 }
\ No newline at end of file
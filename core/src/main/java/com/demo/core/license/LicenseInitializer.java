@@ -37,6 +37,8 @@ public class LicenseInitializer implements ApplicationRunner {
         coreLicense.setValid(true);
         coreLicense.setLicenseType("DEFAULT");
         coreLicense.setIssuedAt(LocalDateTime.now());
+        coreLicense.setRateLimitPerSecond(100);
+        coreLicense.setRateLimitBurst(200);
         
         // 注册License
         licenseManager.registerLicense(coreLicense);
@@ -51,6 +53,8 @@ public class LicenseInitializer implements ApplicationRunner {
         manufacturingLicense.setValid(true);
         manufacturingLicense.setLicenseType("DEFAULT");
         manufacturingLicense.setIssuedAt(LocalDateTime.now());
+        manufacturingLicense.setRateLimitPerSecond(50);
+        manufacturingLicense.setRateLimitBurst(100);
         
         // 注册License
         licenseManager.registerLicense(manufacturingLicense);
@@ -65,6 +69,8 @@ public class LicenseInitializer implements ApplicationRunner {
         recommendationLicense.setValid(true);
         recommendationLicense.setLicenseType("DEFAULT");
         recommendationLicense.setIssuedAt(LocalDateTime.now());
+        recommendationLicense.setRateLimitPerSecond(50);
+        recommendationLicense.setRateLimitBurst(100);
         
         // 注册License
         licenseManager.registerLicense(recommendationLicense);
@@ -1,94 +1,193 @@
 package com.demo.core.license;
 
-import com.demo.core.exception.LicenseException;
+import com.demo.core.metrics.MetricsCollector;
+import com.demo.core.tracing.Span;
+import com.demo.core.tracing.Tracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.core.Ordered;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * License请求拦截器，用于在处理请求前进行License验证
  */
 @Component
 public class LicenseInterceptor implements GatewayFilter, Ordered {
+
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+    private static final String MODULE_HEADER = "X-Module-Id";
+    private static final String DEFAULT_TENANT_ID = "default-tenant";
+    
+    // W3C Trace Context请求头，以及保存请求阶段的请求属性名，后续处理器以该阶段为父阶段继续追踪
+    private static final String TRACEPARENT_HEADER = "traceparent";
+    public static final String TRACE_SPAN_ATTRIBUTE = "TRACE_SPAN";
+    
+    // License校验结果指标名称
+    private static final String DECISION_METRIC = "license.decisions";
+    private static final String DECISION_LATENCY_METRIC = "license.decision.latency";
+    private static final String OUTCOME_ALLOWED = "ALLOWED";
     
     @Autowired
     private LicenseManager licenseManager;
     
+    @Autowired
+    private TenantRateLimiter rateLimiter;
+    
+    @Autowired
+    private ModuleRouteMatcher moduleRouteMatcher;
+    
+    @Autowired
+    private MetricsCollector metricsCollector;
+    
+    @Autowired
+    private Tracer tracer;
+    
+    // 按模块预先绑定的指标，模块ID来自路由配置，数量有限
+    private final Map<String, DecisionMeters> decisionMeters = new ConcurrentHashMap<>();
+    
+    /**
+     * 注册限流相关的仪表盘指标
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        metricsCollector.registerGauge("license.rate_limit.buckets", rateLimiter, TenantRateLimiter::getBucketCount);
+    }
+    
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long startTime = System.nanoTime();
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        
+        // 网关运行在事件循环线程上，阶段不绑定到线程，由后续处理器通过请求属性继续追踪；
+        // 该阶段代表整个请求，在响应完成后结束
+        Span span = tracer.startDetachedSpan("license.check", Span.Kind.SERVER,
+                tracer.extract(requestHeaders.getFirst(TRACEPARENT_HEADER)));
+        return Mono.defer(() -> handle(exchange, chain, startTime, requestHeaders, span))
+                .doOnError(span::recordError)
+                .doFinally(signal -> span.end());
+    }
+    
+    /**
+     * 校验License和限流，通过后继续处理请求
+     * @param exchange 当前请求
+     * @param chain 过滤器链
+     * @param startTime 开始时间（纳秒）
+     * @param requestHeaders 请求头
+     * @param span 请求阶段
+     * @return 处理结果
+     */
+    private Mono<Void> handle(ServerWebExchange exchange, GatewayFilterChain chain, long startTime,
+                              HttpHeaders requestHeaders, Span span) {
         // 从请求头中获取租户ID
-        String tenantId = exchange.getRequest().getHeaders().getFirst("X-Tenant-Id");
+        String tenantId = requestHeaders.getFirst(TENANT_HEADER);
         
         // 如果没有提供租户ID，使用默认值
         if (tenantId == null || tenantId.isEmpty()) {
-            tenantId = "default-tenant";
+            tenantId = DEFAULT_TENANT_ID;
         }
         
         // 从请求路径中获取模块ID
-        String path = exchange.getRequest().getPath().value();
-        String moduleId = extractModuleId(path);
+        String moduleId = moduleRouteMatcher.resolve(exchange.getRequest().getPath().value());
         
-        try {
-            // 验证License
-            LicenseManager.LicenseValidationResult validationResult = licenseManager.validateLicense(tenantId, moduleId);
-            
-            if (!validationResult.isValid()) {
-                throw new LicenseException(validationResult.getMessage(), tenantId, moduleId);
-            }
-            
-            // 减少剩余调用次数
-            boolean decrementResult = licenseManager.decrementRemainingCalls(tenantId, moduleId);
-            if (!decrementResult) {
-                throw new LicenseException("License调用次数减少失败", tenantId, moduleId);
-            }
-            
-            // 将租户ID和模块ID添加到请求属性中，以便后续处理使用
-            exchange.getAttributes().put("TENANT_ID", tenantId);
-            exchange.getAttributes().put("MODULE_ID", moduleId);
-            
-            // License验证通过，继续处理请求
-            return chain.filter(exchange);
-            
-        } catch (LicenseException e) {
-            // License验证失败，返回403 Forbidden
-            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
-            exchange.getResponse().getHeaders().add("Content-Type", "application/json");
-            
-            String errorBody = "{\"error\":\"License validation failed\",\"message\":\"" + 
-                              e.getMessage() + "\",\"tenantId\":\"" + 
-                              tenantId + "\",\"moduleId\":\"" + 
-                              moduleId + "\"}";
-            
-            return exchange.getResponse().writeWith(
-                Mono.just(exchange.getResponse().bufferFactory().wrap(errorBody.getBytes()))
-            ).then(Mono.defer(exchange.getResponse()::setComplete));
+        // 验证License
+        LicenseManager.LicenseValidationResult validationResult = licenseManager.validateLicense(tenantId, moduleId);
+        if (!validationResult.isValid()) {
+            LicenseError error = validationResult.getError() != null ? validationResult.getError() : LicenseError.INVALID;
+            recordDecision(moduleId, error, startTime, span);
+            return writeError(exchange, error, tenantId, moduleId);
         }
+        
+        // 按租户/模块限流，超出速率的请求不消耗调用次数
+        long waitNanos = licenseManager.getLicenseInfo(tenantId, moduleId)
+                .map(rateLimiter::tryAcquire)
+                .orElse(0L);
+        if (waitNanos > 0) {
+            // Retry-After以秒为单位，向上取整且至少为1秒
+            long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            recordDecision(moduleId, LicenseError.RATE_LIMITED, startTime, span);
+            return writeError(exchange, LicenseError.RATE_LIMITED, tenantId, moduleId);
+        }
+        
+        // 减少剩余调用次数
+        if (!licenseManager.decrementRemainingCalls(tenantId, moduleId)) {
+            recordDecision(moduleId, LicenseError.DECREMENT_FAILED, startTime, span);
+            return writeError(exchange, LicenseError.DECREMENT_FAILED, tenantId, moduleId);
+        }
+        
+        // 将租户ID和模块ID添加到请求属性中，以便后续处理使用
+        exchange.getAttributes().put("TENANT_ID", tenantId);
+        exchange.getAttributes().put("MODULE_ID", moduleId);
+        exchange.getAttributes().put(TRACE_SPAN_ATTRIBUTE, span);
+        recordDecision(moduleId, null, startTime, span);
+        
+        // License验证通过，继续处理请求
+        return chain.filter(exchange);
+    }
+    
+    /**
+     * 写出预编码的错误响应，租户ID和模块ID通过响应头返回
+     * @param exchange 当前请求
+     * @param error 错误类型
+     * @param tenantId 租户ID
+     * @param moduleId 模块ID
+     * @return 响应写出结果
+     */
+    private Mono<Void> writeError(ServerWebExchange exchange, LicenseError error, String tenantId, String moduleId) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(error.getStatus());
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(TENANT_HEADER, tenantId);
+        headers.set(MODULE_HEADER, moduleId);
+        
+        // wrap不会复制字节数组，各请求共享同一份只读的预编码响应体
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(error.getBody())));
     }
     
     /**
-     * 从请求路径中提取模块ID
-     * @param path 请求路径
-     * @return 模块ID
+     * 记录License校验结果和耗时
+     * 租户ID来自请求头，不作为标签，避免指标数量随租户数膨胀
+     * @param moduleId 模块ID
+     * @param error 错误类型，校验通过时为null
+     * @param startTime 开始时间（纳秒）
+     * @param span 请求阶段，只记录校验结果，在请求完成后结束
      */
-    private String extractModuleId(String path) {
-        // 假设路径格式为 /moduleId/api/...
-        String[] parts = path.split("/");
-        if (parts.length >= 2) {
-            // 检查是否是有效的模块ID
-            String potentialModuleId = parts[1];
-            if (potentialModuleId.equals("core") || 
-                potentialModuleId.equals("manufacturing") || 
-                potentialModuleId.equals("recommendation")) {
-                return potentialModuleId;
-            }
+    private void recordDecision(String moduleId, LicenseError error, long startTime, Span span) {
+        DecisionMeters meters = decisionMeters.computeIfAbsent(moduleId, this::bindDecisionMeters);
+        meters.outcomes[error == null ? 0 : error.ordinal() + 1].increment();
+        meters.latency.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        span.setAttribute("module", moduleId)
+                .setAttribute("outcome", error == null ? OUTCOME_ALLOWED : error.name());
+    }
+    
+    /**
+     * 为模块创建并绑定所有校验结果对应的指标
+     * @param moduleId 模块ID
+     * @return 模块的指标
+     */
+    private DecisionMeters bindDecisionMeters(String moduleId) {
+        LicenseError[] errors = LicenseError.values();
+        Counter[] outcomes = new Counter[errors.length + 1];
+        outcomes[0] = metricsCollector.counter(DECISION_METRIC, "module", moduleId, "outcome", OUTCOME_ALLOWED);
+        for (LicenseError error : errors) {
+            outcomes[error.ordinal() + 1] = metricsCollector.counter(DECISION_METRIC,
+                    "module", moduleId, "outcome", error.name());
         }
-        // 默认返回core模块ID
-        return "core";
+        return new DecisionMeters(outcomes, metricsCollector.timer(DECISION_LATENCY_METRIC, "module", moduleId));
     }
     
     @Override
@@ -96,4 +195,17 @@ public class LicenseInterceptor implements GatewayFilter, Ordered {
         // 设置拦截器的执行顺序，确保在其他拦截器之前执行
         return -100;
     }
-}
\ No newline at end of file
+    
+    /**
+     * 单个模块的校验指标，校验结果计数器按结果下标索引，下标0为校验通过
+     */
+    private static final class DecisionMeters {
+        private final Counter[] outcomes;
+        private final Timer latency;
+        
+        private DecisionMeters(Counter[] outcomes, Timer latency) {
+            this.outcomes = outcomes;
+            this.latency = latency;
+        }
+    }
+}
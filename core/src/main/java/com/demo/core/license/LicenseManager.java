@@ -3,6 +3,7 @@ package com.demo.core.license;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -37,26 +38,26 @@ public class LicenseManager {
         LicenseInfo licenseInfo = licenseStore.get(key);
         
         if (licenseInfo == null) {
-            return new LicenseValidationResult(false, "未找到对应的License");
+            return LicenseValidationResult.failed(LicenseError.NOT_FOUND);
         }
         
         // 检查License是否有效
         if (!licenseInfo.isValid()) {
-            return new LicenseValidationResult(false, "License无效");
+            return LicenseValidationResult.failed(LicenseError.INVALID);
         }
         
         // 检查License是否过期
         if (LocalDateTime.now().isAfter(licenseInfo.getExpiryDate())) {
-            return new LicenseValidationResult(false, "License已过期");
+            return LicenseValidationResult.failed(LicenseError.EXPIRED);
         }
         
         // 检查是否超过调用次数限制
         if (licenseInfo.getRemainingCalls() <= 0) {
-            return new LicenseValidationResult(false, "License调用次数已用完");
+            return LicenseValidationResult.failed(LicenseError.CALLS_EXHAUSTED);
         }
         
         // License验证通过
-        return new LicenseValidationResult(true, "License验证通过");
+        return LicenseValidationResult.VALID;
     }
     
     /**
@@ -103,12 +104,42 @@ public class LicenseManager {
      * License验证结果类
      */
     public static class LicenseValidationResult {
+        
+        // 验证通过的共享结果
+        public static final LicenseValidationResult VALID = new LicenseValidationResult(true, "License验证通过");
+        
+        // 各错误类型对应的共享结果，避免每次验证都创建新对象
+        private static final Map<LicenseError, LicenseValidationResult> FAILED_RESULTS = new EnumMap<>(LicenseError.class);
+        
+        static {
+            for (LicenseError error : LicenseError.values()) {
+                FAILED_RESULTS.put(error, new LicenseValidationResult(error));
+            }
+        }
+        
         private final boolean valid;
         private final String message;
+        private final LicenseError error;
         
         public LicenseValidationResult(boolean valid, String message) {
             this.valid = valid;
             this.message = message;
+            this.error = null;
+        }
+        
+        private LicenseValidationResult(LicenseError error) {
+            this.valid = false;
+            this.message = error.getMessage();
+            this.error = error;
+        }
+        
+        /**
+         * 获取指定错误类型的验证失败结果
+         * @param error 错误类型
+         * @return 验证结果
+         */
+        public static LicenseValidationResult failed(LicenseError error) {
+            return FAILED_RESULTS.get(error);
         }
         
         public boolean isValid() {
@@ -118,5 +149,13 @@ public class LicenseManager {
         public String getMessage() {
             return message;
         }
+        
+        /**
+         * 获取错误类型
+         * @return 错误类型，验证通过或未指定类型时为null
+         */
+        public LicenseError getError() {
+            return error;
+        }
     }
 }
\ No newline at end of file
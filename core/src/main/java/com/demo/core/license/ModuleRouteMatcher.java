@@ -0,0 +1,158 @@
+package com.demo.core.license;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 请求路径到模块ID的匹配器
+ * 启动时将配置的路径前缀预编译为字典树，匹配时逐字符遍历请求路径，不产生任何对象分配
+ */
+@Component
+public class ModuleRouteMatcher {
+
+    // 字典树根节点
+    private final Node root;
+
+    // 未匹配到任何前缀时使用的模块ID
+    private final String defaultModuleId;
+
+    /**
+     * 构造函数
+     * @param routes 路由配置，格式为"前缀=模块ID"，多个配置以逗号分隔，如"/core=core,/manufacturing=manufacturing"
+     * @param defaultModuleId 默认模块ID
+     */
+    @Autowired
+    public ModuleRouteMatcher(
+            @Value("${license.module-routes:/core=core,/manufacturing=manufacturing,/recommendation=recommendation}") String routes,
+            @Value("${license.default-module:core}") String defaultModuleId) {
+        this(parseRoutes(routes), defaultModuleId);
+    }
+
+    /**
+     * 构造函数
+     * @param routes 路径前缀到模块ID的映射
+     * @param defaultModuleId 默认模块ID
+     */
+    public ModuleRouteMatcher(Map<String, String> routes, String defaultModuleId) {
+        this.defaultModuleId = defaultModuleId;
+        BuildNode buildRoot = new BuildNode();
+        for (Map.Entry<String, String> route : routes.entrySet()) {
+            String prefix = normalizePrefix(route.getKey());
+            BuildNode node = buildRoot;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new BuildNode());
+            }
+            node.moduleId = route.getValue();
+        }
+        this.root = buildRoot.compile();
+    }
+
+    /**
+     * 根据请求路径解析模块ID
+     * 按路径段边界进行最长前缀匹配，例如"/core"可匹配"/core"和"/core/api"，但不匹配"/coredump"；
+     * 配置了"/"前缀时，它匹配其他前缀都不匹配的路径
+     * @param path 请求路径
+     * @return 模块ID
+     */
+    public String resolve(String path) {
+        if (path == null) {
+            return defaultModuleId;
+        }
+        String matched = defaultModuleId;
+        Node node = root;
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            // 前缀以'/'结尾时，遍历到该字符即处于路径段边界
+            if (c == '/' && node.moduleId != null) {
+                matched = node.moduleId;
+            }
+            node = node.child(c);
+            if (node == null) {
+                return matched;
+            }
+            // 规范化后只有"/"前缀以'/'结尾，它匹配所有路径，需要在进入该节点后记录
+            if (c == '/' && node.moduleId != null) {
+                matched = node.moduleId;
+            }
+        }
+        return node.moduleId != null ? node.moduleId : matched;
+    }
+
+    /**
+     * 解析路由配置字符串
+     * @param routes 路由配置
+     * @return 路径前缀到模块ID的映射
+     */
+    private static Map<String, String> parseRoutes(String routes) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (routes == null || routes.isBlank()) {
+            return result;
+        }
+        for (String route : routes.split(",")) {
+            int separator = route.indexOf('=');
+            if (separator <= 0 || separator == route.length() - 1) {
+                throw new IllegalArgumentException("Invalid module route: " + route);
+            }
+            result.put(route.substring(0, separator).trim(), route.substring(separator + 1).trim());
+        }
+        return result;
+    }
+
+    /**
+     * 规范化路径前缀：保证以'/'开头且不以'/'结尾
+     */
+    private static String normalizePrefix(String prefix) {
+        String normalized = prefix.startsWith("/") ? prefix : "/" + prefix;
+        while (normalized.length() > 1 && normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * 构建阶段使用的字典树节点
+     */
+    private static final class BuildNode {
+        private final Map<Character, BuildNode> children = new TreeMap<>();
+        private String moduleId;
+
+        private Node compile() {
+            char[] labels = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int index = 0;
+            for (Map.Entry<Character, BuildNode> child : children.entrySet()) {
+                labels[index] = child.getKey();
+                nodes[index] = child.getValue().compile();
+                index++;
+            }
+            return new Node(labels, nodes, moduleId);
+        }
+    }
+
+    /**
+     * 预编译后的只读字典树节点，子节点按字符排序存放
+     */
+    private static final class Node {
+        private final char[] labels;
+        private final Node[] children;
+        private final String moduleId;
+
+        private Node(char[] labels, Node[] children, String moduleId) {
+            this.labels = labels;
+            this.children = children;
+            this.moduleId = moduleId;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.demo.core.license;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 租户/模块级限流器，基于令牌桶（GCRA实现）控制请求速率
+ * 每个令牌桶只保存一个"理论到达时间"，通过CAS无锁更新，并在请求到来时惰性补充令牌
+ */
+@Component
+public class TenantRateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // 令牌桶存储，键为"租户ID:模块ID"
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    // 最多保留的令牌桶数量
+    private final int maxBuckets;
+
+    // 触发淘汰的数量，淘汰后仍超出上限时提高，避免每个新令牌桶都触发一次全量扫描
+    private volatile int evictionThreshold;
+
+    // 是否已提交淘汰任务，避免重复提交
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    // 纳秒时钟，便于测试时替换
+    private final LongSupplier nanoClock;
+
+    // 执行淘汰扫描的调度器，扫描不占用请求线程
+    private final Scheduler evictionScheduler;
+
+    @Autowired
+    public TenantRateLimiter(@Value("${license.rate-limit.max-buckets:100000}") int maxBuckets) {
+        this(maxBuckets, System::nanoTime, Schedulers.newSingle("rate-limit-eviction", true));
+    }
+
+    TenantRateLimiter(int maxBuckets, LongSupplier nanoClock, Scheduler evictionScheduler) {
+        this.maxBuckets = Math.max(maxBuckets, 1);
+        this.evictionThreshold = this.maxBuckets;
+        this.nanoClock = nanoClock;
+        this.evictionScheduler = evictionScheduler;
+    }
+
+    /**
+     * 尝试为一次请求获取令牌
+     * @param licenseInfo License信息，包含限流配置
+     * @return 0表示放行，否则为距离下一个可用令牌的等待时间（纳秒）
+     */
+    public long tryAcquire(LicenseInfo licenseInfo) {
+        int ratePerSecond = licenseInfo.getRateLimitPerSecond();
+        if (ratePerSecond <= 0) {
+            // 未配置速率限制
+            return 0L;
+        }
+
+        long now = nanoClock.getAsLong();
+        String key = licenseInfo.getTenantId() + ":" + licenseInfo.getModuleId();
+        Bucket bucket = buckets.get(key);
+        boolean created = false;
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+            created = true;
+        }
+
+        long interval = Math.max(NANOS_PER_SECOND / ratePerSecond, 1L);
+        int burst = Math.max(licenseInfo.getRateLimitBurst(), 1);
+        long wait = bucket.tryAcquire(now, interval, interval * (burst - 1));
+
+        // 在获取令牌之后再检查上限，新建的令牌桶已经记录了本次请求，不会作为补满的桶被淘汰
+        if (created && buckets.size() > evictionThreshold && evicting.compareAndSet(false, true)) {
+            scheduleEviction();
+        }
+        return wait;
+    }
+
+    /**
+     * 获取当前保留的令牌桶数量
+     * @return 令牌桶数量
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * 停止淘汰任务
+     */
+    @PreDestroy
+    public void shutdown() {
+        evictionScheduler.dispose();
+    }
+
+    private void scheduleEviction() {
+        try {
+            evictionScheduler.schedule(this::evictIdleBuckets);
+        } catch (RejectedExecutionException e) {
+            // 调度器已停止
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 淘汰空闲的令牌桶，在后台调度器上执行
+     * 只淘汰已经补满的令牌桶：补满的桶与新建的桶状态相同，淘汰后不会影响限流结果；
+     * 仍在限流中的令牌桶即使超出上限也保留，避免被限流的租户因淘汰重新获得完整的突发容量
+     */
+    private void evictIdleBuckets() {
+        try {
+            long now = nanoClock.getAsLong();
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            evictionThreshold = Math.max(maxBuckets, buckets.size() + maxBuckets / 10);
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 令牌桶，仅保存理论到达时间（TAT）
+     */
+    static final class Bucket {
+
+        // 理论到达时间，小于等于当前时间表示令牌桶已补满
+        private final AtomicLong theoreticalArrivalTime;
+
+        Bucket(long now) {
+            this.theoreticalArrivalTime = new AtomicLong(now);
+        }
+
+        /**
+         * 尝试获取一个令牌
+         * @param now 当前纳秒时间
+         * @param interval 两个令牌之间的间隔（纳秒）
+         * @param tolerance 允许的突发容忍时间（纳秒）
+         * @return 0表示获取成功，否则为需要等待的纳秒数
+         */
+        long tryAcquire(long now, long interval, long tolerance) {
+            while (true) {
+                long tat = theoreticalArrivalTime.get();
+                long start = tat - now > 0 ? tat : now;
+                long wait = start - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrivalTime.compareAndSet(tat, start + interval)) {
+                    return 0L;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return theoreticalArrivalTime.get() - now <= 0;
+        }
+    }
+}
@@ -1,24 +1,86 @@
 package com.demo.core.metrics;
 
-import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 
 /**
  * 集成Prometheus的指标收集器
  */
 @Component
 public class MetricsCollector {
+
+    // 默认的耗时SLO分桶（毫秒）
+    private static final String DEFAULT_SLO_BUCKETS_MS = "5,10,25,50,100,250,500,1000,2500,5000";
+    
+    // recordExecutionTime使用的指标名称
+    private static final String EXECUTION_TIME_METRIC = "method.execution.time";
+    
+    // 默认每个指标允许的最大标签组合数
+    private static final int DEFAULT_MAX_SERIES_PER_METRIC = 1000;
+    
+    // 超出标签组合上限后，标签值统一替换为该值
+    static final String OVERFLOW_TAG_VALUE = "OTHER";
+    
+    // 标签组合超出上限的次数
+    private static final String OVERFLOW_METRIC = "metrics.cardinality.overflow";
     
     private final MeterRegistry meterRegistry;
-    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final MeterTable<Counter> counters;
+    private final MeterTable<Timer> timers;
+    private final MeterTable<DistributionSummary> summaries;
+    private final MeterTable<Gauge> gauges;
+    
+    // 计时器的SLO分桶，Prometheus中可以直接按桶统计达标率
+    private final Duration[] sloBuckets;
+    
+    // 每个线程复用的查找键，已存在的指标查找时不需要创建新对象
+    private final ThreadLocal<MeterKey> lookupKeys = ThreadLocal.withInitial(MeterKey::new);
     
     public MetricsCollector(MeterRegistry meterRegistry) {
+        this(meterRegistry, DEFAULT_SLO_BUCKETS_MS, DEFAULT_MAX_SERIES_PER_METRIC);
+    }
+    
+    /**
+     * 构造函数
+     * @param meterRegistry 指标注册表
+     * @param sloBucketsMillis 计时器的SLO分桶（毫秒），以逗号分隔
+     */
+    public MetricsCollector(MeterRegistry meterRegistry, String sloBucketsMillis) {
+        this(meterRegistry, sloBucketsMillis, DEFAULT_MAX_SERIES_PER_METRIC);
+    }
+    
+    /**
+     * 构造函数
+     * @param meterRegistry 指标注册表
+     * @param sloBucketsMillis 计时器的SLO分桶（毫秒），以逗号分隔
+     * @param maxSeriesPerMetric 每个指标允许的最大标签组合数，超出后归入溢出序列
+     */
+    @Autowired
+    public MetricsCollector(MeterRegistry meterRegistry,
+                            @Value("${metrics.slo-buckets-ms:" + DEFAULT_SLO_BUCKETS_MS + "}") String sloBucketsMillis,
+                            @Value("${metrics.max-series-per-metric:" + DEFAULT_MAX_SERIES_PER_METRIC + "}") int maxSeriesPerMetric) {
         this.meterRegistry = meterRegistry;
+        this.sloBuckets = parseBuckets(sloBucketsMillis);
+        this.counters = new MeterTable<>(maxSeriesPerMetric);
+        this.timers = new MeterTable<>(maxSeriesPerMetric);
+        this.summaries = new MeterTable<>(maxSeriesPerMetric);
+        this.gauges = new MeterTable<>(maxSeriesPerMetric);
     }
     
     /**
@@ -41,12 +103,99 @@ public class MetricsCollector {
     }
     
     /**
-     * 记录方法执行时间（可以配合@Timed注解使用）
-     * 此方法主要作为示例，实际使用中推荐直接使用@Timed注解
+     * 记录耗时，同时发布百分位直方图和SLO分桶，便于在Prometheus中计算P99等分位数
+     * @param metricName 指标名称
+     * @param nanos 耗时（纳秒）
+     * @param tags 标签键值对
+     */
+    public void recordLatency(String metricName, long nanos, String... tags) {
+        getOrCreateTimer(metricName, tags).record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * 记录数值分布，如批量大小、结果数量、消息长度等
+     * @param metricName 指标名称
+     * @param amount 数值
+     * @param tags 标签键值对
+     */
+    public void recordValue(String metricName, double amount, String... tags) {
+        getOrCreateSummary(metricName, tags).record(amount);
+    }
+    
+    /**
+     * 执行操作并记录耗时
+     * 自调用的方法上@Timed注解不会生效，因此这里直接使用计时器
+     * @param operation 要执行的操作
+     * @param tags 标签键值对
      */
-    @Timed(value = "method.execution.time", description = "Time taken to execute method")
     public void recordExecutionTime(Runnable operation, String... tags) {
-        operation.run();
+        recordExecutionTime(EXECUTION_TIME_METRIC, () -> {
+            operation.run();
+            return null;
+        }, tags);
+    }
+    
+    /**
+     * 执行操作并记录耗时，操作抛出异常时同样记录
+     * @param metricName 指标名称
+     * @param operation 要执行的操作
+     * @param tags 标签键值对
+     * @return 操作的返回值
+     */
+    public <T> T recordExecutionTime(String metricName, Supplier<T> operation, String... tags) {
+        long startTime = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            recordLatency(metricName, System.nanoTime() - startTime, tags);
+        }
+    }
+    
+    /**
+     * 注册仪表盘指标，如队列深度、缓存大小等
+     * 仪表盘只弱引用被观察的对象，调用方需要保证对象在应用运行期间不被回收；同名同标签的仪表盘只注册一次
+     * @param metricName 指标名称
+     * @param target 被观察的对象
+     * @param valueFunction 从对象读取当前值的函数
+     * @param tags 标签键值对
+     * @return 仪表盘
+     */
+    public <T> Gauge registerGauge(String metricName, T target, ToDoubleFunction<T> valueFunction, String... tags) {
+        return resolve(gauges, metricName, tags,
+                (name, resolvedTags) -> Gauge.builder(name, target, valueFunction)
+                        .tags(resolvedTags)
+                        .register(meterRegistry));
+    }
+    
+    /**
+     * 获取计数器
+     * 热点路径上应在初始化时获取并保存计数器，之后直接调用increment，不再有任何查找和对象分配
+     * @param metricName 指标名称
+     * @param tags 标签键值对
+     * @return 计数器
+     */
+    public Counter counter(String metricName, String... tags) {
+        return getOrCreateCounter(metricName, tags);
+    }
+    
+    /**
+     * 获取计时器，热点路径上可以保存返回的计时器直接使用，避免每次查找
+     * @param metricName 指标名称
+     * @param tags 标签键值对
+     * @return 计时器
+     */
+    public Timer timer(String metricName, String... tags) {
+        return getOrCreateTimer(metricName, tags);
+    }
+    
+    /**
+     * 获取分布摘要
+     * @param metricName 指标名称
+     * @param tags 标签键值对
+     * @return 分布摘要
+     */
+    public DistributionSummary summary(String metricName, String... tags) {
+        return getOrCreateSummary(metricName, tags);
     }
     
     /**
@@ -56,24 +205,151 @@ public class MetricsCollector {
      * @return 计数器
      */
     private Counter getOrCreateCounter(String metricName, String... tags) {
-        String key = createCounterKey(metricName, tags);
-        return counters.computeIfAbsent(key, 
-                k -> Counter.builder(metricName)
-                        .tags(tags)
+        return resolve(counters, metricName, tags,
+                (name, resolvedTags) -> Counter.builder(name)
+                        .tags(resolvedTags)
+                        .register(meterRegistry));
+    }
+    
+    /**
+     * 获取或创建计时器
+     * @param metricName 指标名称
+     * @param tags 标签键值对
+     * @return 计时器
+     */
+    private Timer getOrCreateTimer(String metricName, String... tags) {
+        return resolve(timers, metricName, tags,
+                (name, resolvedTags) -> Timer.builder(name)
+                        .tags(resolvedTags)
+                        .publishPercentileHistogram()
+                        .serviceLevelObjectives(sloBuckets)
                         .register(meterRegistry));
     }
     
     /**
-     * 创建计数器的唯一键
+     * 获取或创建分布摘要
      * @param metricName 指标名称
      * @param tags 标签键值对
-     * @return 唯一键
+     * @return 分布摘要
      */
-    private String createCounterKey(String metricName, String... tags) {
-        StringBuilder sb = new StringBuilder(metricName);
-        for (String tag : tags) {
-            sb.append(":").append(tag);
+    private DistributionSummary getOrCreateSummary(String metricName, String... tags) {
+        return resolve(summaries, metricName, tags,
+                (name, resolvedTags) -> DistributionSummary.builder(name)
+                        .tags(resolvedTags)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+    
+    /**
+     * 查找指标，不存在时创建
+     * 查找使用线程内复用的键，指标已存在时不分配对象；标签组合数超出上限时，
+     * 新的组合统一归入标签值为OTHER的溢出序列，防止用户输入作为标签值时指标数量无限增长
+     * @param table 指标表
+     * @param metricName 指标名称
+     * @param tags 标签键值对
+     * @param factory 指标创建函数
+     * @return 指标
+     */
+    private <M> M resolve(MeterTable<M> table, String metricName, String[] tags, BiFunction<String, String[], M> factory) {
+        MeterKey lookupKey = lookupKeys.get().reset(metricName, tags);
+        M meter = table.meters.get(lookupKey);
+        // 清除对调用方数组的引用
+        lookupKey.reset(null, null);
+        if (meter != null) {
+            return meter;
+        }
+        
+        MeterKey key = new MeterKey().reset(metricName, tags.clone());
+        AtomicInteger seriesCount = table.seriesCounts.computeIfAbsent(metricName, name -> new AtomicInteger());
+        meter = table.meters.computeIfAbsent(key, k -> {
+            if (seriesCount.incrementAndGet() > table.maxSeriesPerMetric) {
+                seriesCount.decrementAndGet();
+                return null;
+            }
+            return factory.apply(metricName, k.tags);
+        });
+        if (meter != null) {
+            return meter;
+        }
+        
+        // 超出上限，使用溢出序列；溢出计数器自身溢出时不再计数，避免递归
+        if (!OVERFLOW_METRIC.equals(metricName)) {
+            getOrCreateCounter(OVERFLOW_METRIC, "metric", metricName).increment();
+        }
+        String[] overflowTags = tags.clone();
+        for (int i = 1; i < overflowTags.length; i += 2) {
+            overflowTags[i] = OVERFLOW_TAG_VALUE;
+        }
+        return table.meters.computeIfAbsent(new MeterKey().reset(metricName, overflowTags),
+                k -> factory.apply(metricName, k.tags));
+    }
+    
+    /**
+     * 解析SLO分桶配置
+     * @param bucketsMillis 以逗号分隔的毫秒数
+     * @return 升序排列的分桶
+     */
+    private static Duration[] parseBuckets(String bucketsMillis) {
+        if (bucketsMillis == null || bucketsMillis.isBlank()) {
+            return new Duration[0];
+        }
+        return Arrays.stream(bucketsMillis.split(","))
+                .map(String::trim)
+                .filter(bucket -> !bucket.isEmpty())
+                .mapToLong(Long::parseLong)
+                .sorted()
+                .distinct()
+                .mapToObj(Duration::ofMillis)
+                .toArray(Duration[]::new);
+    }
+    
+    /**
+     * 同一类型指标的登记表
+     */
+    private static final class MeterTable<M> {
+        private final Map<MeterKey, M> meters = new ConcurrentHashMap<>();
+        
+        // 每个指标名称已创建的标签组合数
+        private final Map<String, AtomicInteger> seriesCounts = new ConcurrentHashMap<>();
+        
+        private final int maxSeriesPerMetric;
+        
+        private MeterTable(int maxSeriesPerMetric) {
+            this.maxSeriesPerMetric = maxSeriesPerMetric;
+        }
+    }
+    
+    /**
+     * 指标键，由指标名称和标签数组组成
+     * 作为查找键时字段可以被重置复用；存入登记表的键持有标签数组的副本，之后不再修改
+     */
+    private static final class MeterKey {
+        private String name;
+        private String[] tags;
+        private int hash;
+        
+        private MeterKey reset(String name, String[] tags) {
+            this.name = name;
+            this.tags = tags;
+            this.hash = name == null ? 0 : name.hashCode() * 31 + Arrays.hashCode(tags);
+            return this;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MeterKey)) {
+                return false;
+            }
+            MeterKey other = (MeterKey) o;
+            return hash == other.hash && name.equals(other.name) && Arrays.equals(tags, other.tags);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
         }
-        return sb.toString();
     }
 }
\ No newline at end of file
@@ -3,9 +3,13 @@ package com.demo.core.registry;
 import com.demo.core.exception.LicenseException;
 import com.demo.core.license.LicenseInfo;
 import com.demo.core.license.LicenseManager;
+import com.demo.core.metrics.MetricsCollector;
 import com.demo.core.model.AIRequest;
 import com.demo.core.model.AIResponse;
+import com.demo.core.tracing.Span;
+import com.demo.core.tracing.Tracer;
 import com.demo.core.vectorstore.service.VectorStoreService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -14,6 +18,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * AI模型注册中心，支持动态注册和注销AI模型
@@ -27,9 +32,23 @@ public class ModelRegistry {
     @Autowired
     private VectorStoreService vectorStoreService;
     
+    @Autowired
+    private MetricsCollector metricsCollector;
+    
+    @Autowired
+    private Tracer tracer;
+    
     // 使用ConcurrentHashMap保证线程安全
     private final Map<String, ModelInfo> modelRegistry = new ConcurrentHashMap<>();
     
+    /**
+     * 注册模型相关的仪表盘指标
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        metricsCollector.registerGauge("model.registry.size", modelRegistry, Map::size);
+    }
+    
     /**
      * 注册AI模型
      * @param modelId 模型唯一标识
@@ -66,21 +85,27 @@ public class ModelRegistry {
      * @throws LicenseException 如果License验证失败
      */
     public ModelInfo getModelWithLicenseVerification(String tenantId, String moduleId, String modelId) {
-        // 验证License
-        LicenseManager.LicenseValidationResult validationResult = licenseManager.validateLicense(tenantId, moduleId);
-        
-        if (!validationResult.isValid()) {
-            throw new LicenseException(validationResult.getMessage(), tenantId, moduleId);
-        }
-        
-        // 减少剩余调用次数
-        boolean decrementResult = licenseManager.decrementRemainingCalls(tenantId, moduleId);
-        if (!decrementResult) {
-            throw new LicenseException("License调用次数减少失败", tenantId, moduleId);
+        try (Span span = tracer.startSpan("license.verify")) {
+            span.setAttribute("module", moduleId);
+            
+            // 验证License
+            LicenseManager.LicenseValidationResult validationResult = licenseManager.validateLicense(tenantId, moduleId);
+            
+            if (!validationResult.isValid()) {
+                span.recordError(validationResult.getMessage());
+                throw new LicenseException(validationResult.getMessage(), tenantId, moduleId);
+            }
+            
+            // 减少剩余调用次数
+            boolean decrementResult = licenseManager.decrementRemainingCalls(tenantId, moduleId);
+            if (!decrementResult) {
+                span.recordError("License调用次数减少失败");
+                throw new LicenseException("License调用次数减少失败", tenantId, moduleId);
+            }
+            
+            // 获取模型信息
+            return modelRegistry.get(modelId);
         }
-        
-        // 获取模型信息
-        return modelRegistry.get(modelId);
     }
     
     /**
@@ -89,11 +114,28 @@ public class ModelRegistry {
      * @return AI响应对象
      */
     public AIResponse processRequest(AIRequest request) {
+        return processRequest(request, null);
+    }
+    
+    /**
+     * 处理AI请求
+     * @param request AI请求对象
+     * @param parent 父阶段，通常为网关在请求属性中保存的请求阶段；为null时以当前线程的当前阶段为父阶段，
+     *               都没有时开始新的追踪
+     * @return AI响应对象
+     */
+    public AIResponse processRequest(AIRequest request, Span parent) {
         AIResponse response = new AIResponse();
         response.setResponseId(UUID.randomUUID().toString());
         response.setModelId(request.getModelId());
         
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        String modelType = "unknown";
+        if (parent == null) {
+            parent = tracer.currentSpan();
+        }
+        // 有父阶段时作为请求阶段的子阶段，否则是该请求的入口阶段
+        Span span = tracer.startSpan("model.process", parent != null ? Span.Kind.INTERNAL : Span.Kind.SERVER, parent);
         
         try {
             // 从请求中获取必要的参数
@@ -115,6 +157,7 @@ public class ModelRegistry {
             if (modelInfo == null) {
                 throw new LicenseException("模型不存在：" + modelId, tenantId, moduleId);
             }
+            modelType = modelInfo.getModelType();
             
             // 根据模型类型处理请求
             if ("vector".equals(modelInfo.getModelType())) {
@@ -138,7 +181,7 @@ public class ModelRegistry {
                 metadata.put("remainingCalls", licenseInfo.getRemainingCalls());
                 metadata.put("expirationDate", licenseInfo.getExpiryDate());
             }
-            
+        
         } catch (LicenseException e) {
             // License验证失败，设置失败状态和错误信息
             response.setStatus("FAILED");
@@ -149,8 +192,21 @@ public class ModelRegistry {
             response.setErrorMessage("处理请求时发生错误：" + e.getMessage());
         } finally {
             // 计算处理时间
-            long endTime = System.currentTimeMillis();
-            response.setProcessingTime(endTime - startTime);
+            long elapsedNanos = System.nanoTime() - startNanos;
+            response.setProcessingTime(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            
+            // 只使用已注册的模型ID作为标签，避免任意请求参数导致指标数量膨胀
+            String modelTag = request.getModelId() != null && modelRegistry.containsKey(request.getModelId())
+                    ? request.getModelId() : "unknown";
+            String status = response.getStatus() != null ? response.getStatus() : "UNKNOWN";
+            metricsCollector.recordLatency("model.request.latency", elapsedNanos,
+                    "model", modelTag, "type", modelType != null ? modelType : "unknown", "status", status);
+            
+            span.setAttribute("model", modelTag).setAttribute("status", status);
+            if (response.getErrorMessage() != null) {
+                span.recordError(response.getErrorMessage());
+            }
+            span.close();
         }
         
         return response;
@@ -177,7 +233,7 @@ public class ModelRegistry {
      * 处理向量搜索请求
      */
     private void handleVectorSearchRequest(AIRequest request, AIResponse response, ModelInfo modelInfo) {
-        try {
+        try (Span span = tracer.startSpan("vector.search")) {
             // 从请求中获取搜索参数
             Object queryVectorObj = request.getParameters().getOrDefault("queryVector", java.util.Collections.emptyList());
             List<Float> queryVector = new java.util.ArrayList<>();
@@ -209,7 +265,9 @@ public class ModelRegistry {
             }
             
             // 执行向量搜索
+            span.setAttribute("collection", collectionName).setAttribute("topK", topK);
             List<Map<String, Object>> results = vectorStoreService.searchSimilar(queryVector, topK, collectionName);
+            span.setAttribute("results", results.size());
             
             // 设置响应数据
             Map<String, Object> responseData = new java.util.HashMap<>();
@@ -0,0 +1,170 @@
+package com.demo.core.tracing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将阶段以OTLP/JSON格式追加写入本地文件的导出器
+ * 每批阶段写为一行ExportTraceServiceRequest，可直接用OpenTelemetry Collector的otlpjsonfile接收器读取，
+ * 也可以逐行POST到Collector的/v1/traces接口
+ */
+public class OtlpJsonFileExporter implements SpanExporter {
+
+    // 导出时使用的插桩范围名称
+    private static final String SCOPE_NAME = "com.demo.core.tracing";
+
+    private final Path file;
+
+    // 预先编码的resource部分，每批阶段共用
+    private final String resourceJson;
+
+    private BufferedWriter writer;
+
+    /**
+     * 构造函数
+     * @param file 导出文件路径，不存在时自动创建，已存在时追加写入
+     * @param serviceName 服务名称，写入resource的service.name属性
+     */
+    public OtlpJsonFileExporter(Path file, String serviceName) {
+        this.file = file;
+        StringBuilder sb = new StringBuilder("{\"attributes\":[");
+        appendAttribute(sb, "service.name", serviceName);
+        this.resourceJson = sb.append("]}").toString();
+    }
+
+    @Override
+    public synchronized void export(List<Span> spans) throws IOException {
+        if (writer == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        writer.write(toJson(spans));
+        writer.newLine();
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close span export file: " + e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    /**
+     * 将一批阶段编码为OTLP/JSON格式的ExportTraceServiceRequest
+     * @param spans 阶段列表
+     * @return JSON字符串
+     */
+    String toJson(List<Span> spans) {
+        StringBuilder sb = new StringBuilder(256 + spans.size() * 256);
+        sb.append("{\"resourceSpans\":[{\"resource\":").append(resourceJson)
+                .append(",\"scopeSpans\":[{\"scope\":{\"name\":\"").append(SCOPE_NAME).append("\"},\"spans\":[");
+        for (int i = 0; i < spans.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendSpan(sb, spans.get(i));
+        }
+        return sb.append("]}]}]}").toString();
+    }
+
+    private static void appendSpan(StringBuilder sb, Span span) {
+        sb.append("{\"traceId\":\"").append(span.getTraceId())
+                .append("\",\"spanId\":\"").append(span.getSpanId()).append('"');
+        if (span.getParentSpanId() != null) {
+            sb.append(",\"parentSpanId\":\"").append(span.getParentSpanId()).append('"');
+        }
+        sb.append(",\"name\":");
+        appendString(sb, span.getName());
+        sb.append(",\"kind\":").append(span.getKind().getOtlpValue())
+                // 64位整数在OTLP/JSON中以字符串表示
+                .append(",\"startTimeUnixNano\":\"").append(span.getStartEpochNanos())
+                .append("\",\"endTimeUnixNano\":\"").append(span.getEndEpochNanos())
+                .append("\",\"attributes\":[");
+        boolean first = true;
+        for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            appendAttribute(sb, attribute.getKey(), attribute.getValue());
+        }
+        sb.append("],\"status\":");
+        if (span.getErrorMessage() != null) {
+            sb.append("{\"code\":2,\"message\":");
+            appendString(sb, span.getErrorMessage());
+            sb.append('}');
+        } else {
+            sb.append("{\"code\":1}");
+        }
+        sb.append('}');
+    }
+
+    private static void appendAttribute(StringBuilder sb, String key, Object value) {
+        sb.append("{\"key\":");
+        appendString(sb, key);
+        sb.append(",\"value\":{");
+        if (value instanceof Boolean) {
+            sb.append("\"boolValue\":").append(value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            sb.append("\"intValue\":\"").append(value).append('"');
+        } else if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            if (Double.isFinite(number)) {
+                sb.append("\"doubleValue\":").append(number);
+            } else {
+                sb.append("\"stringValue\":\"").append(number).append('"');
+            }
+        } else {
+            sb.append("\"stringValue\":");
+            appendString(sb, String.valueOf(value));
+        }
+        sb.append("}}");
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
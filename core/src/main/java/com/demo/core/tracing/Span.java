@@ -0,0 +1,258 @@
+package com.demo.core.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 链路追踪中的一个阶段
+ * 使用System.nanoTime计时，未被采样的阶段只用于传递采样决策和父子关系，不计时也不记录属性。
+ * 通过Tracer#startSpan创建的阶段同时成为当前线程的当前阶段，应使用try-with-resources关闭；
+ * 通过Tracer#startDetachedSpan创建的阶段不影响线程上下文，适用于在其他线程上结束的异步调用，需显式调用end。
+ * 属性、错误信息和结束操作可以在不同线程上调用，阶段只会结束和导出一次
+ */
+public final class Span implements AutoCloseable {
+
+    private final Tracer tracer;
+
+    // 追踪ID（128位）
+    private final long traceIdHigh;
+    private final long traceIdLow;
+
+    // 阶段ID及父阶段ID，父阶段ID为0表示根阶段
+    private final long spanId;
+    private final long parentSpanId;
+
+    private final String name;
+    private final Kind kind;
+    private final boolean sampled;
+
+    // 是否为从请求头中解析出的远程父阶段，远程阶段不在本地结束和导出
+    private final boolean remote;
+
+    // 开始和结束时间（System.nanoTime）
+    private final long startNanos;
+    private volatile long endNanos;
+    private final AtomicBoolean ended = new AtomicBoolean();
+
+    // 属性，首次设置时创建，读写时持有当前阶段的锁
+    private Map<String, Object> attributes;
+
+    // 错误信息，为null表示成功
+    private volatile String errorMessage;
+
+    // 成为当前阶段之前线程上的当前阶段，未成为当前阶段时为null
+    private Span previous;
+    private boolean scoped;
+
+    Span(Tracer tracer, long traceIdHigh, long traceIdLow, long spanId, long parentSpanId,
+         String name, Kind kind, boolean sampled, boolean remote) {
+        this.tracer = tracer;
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.sampled = sampled;
+        this.remote = remote;
+        this.startNanos = sampled && !remote ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 设置属性，未被采样时忽略
+     * @param key 属性名
+     * @param value 属性值，支持字符串、整数、浮点数和布尔值
+     * @return 当前阶段
+     */
+    public Span setAttribute(String key, Object value) {
+        if (sampled && !ended.get() && value != null) {
+            synchronized (this) {
+                if (attributes == null) {
+                    attributes = new LinkedHashMap<>();
+                }
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 标记阶段失败
+     * @param error 异常
+     * @return 当前阶段
+     */
+    public Span recordError(Throwable error) {
+        return recordError(error.getClass().getSimpleName() + ": " + error.getMessage());
+    }
+
+    /**
+     * 标记阶段失败
+     * @param message 错误信息
+     * @return 当前阶段
+     */
+    public Span recordError(String message) {
+        if (sampled && !ended.get()) {
+            errorMessage = message != null ? message : "error";
+        }
+        return this;
+    }
+
+    /**
+     * 结束阶段，重复或并发调用时只有第一次生效
+     */
+    public void end() {
+        if (remote || !ended.compareAndSet(false, true)) {
+            return;
+        }
+        if (sampled) {
+            endNanos = System.nanoTime();
+            tracer.onEnd(this);
+        }
+    }
+
+    /**
+     * 结束阶段，并恢复线程上之前的当前阶段
+     */
+    @Override
+    public void close() {
+        end();
+        if (scoped) {
+            scoped = false;
+            tracer.restore(this, previous);
+            previous = null;
+        }
+    }
+
+    /**
+     * 生成W3C Trace Context格式的traceparent请求头，用于向下游传递追踪上下文
+     * @return traceparent请求头的值
+     */
+    public String toTraceparent() {
+        StringBuilder sb = new StringBuilder(55).append("00-");
+        appendHex(sb, traceIdHigh);
+        appendHex(sb, traceIdLow);
+        sb.append('-');
+        appendHex(sb, spanId);
+        return sb.append(sampled ? "-01" : "-00").toString();
+    }
+
+    public String getTraceId() {
+        StringBuilder sb = new StringBuilder(32);
+        appendHex(sb, traceIdHigh);
+        appendHex(sb, traceIdLow);
+        return sb.toString();
+    }
+
+    public String getSpanId() {
+        return appendHex(new StringBuilder(16), spanId).toString();
+    }
+
+    /**
+     * 获取父阶段ID
+     * @return 父阶段ID，根阶段返回null
+     */
+    public String getParentSpanId() {
+        return parentSpanId == 0 ? null : appendHex(new StringBuilder(16), parentSpanId).toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public boolean isEnded() {
+        return ended.get();
+    }
+
+    /**
+     * 获取阶段耗时
+     * @return 耗时（纳秒），未结束或未被采样时返回0
+     */
+    public long getDurationNanos() {
+        return ended.get() && sampled ? endNanos - startNanos : 0L;
+    }
+
+    /**
+     * 获取开始时间
+     * @return Unix纪元纳秒数
+     */
+    public long getStartEpochNanos() {
+        return tracer.toEpochNanos(startNanos);
+    }
+
+    /**
+     * 获取结束时间
+     * @return Unix纪元纳秒数
+     */
+    public long getEndEpochNanos() {
+        return tracer.toEpochNanos(endNanos);
+    }
+
+    /**
+     * 获取属性
+     * @return 属性的副本，按设置顺序排列
+     */
+    public synchronized Map<String, Object> getAttributes() {
+        return attributes != null ? Collections.unmodifiableMap(new LinkedHashMap<>(attributes)) : Collections.emptyMap();
+    }
+
+    /**
+     * 获取错误信息
+     * @return 错误信息，成功时返回null
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    long getTraceIdHigh() {
+        return traceIdHigh;
+    }
+
+    long getTraceIdLow() {
+        return traceIdLow;
+    }
+
+    long getSpanIdValue() {
+        return spanId;
+    }
+
+    void makeCurrent(Span previous) {
+        this.previous = previous;
+        this.scoped = true;
+    }
+
+    private static StringBuilder appendHex(StringBuilder sb, long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            sb.append(Character.forDigit((int) (value >>> shift) & 0xF, 16));
+        }
+        return sb;
+    }
+
+    /**
+     * 阶段类型，取值与OTLP中的SpanKind一致
+     */
+    public enum Kind {
+        INTERNAL(1),
+        SERVER(2),
+        CLIENT(3);
+
+        private final int otlpValue;
+
+        Kind(int otlpValue) {
+            this.otlpValue = otlpValue;
+        }
+
+        public int getOtlpValue() {
+            return otlpValue;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.demo.core.tracing;
+
+import java.util.List;
+
+/**
+ * 已结束阶段的导出器
+ */
+public interface SpanExporter {
+
+    /**
+     * 导出一批已结束的阶段，在追踪器的后台线程中调用
+     * @param spans 已结束的阶段
+     * @throws Exception 导出失败时抛出，本批次的阶段会被丢弃
+     */
+    void export(List<Span> spans) throws Exception;
+
+    /**
+     * 关闭导出器，释放资源
+     */
+    default void shutdown() {
+    }
+}
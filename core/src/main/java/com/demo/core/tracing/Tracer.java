@@ -0,0 +1,303 @@
+package com.demo.core.tracing;
+
+import com.demo.core.metrics.MetricsCollector;
+import io.micrometer.core.instrument.Counter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 轻量级链路追踪器
+ * 在根阶段按采样率决定是否采样，子阶段沿用父阶段的决策；未被采样的阶段不计时、不导出，开销只有一次对象分配。
+ * 被采样的阶段结束时按阶段名称记录耗时指标，并放入有界队列，由后台线程批量导出为OTLP格式，队列满时丢弃
+ */
+@Component
+public class Tracer {
+
+    // 阶段耗时指标名称
+    private static final String SPAN_LATENCY_METRIC = "trace.span.latency";
+
+    // 因队列已满被丢弃的阶段数量
+    private static final String DROPPED_METRIC = "trace.spans.dropped";
+
+    // 不采样、不导出的追踪器
+    private static final Tracer NOOP = new Tracer(null, 0.0, null, 1);
+
+    // 当前线程上的当前阶段
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+
+    private final MetricsCollector metricsCollector;
+
+    // 采样率，0到1之间
+    private final double sampleRate;
+
+    // 导出器，为null时不导出，只记录耗时指标
+    private final SpanExporter exporter;
+
+    // 等待导出的阶段
+    private final BlockingQueue<Span> pending;
+
+    // 导出间隔（毫秒）
+    private long exportIntervalMillis = 5000;
+
+    // System.nanoTime与Unix纪元纳秒数之间的差值，用于换算导出时间戳
+    private final long epochOffsetNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+
+    private Counter droppedCounter;
+    private Scheduler scheduler;
+    private Disposable exportTask;
+
+    /**
+     * 构造函数
+     * @param metricsCollector 指标收集器
+     * @param sampleRate 采样率，0到1之间
+     * @param exportFile OTLP JSON导出文件路径，为空时不导出
+     * @param serviceName 服务名称
+     * @param queueCapacity 等待导出的阶段队列容量
+     * @param exportIntervalMillis 导出间隔（毫秒）
+     */
+    @Autowired
+    public Tracer(MetricsCollector metricsCollector,
+                  @Value("${tracing.sample-rate:0.1}") double sampleRate,
+                  @Value("${tracing.export-file:}") String exportFile,
+                  @Value("${tracing.service-name:core}") String serviceName,
+                  @Value("${tracing.queue-capacity:2048}") int queueCapacity,
+                  @Value("${tracing.export-interval-ms:5000}") long exportIntervalMillis) {
+        this(metricsCollector, sampleRate,
+                exportFile == null || exportFile.isBlank() ? null : new OtlpJsonFileExporter(Path.of(exportFile.trim()), serviceName),
+                queueCapacity);
+        this.exportIntervalMillis = exportIntervalMillis;
+    }
+
+    /**
+     * 构造函数
+     * @param metricsCollector 指标收集器，为null时不记录指标
+     * @param sampleRate 采样率，0到1之间
+     * @param exporter 导出器，为null时不导出
+     * @param queueCapacity 等待导出的阶段队列容量
+     */
+    public Tracer(MetricsCollector metricsCollector, double sampleRate, SpanExporter exporter, int queueCapacity) {
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + sampleRate);
+        }
+        this.metricsCollector = metricsCollector;
+        this.sampleRate = sampleRate;
+        this.exporter = exporter;
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        if (metricsCollector != null) {
+            this.droppedCounter = metricsCollector.counter(DROPPED_METRIC);
+        }
+    }
+
+    /**
+     * 获取不采样、不导出的追踪器，用于未启用追踪的场景
+     * @return 追踪器
+     */
+    public static Tracer noop() {
+        return NOOP;
+    }
+
+    /**
+     * 启动后台导出任务
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (exporter == null || exportTask != null || exportIntervalMillis <= 0) {
+            return;
+        }
+        scheduler = Schedulers.newSingle("span-export", true);
+        exportTask = scheduler.schedulePeriodically(this::flush,
+                exportIntervalMillis, exportIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 开始一个阶段并设为当前线程的当前阶段，父阶段为当前线程的当前阶段
+     * @param name 阶段名称，应为有限集合中的常量，会作为指标标签
+     * @return 阶段，需要在同一线程上关闭
+     */
+    public Span startSpan(String name) {
+        return startSpan(name, Span.Kind.INTERNAL);
+    }
+
+    /**
+     * 开始一个阶段并设为当前线程的当前阶段，父阶段为当前线程的当前阶段
+     * @param name 阶段名称
+     * @param kind 阶段类型
+     * @return 阶段，需要在同一线程上关闭
+     */
+    public Span startSpan(String name, Span.Kind kind) {
+        return startSpan(name, kind, current.get());
+    }
+
+    /**
+     * 以指定的父阶段开始一个阶段并设为当前线程的当前阶段，适用于从请求属性等处取得父阶段的场景
+     * @param name 阶段名称
+     * @param kind 阶段类型
+     * @param parent 父阶段，为null时开始新的追踪
+     * @return 阶段，需要在同一线程上关闭，关闭后恢复线程上之前的当前阶段
+     */
+    public Span startSpan(String name, Span.Kind kind, Span parent) {
+        Span span = createSpan(name, kind, parent);
+        span.makeCurrent(current.get());
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * 开始一个不影响线程上下文的阶段，适用于跨线程的异步调用
+     * @param name 阶段名称
+     * @param kind 阶段类型
+     * @param parent 父阶段，为null时开始新的追踪
+     * @return 阶段，需要显式调用end结束
+     */
+    public Span startDetachedSpan(String name, Span.Kind kind, Span parent) {
+        return createSpan(name, kind, parent);
+    }
+
+    /**
+     * 获取当前线程的当前阶段
+     * @return 当前阶段，没有时返回null
+     */
+    public Span currentSpan() {
+        return current.get();
+    }
+
+    /**
+     * 解析上游传入的W3C traceparent请求头
+     * @param traceparent 请求头的值
+     * @return 远程父阶段，请求头缺失或格式不正确时返回null
+     */
+    public Span extract(String traceparent) {
+        // 格式：版本(2)-追踪ID(32)-父阶段ID(16)-标志(2)
+        if (traceparent == null || traceparent.length() != 55
+                || traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-') {
+            return null;
+        }
+        try {
+            long traceIdHigh = Long.parseUnsignedLong(traceparent.substring(3, 19), 16);
+            long traceIdLow = Long.parseUnsignedLong(traceparent.substring(19, 35), 16);
+            long spanId = Long.parseUnsignedLong(traceparent.substring(36, 52), 16);
+            int flags = Integer.parseInt(traceparent.substring(53, 55), 16);
+            if ((traceIdHigh == 0 && traceIdLow == 0) || spanId == 0) {
+                return null;
+            }
+            return new Span(this, traceIdHigh, traceIdLow, spanId, 0L, "remote", Span.Kind.SERVER,
+                    (flags & 0x01) != 0, true);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 立即导出所有等待中的阶段
+     */
+    public void flush() {
+        if (exporter == null) {
+            pending.clear();
+            return;
+        }
+        List<Span> batch = new ArrayList<>(pending.size());
+        pending.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            exporter.export(batch);
+        } catch (Exception e) {
+            System.err.println("Failed to export " + batch.size() + " spans: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 停止后台导出任务，导出剩余的阶段并关闭导出器
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (exportTask != null) {
+            exportTask.dispose();
+            exportTask = null;
+        }
+        if (scheduler != null) {
+            scheduler.dispose();
+            scheduler = null;
+        }
+        if (exporter != null) {
+            flush();
+            exporter.shutdown();
+        }
+    }
+
+    /**
+     * 获取等待导出的阶段数量
+     * @return 阶段数量
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 阶段结束时记录耗时指标并加入导出队列
+     */
+    void onEnd(Span span) {
+        if (metricsCollector != null) {
+            metricsCollector.recordLatency(SPAN_LATENCY_METRIC, span.getDurationNanos(), "span", span.getName());
+        }
+        if (exporter != null && !pending.offer(span) && droppedCounter != null) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * 将System.nanoTime换算为Unix纪元纳秒数
+     */
+    long toEpochNanos(long nanoTime) {
+        return nanoTime + epochOffsetNanos;
+    }
+
+    /**
+     * 阶段关闭时恢复线程上之前的当前阶段
+     * 只有关闭的是当前阶段时才恢复，避免乱序关闭破坏上下文
+     */
+    void restore(Span span, Span previous) {
+        if (current.get() != span) {
+            return;
+        }
+        if (previous != null) {
+            current.set(previous);
+        } else {
+            current.remove();
+        }
+    }
+
+    private Span createSpan(String name, Span.Kind kind, Span parent) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long spanId = nextNonZero(random);
+        if (parent != null) {
+            return new Span(this, parent.getTraceIdHigh(), parent.getTraceIdLow(), spanId, parent.getSpanIdValue(),
+                    name, kind, parent.isSampled(), false);
+        }
+        boolean sampled = sampleRate > 0.0 && (sampleRate >= 1.0 || random.nextDouble() < sampleRate);
+        return new Span(this, random.nextLong(), nextNonZero(random), spanId, 0L, name, kind, sampled, false);
+    }
+
+    private static long nextNonZero(ThreadLocalRandom random) {
+        long value;
+        do {
+            value = random.nextLong();
+        } while (value == 0);
+        return value;
+    }
+}
@@ -1,5 +1,8 @@
 package com.demo.core.vectorstore.service;
 
+import com.demo.core.metrics.MetricsCollector;
+import com.demo.core.tracing.Span;
+import com.demo.core.tracing.Tracer;
 import io.milvus.client.MilvusServiceClient;
 import io.milvus.grpc.MutationResult;
 import io.milvus.grpc.SearchResults;
@@ -11,6 +14,7 @@ import io.milvus.param.dml.DeleteParam;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * 向量存储服务类，使用Milvus官方SDK封装向量数据库的基本操作
@@ -18,10 +22,17 @@ import java.util.*;
 @Service
 public class VectorStoreService {
 
+    // Milvus调用耗时指标名称
+    private static final String RPC_LATENCY_METRIC = "milvus.rpc.latency";
+
     private final MilvusServiceClient milvusClient;
+    private final MetricsCollector metricsCollector;
+    private final Tracer tracer;
 
-    public VectorStoreService(MilvusServiceClient milvusClient) {
+    public VectorStoreService(MilvusServiceClient milvusClient, MetricsCollector metricsCollector, Tracer tracer) {
         this.milvusClient = milvusClient;
+        this.metricsCollector = metricsCollector;
+        this.tracer = tracer;
     }
 
     /**
@@ -39,7 +50,7 @@ public class VectorStoreService {
         CreateCollectionParam createParam = CreateCollectionParam.newBuilder()
                 .withCollectionName(collectionName)
                 .build();
-        R<?> response = milvusClient.createCollection(createParam);
+        R<?> response = timed("createCollection", () -> milvusClient.createCollection(createParam));
         if (response.getStatus() != R.Status.Success.getCode()) {
             throw new RuntimeException("Failed to create collection: " + response.getMessage());
         }
@@ -48,7 +59,7 @@ public class VectorStoreService {
         LoadCollectionParam loadParam = LoadCollectionParam.newBuilder()
                 .withCollectionName(collectionName)
                 .build();
-        milvusClient.loadCollection(loadParam);
+        timed("loadCollection", () -> milvusClient.loadCollection(loadParam));
     }
 
     /**
@@ -82,7 +93,7 @@ public class VectorStoreService {
                 .withCollectionName(collectionName)
                 .withFields(fields)
                 .build();
-        R<MutationResult> response = milvusClient.insert(insertParam);
+        R<MutationResult> response = timed("insert", () -> milvusClient.insert(insertParam));
         
         return response.getStatus() == R.Status.Success.getCode();
     }
@@ -135,7 +146,8 @@ public class VectorStoreService {
                 .withCollectionName(collectionName)
                 .withFields(fields)
                 .build();
-        R<MutationResult> response = milvusClient.insert(insertParam);
+        R<MutationResult> response = timed("insert", () -> milvusClient.insert(insertParam));
+        metricsCollector.recordValue("milvus.insert.batch.size", vectors.size());
         
         if (response.getStatus() == R.Status.Success.getCode()) {
             // Milvus SDK 2.3.0不提供获取行数的方法，我们假设成功插入所有数据
@@ -167,7 +179,7 @@ public class VectorStoreService {
                 .withParams("{\"nprobe\": 10}")
                 .build();
         
-        R<SearchResults> response = milvusClient.search(searchParam);
+        R<SearchResults> response = timed("search", () -> milvusClient.search(searchParam));
         List<Map<String, Object>> results = new ArrayList<>();
         
         if (response.getStatus() == R.Status.Success.getCode()) {
@@ -206,7 +218,7 @@ public class VectorStoreService {
                 .withCollectionName(collectionName)
                 .withExpr(exprBuilder.toString())
                 .build();
-        R<MutationResult> response = milvusClient.delete(deleteParam);
+        R<MutationResult> response = timed("delete", () -> milvusClient.delete(deleteParam));
         
         if (response.getStatus() == R.Status.Success.getCode()) {
             // Milvus SDK 2.3.0不提供获取删除行数的方法，我们假设成功删除所有数据
@@ -230,7 +242,7 @@ public class VectorStoreService {
         DropCollectionParam dropParam = DropCollectionParam.newBuilder()
                 .withCollectionName(collectionName)
                 .build();
-        R<?> response = milvusClient.dropCollection(dropParam);
+        R<?> response = timed("dropCollection", () -> milvusClient.dropCollection(dropParam));
         
         return response.getStatus() == R.Status.Success.getCode();
     }
@@ -244,8 +256,36 @@ public class VectorStoreService {
         HasCollectionParam hasParam = HasCollectionParam.newBuilder()
                 .withCollectionName(collectionName)
                 .build();
-        R<Boolean> response = milvusClient.hasCollection(hasParam);
+        R<Boolean> response = timed("hasCollection", () -> milvusClient.hasCollection(hasParam));
         
         return response.getStatus() == R.Status.Success.getCode() && response.getData();
     }
+
+    /**
+     * 调用Milvus并记录耗时，按操作类型和调用结果打标签，同时作为当前追踪的子阶段
+     * @param operation 操作类型
+     * @param call Milvus调用
+     * @return 调用结果
+     */
+    private <T> R<T> timed(String operation, Supplier<R<T>> call) {
+        long startTime = System.nanoTime();
+        String status = "error";
+        Span span = tracer.startSpan("milvus." + operation, Span.Kind.CLIENT);
+        try {
+            R<T> response = call.get();
+            status = response.getStatus() == R.Status.Success.getCode() ? "success" : "failed";
+            if (response.getStatus() != R.Status.Success.getCode()) {
+                span.recordError(response.getMessage());
+            }
+            return response;
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.setAttribute("status", status);
+            span.close();
+            metricsCollector.recordLatency(RPC_LATENCY_METRIC, System.nanoTime() - startTime,
+                    "operation", operation, "status", status);
+        }
+    }
 }
\ No newline at end of file
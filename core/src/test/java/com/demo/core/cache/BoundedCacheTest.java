@@ -0,0 +1,98 @@
+package com.demo.core.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    @Test
+    void testPut_evictsLeastRecentlyUsedEntry() {
+        List<String> evicted = new ArrayList<>();
+        BoundedCache<String, String> cache = BoundedCache.<String, String>builder()
+                .maximumSize(2)
+                .segments(1)
+                .evictionListener((key, value, cause) -> evicted.add(key + ":" + cause))
+                .build();
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        // 访问a后，b成为最近最少使用的条目
+        assertEquals("1", cache.get("a"));
+        cache.put("c", "3");
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(List.of("b:SIZE"), evicted);
+        assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    void testGet_expiresEntriesAfterWrite() {
+        AtomicLong now = new AtomicLong();
+        BoundedCache<String, String> cache = BoundedCache.<String, String>builder()
+                .maximumSize(10)
+                .expireAfterWrite(Duration.ofSeconds(1))
+                .ticker(now::get)
+                .build();
+
+        cache.put("a", "1");
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+        assertEquals("1", cache.get("a"));
+
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testCleanUp_removesExpiredEntriesWithoutAccess() {
+        AtomicLong now = new AtomicLong();
+        List<String> evicted = new ArrayList<>();
+        BoundedCache<String, String> cache = BoundedCache.<String, String>builder()
+                .maximumSize(10)
+                .expireAfterWrite(Duration.ofSeconds(1))
+                .ticker(now::get)
+                .evictionListener((key, value, cause) -> evicted.add(key + ":" + cause))
+                .build();
+
+        cache.put("a", "1");
+        now.addAndGet(Duration.ofMillis(500).toNanos());
+        cache.put("b", "2");
+        now.addAndGet(Duration.ofMillis(600).toNanos());
+
+        assertEquals(1, cache.cleanUp());
+        assertEquals(1, cache.size());
+        assertEquals(List.of("a:EXPIRED"), evicted);
+    }
+
+    @Test
+    void testGetStats_tracksHitsAndMisses() {
+        BoundedCache<String, String> cache = BoundedCache.<String, String>builder()
+                .maximumSize(10)
+                .build();
+
+        assertEquals("v", cache.get("k", key -> "v"));
+        assertEquals("v", cache.get("k", key -> "other"));
+        cache.invalidateAll();
+        assertNull(cache.get("k"));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(1.0 / 3, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void testContentHash_distinguishesContentAndSeed() {
+        assertEquals(ContentHash.of("相同的内容"), ContentHash.of(new StringBuilder("相同的内容")));
+        assertNotEquals(ContentHash.of("内容A"), ContentHash.of("内容B"));
+        assertNotEquals(ContentHash.of("内容A", 1), ContentHash.of("内容A", 2));
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.core.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void testAdvance_expiresNodesAcrossLevels() {
+        TimerWheel<String> wheel = new TimerWheel<>(0);
+        TimerWheel.Node<String> shortLived = new TimerWheel.Node<>("short");
+        TimerWheel.Node<String> longLived = new TimerWheel.Node<>("long");
+        wheel.schedule(shortLived, 5_000);
+        wheel.schedule(longLived, 3_600_000);
+        List<String> expired = new ArrayList<>();
+
+        assertEquals(1, wheel.advance(10_000, node -> expired.add(node.getValue())));
+        assertEquals(List.of("short"), expired);
+        assertTrue(longLived.isScheduled());
+
+        // 较高层的条目在到期前下沉到较低层，不会提前到期；到期后最迟在所在槽经过时被处理
+        assertEquals(0, wheel.advance(3_599_000, node -> expired.add(node.getValue())));
+        assertEquals(1, wheel.advance(3_700_000, node -> expired.add(node.getValue())));
+        assertEquals(List.of("short", "long"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testDeschedule_removesNode() {
+        TimerWheel<String> wheel = new TimerWheel<>(0);
+        TimerWheel.Node<String> node = new TimerWheel.Node<>("a");
+        wheel.schedule(node, 2_000);
+        wheel.schedule(node, 100_000);
+        assertEquals(1, wheel.size());
+
+        wheel.deschedule(node);
+
+        assertFalse(node.isScheduled());
+        assertEquals(0, wheel.advance(200_000, n -> fail("descheduled node expired")));
+    }
+}
@@ -0,0 +1,42 @@
+package com.demo.core.config;
+
+import com.demo.core.context.store.SessionStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreConfigTest {
+
+    private final SessionStoreConfig config = new SessionStoreConfig();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMappedSessionStore_rejectsSizesAbove2GbWithClearMessage() {
+        String path = tempDir.resolve("sessions.db").toString();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> config.mappedSessionStore(path, 16, 4096));
+
+        assertTrue(error.getMessage().contains("max-size-mb=4096"));
+        assertTrue(error.getMessage().contains("2047"));
+        assertThrows(IllegalArgumentException.class, () -> config.mappedSessionStore(path, 0, 16));
+        assertThrows(IllegalArgumentException.class, () -> config.mappedSessionStore(path, 32, 16));
+        assertFalse(Files.exists(tempDir.resolve("sessions.db")));
+    }
+
+    @Test
+    void testMappedSessionStore_acceptsLargestMappableSize() {
+        SessionStore store = config.mappedSessionStore(tempDir.resolve("sessions.db").toString(), 1, 2047);
+        try {
+            assertNull(store.load("tenant1", "s1"));
+        } finally {
+            store.close();
+        }
+    }
+}
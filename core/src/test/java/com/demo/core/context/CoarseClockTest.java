@@ -0,0 +1,54 @@
+package com.demo.core.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoarseClockTest {
+
+    @Test
+    void testCurrentTimeMillis_tracksSystemTime() throws Exception {
+        long first = CoarseClock.currentTimeMillis();
+        assertEquals(System.currentTimeMillis(), first, 1000);
+
+        // 等待若干个刷新周期后时间前进
+        TimeUnit.MILLISECONDS.sleep(CoarseClock.RESOLUTION_MILLIS * 10);
+        long second = CoarseClock.currentTimeMillis();
+        assertTrue(second > first);
+        assertEquals(System.currentTimeMillis(), second, 1000);
+    }
+
+    @Test
+    void testAdvance_followsSystemTimeButNeverGoesBack() {
+        assertEquals(2_000, CoarseClock.advance(1_000, 2_000));
+        // 系统时间回拨时保持已经读到的最大值
+        assertEquals(2_000, CoarseClock.advance(2_000, 1_500));
+        // 系统时间向前校正时立即跟随，不按启动以来的流逝时间推算
+        assertEquals(3_600_000, CoarseClock.advance(2_000, 3_600_000));
+    }
+
+    @Test
+    void testTicker_runsOnDaemonThread() {
+        CoarseClock.currentTimeMillis();
+
+        Thread ticker = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("coarse-clock"))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(ticker.isDaemon());
+        assertTrue(ticker.isAlive());
+    }
+
+    @Test
+    void testToLocalDateTime_usesSystemZone() {
+        long millis = 1_700_000_000_123L;
+
+        LocalDateTime expected = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        assertEquals(expected, CoarseClock.toLocalDateTime(millis));
+    }
+}
@@ -0,0 +1,236 @@
+package com.demo.core.context;
+
+import com.demo.core.cache.BoundedCache.RemovalCause;
+import com.demo.core.context.store.InMemorySessionReplicationClient;
+import com.demo.core.context.store.ReplicatedSessionStore;
+import com.demo.core.context.store.SessionSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantContextManagerTest {
+
+    private static final long SESSION_TIMEOUT = 60_000;
+    private static final long TENANT_TIMEOUT = 600_000;
+
+    private AtomicLong now;
+    private List<String> removed;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000);
+        removed = new ArrayList<>();
+    }
+
+    private TenantContextManager newManager(int maxTenants, int maxSessionsPerTenant) {
+        TenantContextManager manager = new TenantContextManager(maxTenants, maxSessionsPerTenant,
+                SESSION_TIMEOUT, TENANT_TIMEOUT, 0, now::get);
+        manager.addEvictionListener(new TenantContextManager.ContextEvictionListener() {
+            @Override
+            public void onSessionRemoved(TenantContext tenant, SessionContext session, RemovalCause cause) {
+                removed.add(tenant.getTenantId() + "/" + session.getSessionId() + ":" + cause);
+            }
+
+            @Override
+            public void onTenantRemoved(TenantContext tenant, RemovalCause cause) {
+                removed.add(tenant.getTenantId() + ":" + cause);
+            }
+        });
+        return manager;
+    }
+
+    @Test
+    void testGetOrCreateSession_reusesExistingSession() {
+        TenantContextManager manager = newManager(10, 10);
+
+        SessionContext session = manager.getOrCreateSession("tenant1", "s1");
+        SessionContext generated = manager.getOrCreateSession("tenant1", null);
+
+        assertSame(session, manager.getOrCreateSession("tenant1", "s1"));
+        assertSame(session, manager.getTenant("tenant1").getSessions().get("s1"));
+        assertNotNull(generated.getSessionId());
+        assertEquals(1, manager.getTenantCount());
+        assertEquals(2, manager.getSessionCount());
+        assertNull(manager.getSession("tenant2", "s1"));
+    }
+
+    @Test
+    void testSessionCap_evictsSessionNotAccessedRecently() {
+        TenantContextManager manager = newManager(10, 2);
+
+        manager.getOrCreateSession("tenant1", "s1");
+        manager.getOrCreateSession("tenant1", "s2");
+        // 访问过的s1获得第二次机会，淘汰未被访问的s2
+        manager.getSession("tenant1", "s1");
+        manager.getOrCreateSession("tenant1", "s3");
+
+        assertEquals(2, manager.getSessionCount());
+        assertNotNull(manager.getSession("tenant1", "s1"));
+        assertNotNull(manager.getSession("tenant1", "s3"));
+        assertEquals(List.of("tenant1/s2:SIZE"), removed);
+    }
+
+    @Test
+    void testTenantCap_removesTenantWithItsSessions() {
+        TenantContextManager manager = newManager(1, 10);
+
+        manager.getOrCreateSession("tenant1", "s1");
+        manager.getOrCreateTenant("tenant2");
+
+        assertNull(manager.getTenant("tenant1"));
+        assertNotNull(manager.getTenant("tenant2"));
+        assertEquals(0, manager.getSessionCount());
+        assertEquals(List.of("tenant1/s1:SIZE", "tenant1:SIZE"), removed);
+    }
+
+    @Test
+    void testExpire_removesIdleSessionsAndKeepsAccessedOnes() {
+        TenantContextManager manager = newManager(10, 10);
+        manager.getOrCreateSession("tenant1", "idle");
+        manager.getOrCreateSession("tenant1", "active");
+
+        now.addAndGet(SESSION_TIMEOUT / 2);
+        manager.getSession("tenant1", "active");
+        now.addAndGet(SESSION_TIMEOUT / 2 + 5_000);
+
+        assertEquals(1, manager.expire());
+        assertNull(manager.getSession("tenant1", "idle"));
+        assertNotNull(manager.getSession("tenant1", "active"));
+        assertEquals(List.of("tenant1/idle:EXPIRED"), removed);
+
+        now.addAndGet(TENANT_TIMEOUT + 5_000);
+        manager.expire();
+        assertEquals(0, manager.getTenantCount());
+        assertEquals(0, manager.getSessionCount());
+        assertEquals(List.of("tenant1/idle:EXPIRED", "tenant1/active:EXPIRED", "tenant1:EXPIRED"), removed);
+    }
+
+    @Test
+    void testRemove_notifiesExplicitRemoval() {
+        TenantContextManager manager = newManager(10, 10);
+        manager.getOrCreateSession("tenant1", "s1");
+        manager.getOrCreateSession("tenant1", "s2");
+
+        assertTrue(manager.removeSession("tenant1", "s1"));
+        assertFalse(manager.removeSession("tenant1", "s1"));
+        assertTrue(manager.removeTenant("tenant1"));
+
+        assertEquals(List.of("tenant1/s1:EXPLICIT", "tenant1/s2:EXPLICIT", "tenant1:EXPLICIT"), removed);
+        assertEquals(0, manager.getSessionCount());
+    }
+
+    @Test
+    void testSessionStore_sharesSessionsBetweenNodes() {
+        InMemorySessionReplicationClient shared = new InMemorySessionReplicationClient();
+        TenantContextManager node1 = new TenantContextManager(10, 10, SESSION_TIMEOUT, TENANT_TIMEOUT, 0,
+                now::get, new ReplicatedSessionStore(shared));
+        TenantContextManager node2 = new TenantContextManager(10, 10, SESSION_TIMEOUT, TENANT_TIMEOUT, 0,
+                now::get, new ReplicatedSessionStore(shared));
+
+        node1.getOrCreateSession("tenant1", "s1").setAttribute("step", 1);
+        assertNull(node2.getSession("tenant1", "s1"));
+        assertEquals(1, node1.flush());
+        assertEquals(0, node1.flush());
+
+        SessionContext restored = node2.getOrCreateSession("tenant1", "s1");
+        assertEquals(1, restored.getAttribute("step"));
+        assertEquals(1, node2.getSessionCount());
+
+        assertTrue(node2.removeSession("tenant1", "s1"));
+        assertEquals(0, shared.size());
+    }
+
+    @Test
+    void testSessionStore_nodesAlternatingWritesSeeEachOther() {
+        InMemorySessionReplicationClient shared = new InMemorySessionReplicationClient();
+        TenantContextManager node1 = new TenantContextManager(10, 10, SESSION_TIMEOUT, TENANT_TIMEOUT, 0,
+                now::get, new ReplicatedSessionStore(shared));
+        TenantContextManager node2 = new TenantContextManager(10, 10, SESSION_TIMEOUT, TENANT_TIMEOUT, 0,
+                now::get, new ReplicatedSessionStore(shared));
+
+        node1.getOrCreateSession("tenant1", "s1").setAttribute("step", 1);
+        node1.flush();
+        node2.getOrCreateSession("tenant1", "s1").setAttribute("step", 2);
+        node2.flush();
+
+        // 两个节点都保留着会话副本，之后的每次写入对另一个节点都可见
+        assertEquals(2, node1.getSession("tenant1", "s1").getAttribute("step"));
+        node1.getSession("tenant1", "s1").setAttribute("step", 3);
+        node1.flush();
+        assertEquals(3, node2.getSession("tenant1", "s1").getAttribute("step"));
+        node2.getSession("tenant1", "s1").setAttribute("step", 4);
+        node2.flush();
+        assertEquals(4, node1.getSession("tenant1", "s1").getAttribute("step"));
+
+        // 写回时合并其他节点的修改，不会用旧副本覆盖
+        node2.getSession("tenant1", "s1").setAttribute("lang", "zh");
+        node1.getSession("tenant1", "s1").setAttribute("step", 5);
+        node1.flush();
+        node2.flush();
+        assertEquals(5, node1.getSession("tenant1", "s1").getAttribute("step"));
+        assertEquals("zh", node1.getSession("tenant1", "s1").getAttribute("lang"));
+        assertEquals(5, node2.getSession("tenant1", "s1").getAttribute("step"));
+    }
+
+    @Test
+    void testSessionStore_ownWriteBackDoesNotReload() {
+        InMemorySessionReplicationClient shared = new InMemorySessionReplicationClient();
+        AtomicInteger loads = new AtomicInteger();
+        TenantContextManager node1 = new TenantContextManager(10, 10, SESSION_TIMEOUT, TENANT_TIMEOUT, 0,
+                now::get, new ReplicatedSessionStore(shared) {
+                    @Override
+                    public SessionSnapshot load(String tenantId, String sessionId) {
+                        loads.incrementAndGet();
+                        return super.load(tenantId, sessionId);
+                    }
+                });
+        TenantContextManager node2 = new TenantContextManager(10, 10, SESSION_TIMEOUT, TENANT_TIMEOUT, 0,
+                now::get, new ReplicatedSessionStore(shared));
+        node1.getOrCreateSession("tenant1", "s1");
+        int loadsBeforeWrites = loads.get();
+
+        for (int i = 0; i < 3; i++) {
+            node1.getSession("tenant1", "s1").setAttribute("step", i);
+            node1.flush();
+            assertEquals(i, node1.getSession("tenant1", "s1").getAttribute("step"));
+        }
+        assertEquals(loadsBeforeWrites, loads.get());
+
+        // 其他节点的写入仍然触发刷新
+        node2.getOrCreateSession("tenant1", "s1").setAttribute("step", 9);
+        node2.flush();
+        assertEquals(9, node1.getSession("tenant1", "s1").getAttribute("step"));
+        assertEquals(loadsBeforeWrites + 1, loads.get());
+    }
+
+    @Test
+    void testSessionStore_expiryKeepsSharedSession() {
+        InMemorySessionReplicationClient shared = new InMemorySessionReplicationClient();
+        TenantContextManager node1 = new TenantContextManager(10, 10, SESSION_TIMEOUT, TENANT_TIMEOUT, 0,
+                now::get, new ReplicatedSessionStore(shared));
+        TenantContextManager node2 = new TenantContextManager(10, 10, SESSION_TIMEOUT, TENANT_TIMEOUT, 0,
+                now::get, new ReplicatedSessionStore(shared));
+        node1.getOrCreateSession("tenant1", "s1").setAttribute("step", 1);
+        node1.flush();
+        assertNotNull(node2.getSession("tenant1", "s1"));
+
+        // 本节点的副本空闲到期不删除其他节点仍在使用的会话
+        now.addAndGet(SESSION_TIMEOUT + 5_000);
+        node2.getSession("tenant1", "s1");
+        assertEquals(1, node1.expire());
+        assertEquals(1, shared.size());
+        assertEquals(1, node1.getSession("tenant1", "s1").getAttribute("step"));
+
+        // 显式删除对所有节点生效
+        assertTrue(node1.removeSession("tenant1", "s1"));
+        assertEquals(0, shared.size());
+        assertNull(node2.getSession("tenant1", "s1"));
+        assertEquals(0, node2.getSessionCount());
+    }
+}
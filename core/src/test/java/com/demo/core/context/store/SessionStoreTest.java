@@ -0,0 +1,99 @@
+package com.demo.core.context.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTest {
+
+    private static SessionSnapshot snapshot(String value) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("user", value);
+        attributes.put("count", 42);
+        attributes.put("balance", -7L);
+        attributes.put("score", 0.5);
+        attributes.put("vip", true);
+        attributes.put("history", List.of("a", 1, List.of(false)));
+        attributes.put("profile", Map.of("lang", "zh"));
+        return new SessionSnapshot(1000L, 2000L, attributes);
+    }
+
+    @Test
+    void testCodec_roundTripsSupportedTypes() {
+        SessionSnapshot original = snapshot("张三");
+
+        SessionSnapshot decoded = SessionAttributeCodec.decode(SessionAttributeCodec.encode(original));
+
+        assertEquals(1000L, decoded.getCreatedAtMillis());
+        assertEquals(2000L, decoded.getLastAccessMillis());
+        assertEquals(original.getAttributes(), decoded.getAttributes());
+        assertThrows(IllegalArgumentException.class,
+                () -> SessionAttributeCodec.encode(new SessionSnapshot(0, 0, Map.of("thread", new Object()))));
+        assertThrows(IllegalArgumentException.class, () -> SessionAttributeCodec.decode(new byte[]{1, 2}));
+    }
+
+    @Test
+    void testMappedStore_recoversSessionsAfterReopen(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("sessions.db");
+        MappedSessionStore store = new MappedSessionStore(file, 4096, 1 << 20);
+        store.save("tenant1", "s1", snapshot("v1"));
+        store.save("tenant1", "s2", snapshot("v2"));
+        store.save("tenant1", "s1", snapshot("v3"));
+        assertTrue(store.delete("tenant1", "s2"));
+        store.close();
+
+        MappedSessionStore reopened = new MappedSessionStore(file, 4096, 1 << 20);
+
+        assertEquals(1, reopened.size());
+        assertEquals("v3", reopened.load("tenant1", "s1").getAttributes().get("user"));
+        assertNull(reopened.load("tenant1", "s2"));
+        reopened.close();
+    }
+
+    @Test
+    void testMappedStore_compactsAndGrows(@TempDir Path tempDir) {
+        MappedSessionStore store = new MappedSessionStore(tempDir.resolve("sessions.db"), 4096, 64 * 1024);
+
+        // 反复覆盖同一会话只产生失效记录，压缩后不需要扩容
+        for (int i = 0; i < 200; i++) {
+            store.save("tenant1", "s1", snapshot("v" + i));
+        }
+        assertEquals(4096, store.getMappedBytes());
+        assertEquals("v199", store.load("tenant1", "s1").getAttributes().get("user"));
+
+        for (int i = 0; i < 100; i++) {
+            store.save("tenant1", "session" + i, snapshot("v" + i));
+        }
+        assertTrue(store.getMappedBytes() > 4096);
+        assertEquals("v99", store.load("tenant1", "session99").getAttributes().get("user"));
+        store.close();
+    }
+
+    @Test
+    void testNearCache_invalidatedByOtherNodeWrites() {
+        InMemorySessionReplicationClient shared = new InMemorySessionReplicationClient();
+        NearCachedSessionStore node1 = new NearCachedSessionStore(new ReplicatedSessionStore(shared), 100, Duration.ofMinutes(1));
+        NearCachedSessionStore node2 = new NearCachedSessionStore(new ReplicatedSessionStore(shared), 100, Duration.ofMinutes(1));
+        shared.addInvalidationListener(node1::invalidate);
+        shared.addInvalidationListener(node2::invalidate);
+
+        node1.save("tenant1", "s1", snapshot("v1"));
+        assertEquals("v1", node2.load("tenant1", "s1").getAttributes().get("user"));
+        assertEquals("v1", node2.load("tenant1", "s1").getAttributes().get("user"));
+        assertEquals(1, node2.getStats().getHitCount());
+
+        node1.save("tenant1", "s1", snapshot("v2"));
+        assertEquals("v2", node2.load("tenant1", "s1").getAttributes().get("user"));
+
+        assertTrue(node2.delete("tenant1", "s1"));
+        assertNull(node1.load("tenant1", "s1"));
+        assertEquals(0, shared.size());
+    }
+}
@@ -0,0 +1,217 @@
+package com.demo.core.filter;
+
+import com.demo.core.metrics.MetricsCollector;
+import com.demo.core.tracing.Tracer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentFilterChainTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ContentFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (chain != null) {
+            chain.shutdown();
+        }
+    }
+
+    @Test
+    void testFilter_mergesResultsFromAllFilters() {
+        chain = createChain(ContentFilterChain.FailurePolicy.FAIL_CLOSED,
+                new StubFilter("upper", content -> Mono.just(result(true, content.replace("a", "*")))),
+                new StubFilter("lower", content -> Mono.just(result(true, content.replace("b", "#")))));
+
+        FilterResult result = chain.filter("abc").block();
+
+        assertNotNull(result);
+        assertTrue(result.isPassed());
+        // 两个过滤器的修改都生效
+        assertEquals("*#c", result.getFilteredContent());
+        assertFalse(meterRegistry.find("content.filter.latency").timers().isEmpty());
+    }
+
+    @Test
+    void testFilter_shortCircuitsOnHighRisk() {
+        AtomicBoolean slowCancelled = new AtomicBoolean();
+        chain = createChain(ContentFilterChain.FailurePolicy.FAIL_CLOSED,
+                new StubFilter("slow", content -> Mono.delay(Duration.ofSeconds(5))
+                        .map(tick -> result(true, content))
+                        .doOnCancel(() -> slowCancelled.set(true))),
+                new StubFilter("high", content -> Mono.just(highRisk(content))));
+
+        long startTime = System.nanoTime();
+        FilterResult result = chain.filter("abc").block(Duration.ofSeconds(2));
+
+        assertNotNull(result);
+        assertFalse(result.isPassed());
+        assertTrue(Duration.ofNanos(System.nanoTime() - startTime).toMillis() < 1000);
+        assertTrue(slowCancelled.get());
+        // 每次执行只记录一种结果
+        assertEquals(1, meterRegistry.find("content.filter.latency").tag("filter", "slow").timers().stream()
+                .mapToLong(Timer::count)
+                .sum());
+    }
+
+    @Test
+    void testFilter_failClosedRejectsOnTimeout() {
+        chain = createChain(ContentFilterChain.FailurePolicy.FAIL_CLOSED,
+                new StubFilter("slow", content -> Mono.never()));
+
+        FilterResult result = chain.filter("abc").block(Duration.ofSeconds(2));
+
+        assertNotNull(result);
+        assertFalse(result.isPassed());
+        assertEquals("filter_unavailable", result.getRiskItems().get(0).getRiskType());
+    }
+
+    @Test
+    void testFilter_failOpenPassesOnError() {
+        chain = createChain(ContentFilterChain.FailurePolicy.FAIL_OPEN,
+                new StubFilter("broken", content -> Mono.error(new IllegalStateException("boom"))));
+
+        FilterResult result = chain.filter("abc").block(Duration.ofSeconds(2));
+
+        assertNotNull(result);
+        assertTrue(result.isPassed());
+        assertEquals("abc", result.getFilteredContent());
+        assertEquals("filter_skipped", result.getRiskItems().get(0).getRiskType());
+    }
+
+    @Test
+    void testFilter_failClosedRejectsEmptyResult() {
+        chain = createChain(ContentFilterChain.FailurePolicy.FAIL_CLOSED,
+                new StubFilter("empty", content -> Mono.empty()));
+
+        FilterResult result = chain.filter("abc").block(Duration.ofSeconds(2));
+
+        assertNotNull(result);
+        assertFalse(result.isPassed());
+        assertEquals("filter_unavailable", result.getRiskItems().get(0).getRiskType());
+        assertEquals(1, meterRegistry.get("content.filter.latency").tag("outcome", "error").timer().count());
+        assertEquals(0, meterRegistry.get("content.filter.latency").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testFilter_mergeAppliesBudgetWhenReapplyingFilters() {
+        AtomicInteger calls = new AtomicInteger();
+        chain = createChain(ContentFilterChain.FailurePolicy.FAIL_OPEN,
+                // 第一次执行正常返回，重新执行时不再返回
+                new StubFilter("flaky", content -> calls.incrementAndGet() == 1
+                        ? Mono.just(result(true, content.replace("a", "*"))) : Mono.never()),
+                new StubFilter("lower", content -> Mono.just(result(true, content.replace("b", "#")))));
+
+        FilterResult result = chain.filter("abc").block(Duration.ofSeconds(2));
+
+        assertNotNull(result);
+        assertTrue(result.isPassed());
+        assertEquals("a#c", result.getFilteredContent());
+        assertTrue(result.getRiskItems().stream().anyMatch(item -> "filter_skipped".equals(item.getRiskType())));
+    }
+
+    @Test
+    void testFilter_mergeFailsClosedWhenReapplyErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        chain = createChain(ContentFilterChain.FailurePolicy.FAIL_CLOSED,
+                new StubFilter("flaky", content -> calls.incrementAndGet() == 1
+                        ? Mono.just(result(true, content.replace("a", "*")))
+                        : Mono.error(new IllegalStateException("boom"))),
+                new StubFilter("lower", content -> Mono.just(result(true, content.replace("b", "#")))));
+
+        FilterResult result = chain.filter("abc").block(Duration.ofSeconds(2));
+
+        assertNotNull(result);
+        assertFalse(result.isPassed());
+        assertTrue(result.getRiskItems().stream().anyMatch(item -> "filter_unavailable".equals(item.getRiskType())));
+    }
+
+    private ContentFilterChain createChain(ContentFilterChain.FailurePolicy failurePolicy, ContentFilter... filters) {
+        return new ContentFilterChain(List.of(filters), new MetricsCollector(meterRegistry), Tracer.noop(),
+                Schedulers.newBoundedElastic(4, 100, "test-filter"),
+                new ContentFilterChain.FilterPolicy(Duration.ofMillis(100), failurePolicy), Map.of());
+    }
+
+    private static FilterResult result(boolean passed, String content) {
+        return FilterResult.builder()
+                .passed(passed)
+                .riskItems(new ArrayList<>())
+                .filteredContent(content)
+                .build();
+    }
+
+    private static FilterResult highRisk(String content) {
+        List<FilterResult.RiskItem> riskItems = new ArrayList<>();
+        riskItems.add(FilterResult.RiskItem.builder()
+                .riskType("prompt_injection")
+                .riskLevel(FilterResult.RiskItem.RiskLevel.HIGH)
+                .content(content)
+                .build());
+        return FilterResult.builder()
+                .passed(false)
+                .riskItems(riskItems)
+                .filteredContent(content)
+                .build();
+    }
+
+    /**
+     * 测试用过滤器
+     */
+    private static final class StubFilter implements ContentFilter {
+        private final String filterId;
+        private final Function<String, Mono<FilterResult>> behavior;
+
+        private StubFilter(String filterId, Function<String, Mono<FilterResult>> behavior) {
+            this.filterId = filterId;
+            this.behavior = behavior;
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public Mono<FilterResult> filter(String content) {
+            return behavior.apply(content);
+        }
+
+        @Override
+        public Mono<FilterResult> filterAsync(String content) {
+            return filter(content);
+        }
+
+        @Override
+        public String getFilterId() {
+            return filterId;
+        }
+
+        @Override
+        public String getFilterName() {
+            return filterId;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.demo.core.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexiconManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TextContentFilter textContentFilter;
+
+    @BeforeEach
+    void setUp() {
+        textContentFilter = new TextContentFilter();
+        textContentFilter.initialize();
+    }
+
+    @Test
+    void testRefresh_loadsLexiconFromFiles() throws Exception {
+        Path words = write("words.txt", "# 注释\n禁词\n\n");
+        Path patterns = write("patterns.txt", "[0-9]{6}\n");
+        LexiconManager manager = new LexiconManager(textContentFilter, new FileLexiconSource(words, patterns), 0);
+        long previousVersion = manager.getCurrentVersion();
+
+        assertTrue(manager.refresh());
+
+        assertTrue(manager.getCurrentVersion() > previousVersion);
+        FilterResult result = textContentFilter.filter("禁词和敏感词1和123456").block();
+        assertNotNull(result);
+        assertEquals("**和敏感词1和***", result.getFilteredContent());
+    }
+
+    @Test
+    void testRefresh_skipsUnchangedLexicon() throws Exception {
+        Path words = write("words.txt", "禁词\n");
+        LexiconManager manager = new LexiconManager(textContentFilter, new FileLexiconSource(words, null), 0);
+
+        assertTrue(manager.refresh());
+        long version = manager.getCurrentVersion();
+
+        assertFalse(manager.refresh());
+        assertEquals(version, manager.getCurrentVersion());
+
+        Files.writeString(words, "新禁词\n", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(words, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        assertTrue(manager.refresh());
+        assertTrue(manager.getCurrentVersion() > version);
+    }
+
+    @Test
+    void testRefresh_keepsDefaultPatternsWhenOnlyWordsConfigured() throws Exception {
+        Path words = write("words.txt", "禁词\n");
+        LexiconManager manager = new LexiconManager(textContentFilter, new FileLexiconSource(words, null), 0);
+        LexiconSnapshot previous = textContentFilter.getLexicon();
+
+        assertTrue(manager.refresh());
+
+        assertEquals(previous.getPatterns(), textContentFilter.getLexicon().getPatterns());
+        FilterResult result = textContentFilter.filter("禁词和110101199003071234").block();
+        assertNotNull(result);
+        assertEquals("**和***", result.getFilteredContent());
+    }
+
+    @Test
+    void testRefresh_keepsDefaultWordsWhenOnlyPatternsConfigured() throws Exception {
+        Path patterns = write("patterns.txt", "[0-9]{6}\n");
+        LexiconManager manager = new LexiconManager(textContentFilter, new FileLexiconSource(null, patterns), 0);
+        LexiconSnapshot previous = textContentFilter.getLexicon();
+
+        assertTrue(manager.refresh());
+
+        assertEquals(previous.getWords(), textContentFilter.getLexicon().getWords());
+        FilterResult result = textContentFilter.filter("敏感词1和123456").block();
+        assertNotNull(result);
+        assertEquals("****和***", result.getFilteredContent());
+    }
+
+    @Test
+    void testRefresh_keepsSnapshotWhenCompilationFails() throws Exception {
+        Path patterns = write("patterns.txt", "[0-9\n");
+        LexiconManager manager = new LexiconManager(textContentFilter, new FileLexiconSource(null, patterns), 0);
+        LexiconSnapshot previous = textContentFilter.getLexicon();
+
+        assertFalse(manager.refresh());
+
+        assertSame(previous, textContentFilter.getLexicon());
+    }
+
+    private Path write(String name, String content) throws Exception {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,183 @@
+package com.demo.core.filter;
+
+import com.demo.core.exception.ContentFilterException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextContentFilterTest {
+
+    private TextContentFilter textContentFilter;
+
+    @BeforeEach
+    void setUp() {
+        textContentFilter = new TextContentFilter();
+        textContentFilter.initialize();
+    }
+
+    @Test
+    void testFilter_masksAllSensitiveWordsInOnePass() {
+        FilterResult result = textContentFilter.filter("前缀敏感词1中间敏感词2和敏感词1结尾").block();
+
+        assertNotNull(result);
+        assertTrue(result.isPassed());
+        assertEquals("前缀****中间****和****结尾", result.getFilteredContent());
+        // 同一个敏感词只生成一个风险项
+        assertEquals(2, result.getRiskItems().size());
+        assertEquals("敏感词1", result.getRiskItems().get(0).getContent());
+        assertEquals("敏感词2", result.getRiskItems().get(1).getContent());
+    }
+
+    @Test
+    void testFilter_masksOverlappingWords() {
+        textContentFilter.reloadSensitiveWords(List.of("abc", "bcd", "c"));
+
+        FilterResult result = textContentFilter.filter("xabcdx").block();
+
+        assertNotNull(result);
+        assertEquals("x****x", result.getFilteredContent());
+        assertEquals(3, result.getRiskItems().size());
+    }
+
+    @Test
+    void testFilter_cleanContentIsReturnedUnchanged() {
+        String content = "这是一段正常的内容";
+
+        FilterResult result = textContentFilter.filter(content).block();
+
+        assertNotNull(result);
+        assertTrue(result.isPassed());
+        assertSame(content, result.getFilteredContent());
+        assertTrue(result.getRiskItems().isEmpty());
+    }
+
+    @Test
+    void testFilter_reloadReplacesLexicon() {
+        textContentFilter.reloadSensitiveWords(List.of("新词"));
+
+        FilterResult result = textContentFilter.filter("敏感词1和新词").block();
+
+        assertNotNull(result);
+        assertEquals("敏感词1和**", result.getFilteredContent());
+    }
+
+    @Test
+    void testFilter_masksSensitivePatternsAndRejects() {
+        FilterResult result = textContentFilter.filter("身份证11010519491231002X已登记").block();
+
+        assertNotNull(result);
+        assertFalse(result.isPassed());
+        assertEquals("身份证***已登记", result.getFilteredContent());
+        assertEquals(1, result.getRiskItems().size());
+        FilterResult.RiskItem item = result.getRiskItems().get(0);
+        assertEquals("sensitive_pattern", item.getRiskType());
+        assertEquals(3, item.getStartOffset());
+        assertEquals(21, item.getEndOffset());
+    }
+
+    @Test
+    void testFilter_reportsEveryPatternMatchWithOffsets() {
+        textContentFilter.reloadSensitivePatterns(List.of("a+", "[0-9]+"));
+
+        FilterResult result = textContentFilter.filter("x-aa-12-a").block();
+
+        assertNotNull(result);
+        assertEquals("x-***-***-***", result.getFilteredContent());
+        assertEquals(3, result.getRiskItems().size());
+        FilterResult.RiskItem last = result.getRiskItems().get(2);
+        assertEquals("a", last.getContent());
+        assertEquals(8, last.getStartOffset());
+        assertEquals(9, last.getEndOffset());
+    }
+
+    @Test
+    void testFilterStream_catchesWordsSplitAcrossChunks() {
+        textContentFilter.reloadSensitivePatterns(List.of());
+
+        List<String> chunks = textContentFilter.filterStream(Flux.just("前缀敏感", "词1结", "尾")).collectList().block();
+
+        assertNotNull(chunks);
+        // 可能成为敏感词前缀的字符暂不输出，其余文本立即输出
+        assertEquals(List.of("前缀", "****结", "尾"), chunks);
+    }
+
+    @Test
+    void testFilterStream_matchesWholeTextFilter() {
+        // 不足16位的数字不构成敏感模式，但会在前瞻窗口中暂留
+        String content = "订单号622202020011223，编号1101051949，敏感词2结尾";
+
+        for (int size = 1; size <= 8; size++) {
+            List<String> parts = new ArrayList<>();
+            for (int i = 0; i < content.length(); i += size) {
+                parts.add(content.substring(i, Math.min(content.length(), i + size)));
+            }
+
+            List<String> chunks = textContentFilter.filterStream(Flux.fromIterable(parts)).collectList().block();
+
+            assertNotNull(chunks);
+            assertEquals(textContentFilter.filter(content).block().getFilteredContent(), String.join("", chunks));
+        }
+    }
+
+    @Test
+    void testFilterStream_rejectsHighRiskPatternSplitAcrossChunks() {
+        List<String> emitted = new ArrayList<>();
+
+        ContentFilterException error = assertThrows(ContentFilterException.class, () -> textContentFilter
+                .filterStream(Flux.just("敏感词1，身份证110105194912", "31002X已登记"))
+                .doOnNext(emitted::add)
+                .blockLast());
+
+        // 敏感模式的任何部分都没有输出
+        assertFalse(String.join("", emitted).contains("110105"));
+        FilterResult result = error.getFilterResult();
+        assertFalse(result.isPassed());
+        assertEquals(2, result.getRiskItems().size());
+        assertEquals(FilterResult.RiskItem.RiskLevel.MEDIUM, result.getRiskItems().get(0).getRiskLevel());
+        FilterResult.RiskItem pattern = result.getRiskItems().get(1);
+        assertEquals(FilterResult.RiskItem.RiskLevel.HIGH, pattern.getRiskLevel());
+        assertEquals("11010519491231002X", pattern.getContent());
+        assertEquals(8, pattern.getStartOffset());
+        assertEquals(26, pattern.getEndOffset());
+    }
+
+    @Test
+    void testFilterStream_rejectsBeforeStreamEnds() {
+        textContentFilter.reloadSensitivePatterns(List.of("[0-9]{4}"));
+        List<String> emitted = new ArrayList<>();
+
+        // 匹配确认后立即拒绝，不等待后续分片
+        assertThrows(ContentFilterException.class, () -> textContentFilter
+                .filterStream(Flux.just("前缀12", "34中间", "x".repeat(100)).concatWith(Flux.never()))
+                .doOnNext(emitted::add)
+                .blockLast(Duration.ofSeconds(5)));
+        assertFalse(String.join("", emitted).contains("12"));
+    }
+
+    @Test
+    void testFilter_servesRepeatedContentFromCache() {
+        String content = "重复的模板内容敏感词1";
+
+        FilterResult first = textContentFilter.filter(content).block();
+        FilterResult second = textContentFilter.filter(content).block();
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(first.getFilteredContent(), second.getFilteredContent());
+        assertEquals(first.getRiskItems(), second.getRiskItems());
+        assertEquals(1, textContentFilter.getCacheStats().getHitCount());
+
+        // 词库更新后不再命中旧结果
+        textContentFilter.reloadSensitiveWords(List.of("模板"));
+        FilterResult reloaded = textContentFilter.filter(content).block();
+
+        assertNotNull(reloaded);
+        assertEquals("重复的**内容敏感词1", reloaded.getFilteredContent());
+    }
+}
@@ -0,0 +1,34 @@
+package com.demo.core.license;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LicenseErrorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testGetBody_isValidJsonWithCodeAndMessage() throws Exception {
+        for (LicenseError error : LicenseError.values()) {
+            JsonNode body = objectMapper.readTree(error.getBody());
+
+            assertEquals(error.getCode(), body.get("code").asText());
+            assertEquals(error.getMessage(), body.get("message").asText());
+        }
+    }
+
+    @Test
+    void testGetBody_rateLimitUsesItsOwnStatusAndError() throws Exception {
+        JsonNode rateLimited = objectMapper.readTree(LicenseError.RATE_LIMITED.getBody());
+        JsonNode expired = objectMapper.readTree(LicenseError.EXPIRED.getBody());
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, LicenseError.RATE_LIMITED.getStatus());
+        assertEquals("Rate limit exceeded", rateLimited.get("error").asText());
+        assertEquals(HttpStatus.FORBIDDEN, LicenseError.EXPIRED.getStatus());
+        assertEquals("License validation failed", expired.get("error").asText());
+    }
+}
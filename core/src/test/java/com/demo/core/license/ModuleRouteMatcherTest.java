@@ -0,0 +1,65 @@
+package com.demo.core.license;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleRouteMatcherTest {
+
+    private final ModuleRouteMatcher matcher = new ModuleRouteMatcher(
+            "/core=core,/manufacturing/=manufacturing,/core/admin=admin", "default");
+
+    @Test
+    void testResolve_matchesOnSegmentBoundary() {
+        assertEquals("core", matcher.resolve("/core"));
+        assertEquals("core", matcher.resolve("/core/x"));
+        // 不在路径段边界上
+        assertEquals("default", matcher.resolve("/coredump"));
+        assertEquals("default", matcher.resolve("/cor"));
+    }
+
+    @Test
+    void testResolve_prefersLongestPrefix() {
+        assertEquals("admin", matcher.resolve("/core/admin"));
+        assertEquals("admin", matcher.resolve("/core/admin/users"));
+        assertEquals("core", matcher.resolve("/core/administrator"));
+    }
+
+    @Test
+    void testResolve_trailingSlash() {
+        // 配置中的前缀末尾的'/'被去掉，请求路径末尾的'/'仍处于路径段边界
+        assertEquals("manufacturing", matcher.resolve("/manufacturing"));
+        assertEquals("manufacturing", matcher.resolve("/manufacturing/"));
+        assertEquals("core", matcher.resolve("/core/"));
+    }
+
+    @Test
+    void testResolve_rootRouteMatchesEverySubPath() {
+        Map<String, String> routes = new LinkedHashMap<>();
+        routes.put("/", "root");
+        routes.put("/core", "core");
+        ModuleRouteMatcher withRoot = new ModuleRouteMatcher(routes, "default");
+
+        assertEquals("root", withRoot.resolve("/"));
+        assertEquals("root", withRoot.resolve("/api"));
+        assertEquals("root", withRoot.resolve("/coredump"));
+        assertEquals("core", withRoot.resolve("/core/x"));
+        assertEquals("default", withRoot.resolve(""));
+    }
+
+    @Test
+    void testResolve_nullAndUnmatchedPathUseDefault() {
+        assertEquals("default", matcher.resolve(null));
+        assertEquals("default", matcher.resolve("/"));
+        assertEquals("default", matcher.resolve("/recommendation"));
+    }
+
+    @Test
+    void testConstructor_rejectsInvalidRoute() {
+        assertThrows(IllegalArgumentException.class, () -> new ModuleRouteMatcher("/core", "default"));
+        assertThrows(IllegalArgumentException.class, () -> new ModuleRouteMatcher("/core=", "default"));
+    }
+}
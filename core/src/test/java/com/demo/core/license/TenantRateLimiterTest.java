@@ -0,0 +1,85 @@
+package com.demo.core.license;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void testTryAcquire_allowsBurstThenLimits() {
+        TenantRateLimiter rateLimiter = new TenantRateLimiter(100, clock::get, Schedulers.immediate());
+        LicenseInfo licenseInfo = license("tenant-a", 10, 3);
+
+        // 突发容量内的请求全部放行
+        assertEquals(0L, rateLimiter.tryAcquire(licenseInfo));
+        assertEquals(0L, rateLimiter.tryAcquire(licenseInfo));
+        assertEquals(0L, rateLimiter.tryAcquire(licenseInfo));
+
+        // 超出突发容量后需要等待一个令牌间隔（100ms）
+        assertEquals(100_000_000L, rateLimiter.tryAcquire(licenseInfo));
+
+        // 时间推进后惰性补充令牌
+        clock.addAndGet(100_000_000L);
+        assertEquals(0L, rateLimiter.tryAcquire(licenseInfo));
+    }
+
+    @Test
+    void testTryAcquire_unlimitedWhenRateNotConfigured() {
+        TenantRateLimiter rateLimiter = new TenantRateLimiter(100, clock::get, Schedulers.immediate());
+        LicenseInfo licenseInfo = license("tenant-a", 0, 0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0L, rateLimiter.tryAcquire(licenseInfo));
+        }
+        assertEquals(0, rateLimiter.getBucketCount());
+    }
+
+    @Test
+    void testTryAcquire_bucketCountStaysBounded() {
+        TenantRateLimiter rateLimiter = new TenantRateLimiter(100, clock::get, Schedulers.immediate());
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(0L, rateLimiter.tryAcquire(license("tenant-" + i, 5, 1)));
+            // 令牌间隔为200ms，之前的令牌桶都已补满
+            clock.addAndGet(200_000_000L);
+        }
+        assertTrue(rateLimiter.getBucketCount() <= 100);
+    }
+
+    @Test
+    void testTryAcquire_evictionKeepsDrainedBuckets() {
+        TenantRateLimiter rateLimiter = new TenantRateLimiter(10, clock::get, Schedulers.immediate());
+        LicenseInfo limited = license("tenant-limited", 1, 1);
+        assertEquals(0L, rateLimiter.tryAcquire(limited));
+
+        // 超出上限时其他租户的令牌桶都未补满，限流中的令牌桶不会被淘汰
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0L, rateLimiter.tryAcquire(license("tenant-" + i, 1, 1)));
+        }
+        assertTrue(rateLimiter.tryAcquire(limited) > 0);
+        assertEquals(101, rateLimiter.getBucketCount());
+
+        // 补满后的令牌桶在下一次淘汰时移除
+        clock.addAndGet(1_000_000_000L);
+        for (int i = 0; i < 20; i++) {
+            rateLimiter.tryAcquire(license("tenant-new-" + i, 1, 1));
+        }
+        assertTrue(rateLimiter.getBucketCount() <= 20);
+    }
+
+    private LicenseInfo license(String tenantId, int ratePerSecond, int burst) {
+        return LicenseInfo.builder()
+                .tenantId(tenantId)
+                .moduleId("core")
+                .rateLimitPerSecond(ratePerSecond)
+                .rateLimitBurst(burst)
+                .valid(true)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.demo.core.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指标更新开销的基准测试
+ * 对比按名称和标签查找后更新、使用预先绑定的计数器更新，以及原先拼接字符串键查找的开销。
+ * 运行方式：在IDE中执行main方法，或使用-prof gc查看每次更新分配的字节数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class MetricsCollectorBenchmark {
+
+    private MetricsCollector metricsCollector;
+    private Counter boundCounter;
+    private SimpleMeterRegistry meterRegistry;
+    private final Map<String, Counter> stringKeyedCounters = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsCollector = new MetricsCollector(meterRegistry);
+        boundCounter = metricsCollector.counter("bench.requests", "module", "core", "outcome", "ALLOWED");
+    }
+
+    @Benchmark
+    public void lookupAndIncrement() {
+        metricsCollector.incrementCounter("bench.requests", "module", "core", "outcome", "ALLOWED");
+    }
+
+    @Benchmark
+    public void preBoundIncrement() {
+        boundCounter.increment();
+    }
+
+    @Benchmark
+    public void stringKeyLookupAndIncrement() {
+        stringKeyedCounter("bench.requests", "module", "core", "outcome", "ALLOWED").increment();
+    }
+
+    /**
+     * 原先的实现：每次更新都拼接一个字符串键再查找
+     */
+    private Counter stringKeyedCounter(String metricName, String... tags) {
+        StringBuilder sb = new StringBuilder(metricName);
+        for (String tag : tags) {
+            sb.append(":").append(tag);
+        }
+        return stringKeyedCounters.computeIfAbsent(sb.toString(),
+                k -> Counter.builder(metricName).tags(tags).register(meterRegistry));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MetricsCollectorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
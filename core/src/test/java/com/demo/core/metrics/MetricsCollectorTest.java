@@ -0,0 +1,102 @@
+package com.demo.core.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsCollectorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsCollector metricsCollector;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsCollector = new MetricsCollector(meterRegistry, "10,100");
+    }
+
+    @Test
+    void testRecordLatency_publishesSloBuckets() {
+        metricsCollector.recordLatency("test.latency", TimeUnit.MILLISECONDS.toNanos(5), "stage", "a");
+        metricsCollector.recordLatency("test.latency", TimeUnit.MILLISECONDS.toNanos(50), "stage", "a");
+
+        Timer timer = meterRegistry.get("test.latency").tag("stage", "a").timer();
+        assertEquals(2, timer.count());
+        // 同名同标签的计时器只创建一次
+        assertSame(timer, metricsCollector.timer("test.latency", "stage", "a"));
+
+        CountAtBucket[] buckets = timer.takeSnapshot().histogramCounts();
+        assertTrue(buckets.length >= 2);
+    }
+
+    @Test
+    void testRecordExecutionTime_recordsEvenWhenOperationThrows() {
+        assertThrows(IllegalStateException.class, () -> metricsCollector.recordExecutionTime("test.operation", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, meterRegistry.get("test.operation").timer().count());
+    }
+
+    @Test
+    void testRecordExecutionTime_runnableIsActuallyTimed() {
+        AtomicInteger runs = new AtomicInteger();
+
+        metricsCollector.recordExecutionTime(runs::incrementAndGet, "task", "demo");
+
+        assertEquals(1, runs.get());
+        assertEquals(1, meterRegistry.get("method.execution.time").tag("task", "demo").timer().count());
+    }
+
+    @Test
+    void testRegisterGauge_readsCurrentValue() {
+        AtomicInteger queueDepth = new AtomicInteger(3);
+
+        metricsCollector.registerGauge("test.queue.depth", queueDepth, AtomicInteger::get);
+        queueDepth.set(7);
+
+        assertEquals(7.0, meterRegistry.get("test.queue.depth").gauge().value());
+    }
+
+    @Test
+    void testRecordValue_tracksDistribution() {
+        metricsCollector.recordValue("test.batch.size", 4);
+        metricsCollector.recordValue("test.batch.size", 6);
+
+        assertEquals(10.0, meterRegistry.get("test.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void testCounter_preBoundHandleSharesSeries() {
+        Counter counter = metricsCollector.counter("test.requests", "module", "core");
+        counter.increment();
+        metricsCollector.incrementCounter("test.requests", "module", "core");
+
+        assertSame(counter, metricsCollector.counter("test.requests", "module", "core"));
+        assertEquals(2.0, meterRegistry.get("test.requests").tag("module", "core").counter().count());
+    }
+
+    @Test
+    void testCardinalityCap_overflowSeriesAbsorbsNewTagValues() {
+        MetricsCollector capped = new MetricsCollector(meterRegistry, "10,100", 2);
+
+        for (int i = 0; i < 5; i++) {
+            capped.incrementCounter("test.by.user", "user", "user-" + i);
+        }
+        // 已存在的序列不受上限影响
+        capped.incrementCounter("test.by.user", "user", "user-0");
+
+        assertEquals(3, meterRegistry.find("test.by.user").counters().size());
+        assertEquals(2.0, meterRegistry.get("test.by.user").tag("user", "user-0").counter().count());
+        assertEquals(3.0, meterRegistry.get("test.by.user").tag("user", MetricsCollector.OVERFLOW_TAG_VALUE).counter().count());
+        assertEquals(3.0, meterRegistry.get("metrics.cardinality.overflow").tag("metric", "test.by.user").counter().count());
+    }
+}
@@ -0,0 +1,184 @@
+package com.demo.core.tracing;
+
+import com.demo.core.metrics.MetricsCollector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Span> exported;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        exported = new ArrayList<>();
+        tracer = new Tracer(new MetricsCollector(meterRegistry), 1.0, exported::addAll, 16);
+    }
+
+    @Test
+    void testStartSpan_nestsUnderCurrentSpanAndRestoresContext() {
+        try (Span root = tracer.startSpan("root")) {
+            try (Span child = tracer.startSpan("child")) {
+                assertSame(child, tracer.currentSpan());
+                assertEquals(root.getTraceId(), child.getTraceId());
+                assertEquals(root.getSpanId(), child.getParentSpanId());
+            }
+            assertSame(root, tracer.currentSpan());
+            assertNull(root.getParentSpanId());
+        }
+        assertNull(tracer.currentSpan());
+
+        tracer.flush();
+        assertEquals(List.of("child", "root"), exported.stream().map(Span::getName).toList());
+        assertEquals(1, meterRegistry.get("trace.span.latency").tag("span", "child").timer().count());
+    }
+
+    @Test
+    void testDetachedSpan_concurrentEndExportsOnce() throws Exception {
+        int threads = 8;
+        for (int round = 0; round < 100; round++) {
+            Span span = tracer.startDetachedSpan("async", Span.Kind.CLIENT, null);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> enders = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int id = i;
+                Thread thread = new Thread(() -> {
+                    awaitQuietly(start);
+                    span.setAttribute("ender" + id, id);
+                    span.end();
+                });
+                thread.start();
+                enders.add(thread);
+            }
+            start.countDown();
+            for (Thread thread : enders) {
+                thread.join();
+            }
+            tracer.flush();
+        }
+
+        assertEquals(100, exported.size());
+        assertEquals(100, meterRegistry.get("trace.span.latency").tag("span", "async").timer().count());
+    }
+
+    @Test
+    void testDetachedSpan_doesNotChangeThreadContext() {
+        try (Span root = tracer.startSpan("root")) {
+            Span detached = tracer.startDetachedSpan("async", Span.Kind.CLIENT, root);
+            assertSame(root, tracer.currentSpan());
+            detached.end();
+            detached.end();
+            assertEquals(root.getSpanId(), detached.getParentSpanId());
+        }
+
+        tracer.flush();
+        assertEquals(2, exported.size());
+    }
+
+    @Test
+    void testStartSpan_withExplicitParentJoinsItsTrace() {
+        // 网关的请求阶段在其他线程上创建，不是当前线程的当前阶段
+        Span request = tracer.startDetachedSpan("license.check", Span.Kind.SERVER, null);
+
+        try (Span process = tracer.startSpan("model.process", Span.Kind.INTERNAL, request)) {
+            assertSame(process, tracer.currentSpan());
+            try (Span search = tracer.startSpan("vector.search")) {
+                assertEquals(request.getTraceId(), search.getTraceId());
+                assertEquals(process.getSpanId(), search.getParentSpanId());
+            }
+            assertEquals(request.getTraceId(), process.getTraceId());
+            assertEquals(request.getSpanId(), process.getParentSpanId());
+        }
+        assertNull(tracer.currentSpan());
+        request.end();
+    }
+
+    @Test
+    void testUnsampledTrace_isNotExported() {
+        Tracer unsampled = new Tracer(new MetricsCollector(meterRegistry), 0.0, exported::addAll, 16);
+
+        try (Span root = unsampled.startSpan("root")) {
+            try (Span child = unsampled.startSpan("child")) {
+                assertFalse(child.isSampled());
+                child.setAttribute("key", "value");
+                assertTrue(child.getAttributes().isEmpty());
+            }
+        }
+
+        unsampled.flush();
+        assertTrue(exported.isEmpty());
+        assertTrue(meterRegistry.find("trace.span.latency").timers().isEmpty());
+    }
+
+    @Test
+    void testExtract_continuesRemoteTrace() {
+        Span remote = tracer.extract("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+
+        assertNotNull(remote);
+        Span span = tracer.startDetachedSpan("server", Span.Kind.SERVER, remote);
+        assertEquals("0af7651916cd43dd8448eb211c80319c", span.getTraceId());
+        assertEquals("b7ad6b7169203331", span.getParentSpanId());
+        assertTrue(span.toTraceparent().startsWith("00-0af7651916cd43dd8448eb211c80319c-"));
+        assertTrue(span.toTraceparent().endsWith("-01"));
+
+        assertNull(tracer.extract("00-00000000000000000000000000000000-b7ad6b7169203331-01"));
+        assertNull(tracer.extract("garbage"));
+    }
+
+    @Test
+    void testQueueFull_dropsSpans() {
+        Tracer small = new Tracer(new MetricsCollector(meterRegistry), 1.0, exported::addAll, 1);
+
+        small.startDetachedSpan("a", Span.Kind.INTERNAL, null).end();
+        small.startDetachedSpan("b", Span.Kind.INTERNAL, null).end();
+
+        assertEquals(1, small.getPendingCount());
+        assertEquals(1.0, meterRegistry.get("trace.spans.dropped").counter().count());
+    }
+
+    @Test
+    void testOtlpJsonFileExporter_writesOneRequestPerBatch(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("traces/spans.jsonl");
+        OtlpJsonFileExporter exporter = new OtlpJsonFileExporter(file, "core");
+        Tracer fileTracer = new Tracer(null, 1.0, exporter, 16);
+
+        try (Span root = fileTracer.startSpan("model.process", Span.Kind.SERVER)) {
+            root.setAttribute("model", "demo\"model").setAttribute("topK", 5);
+            try (Span child = fileTracer.startSpan("milvus.search", Span.Kind.CLIENT)) {
+                child.recordError("timeout");
+            }
+        }
+        fileTracer.shutdown();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        String json = lines.get(0);
+        assertTrue(json.startsWith("{\"resourceSpans\":[{\"resource\":{\"attributes\":[{\"key\":\"service.name\""));
+        assertTrue(json.contains("\"name\":\"milvus.search\",\"kind\":3"));
+        assertTrue(json.contains("\"status\":{\"code\":2,\"message\":\"timeout\"}"));
+        assertTrue(json.contains("{\"key\":\"model\",\"value\":{\"stringValue\":\"demo\\\"model\"}}"));
+        assertTrue(json.contains("{\"key\":\"topK\",\"value\":{\"intValue\":\"5\"}}"));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
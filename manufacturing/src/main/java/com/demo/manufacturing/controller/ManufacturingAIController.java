@@ -1,11 +1,14 @@
 package com.demo.manufacturing.controller;
 
+import com.demo.core.license.LicenseInterceptor;
 import com.demo.core.model.AIRequest;
 import com.demo.core.model.AIResponse;
 import com.demo.core.registry.ModelRegistry;
+import com.demo.core.tracing.Span;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -19,29 +22,35 @@ public class ManufacturingAIController {
      * 制造业智能预测接口
      */
     @PostMapping(value = "/predictive-maintenance", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<AIResponse> predictiveMaintenance(@RequestBody AIRequest request) {
+    public Mono<AIResponse> predictiveMaintenance(@RequestBody AIRequest request, ServerWebExchange exchange) {
         // 使用核心模块的能力处理制造业预测性维护请求
         request.setModelId("manufacturing-prediction-001");
-        return Mono.just(modelRegistry.processRequest(request));
+        // 以网关的请求阶段为父阶段，使同一请求的各个阶段属于同一条追踪
+        Span parent = exchange.getAttribute(LicenseInterceptor.TRACE_SPAN_ATTRIBUTE);
+        return Mono.just(modelRegistry.processRequest(request, parent));
     }
 
     /**
      * 质量检测接口
      */
     @PostMapping(value = "/quality-inspection", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<AIResponse> qualityInspection(@RequestBody AIRequest request) {
+    public Mono<AIResponse> qualityInspection(@RequestBody AIRequest request, ServerWebExchange exchange) {
         // 使用核心模块的能力处理质量检测请求
         request.setModelId("manufacturing-quality-001");
-        return Mono.just(modelRegistry.processRequest(request));
+        // 以网关的请求阶段为父阶段，使同一请求的各个阶段属于同一条追踪
+        Span parent = exchange.getAttribute(LicenseInterceptor.TRACE_SPAN_ATTRIBUTE);
+        return Mono.just(modelRegistry.processRequest(request, parent));
     }
 
     /**
      * 生产优化建议接口
      */
     @PostMapping(value = "/production-optimization", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<AIResponse> productionOptimization(@RequestBody AIRequest request) {
+    public Mono<AIResponse> productionOptimization(@RequestBody AIRequest request, ServerWebExchange exchange) {
         // 使用核心模块的能力处理生产优化请求
         request.setModelId("manufacturing-optimization-001");
-        return Mono.just(modelRegistry.processRequest(request));
+        // 以网关的请求阶段为父阶段，使同一请求的各个阶段属于同一条追踪
+        Span parent = exchange.getAttribute(LicenseInterceptor.TRACE_SPAN_ATTRIBUTE);
+        return Mono.just(modelRegistry.processRequest(request, parent));
     }
 }
\ No newline at end of file
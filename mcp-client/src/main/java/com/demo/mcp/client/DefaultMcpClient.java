@@ -1,20 +1,42 @@
 package com.demo.mcp.client;
 
+import com.demo.core.tracing.Span;
+import com.demo.core.tracing.Tracer;
+import com.demo.mcp.client.loadbalance.FileEndpointDiscovery;
+import com.demo.mcp.client.loadbalance.McpEndpointAddress;
+import com.demo.mcp.client.loadbalance.McpEndpointDiscovery;
+import com.demo.mcp.client.loadbalance.McpLoadBalancer;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
 import reactor.util.retry.Retry;
 
+import java.lang.reflect.Type;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * MCP客户端的默认实现，基于WebClient实现服务代理功能
@@ -22,14 +44,77 @@ import java.util.concurrent.TimeoutException;
 @Slf4j
 public class DefaultMcpClient implements McpClient {
 
+    // W3C Trace Context请求头
+    private static final String TRACEPARENT_HEADER = "traceparent";
+
+    // 熔断时返回的错误码
+    public static final String CIRCUIT_OPEN = "CIRCUIT_OPEN";
+
+    // 服务健康检查结果的有效期
+    private static final long HEALTH_CHECK_INTERVAL_NANOS = Duration.ofSeconds(5).toNanos();
+
     private final McpClientConfig config;
     private WebClient webClient;
     private boolean initialized = false;
 
+    // 当前持有的共享连接池对应的配置，关闭时按该配置释放
+    private McpConnectionPoolConfig connectionPool;
+
+    // 链路追踪器，未设置时不采样
+    private Tracer tracer = Tracer.noop();
+
+    // 响应解码器，缓存每个响应类型的ObjectReader
+    private McpResponseDecoder responseDecoder = new McpResponseDecoder();
+
+    // 服务调用的批量合并分发器，未启用批量合并时为null
+    private McpBatchDispatcher batchDispatcher;
+
+    // 按服务ID和模型ID划分的熔断器，未启用熔断时为null
+    private McpCircuitBreakerRegistry circuitBreakers;
+
+    // 相同请求的并发调用合并，未启用时为null
+    private McpSingleFlight singleFlight;
+
+    // 服务端多实例的负载均衡器，未配置多个端点时为null
+    private McpEndpointDiscovery endpointDiscovery;
+    private McpLoadBalancer loadBalancer;
+    private boolean ownsEndpointDiscovery;
+    private Scheduler endpointRefreshScheduler;
+
+    // 最近一次健康检查的结果和时间，检查在后台异步进行，首次检查完成前认为服务可用
+    private volatile boolean serviceHealthy = true;
+    private volatile long healthCheckedAt;
+    private volatile boolean healthChecked;
+    private final AtomicBoolean healthCheckInFlight = new AtomicBoolean();
+
     public DefaultMcpClient(McpClientConfig config) {
         this.config = config;
     }
 
+    /**
+     * 设置链路追踪器，每次调用作为当前追踪的子阶段，并通过traceparent请求头传递给服务端
+     * @param tracer 链路追踪器
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer != null ? tracer : Tracer.noop();
+    }
+
+    /**
+     * 设置服务端实例发现，设置后优先于配置中的静态端点列表和端点文件，需要在初始化之前设置
+     * @param endpointDiscovery 服务端实例发现
+     */
+    public void setEndpointDiscovery(McpEndpointDiscovery endpointDiscovery) {
+        this.endpointDiscovery = endpointDiscovery;
+    }
+
+    /**
+     * 设置响应解码器，用于使用应用统一配置的ObjectMapper解码响应
+     * @param responseDecoder 响应解码器
+     */
+    public void setResponseDecoder(McpResponseDecoder responseDecoder) {
+        this.responseDecoder = responseDecoder != null ? responseDecoder : new McpResponseDecoder();
+    }
+
     @Override
     public synchronized void initialize() {
         if (initialized) {
@@ -53,14 +138,37 @@ public class DefaultMcpClient implements McpClient {
             builder.defaultHeader("X-API-Key", config.getApiKey());
         }
 
-        // 配置超时时间
-        builder.clientConnector(new reactor.netty.http.client.HttpClient()
-                .tcpConfiguration(tcpClient -> tcpClient
-                        .option(reactor.netty.tcp.TcpClient.OPTION_CONNECT_TIMEOUT_MILLIS, 
-                                Math.toIntExact(config.getConnectTimeout().toMillis()))
-                        .responseTimeout(config.getReadTimeout())));
+        // 使用共享连接池并配置超时时间和传输协议
+        McpConnectionPoolConfig poolConfig = config.getConnectionPool() != null
+                ? config.getConnectionPool().copy() : new McpConnectionPoolConfig();
+        builder.clientConnector(new ReactorClientHttpConnector(createHttpClient(poolConfig)));
+        this.connectionPool = poolConfig;
+
+        // 配置了多个服务端实例时在客户端负载均衡，过滤器放在最前面，后面的日志过滤器记录实际请求的端点
+        McpEndpointDiscovery discovery = createEndpointDiscovery();
+        if (discovery != null) {
+            McpLoadBalancerConfig loadBalancerConfig = config.getLoadBalancer() != null
+                    ? config.getLoadBalancer() : new McpLoadBalancerConfig();
+            this.loadBalancer = new McpLoadBalancer(config.getBaseUrl(), discovery, loadBalancerConfig);
+            builder.filters(filters -> filters.add(0, loadBalancer.filter()));
+            Duration refreshInterval = loadBalancerConfig.getRefreshInterval();
+            if (refreshInterval != null && !refreshInterval.isZero() && !refreshInterval.isNegative()) {
+                this.endpointRefreshScheduler = Schedulers.newSingle("mcp-endpoint-refresh", true);
+                endpointRefreshScheduler.schedulePeriodically(loadBalancer::refresh,
+                        refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
 
         this.webClient = builder.build();
+        if (circuitBreakers == null && config.getCircuitBreaker() != null && config.getCircuitBreaker().isEnabled()) {
+            this.circuitBreakers = new McpCircuitBreakerRegistry(config.getCircuitBreaker());
+        }
+        if (config.getBatch() != null && config.getBatch().isEnabled()) {
+            this.batchDispatcher = new McpBatchDispatcher(webClient, responseDecoder, config.getBatch(), Schedulers.parallel());
+        }
+        if (config.isSingleFlightEnabled()) {
+            this.singleFlight = new McpSingleFlight();
+        }
         this.initialized = true;
 
         log.info("MCP client initialized successfully with base URL: {}", config.getBaseUrl());
@@ -73,7 +181,28 @@ public class DefaultMcpClient implements McpClient {
             return;
         }
 
-        // WebClient不需要显式关闭
+        // 发送尚在合并窗口中的调用
+        if (batchDispatcher != null) {
+            batchDispatcher.flushAll();
+            batchDispatcher = null;
+        }
+        // 停止刷新端点列表
+        if (endpointRefreshScheduler != null) {
+            endpointRefreshScheduler.dispose();
+            endpointRefreshScheduler = null;
+        }
+        if (loadBalancer != null) {
+            if (ownsEndpointDiscovery) {
+                loadBalancer.close();
+            }
+            loadBalancer = null;
+        }
+        // 释放共享连接池的引用，最后一个使用该连接池的客户端关闭时连接池被释放
+        if (connectionPool != null) {
+            McpConnectionPools.release(connectionPool);
+            connectionPool = null;
+        }
+        this.webClient = null;
         this.initialized = false;
         log.info("MCP client shutdown successfully");
     }
@@ -88,21 +217,45 @@ public class DefaultMcpClient implements McpClient {
         if (!isAvailable()) {
             return false;
         }
+        // 不阻塞调用线程：返回最近一次健康检查的结果，结果过期时在后台刷新
+        if ((!healthChecked || System.nanoTime() - healthCheckedAt >= HEALTH_CHECK_INTERVAL_NANOS)
+                && healthCheckInFlight.compareAndSet(false, true)) {
+            refreshServiceHealth();
+        }
+        return serviceHealthy;
+    }
 
-        try {
-            // 发送轻量级请求检查服务是否可用
-            String healthCheckUrl = "/health";
-            Boolean result = webClient.get()
-                    .uri(healthCheckUrl)
-                    .retrieve()
-                    .bodyToMono(Boolean.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .block();
-            return result != null && result;
-        } catch (Exception e) {
-            log.error("Service health check failed: {}", e.getMessage());
+    @Override
+    public boolean isServiceAvailable(String serviceId) {
+        if (!isAvailable()) {
             return false;
         }
+        McpCircuitBreaker breaker = circuitBreakers != null ? circuitBreakers.find(serviceId) : null;
+        return breaker == null || breaker.isCallPermitted();
+    }
+
+    /**
+     * 获取负载均衡器，用于查询各端点的负载和健康状态
+     * @return 负载均衡器，未配置多个服务端实例时返回null
+     */
+    public McpLoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * 获取并发调用合并器，用于查询合并的调用数
+     * @return 并发调用合并器，未启用时返回null
+     */
+    public McpSingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * 获取熔断器注册表，用于查询各服务的熔断状态
+     * @return 熔断器注册表，未启用熔断时返回null
+     */
+    public McpCircuitBreakerRegistry getCircuitBreakerRegistry() {
+        return circuitBreakers;
     }
 
     @Override
@@ -157,6 +310,11 @@ public class DefaultMcpClient implements McpClient {
 
     @Override
     public <T> Mono<T> invokeService(String serviceId, String methodName, Map<String, Object> params) {
+        return invokeService(serviceId, methodName, params, Object.class);
+    }
+
+    @Override
+    public <T> Mono<T> invokeService(String serviceId, String methodName, Map<String, Object> params, Type responseType) {
         ensureInitialized();
 
         if (serviceId == null || serviceId.isEmpty() || methodName == null || methodName.isEmpty()) {
@@ -171,26 +329,41 @@ public class DefaultMcpClient implements McpClient {
         requestBody.put("params", params != null ? params : new HashMap<>());
         requestBody.put("requestId", UUID.randomUUID().toString());
 
-        return webClient.post()
-                .uri(url)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(Object.class)
-                .map(response -> {
-                    // 简单的类型转换，实际应用中可能需要更复杂的处理
-                    @SuppressWarnings("unchecked")
-                    T typedResponse = (T) response;
-                    return typedResponse;
-                })
-                .retryWhen(retryStrategy())
+        McpBatchDispatcher dispatcher = batchDispatcher;
+        McpCircuitBreaker breaker = circuitBreakers != null ? circuitBreakers.get(serviceId) : null;
+        Mono<T> call = this.<T>guarded(breaker, traced("mcp.invoke_service", span -> {
+                    String traceparent = span.setAttribute("service", serviceId)
+                            .setAttribute("method", methodName)
+                            .toTraceparent();
+                    if (dispatcher != null) {
+                        // 与同一服务的并发调用合并发送
+                        return dispatcher.submit(serviceId, methodName, params, responseType, traceparent);
+                    }
+                    return responseDecoder.decode(webClient.post()
+                            .uri(url)
+                            .header(TRACEPARENT_HEADER, traceparent)
+                            .bodyValue(requestBody)
+                            .retrieve()
+                            .bodyToFlux(DataBuffer.class), responseType);
+                }))
+                .retryWhen(retryStrategy(breaker))
+                .doOnSubscribe(subscription -> onRequest(breaker))
                 .onErrorResume(e -> {
                     log.error("Error invoking service {} method {}: {}", serviceId, methodName, e.getMessage());
-                    return Mono.error(new McpClientException("Failed to invoke service", e));
+                    return Mono.error(failure("Failed to invoke service", e));
                 });
+        // 相同的并发调用共享同一次请求（包括重试），加入的调用方共用第一个调用方的追踪阶段
+        McpSingleFlight flight = singleFlight;
+        return flight != null ? flight.execute("service", serviceId, methodName, params, responseType, call) : call;
     }
 
     @Override
     public <T> Mono<T> invokeModel(String modelId, Object request) {
+        return invokeModel(modelId, request, Object.class);
+    }
+
+    @Override
+    public <T> Mono<T> invokeModel(String modelId, Object request, Type responseType) {
         ensureInitialized();
 
         if (modelId == null || modelId.isEmpty()) {
@@ -199,21 +372,21 @@ public class DefaultMcpClient implements McpClient {
 
         String url = "/models/" + modelId + "/invoke";
 
-        return webClient.post()
-                .uri(url)
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(Object.class)
-                .map(response -> {
-                    @SuppressWarnings("unchecked")
-                    T typedResponse = (T) response;
-                    return typedResponse;
-                })
-                .retryWhen(retryStrategy())
+        McpCircuitBreaker breaker = circuitBreakers != null ? circuitBreakers.get("model:" + modelId) : null;
+        Mono<T> call = this.<T>guarded(breaker, traced("mcp.invoke_model", span -> responseDecoder.decode(webClient.post()
+                        .uri(url)
+                        .header(TRACEPARENT_HEADER, span.setAttribute("model", modelId).toTraceparent())
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class), responseType)))
+                .retryWhen(retryStrategy(breaker))
+                .doOnSubscribe(subscription -> onRequest(breaker))
                 .onErrorResume(e -> {
                     log.error("Error invoking model {}: {}", modelId, e.getMessage());
-                    return Mono.error(new McpClientException("Failed to invoke model", e));
+                    return Mono.error(failure("Failed to invoke model", e));
                 });
+        McpSingleFlight flight = singleFlight;
+        return flight != null ? flight.execute("model", modelId, null, request, responseType, call) : call;
     }
 
     @Override
@@ -240,7 +413,7 @@ public class DefaultMcpClient implements McpClient {
                 .retryWhen(retryStrategy())
                 .onErrorResume(e -> {
                     log.error("Error publishing event {}: {}", eventType, e.getMessage());
-                    return Mono.error(new McpClientException("Failed to publish event", e));
+                    return Mono.error(failure("Failed to publish event", e));
                 });
     }
 
@@ -256,15 +429,145 @@ public class DefaultMcpClient implements McpClient {
         }
     }
 
+    // 创建服务端实例发现：优先使用设置的发现服务，其次是端点文件和静态端点列表，都没有时返回null
+    private McpEndpointDiscovery createEndpointDiscovery() {
+        ownsEndpointDiscovery = false;
+        if (endpointDiscovery != null) {
+            return endpointDiscovery;
+        }
+        McpLoadBalancerConfig loadBalancerConfig = config.getLoadBalancer();
+        if (loadBalancerConfig == null) {
+            return null;
+        }
+        ownsEndpointDiscovery = true;
+        String discoveryFile = loadBalancerConfig.getDiscoveryFile();
+        if (discoveryFile != null && !discoveryFile.isEmpty()) {
+            return new FileEndpointDiscovery(Path.of(discoveryFile));
+        }
+        List<String> specs = loadBalancerConfig.getEndpoints();
+        if (specs != null && !specs.isEmpty()) {
+            List<McpEndpointAddress> addresses = specs.stream().map(McpEndpointAddress::parse).toList();
+            return () -> addresses;
+        }
+        ownsEndpointDiscovery = false;
+        return null;
+    }
+
+    // 基于共享连接池创建HTTP客户端
+    private HttpClient createHttpClient(McpConnectionPoolConfig poolConfig) {
+        HttpClient httpClient = HttpClient.create(McpConnectionPools.acquire(poolConfig))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(config.getConnectTimeout().toMillis()))
+                .option(ChannelOption.SO_KEEPALIVE, poolConfig.isKeepAlive())
+                .keepAlive(poolConfig.isKeepAlive())
+                .responseTimeout(config.getReadTimeout())
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new WriteTimeoutHandler(config.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+        if (poolConfig.isHttp2Enabled()) {
+            // HTTPS通过ALPN协商HTTP/2，明文连接通过升级协商，服务端不支持时回退到HTTP/1.1
+            boolean secure = config.isSslEnabled() || config.getBaseUrl().startsWith("https:");
+            httpClient = httpClient.protocol(secure ? HttpProtocol.H2 : HttpProtocol.H2C, HttpProtocol.HTTP11);
+            if (secure) {
+                httpClient = httpClient.secure();
+            }
+        }
+        return httpClient;
+    }
+
+    // 为每次请求（包括重试）创建一个客户端阶段，父阶段在组装时从调用线程取得
+    private <R> Mono<R> traced(String spanName, Function<Span, Mono<R>> call) {
+        Span parent = tracer.currentSpan();
+        return Mono.defer(() -> {
+            Span span = tracer.startDetachedSpan(spanName, Span.Kind.CLIENT, parent);
+            return call.apply(span)
+                    .doOnError(span::recordError)
+                    .doFinally(signal -> span.end());
+        });
+    }
+
     // 重试策略
     private Retry retryStrategy() {
+        return retryStrategy(null);
+    }
+
+    // 重试策略，有熔断器时重试次数受该端点的重试预算限制
+    private Retry retryStrategy(McpCircuitBreaker breaker) {
         return Retry.backoff(config.getMaxRetries(), config.getRetryInterval())
-                .filter(throwable -> throwable instanceof McpClientException || 
-                        throwable instanceof java.io.IOException)
+                // 只重试端点故障（连接失败、超时和5xx响应），与熔断器计入失败率的错误一致；
+                // 4xx响应、服务端返回的业务错误和熔断重试不会成功
+                .filter(throwable -> isEndpointFailure(throwable)
+                        && (breaker == null || breaker.tryAcquireRetry()))
                 .onRetryExhaustedThrow((spec, signal) -> 
                         new McpClientException("Retry exhausted", signal.failure()));
     }
 
+    // 调用失败时返回给调用方的异常，带错误码的McpClientException（如熔断）原样返回，调用方可以按错误码处理
+    private static Throwable failure(String message, Throwable e) {
+        if (e instanceof McpClientException && ((McpClientException) e).getErrorCode() != null) {
+            return e;
+        }
+        return new McpClientException(message, e);
+    }
+
+    // 每次请求（不含重试）存入重试预算
+    private void onRequest(McpCircuitBreaker breaker) {
+        if (breaker != null) {
+            breaker.onRequest();
+        }
+    }
+
+    // 经过熔断器的一次调用尝试，熔断时直接失败，不发出请求
+    private <R> Mono<R> guarded(McpCircuitBreaker breaker, Mono<R> call) {
+        if (breaker == null) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            McpCircuitBreaker.Permit permit = breaker.tryAcquirePermission();
+            if (permit == null) {
+                return Mono.error(new McpClientException("Circuit breaker is open for " + breaker.getName(), CIRCUIT_OPEN));
+            }
+            return call.doOnSuccess(value -> permit.onSuccess())
+                    .doOnError(e -> {
+                        if (isEndpointFailure(e)) {
+                            permit.onFailure();
+                        } else {
+                            permit.onSuccess();
+                        }
+                    })
+                    .doOnCancel(permit::release);
+        });
+    }
+
+    // 连接失败、超时和5xx响应说明端点不健康；4xx响应和服务端返回的业务错误说明端点可以正常响应，不计入失败率
+    private static boolean isEndpointFailure(Throwable e) {
+        if (e instanceof WebClientResponseException) {
+            return ((WebClientResponseException) e).getStatusCode().is5xxServerError();
+        }
+        if (e instanceof McpClientException) {
+            return ((McpClientException) e).getErrorCode() == null;
+        }
+        return e instanceof WebClientRequestException || e instanceof java.io.IOException
+                || e instanceof TimeoutException;
+    }
+
+    // 在后台检查服务健康状态
+    private void refreshServiceHealth() {
+        webClient.get()
+                .uri("/health")
+                .retrieve()
+                .bodyToMono(Boolean.class)
+                .timeout(Duration.ofSeconds(5))
+                .defaultIfEmpty(false)
+                .doFinally(signal -> {
+                    healthCheckedAt = System.nanoTime();
+                    healthChecked = true;
+                    healthCheckInFlight.set(false);
+                })
+                .subscribe(healthy -> serviceHealthy = healthy, e -> {
+                    log.error("Service health check failed: {}", e.getMessage());
+                    serviceHealthy = false;
+                });
+    }
+
     // 请求日志过滤器
     private ExchangeFilterFunction logRequest() {
         return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
@@ -21,7 +21,12 @@ public class DefaultMcpClientConfig implements McpClientConfig {
     private boolean sslEnabled = false;
     private int maxRetries = 3;
     private Duration retryInterval = Duration.ofSeconds(1);
+    private boolean singleFlightEnabled = false;
     private Map<String, Object> customProperties = new HashMap<>();
+    private McpConnectionPoolConfig connectionPool = new McpConnectionPoolConfig();
+    private McpBatchConfig batch = new McpBatchConfig();
+    private McpCircuitBreakerConfig circuitBreaker = new McpCircuitBreakerConfig();
+    private McpLoadBalancerConfig loadBalancer = new McpLoadBalancerConfig();
 
     @Override
     public Map<String, Object> getCustomProperties() {
@@ -79,6 +84,31 @@ public class DefaultMcpClientConfig implements McpClientConfig {
         return this;
     }
 
+    public DefaultMcpClientConfig setSingleFlightEnabled(boolean singleFlightEnabled) {
+        this.singleFlightEnabled = singleFlightEnabled;
+        return this;
+    }
+
+    public DefaultMcpClientConfig setConnectionPool(McpConnectionPoolConfig connectionPool) {
+        this.connectionPool = connectionPool;
+        return this;
+    }
+
+    public DefaultMcpClientConfig setBatch(McpBatchConfig batch) {
+        this.batch = batch;
+        return this;
+    }
+
+    public DefaultMcpClientConfig setCircuitBreaker(McpCircuitBreakerConfig circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    public DefaultMcpClientConfig setLoadBalancer(McpLoadBalancerConfig loadBalancer) {
+        this.loadBalancer = loadBalancer;
+        return this;
+    }
+
     public DefaultMcpClientConfig addCustomProperty(String key, Object value) {
         this.customProperties.put(key, value);
         return this;
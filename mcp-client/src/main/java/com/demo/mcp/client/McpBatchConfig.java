@@ -0,0 +1,38 @@
+package com.demo.mcp.client;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * MCP客户端请求批量合并配置
+ * 启用后，同一服务在合并窗口内的并发调用合并为一次批量请求发送
+ */
+@Data
+public class McpBatchConfig {
+
+    // 是否启用批量合并，需要服务端支持批量调用接口
+    private boolean enabled = false;
+
+    // 合并窗口，窗口内到达的同一服务的调用合并为一批
+    private Duration window = Duration.ofMillis(2);
+
+    // 每批的最大调用数，达到后立即发送，不再等待窗口结束
+    private int maxBatchSize = 32;
+
+    // 方便链式调用的setter方法
+    public McpBatchConfig setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public McpBatchConfig setWindow(Duration window) {
+        this.window = window;
+        return this;
+    }
+
+    public McpBatchConfig setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+}
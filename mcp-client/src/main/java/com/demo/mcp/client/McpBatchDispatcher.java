@@ -0,0 +1,289 @@
+package com.demo.mcp.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MCP服务调用的批量合并分发器
+ * 同一服务在合并窗口内的并发调用合并为一次请求，发送到/services/{serviceId}/batch，
+ * 请求体是调用数组，每个调用包含serviceId、methodName、params、requestId和traceparent；
+ * 响应体是结果数组，每个结果包含requestId以及result或error（code、message、details），按requestId分发给各个调用。
+ * 每个调用独立成功或失败：单个调用的错误只影响该调用，整批请求失败时该批所有调用都失败
+ */
+@Slf4j
+public class McpBatchDispatcher {
+
+    // 批量响应的类型
+    private static final Type BATCH_RESULTS_TYPE = new TypeReference<List<BatchResult>>() {}.getType();
+
+    private final WebClient webClient;
+    private final McpResponseDecoder responseDecoder;
+    private final McpBatchConfig config;
+    private final Scheduler scheduler;
+
+    // 服务ID到待发送调用队列的映射
+    private final Map<String, ServiceQueue> queues = new ConcurrentHashMap<>();
+
+    // 统计信息：发送的批量请求数和合并的调用数
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder callCount = new LongAdder();
+
+    /**
+     * 构造函数
+     * @param webClient 发送批量请求的WebClient
+     * @param responseDecoder 响应解码器
+     * @param config 批量合并配置
+     * @param scheduler 合并窗口结束时发送请求的调度器
+     */
+    public McpBatchDispatcher(WebClient webClient, McpResponseDecoder responseDecoder,
+                              McpBatchConfig config, Scheduler scheduler) {
+        if (config.getMaxBatchSize() <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive: " + config.getMaxBatchSize());
+        }
+        this.webClient = webClient;
+        this.responseDecoder = responseDecoder;
+        this.config = config;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 提交一次服务调用，订阅时加入当前服务的待发送批次；
+     * 发送前取消订阅（包括超时）时从批次中移除，不再发送
+     * @param serviceId 服务ID
+     * @param methodName 方法名称
+     * @param params 请求参数
+     * @param responseType 响应类型
+     * @param traceparent 调用的W3C Trace Context，可以为null
+     * @param <T> 返回类型
+     * @return 调用结果的Mono包装，结果为null时为空
+     */
+    public <T> Mono<T> submit(String serviceId, String methodName, Map<String, Object> params,
+                              Type responseType, String traceparent) {
+        return Mono.create(sink -> {
+            BatchCall call = new BatchCall(methodName, params, responseType, traceparent, sink);
+            sink.onCancel(() -> remove(serviceId, call));
+            enqueue(serviceId, call);
+        });
+    }
+
+    /**
+     * 立即发送所有待发送的调用
+     */
+    public void flushAll() {
+        for (Map.Entry<String, ServiceQueue> entry : queues.entrySet()) {
+            flush(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 获取发送的批量请求数
+     * @return 批量请求数
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * 获取通过批量请求发送的调用数
+     * @return 调用数
+     */
+    public long getCallCount() {
+        return callCount.sum();
+    }
+
+    private void enqueue(String serviceId, BatchCall call) {
+        ServiceQueue queue = queues.computeIfAbsent(serviceId, id -> new ServiceQueue());
+        List<BatchCall> ready = null;
+        synchronized (queue) {
+            queue.calls.add(call);
+            if (queue.calls.size() >= config.getMaxBatchSize()) {
+                ready = queue.take();
+            } else if (queue.calls.size() == 1) {
+                // 批次的第一个调用开始计时，窗口结束时发送
+                queue.timer = scheduler.schedule(() -> flush(serviceId, queue),
+                        config.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (ready != null) {
+            send(serviceId, ready);
+        }
+    }
+
+    // 从待发送批次中移除已取消的调用，已发送的调用不受影响，其结果会被丢弃
+    private void remove(String serviceId, BatchCall call) {
+        ServiceQueue queue = queues.get(serviceId);
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            if (queue.calls.remove(call) && queue.calls.isEmpty()) {
+                // 批次中已没有调用，取消计时
+                queue.take();
+            }
+        }
+    }
+
+    private void flush(String serviceId, ServiceQueue queue) {
+        List<BatchCall> ready;
+        synchronized (queue) {
+            if (queue.calls.isEmpty()) {
+                return;
+            }
+            ready = queue.take();
+        }
+        send(serviceId, ready);
+    }
+
+    private void send(String serviceId, List<BatchCall> calls) {
+        batchCount.increment();
+        callCount.add(calls.size());
+        List<Map<String, Object>> requestBody = new ArrayList<>(calls.size());
+        for (BatchCall call : calls) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("serviceId", serviceId);
+            item.put("methodName", call.methodName);
+            item.put("params", call.params != null ? call.params : new HashMap<>());
+            item.put("requestId", call.requestId);
+            if (call.traceparent != null) {
+                item.put("traceparent", call.traceparent);
+            }
+            requestBody.add(item);
+        }
+        log.debug("Sending batch of {} calls to service {}", calls.size(), serviceId);
+
+        responseDecoder.<List<BatchResult>>decode(webClient.post()
+                        .uri("/services/" + serviceId + "/batch")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class), BATCH_RESULTS_TYPE)
+                .defaultIfEmpty(List.of())
+                .subscribe(results -> complete(calls, results), error -> {
+                    log.warn("Batch request to service {} failed: {}", serviceId, error.getMessage());
+                    for (BatchCall call : calls) {
+                        call.sink.error(error);
+                    }
+                });
+    }
+
+    // 按requestId把结果分发给各个调用
+    private void complete(List<BatchCall> calls, List<BatchResult> results) {
+        Map<String, BatchResult> byRequestId = new HashMap<>(results.size() * 2);
+        for (BatchResult result : results) {
+            if (result != null && result.getRequestId() != null) {
+                byRequestId.put(result.getRequestId(), result);
+            }
+        }
+        for (BatchCall call : calls) {
+            BatchResult result = byRequestId.get(call.requestId);
+            if (result == null) {
+                call.sink.error(new McpClientException("No result for request " + call.requestId + " in batch response"));
+            } else if (result.getError() != null) {
+                BatchError error = result.getError();
+                // 带错误码的异常表示服务端返回的错误，不会被重试
+                call.sink.error(new McpClientException(error.getMessage(),
+                        error.getCode() != null ? error.getCode() : "BATCH_ITEM_FAILED", error.getDetails()));
+            } else if (result.getResult() == null || result.getResult().isNull()) {
+                call.sink.success();
+            } else {
+                try {
+                    call.sink.success(responseDecoder.readerFor(call.responseType).readValue(result.getResult()));
+                } catch (IOException e) {
+                    call.sink.error(new McpClientException("Failed to decode batch result of request " + call.requestId,
+                            "DECODE_FAILED", e));
+                }
+            }
+        }
+    }
+
+    /**
+     * 一个服务的待发送调用队列
+     */
+    private static final class ServiceQueue {
+        private List<BatchCall> calls = new ArrayList<>();
+        private Disposable timer;
+
+        // 取出当前批次并取消计时，调用方持有队列的锁
+        private List<BatchCall> take() {
+            List<BatchCall> taken = calls;
+            calls = new ArrayList<>();
+            if (timer != null) {
+                timer.dispose();
+                timer = null;
+            }
+            return taken;
+        }
+    }
+
+    /**
+     * 批次中的一次调用
+     */
+    private static final class BatchCall {
+        private final String methodName;
+        private final Map<String, Object> params;
+        private final Type responseType;
+        private final String traceparent;
+        private final MonoSink<Object> sink;
+        private final String requestId = UUID.randomUUID().toString();
+
+        @SuppressWarnings("unchecked")
+        private BatchCall(String methodName, Map<String, Object> params, Type responseType,
+                          String traceparent, MonoSink<?> sink) {
+            this.methodName = methodName;
+            this.params = params;
+            this.responseType = responseType;
+            this.traceparent = traceparent;
+            this.sink = (MonoSink<Object>) sink;
+        }
+    }
+
+    /**
+     * 批量响应中一个调用的结果
+     */
+    @Data
+    public static class BatchResult {
+
+        // 调用的请求ID
+        private String requestId;
+
+        // 调用结果，解码为调用声明的响应类型
+        private JsonNode result;
+
+        // 调用失败时的错误信息
+        private BatchError error;
+    }
+
+    /**
+     * 批量响应中一个调用的错误信息
+     */
+    @Data
+    public static class BatchError {
+
+        // 错误码
+        private String code;
+
+        // 错误信息
+        private String message;
+
+        // 错误详情
+        private JsonNode details;
+    }
+}
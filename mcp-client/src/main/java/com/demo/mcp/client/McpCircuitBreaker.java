@@ -0,0 +1,250 @@
+package com.demo.mcp.client;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * 单个MCP服务端点的熔断器
+ * 按最近若干次调用的失败率熔断：关闭状态下失败率达到阈值后进入熔断状态，直接拒绝调用；
+ * 熔断持续时间过后进入半开状态，只放行少量探测调用，全部成功后恢复，任意一次失败重新熔断。
+ * 同时维护重试预算，每次请求存入一定比例的重试令牌，重试消耗令牌，令牌不足时不再重试，
+ * 端点故障时重试不会成倍放大对端点的压力
+ */
+public class McpCircuitBreaker {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        CLOSED,    // 正常放行
+        OPEN,      // 熔断，拒绝调用
+        HALF_OPEN  // 半开，只放行探测调用
+    }
+
+    private final String name;
+    private final McpCircuitBreakerConfig config;
+    private final LongSupplier nanoClock;
+
+    // 滑动窗口中最近调用的结果，true表示失败；next指向下一个写入位置
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+
+    // 状态版本，每次状态变化加一，之前状态下开始的调用结果不再计入
+    private long generation;
+
+    // 进入熔断状态的时间（纳秒时钟）
+    private long openedAt;
+
+    // 半开状态下进行中和已成功的探测调用数
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    // 重试令牌及上次按时间补充令牌的时间
+    private final double maxRetryTokens;
+    private double retryTokens;
+    private long lastRefillAt;
+
+    // 统计信息
+    private long rejectedCount;
+    private long retryRejectedCount;
+
+    /**
+     * 构造函数
+     * @param name 熔断器名称，通常为服务ID
+     * @param config 熔断配置
+     * @param nanoClock 纳秒时钟
+     */
+    public McpCircuitBreaker(String name, McpCircuitBreakerConfig config, LongSupplier nanoClock) {
+        if (config.getSlidingWindowSize() <= 0 || config.getHalfOpenProbes() <= 0) {
+            throw new IllegalArgumentException("Sliding window size and half-open probes must be positive");
+        }
+        this.name = name;
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.outcomes = new boolean[config.getSlidingWindowSize()];
+        this.maxRetryTokens = Math.max(1d,
+                config.getMinRetriesPerSecond() + config.getRetryBudgetRatio() * config.getSlidingWindowSize());
+        this.retryTokens = Math.min(maxRetryTokens, config.getMinRetriesPerSecond());
+        this.lastRefillAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * 尝试获取一次调用的许可
+     * @return 调用许可，熔断中或半开状态的探测名额已用完时返回null
+     */
+    public synchronized Permit tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < config.getOpenDuration().toNanos()) {
+                rejectedCount++;
+                return null;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probeSuccesses >= config.getHalfOpenProbes()) {
+                rejectedCount++;
+                return null;
+            }
+            probesInFlight++;
+        }
+        return new Permit(generation);
+    }
+
+    /**
+     * 记录一次请求（不含重试），按比例存入重试令牌
+     */
+    public synchronized void onRequest() {
+        refillRetryTokens();
+        retryTokens = Math.min(maxRetryTokens, retryTokens + config.getRetryBudgetRatio());
+    }
+
+    /**
+     * 尝试从重试预算中取出一次重试
+     * @return 是否允许重试
+     */
+    public synchronized boolean tryAcquireRetry() {
+        refillRetryTokens();
+        if (retryTokens >= 1d) {
+            retryTokens -= 1d;
+            return true;
+        }
+        retryRejectedCount++;
+        return false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 当前是否放行调用，不改变熔断器状态
+     * @return 是否放行
+     */
+    public synchronized boolean isCallPermitted() {
+        return state != State.OPEN || nanoClock.getAsLong() - openedAt >= config.getOpenDuration().toNanos();
+    }
+
+    /**
+     * 获取滑动窗口内的失败率
+     * @return 失败率，窗口内没有调用时为0
+     */
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0d : (double) failures / recorded;
+    }
+
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public synchronized long getRetryRejectedCount() {
+        return retryRejectedCount;
+    }
+
+    private synchronized void onResult(long permitGeneration, boolean failed) {
+        if (permitGeneration != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+            if (failed) {
+                transitionTo(State.OPEN);
+            } else if (++probeSuccesses >= config.getHalfOpenProbes()) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+        if (failed && recorded >= config.getMinimumCalls()
+                && (double) failures / recorded >= config.getFailureRateThreshold()) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private synchronized void onReleased(long permitGeneration) {
+        if (permitGeneration == generation && state == State.HALF_OPEN) {
+            probesInFlight--;
+        }
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        generation++;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAt = nanoClock.getAsLong();
+        } else if (newState == State.CLOSED) {
+            // 恢复后重新统计失败率
+            next = 0;
+            recorded = 0;
+            failures = 0;
+        }
+    }
+
+    private void refillRetryTokens() {
+        long now = nanoClock.getAsLong();
+        retryTokens = Math.min(maxRetryTokens,
+                retryTokens + (now - lastRefillAt) / NANOS_PER_SECOND * config.getMinRetriesPerSecond());
+        lastRefillAt = now;
+    }
+
+    /**
+     * 一次调用的许可，调用结束时报告结果，多次报告时只有第一次生效
+     */
+    public final class Permit {
+        private final long permitGeneration;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(long generation) {
+            this.permitGeneration = generation;
+        }
+
+        /**
+         * 调用成功
+         */
+        public void onSuccess() {
+            if (completed.compareAndSet(false, true)) {
+                onResult(permitGeneration, false);
+            }
+        }
+
+        /**
+         * 调用失败，计入失败率
+         */
+        public void onFailure() {
+            if (completed.compareAndSet(false, true)) {
+                onResult(permitGeneration, true);
+            }
+        }
+
+        /**
+         * 调用被取消，不计入失败率，只归还探测名额
+         */
+        public void release() {
+            if (completed.compareAndSet(false, true)) {
+                onReleased(permitGeneration);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.demo.mcp.client;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * MCP服务熔断和重试预算配置，每个服务ID使用独立的熔断器
+ */
+@Data
+public class McpCircuitBreakerConfig {
+
+    // 是否启用熔断
+    private boolean enabled = true;
+
+    // 统计失败率的滑动窗口大小（最近的调用次数）
+    private int slidingWindowSize = 50;
+
+    // 窗口内至少有该数量的调用才计算失败率
+    private int minimumCalls = 20;
+
+    // 失败率阈值（0到1之间），达到后熔断
+    private double failureRateThreshold = 0.5;
+
+    // 熔断持续时间，之后进入半开状态放行探测调用
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    // 半开状态允许的探测调用数，全部成功后恢复，任意一次失败重新熔断
+    private int halfOpenProbes = 3;
+
+    // 重试预算：重试次数不超过请求数的该比例
+    private double retryBudgetRatio = 0.2;
+
+    // 重试预算之外每秒保留的最小重试次数，保证低流量时仍能重试
+    private int minRetriesPerSecond = 1;
+
+    // 方便链式调用的setter方法
+    public McpCircuitBreakerConfig setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public McpCircuitBreakerConfig setSlidingWindowSize(int slidingWindowSize) {
+        this.slidingWindowSize = slidingWindowSize;
+        return this;
+    }
+
+    public McpCircuitBreakerConfig setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    public McpCircuitBreakerConfig setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    public McpCircuitBreakerConfig setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+        return this;
+    }
+
+    public McpCircuitBreakerConfig setHalfOpenProbes(int halfOpenProbes) {
+        this.halfOpenProbes = halfOpenProbes;
+        return this;
+    }
+
+    public McpCircuitBreakerConfig setRetryBudgetRatio(double retryBudgetRatio) {
+        this.retryBudgetRatio = retryBudgetRatio;
+        return this;
+    }
+
+    public McpCircuitBreakerConfig setMinRetriesPerSecond(int minRetriesPerSecond) {
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        return this;
+    }
+}
@@ -0,0 +1,60 @@
+package com.demo.mcp.client;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * MCP服务熔断器注册表，每个服务ID对应一个熔断器，首次调用时创建
+ */
+public class McpCircuitBreakerRegistry {
+
+    private final McpCircuitBreakerConfig config;
+    private final LongSupplier nanoClock;
+    private final Map<String, McpCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public McpCircuitBreakerRegistry(McpCircuitBreakerConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    /**
+     * 构造函数
+     * @param config 熔断配置，所有服务共用
+     * @param nanoClock 纳秒时钟，便于测试时替换
+     */
+    public McpCircuitBreakerRegistry(McpCircuitBreakerConfig config, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 获取服务的熔断器，不存在时创建
+     * @param name 服务ID
+     * @return 熔断器
+     */
+    public McpCircuitBreaker get(String name) {
+        McpCircuitBreaker breaker = breakers.get(name);
+        return breaker != null ? breaker : breakers.computeIfAbsent(name, n -> new McpCircuitBreaker(n, config, nanoClock));
+    }
+
+    /**
+     * 查找服务的熔断器
+     * @param name 服务ID
+     * @return 熔断器，服务尚未被调用过时返回null
+     */
+    public McpCircuitBreaker find(String name) {
+        return breakers.get(name);
+    }
+
+    /**
+     * 获取所有服务的熔断器状态
+     * @return 服务ID到熔断器状态的映射
+     */
+    public Map<String, McpCircuitBreaker.State> getStates() {
+        Map<String, McpCircuitBreaker.State> states = new LinkedHashMap<>();
+        breakers.forEach((name, breaker) -> states.put(name, breaker.getState()));
+        return Collections.unmodifiableMap(states);
+    }
+}
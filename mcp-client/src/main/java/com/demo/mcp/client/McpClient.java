@@ -2,6 +2,7 @@ package com.demo.mcp.client;
 
 import reactor.core.publisher.Mono;
 
+import java.lang.reflect.Type;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -33,6 +34,13 @@ public interface McpClient {
      */
     boolean isServiceAvailable();
 
+    /**
+     * 检查指定的MCP服务是否可用，服务熔断时返回false，不发出请求
+     * @param serviceId 服务ID
+     * @return 服务是否可用
+     */
+    boolean isServiceAvailable(String serviceId);
+
     /**
      * 调用MCP服务的通用方法
      * @param serviceId 服务ID
@@ -43,6 +51,17 @@ public interface McpClient {
      */
     <T> Mono<T> invokeService(String serviceId, String methodName, Map<String, Object> params);
 
+    /**
+     * 调用MCP服务，响应直接解码为指定类型
+     * @param serviceId 服务ID
+     * @param methodName 方法名称
+     * @param params 请求参数
+     * @param responseType 响应类型，可以是带泛型参数的类型
+     * @param <T> 返回类型
+     * @return 响应结果的Mono包装
+     */
+    <T> Mono<T> invokeService(String serviceId, String methodName, Map<String, Object> params, Type responseType);
+
     /**
      * 异步调用MCP服务
      * @param serviceId 服务ID
@@ -61,6 +80,16 @@ public interface McpClient {
      */
     <T> Mono<T> invokeModel(String modelId, Object request);
 
+    /**
+     * 调用模型服务，响应直接解码为指定类型
+     * @param modelId 模型ID
+     * @param request 请求数据
+     * @param responseType 响应类型，可以是带泛型参数的类型
+     * @param <T> 返回类型
+     * @return 模型响应的Mono包装
+     */
+    <T> Mono<T> invokeModel(String modelId, Object request, Type responseType);
+
     /**
      * 异步调用模型服务
      * @param modelId 模型ID
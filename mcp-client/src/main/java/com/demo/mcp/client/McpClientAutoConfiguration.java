@@ -1,5 +1,9 @@
 package com.demo.mcp.client;
 
+import com.demo.core.tracing.Tracer;
+import com.demo.mcp.client.loadbalance.McpEndpointDiscovery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -28,6 +32,51 @@ public class McpClientAutoConfiguration {
         config.setSslEnabled(properties.isSslEnabled());
         config.setMaxRetries(properties.getMaxRetries());
         config.setRetryInterval(Duration.ofMillis(properties.getRetryInterval()));
+        config.setSingleFlightEnabled(properties.isSingleFlightEnabled());
+        
+        // 连接池配置
+        McpClientProperties.Pool pool = properties.getPool();
+        config.setConnectionPool(new McpConnectionPoolConfig()
+                .setMaxConnections(pool.getMaxConnections())
+                .setPendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .setPendingAcquireTimeout(Duration.ofMillis(pool.getPendingAcquireTimeout()))
+                .setMaxIdleTime(Duration.ofMillis(pool.getMaxIdleTime()))
+                .setMaxLifeTime(Duration.ofMillis(pool.getMaxLifeTime()))
+                .setEvictionInterval(Duration.ofMillis(pool.getEvictionInterval()))
+                .setHttp2Enabled(pool.isHttp2Enabled())
+                .setKeepAlive(pool.isKeepAlive())
+                .setMetricsEnabled(pool.isMetricsEnabled()));
+        
+        // 请求批量合并配置
+        McpClientProperties.Batch batch = properties.getBatch();
+        config.setBatch(new McpBatchConfig()
+                .setEnabled(batch.isEnabled())
+                .setWindow(Duration.ofMillis(batch.getWindowMs()))
+                .setMaxBatchSize(batch.getMaxBatchSize()));
+        
+        // 熔断和重试预算配置
+        McpClientProperties.CircuitBreaker circuitBreaker = properties.getCircuitBreaker();
+        config.setCircuitBreaker(new McpCircuitBreakerConfig()
+                .setEnabled(circuitBreaker.isEnabled())
+                .setSlidingWindowSize(circuitBreaker.getSlidingWindowSize())
+                .setMinimumCalls(circuitBreaker.getMinimumCalls())
+                .setFailureRateThreshold(circuitBreaker.getFailureRateThreshold())
+                .setOpenDuration(Duration.ofMillis(circuitBreaker.getOpenDuration()))
+                .setHalfOpenProbes(circuitBreaker.getHalfOpenProbes())
+                .setRetryBudgetRatio(circuitBreaker.getRetryBudgetRatio())
+                .setMinRetriesPerSecond(circuitBreaker.getMinRetriesPerSecond()));
+        
+        // 服务端多实例负载均衡配置
+        McpClientProperties.LoadBalancer loadBalancer = properties.getLoadBalancer();
+        config.setLoadBalancer(new McpLoadBalancerConfig()
+                .setEndpoints(loadBalancer.getEndpoints())
+                .setDiscoveryFile(loadBalancer.getDiscoveryFile())
+                .setRefreshInterval(Duration.ofMillis(loadBalancer.getRefreshInterval()))
+                .setLocalZone(loadBalancer.getLocalZone())
+                .setEjectionFailures(loadBalancer.getEjectionFailures())
+                .setEjectionDuration(Duration.ofMillis(loadBalancer.getEjectionDuration()))
+                .setLatencyDecay(Duration.ofMillis(loadBalancer.getLatencyDecay()))
+                .setFailurePenalty(Duration.ofMillis(loadBalancer.getFailurePenalty())));
         
         // 添加自定义属性
         if (properties.getCustomProperties() != null) {
@@ -39,8 +88,17 @@ public class McpClientAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public McpClient mcpClient(McpClientConfig config) {
-        McpClient client = new DefaultMcpClient(config);
+    public McpClient mcpClient(McpClientConfig config, ObjectProvider<Tracer> tracerProvider,
+                               ObjectProvider<ObjectMapper> objectMapperProvider,
+                               ObjectProvider<McpEndpointDiscovery> endpointDiscoveryProvider) {
+        DefaultMcpClient client = new DefaultMcpClient(config);
+        // 应用中存在追踪器时，客户端调用加入当前追踪
+        tracerProvider.ifAvailable(client::setTracer);
+        // 使用应用统一配置的ObjectMapper解码响应
+        objectMapperProvider.ifAvailable(objectMapper -> client.setResponseDecoder(
+                new McpResponseDecoder(objectMapper, McpResponseDecoder.DEFAULT_MAX_RESPONSE_BYTES)));
+        // 应用中存在服务端实例发现时，使用它提供的端点列表
+        endpointDiscoveryProvider.ifAvailable(client::setEndpointDiscovery);
         client.initialize();
         return client;
     }
@@ -73,4 +73,34 @@ public interface McpClientConfig {
      * @return 重试间隔
      */
     Duration getRetryInterval();
+
+    /**
+     * 是否合并相同请求的并发调用（single-flight）
+     * @return 是否启用
+     */
+    boolean isSingleFlightEnabled();
+
+    /**
+     * 获取连接池配置，配置相同的客户端共享同一个连接池
+     * @return 连接池配置
+     */
+    McpConnectionPoolConfig getConnectionPool();
+
+    /**
+     * 获取请求批量合并配置
+     * @return 批量合并配置
+     */
+    McpBatchConfig getBatch();
+
+    /**
+     * 获取熔断和重试预算配置
+     * @return 熔断配置
+     */
+    McpCircuitBreakerConfig getCircuitBreaker();
+
+    /**
+     * 获取服务端多实例负载均衡配置
+     * @return 负载均衡配置
+     */
+    McpLoadBalancerConfig getLoadBalancer();
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.demo.mcp.client;
 
+import com.demo.mcp.client.proxy.McpProxyExecutorConfig;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -43,6 +46,167 @@ public class McpClientProperties {
     // 重试间隔（毫秒）
     private int retryInterval = 1000;
 
+    // 是否合并相同请求的并发调用
+    private boolean singleFlightEnabled = false;
+
     // 自定义属性
     private Map<String, Object> customProperties = new HashMap<>();
+
+    // 连接池配置
+    private Pool pool = new Pool();
+
+    // 请求批量合并配置
+    private Batch batch = new Batch();
+
+    // 熔断和重试预算配置
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    // 服务端多实例负载均衡配置
+    private LoadBalancer loadBalancer = new LoadBalancer();
+
+    // 服务方法响应缓存配置
+    private Cache cache = new Cache();
+
+    // 服务代理回调执行器配置
+    private ProxyExecutor proxyExecutor = new ProxyExecutor();
+
+    /**
+     * 连接池属性，对应mcp.client.pool.*
+     */
+    @Data
+    public static class Pool {
+
+        // 每个目标主机的最大连接数
+        private int maxConnections = 500;
+
+        // 等待获取连接的最大请求数，-1表示不限制
+        private int pendingAcquireMaxCount = 1000;
+
+        // 等待获取连接的超时时间（毫秒）
+        private int pendingAcquireTimeout = 5000;
+
+        // 连接的最大空闲时间（毫秒）
+        private int maxIdleTime = 30000;
+
+        // 连接的最大存活时间（毫秒）
+        private int maxLifeTime = 300000;
+
+        // 后台清理空闲和过期连接的间隔（毫秒），为0时不在后台清理
+        private int evictionInterval = 30000;
+
+        // 是否启用HTTP/2
+        private boolean http2Enabled = false;
+
+        // 是否启用HTTP持久连接和TCP保活
+        private boolean keepAlive = true;
+
+        // 是否导出连接池指标
+        private boolean metricsEnabled = true;
+    }
+
+    /**
+     * 请求批量合并属性，对应mcp.client.batch.*
+     */
+    @Data
+    public static class Batch {
+
+        // 是否启用批量合并
+        private boolean enabled = false;
+
+        // 合并窗口（毫秒）
+        private int windowMs = 2;
+
+        // 每批的最大调用数
+        private int maxBatchSize = 32;
+    }
+
+    /**
+     * 熔断和重试预算属性，对应mcp.client.circuit-breaker.*
+     */
+    @Data
+    public static class CircuitBreaker {
+
+        // 是否启用熔断
+        private boolean enabled = true;
+
+        // 统计失败率的滑动窗口大小（最近的调用次数）
+        private int slidingWindowSize = 50;
+
+        // 计算失败率所需的最少调用次数
+        private int minimumCalls = 20;
+
+        // 失败率阈值（0到1之间）
+        private double failureRateThreshold = 0.5;
+
+        // 熔断持续时间（毫秒）
+        private int openDuration = 30000;
+
+        // 半开状态允许的探测调用数
+        private int halfOpenProbes = 3;
+
+        // 重试次数占请求数的最大比例
+        private double retryBudgetRatio = 0.2;
+
+        // 每秒保留的最小重试次数
+        private int minRetriesPerSecond = 1;
+    }
+
+    /**
+     * 服务端多实例负载均衡属性，对应mcp.client.load-balancer.*
+     */
+    @Data
+    public static class LoadBalancer {
+
+        // 静态端点列表，每项为"URL [区域]"
+        private List<String> endpoints = new ArrayList<>();
+
+        // 端点文件路径，每行一个端点
+        private String discoveryFile;
+
+        // 刷新端点列表的间隔（毫秒）
+        private int refreshInterval = 10000;
+
+        // 本地区域，优先选择同区域的端点
+        private String localZone;
+
+        // 摘除端点所需的连续失败次数
+        private int ejectionFailures = 5;
+
+        // 端点被摘除的时长（毫秒）
+        private int ejectionDuration = 30000;
+
+        // 延迟EWMA的衰减时间常数（毫秒）
+        private int latencyDecay = 10000;
+
+        // 失败请求计入延迟EWMA的惩罚延迟（毫秒）
+        private int failurePenalty = 5000;
+    }
+
+    /**
+     * 服务方法响应缓存属性，对应mcp.client.cache.*
+     * 缓存只对@McpMethod声明了cacheTtl的方法生效
+     */
+    @Data
+    public static class Cache {
+
+        // 最大缓存条目数，所有服务方法共享
+        private int maxEntries = 10000;
+    }
+
+    /**
+     * 服务代理回调执行器属性，对应mcp.client.proxy-executor.*
+     * 返回CompletableFuture的服务方法在该执行器上完成
+     */
+    @Data
+    public static class ProxyExecutor {
+
+        // 执行器类型：DIRECT、BOUNDED或VIRTUAL
+        private McpProxyExecutorConfig.Type type = McpProxyExecutorConfig.Type.BOUNDED;
+
+        // 有界线程池的线程数
+        private int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        // 有界线程池的队列容量，队列满时拒绝而不在I/O线程上执行回调
+        private int queueCapacity = 1000;
+    }
 }
\ No newline at end of file
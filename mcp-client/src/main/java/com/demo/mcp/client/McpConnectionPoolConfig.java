@@ -0,0 +1,103 @@
+package com.demo.mcp.client;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * MCP客户端连接池配置
+ * 配置相同的客户端共享同一个连接池，配置作为共享连接池的键，需要保证相等性
+ */
+@Data
+public class McpConnectionPoolConfig {
+
+    // 每个目标主机的最大连接数
+    private int maxConnections = 500;
+
+    // 等待获取连接的最大请求数，超出时立即失败，-1表示不限制
+    private int pendingAcquireMaxCount = 1000;
+
+    // 等待获取连接的超时时间
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    // 连接的最大空闲时间，超过后关闭
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    // 连接的最大存活时间，超过后关闭，避免长期使用同一连接导致负载不均
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    // 后台清理空闲和过期连接的间隔，为0时只在获取连接时清理
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    // 是否启用HTTP/2，启用后同一连接上的请求多路复用
+    private boolean http2Enabled = false;
+
+    // 是否启用HTTP持久连接和TCP保活
+    private boolean keepAlive = true;
+
+    // 是否导出连接池指标
+    private boolean metricsEnabled = true;
+
+    // 方便链式调用的setter方法
+    public McpConnectionPoolConfig setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    public McpConnectionPoolConfig setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        return this;
+    }
+
+    public McpConnectionPoolConfig setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+        return this;
+    }
+
+    public McpConnectionPoolConfig setMaxIdleTime(Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+        return this;
+    }
+
+    public McpConnectionPoolConfig setMaxLifeTime(Duration maxLifeTime) {
+        this.maxLifeTime = maxLifeTime;
+        return this;
+    }
+
+    public McpConnectionPoolConfig setEvictionInterval(Duration evictionInterval) {
+        this.evictionInterval = evictionInterval;
+        return this;
+    }
+
+    public McpConnectionPoolConfig setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+        return this;
+    }
+
+    public McpConnectionPoolConfig setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+
+    public McpConnectionPoolConfig setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+        return this;
+    }
+
+    /**
+     * 复制配置，用作共享连接池的键，避免之后修改配置影响已创建的连接池
+     * @return 配置副本
+     */
+    McpConnectionPoolConfig copy() {
+        return new McpConnectionPoolConfig()
+                .setMaxConnections(maxConnections)
+                .setPendingAcquireMaxCount(pendingAcquireMaxCount)
+                .setPendingAcquireTimeout(pendingAcquireTimeout)
+                .setMaxIdleTime(maxIdleTime)
+                .setMaxLifeTime(maxLifeTime)
+                .setEvictionInterval(evictionInterval)
+                .setHttp2Enabled(http2Enabled)
+                .setKeepAlive(keepAlive)
+                .setMetricsEnabled(metricsEnabled);
+    }
+}
@@ -0,0 +1,100 @@
+package com.demo.mcp.client;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MCP客户端共享连接池注册表
+ * 连接池配置相同的客户端共享同一个ConnectionProvider，按引用计数管理，最后一个客户端关闭时释放连接池。
+ * 所有客户端共用Reactor Netty的全局事件循环，客户端数量增加不会增加连接池和事件循环线程。
+ * 启用指标时连接池通过Micrometer全局注册表导出reactor.netty.connection.provider.*指标，
+ * 包括活跃、空闲、等待获取的连接数和获取连接的耗时
+ */
+@Slf4j
+public final class McpConnectionPools {
+
+    private static final String POOL_NAME_PREFIX = "mcp-client-";
+
+    // 连接池配置到共享连接池的映射，由类锁保护
+    private static final Map<McpConnectionPoolConfig, SharedPool> POOLS = new HashMap<>();
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
+    private McpConnectionPools() {
+    }
+
+    /**
+     * 获取配置对应的共享连接池，不存在时创建，每次获取都需要对应一次释放
+     * @param config 连接池配置
+     * @return 共享连接池
+     */
+    public static synchronized ConnectionProvider acquire(McpConnectionPoolConfig config) {
+        SharedPool pool = POOLS.get(config);
+        if (pool == null) {
+            McpConnectionPoolConfig key = config.copy();
+            pool = new SharedPool(create(POOL_NAME_PREFIX + POOL_SEQUENCE.incrementAndGet(), key));
+            POOLS.put(key, pool);
+            log.info("Created shared MCP connection pool {} with max connections {}",
+                    pool.provider.name(), key.getMaxConnections());
+        }
+        pool.references++;
+        return pool.provider;
+    }
+
+    /**
+     * 释放共享连接池，引用计数归零时关闭连接池
+     * @param config 获取连接池时使用的配置
+     */
+    public static synchronized void release(McpConnectionPoolConfig config) {
+        SharedPool pool = POOLS.get(config);
+        if (pool == null) {
+            return;
+        }
+        if (--pool.references <= 0) {
+            POOLS.remove(config);
+            pool.provider.disposeLater()
+                    .subscribe(null, e -> log.warn("Failed to dispose MCP connection pool {}: {}",
+                            pool.provider.name(), e.getMessage()));
+            log.info("Disposed shared MCP connection pool {}", pool.provider.name());
+        }
+    }
+
+    /**
+     * 获取当前共享连接池的数量
+     * @return 连接池数量
+     */
+    public static synchronized int getPoolCount() {
+        return POOLS.size();
+    }
+
+    private static ConnectionProvider create(String name, McpConnectionPoolConfig config) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(name)
+                .maxConnections(config.getMaxConnections())
+                .pendingAcquireMaxCount(config.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(config.getPendingAcquireTimeout())
+                .maxIdleTime(config.getMaxIdleTime())
+                .maxLifeTime(config.getMaxLifeTime())
+                .metrics(config.isMetricsEnabled());
+        Duration evictionInterval = config.getEvictionInterval();
+        if (evictionInterval != null && !evictionInterval.isZero() && !evictionInterval.isNegative()) {
+            builder.evictInBackground(evictionInterval);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 共享连接池及其引用计数
+     */
+    private static final class SharedPool {
+        private final ConnectionProvider provider;
+        private int references;
+
+        private SharedPool(ConnectionProvider provider) {
+            this.provider = provider;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.demo.mcp.client;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MCP服务端多实例负载均衡配置
+ * 配置了端点列表或端点文件时，请求在多个服务端实例之间均衡，否则只使用baseUrl
+ */
+@Data
+public class McpLoadBalancerConfig {
+
+    // 静态端点列表，每项为"URL [区域]"，例如"http://10.0.0.1:8080/api/v1 zone-a"
+    private List<String> endpoints = new ArrayList<>();
+
+    // 端点文件路径，每行一个端点，格式同endpoints，文件修改后自动重新加载
+    private String discoveryFile;
+
+    // 刷新端点列表的间隔
+    private Duration refreshInterval = Duration.ofSeconds(10);
+
+    // 本地区域，优先选择同区域的健康端点，为空时不区分区域
+    private String localZone;
+
+    // 连续失败达到该次数后摘除端点
+    private int ejectionFailures = 5;
+
+    // 端点被摘除的时长，之后重新参与选择
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+
+    // 延迟EWMA的衰减时间常数，越小越偏重最近的延迟
+    private Duration latencyDecay = Duration.ofSeconds(10);
+
+    // 失败请求计入延迟EWMA的惩罚延迟，实际延迟更长时取实际延迟；
+    // 快速失败（如连接被拒绝）的端点不会因延迟低而被优先选择
+    private Duration failurePenalty = Duration.ofSeconds(5);
+
+    // 方便链式调用的setter方法
+    public McpLoadBalancerConfig setEndpoints(List<String> endpoints) {
+        this.endpoints = endpoints;
+        return this;
+    }
+
+    public McpLoadBalancerConfig setDiscoveryFile(String discoveryFile) {
+        this.discoveryFile = discoveryFile;
+        return this;
+    }
+
+    public McpLoadBalancerConfig setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+        return this;
+    }
+
+    public McpLoadBalancerConfig setLocalZone(String localZone) {
+        this.localZone = localZone;
+        return this;
+    }
+
+    public McpLoadBalancerConfig setEjectionFailures(int ejectionFailures) {
+        this.ejectionFailures = ejectionFailures;
+        return this;
+    }
+
+    public McpLoadBalancerConfig setEjectionDuration(Duration ejectionDuration) {
+        this.ejectionDuration = ejectionDuration;
+        return this;
+    }
+
+    public McpLoadBalancerConfig setLatencyDecay(Duration latencyDecay) {
+        this.latencyDecay = latencyDecay;
+        return this;
+    }
+
+    public McpLoadBalancerConfig setFailurePenalty(Duration failurePenalty) {
+        this.failurePenalty = failurePenalty;
+        return this;
+    }
+}
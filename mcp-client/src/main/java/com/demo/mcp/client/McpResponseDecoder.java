@@ -0,0 +1,212 @@
+package com.demo.mcp.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MCP响应解码器
+ * 使用Jackson的非阻塞解析器在DataBuffer到达时增量解析JSON，每个缓冲区解析后立即释放，
+ * 不先拼接完整的响应体，也不先解码为Map再转换；
+ * 每个目标类型的ObjectReader只创建一次并缓存，ObjectReader是线程安全的
+ */
+public class McpResponseDecoder {
+
+    // 默认的响应体大小上限（字节）
+    public static final int DEFAULT_MAX_RESPONSE_BYTES = 16 * 1024 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final int maxResponseBytes;
+
+    // 目标类型到ObjectReader的缓存
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    /**
+     * 使用默认的ObjectMapper创建解码器，忽略响应中未知的字段
+     */
+    public McpResponseDecoder() {
+        this(new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false),
+                DEFAULT_MAX_RESPONSE_BYTES);
+    }
+
+    /**
+     * 构造函数
+     * @param objectMapper JSON对象映射器
+     * @param maxResponseBytes 响应体大小上限（字节），超出时解码失败，-1表示不限制
+     */
+    public McpResponseDecoder(ObjectMapper objectMapper, int maxResponseBytes) {
+        this.objectMapper = objectMapper;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    /**
+     * 将响应体解码为目标类型
+     * 响应体为空或为JSON null时返回空的Mono
+     * @param body 响应体
+     * @param type 目标类型，可以是带泛型参数的类型
+     * @param <T> 返回类型
+     * @return 解码结果的Mono包装
+     */
+    public <T> Mono<T> decode(Flux<DataBuffer> body, Type type) {
+        ObjectReader reader = readerFor(type);
+        return Mono.using(this::newTokenizer,
+                tokenizer -> body
+                        .<DataBuffer>handle((buffer, sink) -> {
+                            try {
+                                tokenizer.feed(buffer);
+                            } catch (IOException e) {
+                                sink.error(decodingError(type, e));
+                            } finally {
+                                DataBufferUtils.release(buffer);
+                            }
+                        })
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                        .then(Mono.fromCallable(tokenizer::finish))
+                        .<T>handle((tokens, sink) -> {
+                            try (JsonParser parser = tokens.asParser(objectMapper)) {
+                                T value = reader.readValue(parser);
+                                if (value != null) {
+                                    sink.next(value);
+                                }
+                            } catch (IOException e) {
+                                sink.error(decodingError(type, e));
+                            }
+                        }),
+                JsonTokenizer::close)
+                .onErrorMap(IOException.class, e -> decodingError(type, e));
+    }
+
+    /**
+     * 获取目标类型的ObjectReader
+     * @param type 目标类型
+     * @return ObjectReader
+     */
+    public ObjectReader readerFor(Type type) {
+        return readers.computeIfAbsent(type, t -> objectMapper.readerFor(objectMapper.constructType(t)));
+    }
+
+    /**
+     * 获取已缓存的ObjectReader数量
+     * @return 缓存数量
+     */
+    public int getReaderCount() {
+        return readers.size();
+    }
+
+    private JsonTokenizer newTokenizer() throws IOException {
+        return new JsonTokenizer(objectMapper.getFactory().createNonBlockingByteBufferParser(), maxResponseBytes);
+    }
+
+    // 解码失败不属于可重试的错误
+    private static DecodingException decodingError(Type type, Throwable cause) {
+        return new DecodingException("Failed to decode response as " + type.getTypeName(), cause);
+    }
+
+    /**
+     * 增量JSON解析器，将到达的缓冲区逐个交给非阻塞解析器，解析出的令牌暂存在TokenBuffer中，
+     * 响应体结束后再由ObjectReader绑定到目标类型；只解析第一个JSON值，之后的内容忽略
+     * 同一响应的缓冲区按顺序到达，不需要同步
+     */
+    private static final class JsonTokenizer {
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final TokenBuffer tokens;
+        private final int maxBytes;
+
+        // 已接收的字节数
+        private long byteCount;
+
+        // 当前的对象/数组嵌套深度
+        private int depth;
+
+        // 是否已读到令牌，以及第一个JSON值是否已完整
+        private boolean started;
+        private boolean complete;
+
+        JsonTokenizer(JsonParser parser, int maxBytes) {
+            this.parser = parser;
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            this.tokens = new TokenBuffer(parser);
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * 解析一个缓冲区，返回后解析器不再引用该缓冲区的内容
+         * @param buffer 响应体缓冲区
+         * @throws IOException JSON格式错误时抛出
+         */
+        void feed(DataBuffer buffer) throws IOException {
+            byteCount += buffer.readableByteCount();
+            if (maxBytes >= 0 && byteCount > maxBytes) {
+                throw new DataBufferLimitException("Exceeded limit on max bytes to buffer : " + maxBytes);
+            }
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    feeder.feedInput(iterator.next());
+                    nextTokens();
+                }
+            }
+        }
+
+        /**
+         * 结束输入
+         * @return 第一个JSON值的令牌，响应体为空时返回null
+         * @throws IOException JSON不完整时抛出
+         */
+        TokenBuffer finish() throws IOException {
+            feeder.endOfInput();
+            nextTokens();
+            if (!started) {
+                return null;
+            }
+            if (!complete) {
+                throw new JsonEOFException(parser, null, "Unexpected end of input");
+            }
+            return tokens;
+        }
+
+        void close() {
+            try {
+                parser.close();
+                tokens.close();
+            } catch (IOException e) {
+                // 只释放内存中的缓冲区，不会失败
+            }
+        }
+
+        private void nextTokens() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (complete) {
+                    continue;
+                }
+                started = true;
+                // 浮点数保留原始文本，绑定到BigDecimal时不损失精度
+                tokens.copyCurrentEventExact(parser);
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+                complete = depth == 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.demo.mcp.client;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 相同请求的并发调用合并（single-flight）
+ * 目标、方法、参数和响应类型都相同的并发调用共享同一次进行中的请求，并同时得到同一个结果或错误；
+ * 请求结束后立即移除，之后的调用重新发起请求，因此不会返回过期的结果。
+ * 共享的请求按订阅者计数，所有调用方都取消后才取消请求
+ */
+public class McpSingleFlight {
+
+    // 进行中的共享请求
+    private final Map<Key, Flux<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // 加入已有请求的调用数
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * 执行调用，存在相同的进行中请求时共享其结果
+     * @param kind 调用类型，如service或model
+     * @param target 服务ID或模型ID
+     * @param method 方法名，没有时为null
+     * @param payload 请求参数，按equals比较
+     * @param responseType 响应类型
+     * @param call 实际的调用
+     * @param <T> 响应类型
+     * @return 调用结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String kind, String target, String method, Object payload,
+                               Type responseType, Mono<T> call) {
+        return Mono.defer(() -> {
+            Key key = new Key(kind, target, method, payload, responseType);
+            boolean[] created = new boolean[1];
+            Flux<Object> shared = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return share(k, call);
+            });
+            if (!created[0]) {
+                coalescedCount.increment();
+            }
+            return (Mono<T>) shared.singleOrEmpty();
+        });
+    }
+
+    /**
+     * 获取加入已有请求、没有单独发起请求的调用数
+     * @return 合并的调用数
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * 获取进行中的共享请求数
+     * @return 共享请求数
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    // 第一个调用方订阅时发起请求，请求结束或所有调用方取消后从进行中的请求中移除
+    private Flux<Object> share(Key key, Mono<?> call) {
+        AtomicReference<Flux<Object>> self = new AtomicReference<>();
+        Flux<Object> shared = call.cast(Object.class)
+                .flux()
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .publish()
+                .refCount(1);
+        self.set(shared);
+        return shared;
+    }
+
+    /**
+     * 合并键
+     */
+    private static final class Key {
+        private final String kind;
+        private final String target;
+        private final String method;
+        private final Object payload;
+        private final Type responseType;
+        private final int hash;
+
+        private Key(String kind, String target, String method, Object payload, Type responseType) {
+            this.kind = kind;
+            this.target = target;
+            this.method = method;
+            this.payload = payload;
+            this.responseType = responseType;
+            this.hash = Objects.hash(kind, target, method, payload, responseType);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return hash == that.hash && kind.equals(that.kind) && target.equals(that.target)
+                    && Objects.equals(method, that.method) && Objects.equals(payload, that.payload)
+                    && Objects.equals(responseType, that.responseType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
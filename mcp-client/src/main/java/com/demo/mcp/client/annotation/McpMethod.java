@@ -47,4 +47,19 @@ public @interface McpMethod {
      * 自定义请求映射，将方法参数映射到请求参数
      */
     String[] paramMappings() default {};
+
+    /**
+     * 响应缓存有效期（毫秒），大于0时缓存响应，只应用于幂等的查询方法，默认0（不缓存）
+     */
+    int cacheTtl() default 0;
+
+    /**
+     * 缓存过期后仍可返回旧响应的时长（毫秒），期间返回旧响应并在后台刷新，默认0
+     */
+    int cacheStaleTtl() default 0;
+
+    /**
+     * 组成缓存键的请求参数名，默认使用全部请求参数
+     */
+    String[] cacheKey() default {};
 }
\ No newline at end of file
@@ -45,6 +45,14 @@ public interface TestService {
      */
     @McpMethod(methodName = "complexObjectMethod", timeout = 15000)
     TestResponse complexObjectMethod(TestRequest request);
+
+    /**
+     * 幂等查询方法示例，响应缓存60秒，过期后30秒内返回旧响应并在后台刷新
+     * @param category 分类
+     * @return 目录信息
+     */
+    @McpMethod(methodName = "getCatalog", cacheTtl = 60000, cacheStaleTtl = 30000)
+    Mono<Map<String, Object>> getCatalog(String category);
 }
 
 /**
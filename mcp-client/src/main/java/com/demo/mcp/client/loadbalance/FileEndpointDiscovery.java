@@ -0,0 +1,56 @@
+package com.demo.mcp.client.loadbalance;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基于本地文件的服务端实例发现，用于本地测试和没有注册中心的部署
+ * 文件每行一个端点，格式为"URL [区域]"，#开头的行和空行被忽略；
+ * 文件修改时间变化后重新读取，读取失败时保留上一次的结果
+ */
+@Slf4j
+public class FileEndpointDiscovery implements McpEndpointDiscovery {
+
+    private final Path file;
+
+    // 上一次读取的结果和文件修改时间
+    private volatile List<McpEndpointAddress> endpoints = Collections.emptyList();
+    private long lastModified = Long.MIN_VALUE;
+
+    public FileEndpointDiscovery(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized List<McpEndpointAddress> getEndpoints() {
+        try {
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            if (modified != lastModified) {
+                endpoints = parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+                lastModified = modified;
+                log.info("Loaded {} MCP endpoints from {}", endpoints.size(), file);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Failed to load MCP endpoints from {}: {}", file, e.getMessage());
+        }
+        return endpoints;
+    }
+
+    private static List<McpEndpointAddress> parse(List<String> lines) {
+        List<McpEndpointAddress> result = new ArrayList<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                result.add(McpEndpointAddress.parse(trimmed));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
@@ -0,0 +1,148 @@
+package com.demo.mcp.client.loadbalance;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 负载均衡中的一个服务端实例及其运行统计
+ * 记录进行中的请求数、按时间衰减的延迟EWMA和连续失败次数，连续失败过多时在一段时间内被摘除；
+ * 失败的请求按惩罚延迟计入EWMA
+ */
+public class McpEndpoint {
+
+    private final McpEndpointAddress address;
+
+    // 进行中的请求数
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // 延迟EWMA（纳秒）及上次更新的时间，由本对象的锁保护
+    private double latencyEwma;
+    private long latencyUpdatedAt;
+    private boolean hasLatency;
+
+    // 连续失败次数和摘除截止时间（纳秒时钟），由本对象的锁保护
+    private int consecutiveFailures;
+    private long ejectedUntil;
+    private boolean ejected;
+
+    // 累计请求数和失败数
+    private long requestCount;
+    private long failureCount;
+
+    public McpEndpoint(McpEndpointAddress address) {
+        this(address, 0d);
+    }
+
+    /**
+     * 构造函数
+     * @param address 端点地址
+     * @param initialLatencyNanos 初始的延迟EWMA（纳秒），在收到第一个响应前用于计算评分
+     */
+    public McpEndpoint(McpEndpointAddress address, double initialLatencyNanos) {
+        this.address = address;
+        this.latencyEwma = Math.max(0d, initialLatencyNanos);
+    }
+
+    public McpEndpointAddress getAddress() {
+        return address;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized double getLatencyEwmaMillis() {
+        return latencyEwma / 1_000_000d;
+    }
+
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    public synchronized long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * 当前是否被摘除
+     * @param now 当前时间（纳秒时钟）
+     * @return 是否被摘除
+     */
+    public synchronized boolean isEjected(long now) {
+        if (ejected && now - ejectedUntil >= 0) {
+            ejected = false;
+        }
+        return ejected;
+    }
+
+    /**
+     * 是否已记录过请求的延迟
+     * @return 是否有延迟数据
+     */
+    synchronized boolean hasLatency() {
+        return hasLatency;
+    }
+
+    // 当前的延迟EWMA（纳秒），包括初始延迟
+    synchronized double latencyEwmaNanos() {
+        return latencyEwma;
+    }
+
+    /**
+     * 负载评分，越小越优先：延迟EWMA乘以进行中的请求数加一
+     * 还没有响应的端点使用初始延迟，初始延迟为0时评分只取决于进行中的请求数
+     * @return 负载评分
+     */
+    synchronized double score() {
+        return (latencyEwma + 1d) * (inFlight.get() + 1);
+    }
+
+    void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * 请求结束
+     * @param now 结束时间（纳秒时钟）
+     * @param latencyNanos 请求延迟（纳秒）
+     * @param failed 是否失败
+     * @param failurePenaltyNanos 失败时计入EWMA的最小延迟（纳秒）
+     * @param decayNanos EWMA衰减时间常数（纳秒）
+     * @param ejectionFailures 摘除所需的连续失败次数
+     * @param ejectionNanos 摘除时长（纳秒）
+     * @return 端点是否因本次失败被摘除
+     */
+    synchronized boolean onComplete(long now, long latencyNanos, boolean failed, long failurePenaltyNanos,
+                                    long decayNanos, int ejectionFailures, long ejectionNanos) {
+        inFlight.decrementAndGet();
+        requestCount++;
+        if (failed) {
+            // 失败请求的延迟通常很短，按实际延迟计入会让故障端点的评分最低
+            latencyNanos = Math.max(latencyNanos, failurePenaltyNanos);
+        }
+        if (!hasLatency) {
+            latencyEwma = latencyNanos;
+            hasLatency = true;
+        } else {
+            // 距上次更新越久，旧值的权重越小
+            double weight = Math.exp(-(double) Math.max(0L, now - latencyUpdatedAt) / decayNanos);
+            latencyEwma = latencyEwma * weight + latencyNanos * (1d - weight);
+        }
+        latencyUpdatedAt = now;
+        if (!failed) {
+            consecutiveFailures = 0;
+            return false;
+        }
+        failureCount++;
+        if (++consecutiveFailures >= ejectionFailures) {
+            consecutiveFailures = 0;
+            ejected = true;
+            ejectedUntil = now + ejectionNanos;
+            return true;
+        }
+        return false;
+    }
+
+    void onCancel() {
+        inFlight.decrementAndGet();
+    }
+}
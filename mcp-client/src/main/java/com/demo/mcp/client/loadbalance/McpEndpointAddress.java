@@ -0,0 +1,66 @@
+package com.demo.mcp.client.loadbalance;
+
+import java.util.Objects;
+
+/**
+ * MCP服务端实例的地址
+ */
+public final class McpEndpointAddress {
+
+    // 服务端基础URL，与McpClientConfig的baseUrl含义相同
+    private final String url;
+
+    // 所在区域，可以为null
+    private final String zone;
+
+    public McpEndpointAddress(String url, String zone) {
+        if (url == null || url.isEmpty()) {
+            throw new IllegalArgumentException("Endpoint URL cannot be empty");
+        }
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.zone = zone != null && !zone.isEmpty() ? zone : null;
+    }
+
+    /**
+     * 解析"URL [区域]"格式的端点描述
+     * @param spec 端点描述
+     * @return 端点地址
+     */
+    public static McpEndpointAddress parse(String spec) {
+        String[] parts = spec.trim().split("\\s+");
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("Invalid endpoint: " + spec);
+        }
+        return new McpEndpointAddress(parts[0], parts.length == 2 ? parts[1] : null);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof McpEndpointAddress)) {
+            return false;
+        }
+        McpEndpointAddress that = (McpEndpointAddress) o;
+        return url.equals(that.url) && Objects.equals(zone, that.zone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(url, zone);
+    }
+
+    @Override
+    public String toString() {
+        return zone != null ? url + " " + zone : url;
+    }
+}
@@ -0,0 +1,21 @@
+package com.demo.mcp.client.loadbalance;
+
+import java.util.List;
+
+/**
+ * MCP服务端实例发现接口，可以基于静态配置、文件或注册中心实现
+ */
+public interface McpEndpointDiscovery {
+
+    /**
+     * 获取当前可用的服务端实例，负载均衡器定期调用
+     * @return 服务端实例地址列表
+     */
+    List<McpEndpointAddress> getEndpoints();
+
+    /**
+     * 释放发现服务占用的资源
+     */
+    default void close() {
+    }
+}
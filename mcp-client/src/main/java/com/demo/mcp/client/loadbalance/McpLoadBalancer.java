@@ -0,0 +1,228 @@
+package com.demo.mcp.client.loadbalance;
+
+import com.demo.mcp.client.McpClientException;
+import com.demo.mcp.client.McpLoadBalancerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * MCP服务端多实例的客户端负载均衡器
+ * 每次请求随机取两个候选端点，选择负载评分（延迟EWMA乘以进行中的请求数）较低的一个（power of two choices）。
+ * 候选端点优先取本地区域中未被摘除的端点，本地区域没有可用端点时取所有未被摘除的端点，
+ * 全部被摘除时仍在所有端点中选择，避免摘除导致完全不可用。
+ * 失败的请求按惩罚延迟计入EWMA，新加入的端点以现有端点的平均延迟作为初始值，不会在收到第一个响应前承接所有请求。
+ * 通过ExchangeFilterFunction接入WebClient，请求的基础URL被替换为选中端点的URL，重试时重新选择端点
+ */
+@Slf4j
+public class McpLoadBalancer {
+
+    // 没有可用端点时返回的错误码
+    public static final String NO_ENDPOINT = "NO_ENDPOINT";
+
+    // 客户端配置的基础URL，请求URL中这部分被替换为选中端点的URL
+    private final String baseUrl;
+
+    private final McpEndpointDiscovery discovery;
+    private final McpLoadBalancerConfig config;
+    private final LongSupplier nanoClock;
+
+    // 当前的端点列表，刷新时整体替换，保留仍然存在的端点的统计
+    private volatile List<McpEndpoint> endpoints = Collections.emptyList();
+
+    public McpLoadBalancer(String baseUrl, McpEndpointDiscovery discovery, McpLoadBalancerConfig config) {
+        this(baseUrl, discovery, config, System::nanoTime);
+    }
+
+    /**
+     * 构造函数，创建时立即从发现服务加载端点
+     * @param baseUrl 客户端配置的基础URL
+     * @param discovery 服务端实例发现
+     * @param config 负载均衡配置
+     * @param nanoClock 纳秒时钟，便于测试时替换
+     */
+    public McpLoadBalancer(String baseUrl, McpEndpointDiscovery discovery,
+                           McpLoadBalancerConfig config, LongSupplier nanoClock) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.discovery = discovery;
+        this.config = config;
+        this.nanoClock = nanoClock;
+        refresh();
+    }
+
+    /**
+     * 从发现服务重新加载端点，发现服务返回空列表时保留当前端点
+     */
+    public synchronized void refresh() {
+        List<McpEndpointAddress> addresses;
+        try {
+            addresses = discovery.getEndpoints();
+        } catch (RuntimeException e) {
+            log.warn("MCP endpoint discovery failed, keeping {} endpoints: {}", endpoints.size(), e.getMessage());
+            return;
+        }
+        if (addresses == null || addresses.isEmpty()) {
+            if (!endpoints.isEmpty()) {
+                log.warn("MCP endpoint discovery returned no endpoints, keeping {} endpoints", endpoints.size());
+            }
+            return;
+        }
+        Map<McpEndpointAddress, McpEndpoint> current = new HashMap<>();
+        for (McpEndpoint endpoint : endpoints) {
+            current.put(endpoint.getAddress(), endpoint);
+        }
+        Set<McpEndpointAddress> distinct = new LinkedHashSet<>(addresses);
+        if (distinct.equals(current.keySet())) {
+            return;
+        }
+        double initialLatency = averageLatency(endpoints);
+        List<McpEndpoint> updated = new ArrayList<>(distinct.size());
+        for (McpEndpointAddress address : distinct) {
+            McpEndpoint endpoint = current.get(address);
+            updated.add(endpoint != null ? endpoint : new McpEndpoint(address, initialLatency));
+        }
+        log.info("MCP endpoints updated: {}", distinct);
+        endpoints = Collections.unmodifiableList(updated);
+    }
+
+    /**
+     * 选择一个端点
+     * @return 选中的端点，没有任何端点时返回null
+     */
+    public McpEndpoint choose() {
+        List<McpEndpoint> all = endpoints;
+        if (all.isEmpty()) {
+            return null;
+        }
+        long now = nanoClock.getAsLong();
+        String localZone = config.getLocalZone();
+        List<McpEndpoint> healthy = new ArrayList<>(all.size());
+        List<McpEndpoint> local = new ArrayList<>(all.size());
+        for (McpEndpoint endpoint : all) {
+            if (!endpoint.isEjected(now)) {
+                healthy.add(endpoint);
+                if (localZone != null && localZone.equals(endpoint.getAddress().getZone())) {
+                    local.add(endpoint);
+                }
+            }
+        }
+        return pickLessLoaded(!local.isEmpty() ? local : !healthy.isEmpty() ? healthy : all);
+    }
+
+    /**
+     * 创建接入WebClient的过滤器，为每次请求选择端点并记录请求结果
+     * @return 过滤器
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            McpEndpoint endpoint = choose();
+            if (endpoint == null) {
+                return Mono.error(new McpClientException("No MCP endpoint available", NO_ENDPOINT));
+            }
+            ClientRequest routed = ClientRequest.from(request)
+                    .url(resolve(request.url(), endpoint))
+                    .build();
+            return Mono.defer(() -> {
+                endpoint.onStart();
+                long start = nanoClock.getAsLong();
+                AtomicBoolean completed = new AtomicBoolean();
+                // 延迟按收到响应头计算，5xx响应和请求异常计为失败
+                return next.exchange(routed)
+                        .doOnSuccess(response -> {
+                            if (completed.compareAndSet(false, true)) {
+                                complete(endpoint, start, response == null || response.statusCode().is5xxServerError());
+                            }
+                        })
+                        .doOnError(e -> {
+                            if (completed.compareAndSet(false, true)) {
+                                complete(endpoint, start, true);
+                            }
+                        })
+                        .doOnCancel(() -> {
+                            if (completed.compareAndSet(false, true)) {
+                                endpoint.onCancel();
+                            }
+                        });
+            });
+        };
+    }
+
+    /**
+     * 获取当前的端点及其统计
+     * @return 端点列表
+     */
+    public List<McpEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * 关闭发现服务
+     */
+    public void close() {
+        discovery.close();
+    }
+
+    // 已有延迟数据的端点的平均延迟EWMA（纳秒），都没有数据时为0
+    private static double averageLatency(List<McpEndpoint> endpoints) {
+        double sum = 0d;
+        int count = 0;
+        for (McpEndpoint endpoint : endpoints) {
+            if (endpoint.hasLatency()) {
+                sum += endpoint.latencyEwmaNanos();
+                count++;
+            }
+        }
+        return count == 0 ? 0d : sum / count;
+    }
+
+    private McpEndpoint pickLessLoaded(List<McpEndpoint> candidates) {
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        McpEndpoint a = candidates.get(first);
+        McpEndpoint b = candidates.get(second);
+        return a.score() <= b.score() ? a : b;
+    }
+
+    private void complete(McpEndpoint endpoint, long start, boolean failed) {
+        long now = nanoClock.getAsLong();
+        boolean ejected = endpoint.onComplete(now, now - start, failed, config.getFailurePenalty().toNanos(),
+                config.getLatencyDecay().toNanos(), config.getEjectionFailures(), config.getEjectionDuration().toNanos());
+        if (ejected) {
+            log.warn("MCP endpoint {} ejected for {}ms after consecutive failures",
+                    endpoint.getAddress(), config.getEjectionDuration().toMillis());
+        }
+    }
+
+    // 将请求URL中的基础URL替换为端点的URL
+    private URI resolve(URI original, McpEndpoint endpoint) {
+        String url = original.toString();
+        String relative;
+        if (url.startsWith(baseUrl)) {
+            relative = url.substring(baseUrl.length());
+        } else {
+            relative = original.getRawPath() + (original.getRawQuery() != null ? "?" + original.getRawQuery() : "");
+        }
+        return URI.create(endpoint.getAddress().getUrl() + relative);
+    }
+}
@@ -0,0 +1,228 @@
+package com.demo.mcp.client.proxy;
+
+import com.demo.mcp.client.annotation.McpMethod;
+import org.springframework.core.ResolvableType;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MCP服务方法的调用计划
+ * 创建代理时从@McpMethod注解和方法签名中解析一次，调用时只按下标读取，不再反射。
+ * 生成的代理类只持有调用计划的引用，除请求参数名外计划的内容只在本包内访问
+ */
+public final class McpMethodPlan {
+
+    /**
+     * 方法的返回方式
+     */
+    enum ReturnKind {
+        SYNC,    // 同步返回结果
+        MONO,    // 返回Mono
+        FUTURE,  // 返回CompletableFuture
+        ASYNC    // 声明为异步但返回其他类型
+    }
+
+    private final String methodName;
+
+    // 各个参数对应的请求参数名
+    private final String[] paramNames;
+
+    // 响应类型，Mono和CompletableFuture取其泛型参数
+    private final Type responseType;
+
+    private final ReturnKind returnKind;
+    private final Duration timeout;
+
+    // 响应缓存有效期和stale期（纳秒），有效期为0表示不缓存
+    private final long cacheTtlNanos;
+    private final long cacheStaleNanos;
+
+    // 组成缓存键的参数下标
+    private final int[] cacheKeyIndexes;
+
+    private McpMethodPlan(String methodName, String[] paramNames, Type responseType, ReturnKind returnKind,
+                          Duration timeout, long cacheTtlNanos, long cacheStaleNanos, int[] cacheKeyIndexes) {
+        this.methodName = methodName;
+        this.paramNames = paramNames;
+        this.responseType = responseType;
+        this.returnKind = returnKind;
+        this.timeout = timeout;
+        this.cacheTtlNanos = cacheTtlNanos;
+        this.cacheStaleNanos = cacheStaleNanos;
+        this.cacheKeyIndexes = cacheKeyIndexes;
+    }
+
+    /**
+     * 解析方法的调用计划
+     * @param serviceInterface 服务接口，用于解析泛型
+     * @param method 接口方法
+     * @param mcpMethod 方法注解
+     * @return 调用计划
+     */
+    static McpMethodPlan of(Class<?> serviceInterface, Method method, McpMethod mcpMethod) {
+        String methodName = mcpMethod.methodName();
+        if (methodName.isEmpty()) {
+            methodName = mcpMethod.value();
+            if (methodName.isEmpty()) {
+                methodName = method.getName();
+            }
+        }
+
+        String[] paramNames = resolveParamNames(method, mcpMethod);
+
+        Class<?> returnType = method.getReturnType();
+        ReturnKind returnKind;
+        if (returnType == Mono.class) {
+            returnKind = ReturnKind.MONO;
+        } else if (returnType == CompletableFuture.class) {
+            returnKind = ReturnKind.FUTURE;
+        } else if (mcpMethod.async() || Mono.class.isAssignableFrom(returnType)
+                || CompletableFuture.class.isAssignableFrom(returnType)) {
+            returnKind = ReturnKind.ASYNC;
+        } else {
+            returnKind = ReturnKind.SYNC;
+        }
+
+        long cacheTtlNanos = 0L;
+        long cacheStaleNanos = 0L;
+        int[] cacheKeyIndexes = new int[0];
+        if (mcpMethod.cacheTtl() > 0) {
+            cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(mcpMethod.cacheTtl());
+            cacheStaleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, mcpMethod.cacheStaleTtl()));
+            cacheKeyIndexes = resolveCacheKeyIndexes(method, paramNames, mcpMethod.cacheKey());
+        }
+
+        return new McpMethodPlan(methodName, paramNames, resolveResponseType(serviceInterface, method), returnKind,
+                Duration.ofMillis(mcpMethod.timeout()), cacheTtlNanos, cacheStaleNanos, cacheKeyIndexes);
+    }
+
+    /**
+     * 获取参数对应的请求参数名，生成的代理类构建请求参数时调用
+     * @param index 参数下标
+     * @return 请求参数名
+     */
+    public String paramName(int index) {
+        return paramNames[index];
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    Type getResponseType() {
+        return responseType;
+    }
+
+    ReturnKind getReturnKind() {
+        return returnKind;
+    }
+
+    Duration getTimeout() {
+        return timeout;
+    }
+
+    boolean isCached() {
+        return cacheTtlNanos > 0;
+    }
+
+    long getCacheTtlNanos() {
+        return cacheTtlNanos;
+    }
+
+    long getCacheStaleNanos() {
+        return cacheStaleNanos;
+    }
+
+    /**
+     * 按参数下标构建请求参数
+     * @param args 调用参数
+     * @return 请求参数
+     */
+    Map<String, Object> buildParams(Object[] args) {
+        if (args == null || args.length == 0) {
+            return new HashMap<>();
+        }
+        Map<String, Object> params = new HashMap<>((int) (args.length / 0.75f) + 1);
+        for (int i = 0; i < args.length; i++) {
+            params.put(paramNames[i], args[i]);
+        }
+        return params;
+    }
+
+    /**
+     * 取出组成缓存键的参数值
+     * @param args 调用参数
+     * @return 缓存键的值
+     */
+    Object[] cacheKeyValues(Object[] args) {
+        Object[] values = new Object[cacheKeyIndexes.length];
+        for (int i = 0; i < cacheKeyIndexes.length; i++) {
+            values[i] = args[cacheKeyIndexes[i]];
+        }
+        return values;
+    }
+
+    // 请求参数名：优先使用paramMappings中对应位置的名称，其次是编译时保留的参数名（-parameters），都没有时为paramN
+    private static String[] resolveParamNames(Method method, McpMethod mcpMethod) {
+        Parameter[] parameters = method.getParameters();
+        String[] mappings = mcpMethod.paramMappings();
+        String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            if (i < mappings.length && !mappings[i].isEmpty()) {
+                names[i] = mappings[i];
+            } else if (parameters[i].isNamePresent()) {
+                names[i] = parameters[i].getName();
+            } else {
+                names[i] = "param" + (i + 1);
+            }
+        }
+        return names;
+    }
+
+    // 缓存键参数名转换为参数下标，未指定时使用全部参数
+    private static int[] resolveCacheKeyIndexes(Method method, String[] paramNames, String[] cacheKey) {
+        if (cacheKey.length == 0) {
+            int[] indexes = new int[paramNames.length];
+            Arrays.setAll(indexes, i -> i);
+            return indexes;
+        }
+        int[] indexes = new int[cacheKey.length];
+        for (int i = 0; i < cacheKey.length; i++) {
+            indexes[i] = Arrays.asList(paramNames).indexOf(cacheKey[i]);
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Cache key parameter '" + cacheKey[i]
+                        + "' not found in method " + method.getName());
+            }
+        }
+        return indexes;
+    }
+
+    // 类型变量按服务接口解析，无法解析时按Object解码
+    private static Type resolveResponseType(Class<?> serviceInterface, Method method) {
+        ResolvableType type = ResolvableType.forMethodReturnType(method, serviceInterface);
+        Class<?> rawType = type.resolve(Object.class);
+        if (Mono.class.isAssignableFrom(rawType)) {
+            type = type.as(Mono.class).getGeneric(0);
+        } else if (CompletableFuture.class.isAssignableFrom(rawType)) {
+            type = type.as(CompletableFuture.class).getGeneric(0);
+        } else if (rawType == void.class || rawType == Void.class) {
+            return Object.class;
+        }
+        Type resolved = type.getType();
+        if (resolved instanceof TypeVariable || resolved instanceof WildcardType) {
+            return type.resolve(Object.class);
+        }
+        return resolved;
+    }
+}
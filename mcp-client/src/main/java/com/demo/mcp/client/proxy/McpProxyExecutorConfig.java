@@ -0,0 +1,45 @@
+package com.demo.mcp.client.proxy;
+
+import lombok.Data;
+
+/**
+ * 服务代理回调执行器配置
+ * 返回CompletableFuture的服务方法在该执行器上完成，调用方追加的回调不会在网络I/O线程上执行
+ */
+@Data
+public class McpProxyExecutorConfig {
+
+    /**
+     * 执行器类型
+     */
+    public enum Type {
+        DIRECT,   // 不切换线程，在完成响应的I/O线程上执行回调
+        BOUNDED,  // 固定大小的线程池和有界队列
+        VIRTUAL   // 每个任务一个虚拟线程，需要Java 21及以上，否则使用有界线程池
+    }
+
+    // 执行器类型
+    private Type type = Type.BOUNDED;
+
+    // 有界线程池的线程数
+    private int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    // 有界线程池的队列容量，队列满时拒绝，对应调用的CompletableFuture以RejectedExecutionException失败
+    private int queueCapacity = 1000;
+
+    // 方便链式调用的setter方法
+    public McpProxyExecutorConfig setType(Type type) {
+        this.type = type;
+        return this;
+    }
+
+    public McpProxyExecutorConfig setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public McpProxyExecutorConfig setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo.mcp.client.proxy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务代理回调执行器的创建
+ */
+@Slf4j
+public final class McpProxyExecutors {
+
+    private McpProxyExecutors() {
+    }
+
+    /**
+     * 按配置创建回调执行器
+     * @param config 执行器配置
+     * @return 执行器，DIRECT类型返回null
+     */
+    public static ExecutorService create(McpProxyExecutorConfig config) {
+        switch (config.getType()) {
+            case DIRECT:
+                return null;
+            case VIRTUAL:
+                ExecutorService virtual = newVirtualThreadExecutor();
+                if (virtual != null) {
+                    return virtual;
+                }
+                log.warn("Virtual threads are not available on Java {}, using bounded executor",
+                        Runtime.version().feature());
+                return newBoundedExecutor(config.getThreads(), config.getQueueCapacity());
+            case BOUNDED:
+            default:
+                return newBoundedExecutor(config.getThreads(), config.getQueueCapacity());
+        }
+    }
+
+    /**
+     * 创建固定线程数和有界队列的线程池，线程数不会无限增长
+     * 队列满时拒绝任务，不在提交任务的线程上执行：提交任务的通常是网络I/O线程，过载时在其上执行回调会阻塞I/O；
+     * 被拒绝时对应调用返回的CompletableFuture以RejectedExecutionException失败
+     * @param threads 线程数
+     * @param queueCapacity 队列容量
+     * @return 线程池
+     */
+    public static ExecutorService newBoundedExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "mcp-proxy-callback-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // 模块以Java 17编译，通过反射创建虚拟线程执行器，运行时低于Java 21时返回null
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.demo.mcp.client.proxy;
+
+import com.demo.core.cache.BoundedCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 幂等MCP服务方法的响应缓存
+ * 按服务ID、方法名、响应类型和键参数的值缓存响应，空响应同样被缓存；
+ * 不同接口把同一个MCP方法映射为不同的返回类型时各自缓存，不会取到其他类型的值。
+ * 同一个键的并发请求共享一次进行中的加载；条目过期后的一段时间内（stale期）仍直接返回旧值，
+ * 同时在后台刷新，刷新失败时保留旧值直到stale期结束。
+ * 缓存的值在调用方之间共享，调用方不应修改返回的对象
+ */
+@Slf4j
+public class McpResponseCache {
+
+    // 默认最大缓存条目数
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final BoundedCache<Key, Entry> entries;
+    private final LongSupplier nanoClock;
+
+    // 进行中的加载，同一个键的并发请求共享
+    private final Map<Key, Mono<Entry>> loading = new ConcurrentHashMap<>();
+
+    // 统计信息
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder staleHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+
+    public McpResponseCache(int maxEntries) {
+        this(maxEntries, System::nanoTime);
+    }
+
+    /**
+     * 构造函数
+     * @param maxEntries 最大缓存条目数，超出后淘汰最近最少使用的条目
+     * @param nanoClock 纳秒时钟，便于测试时替换
+     */
+    public McpResponseCache(int maxEntries, LongSupplier nanoClock) {
+        this.entries = BoundedCache.<Key, Entry>builder()
+                .maximumSize(maxEntries)
+                .build();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 获取缓存的响应，不存在或已超过stale期时通过加载函数请求服务
+     * @param serviceId 服务ID
+     * @param methodName 方法名
+     * @param responseType 响应类型
+     * @param keyValues 键参数的值，按值比较
+     * @param ttlNanos 缓存有效期（纳秒）
+     * @param staleNanos 过期后仍可返回旧值并后台刷新的时长（纳秒）
+     * @param loader 加载函数，发起实际的服务调用
+     * @return 响应结果
+     */
+    public Mono<Object> get(String serviceId, String methodName, Type responseType, Object[] keyValues,
+                            long ttlNanos, long staleNanos, Supplier<Mono<Object>> loader) {
+        return Mono.defer(() -> {
+            Key key = new Key(serviceId, methodName, responseType, keyValues);
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                long now = nanoClock.getAsLong();
+                if (now - entry.expiresAt < 0) {
+                    hitCount.increment();
+                    return Mono.justOrEmpty(entry.value);
+                }
+                if (now - entry.staleUntil < 0) {
+                    staleHitCount.increment();
+                    load(key, ttlNanos, staleNanos, loader).subscribe(
+                            refreshed -> log.debug("Refreshed cached response of {}#{}", serviceId, methodName),
+                            error -> log.debug("Failed to refresh cached response of {}#{}: {}",
+                                    serviceId, methodName, error.getMessage()));
+                    return Mono.justOrEmpty(entry.value);
+                }
+            }
+            missCount.increment();
+            return load(key, ttlNanos, staleNanos, loader).flatMap(loaded -> Mono.justOrEmpty(loaded.value));
+        });
+    }
+
+    /**
+     * 清除全部缓存
+     */
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getStaleHitCount() {
+        return staleHitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount.sum();
+    }
+
+    /**
+     * 将缓存统计注册到指标注册表
+     * @param registry 指标注册表
+     */
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mcp.client.cache.requests", hitCount, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("mcp.client.cache.requests", staleHitCount, LongAdder::sum)
+                .tag("result", "stale")
+                .register(registry);
+        FunctionCounter.builder("mcp.client.cache.requests", missCount, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("mcp.client.cache.load.failures", loadFailureCount, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("mcp.client.cache.size", entries, BoundedCache::size)
+                .register(registry);
+    }
+
+    // 加载并写入缓存，同一个键同时只有一次加载
+    private Mono<Entry> load(Key key, long ttlNanos, long staleNanos, Supplier<Mono<Object>> loader) {
+        return loading.computeIfAbsent(key, k -> Mono.defer(loader)
+                .map(value -> newEntry(value, ttlNanos, staleNanos))
+                .switchIfEmpty(Mono.fromSupplier(() -> newEntry(null, ttlNanos, staleNanos)))
+                .doOnNext(entry -> entries.put(k, entry))
+                .doOnError(error -> loadFailureCount.increment())
+                .doFinally(signal -> loading.remove(k))
+                // 所有调用方取消后加载仍继续完成并写入缓存
+                .cache());
+    }
+
+    private Entry newEntry(Object value, long ttlNanos, long staleNanos) {
+        long expiresAt = nanoClock.getAsLong() + ttlNanos;
+        return new Entry(value, expiresAt, expiresAt + staleNanos);
+    }
+
+    /**
+     * 缓存条目，value为null表示服务返回了空响应
+     */
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+        private final long staleUntil;
+
+        private Entry(Object value, long expiresAt, long staleUntil) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.staleUntil = staleUntil;
+        }
+    }
+
+    /**
+     * 缓存键
+     */
+    private static final class Key {
+        private final String serviceId;
+        private final String methodName;
+        private final Type responseType;
+        private final Object[] keyValues;
+        private final int hash;
+
+        private Key(String serviceId, String methodName, Type responseType, Object[] keyValues) {
+            this.serviceId = serviceId;
+            this.methodName = methodName;
+            this.responseType = responseType;
+            this.keyValues = keyValues;
+            this.hash = Objects.hash(serviceId, methodName, responseType, Arrays.deepHashCode(keyValues));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return hash == that.hash && serviceId.equals(that.serviceId) && methodName.equals(that.methodName)
+                    && Objects.equals(responseType, that.responseType) && Arrays.deepEquals(keyValues, that.keyValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.demo.mcp.client.proxy;
+
+import com.demo.mcp.client.McpClient;
+import com.demo.mcp.client.McpClientException;
+import com.demo.mcp.client.annotation.McpMethod;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 一个MCP服务接口的调用器，持有接口中各个@McpMethod方法的调用计划，
+ * 由JDK动态代理和编译时生成的代理类共用
+ */
+@Slf4j
+public final class McpServiceInvoker {
+
+    private final McpClient mcpClient;
+    private final Class<?> serviceInterface;
+    private final String serviceId;
+    private final McpResponseCache responseCache;
+
+    // 返回CompletableFuture的方法在该调度器上完成，为null时在I/O线程上完成
+    private final Scheduler callbackScheduler;
+
+    // 各个@McpMethod方法的调用计划，创建时解析，之后只读
+    private final Map<Method, McpMethodPlan> plans;
+
+    McpServiceInvoker(McpClient mcpClient, Class<?> serviceInterface, String serviceId,
+                      McpResponseCache responseCache, Scheduler callbackScheduler) {
+        this.mcpClient = mcpClient;
+        this.serviceInterface = serviceInterface;
+        this.serviceId = serviceId;
+        this.responseCache = responseCache;
+        this.callbackScheduler = callbackScheduler;
+        Map<Method, McpMethodPlan> resolved = new HashMap<>();
+        for (Method method : serviceInterface.getMethods()) {
+            McpMethod mcpMethod = method.getAnnotation(McpMethod.class);
+            if (mcpMethod != null) {
+                resolved.put(method, McpMethodPlan.of(serviceInterface, method, mcpMethod));
+            }
+        }
+        this.plans = Map.copyOf(resolved);
+    }
+
+    /**
+     * 按方法签名查找调用计划，生成的代理类在创建时调用
+     * @param methodName 接口方法名
+     * @param parameterTypes 参数类型
+     * @return 调用计划
+     */
+    public McpMethodPlan plan(String methodName, Class<?>... parameterTypes) {
+        try {
+            McpMethodPlan plan = plans.get(serviceInterface.getMethod(methodName, parameterTypes));
+            if (plan == null) {
+                throw new IllegalStateException("Method " + methodName + " is not annotated with @McpMethod");
+            }
+            return plan;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Method " + methodName + " not found in " + serviceInterface.getName(), e);
+        }
+    }
+
+    /**
+     * 获取方法的调用计划
+     * @param method 接口方法
+     * @return 调用计划，方法没有@McpMethod注解时返回null
+     */
+    McpMethodPlan plan(Method method) {
+        return plans.get(method);
+    }
+
+    /**
+     * 调用服务方法，按调用计划的返回方式返回结果
+     * @param plan 调用计划
+     * @param params 请求参数
+     * @param args 调用参数，只有声明了cacheTtl的方法需要，用于组成缓存键
+     * @return 方法的返回值
+     */
+    public Object invoke(McpMethodPlan plan, Map<String, Object> params, Object[] args) {
+        if (plan.getReturnKind() == McpMethodPlan.ReturnKind.SYNC) {
+            // 同步调用
+            return invokeSync(plan, params, args);
+        } else {
+            // 异步调用
+            return invokeAsync(plan, params, args);
+        }
+    }
+
+    private Object invokeSync(McpMethodPlan plan, Map<String, Object> params, Object[] args) {
+        String methodName = plan.getMethodName();
+        try {
+            long startTime = System.currentTimeMillis();
+            Object result = call(plan, params, args).block(plan.getTimeout());
+            long endTime = System.currentTimeMillis();
+            log.debug("Sync call to {}#{} completed in {}ms", serviceId, methodName, (endTime - startTime));
+            return result;
+        } catch (Exception e) {
+            log.error("Sync call to {}#{} failed: {}", serviceId, methodName, e.getMessage());
+            throw new McpClientException("Failed to invoke service method synchronously", e);
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Object invokeAsync(McpMethodPlan plan, Map<String, Object> params, Object[] args) {
+        String methodName = plan.getMethodName();
+        Mono monoResult = call(plan, params, args)
+                .timeout(plan.getTimeout())
+                .doOnSuccess(result -> log.debug("Async call to {}#{} completed successfully", serviceId, methodName))
+                .doOnError(error -> log.error("Async call to {}#{} failed: {}", serviceId, methodName, error.getMessage()));
+
+        if (plan.getReturnKind() == McpMethodPlan.ReturnKind.MONO) {
+            // 返回Mono对象
+            return monoResult;
+        }
+        // 返回CompletableFuture对象，直接由Mono组合而成，等待响应期间不占用线程；
+        // 在回调执行器上完成，调用方追加的回调即使阻塞也不会占用I/O线程
+        Mono completion = callbackScheduler != null ? monoResult.publishOn(callbackScheduler) : monoResult;
+        return completion.toFuture();
+    }
+
+    // 调用服务方法，声明了cacheTtl的方法先查询响应缓存
+    private Mono<Object> call(McpMethodPlan plan, Map<String, Object> params, Object[] args) {
+        String methodName = plan.getMethodName();
+        Type responseType = plan.getResponseType();
+        if (!plan.isCached()) {
+            return mcpClient.invokeService(serviceId, methodName, params, responseType);
+        }
+        return responseCache.get(serviceId, methodName, responseType, plan.cacheKeyValues(args),
+                plan.getCacheTtlNanos(), plan.getCacheStaleNanos(),
+                () -> mcpClient.invokeService(serviceId, methodName, params, responseType));
+    }
+}
@@ -1,10 +1,18 @@
 package com.demo.mcp.client.proxy;
 
+import com.demo.mcp.client.McpClient;
+import com.demo.mcp.client.McpClientFactory;
+import com.demo.mcp.client.McpClientProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * MCP服务代理配置类，用于配置服务代理相关的Bean
  */
@@ -16,13 +24,29 @@ public class McpServiceProxyConfig {
 
     @Bean
     @ConditionalOnMissingBean
-    public McpServiceProxyFactory mcpServiceProxyFactory(McpClientFactory clientFactory) {
+    public McpServiceProxyFactory mcpServiceProxyFactory(McpClientFactory clientFactory,
+                                                         ObjectProvider<McpClientProperties> propertiesProvider,
+                                                         ObjectProvider<MeterRegistry> meterRegistryProvider) {
         // 默认使用工厂中的默认客户端
         McpClient client = clientFactory.getClient("default");
         if (client == null) {
             client = clientFactory.createDefaultClient();
         }
-        return new McpServiceProxyFactory(client);
+        // 声明了cacheTtl的方法共享的响应缓存，应用中存在指标注册表时导出命中率
+        McpClientProperties properties = propertiesProvider.getIfAvailable(McpClientProperties::new);
+        McpResponseCache responseCache = new McpResponseCache(properties.getCache().getMaxEntries());
+        meterRegistryProvider.ifAvailable(responseCache::bindTo);
+        // 返回CompletableFuture的方法的回调执行器，应用中存在指标注册表时导出队列长度和任务耗时
+        McpClientProperties.ProxyExecutor executorProperties = properties.getProxyExecutor();
+        ExecutorService callbackExecutor = McpProxyExecutors.create(new McpProxyExecutorConfig()
+                .setType(executorProperties.getType())
+                .setThreads(executorProperties.getThreads())
+                .setQueueCapacity(executorProperties.getQueueCapacity()));
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (callbackExecutor != null && meterRegistry != null) {
+            callbackExecutor = ExecutorServiceMetrics.monitor(meterRegistry, callbackExecutor, "mcp.proxy.callback");
+        }
+        return new McpServiceProxyFactory(client, responseCache, callbackExecutor);
     }
 
     @Bean
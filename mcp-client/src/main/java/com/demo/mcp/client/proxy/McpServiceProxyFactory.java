@@ -2,32 +2,65 @@ package com.demo.mcp.client.proxy;
 
 import com.demo.mcp.client.McpClient;
 import com.demo.mcp.client.McpClientException;
-import com.demo.mcp.client.annotation.McpMethod;
 import com.demo.mcp.client.annotation.McpService;
 import lombok.extern.slf4j.Slf4j;
-import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
- * MCP服务代理工厂，用于创建基于JDK动态代理的MCP服务代理
+ * MCP服务代理工厂，用于创建MCP服务代理
+ * 服务接口编译时由McpServiceProxyProcessor生成了代理类时使用生成的代理类，否则使用JDK动态代理
  */
 @Slf4j
 public class McpServiceProxyFactory {
 
+    // 生成的代理类名后缀，代理类与服务接口在同一个包中
+    public static final String GENERATED_PROXY_SUFFIX = "McpProxy";
+
     private final McpClient mcpClient;
-    private final ExecutorService executorService;
+
+    // 返回CompletableFuture的方法在该执行器上完成，为null时在I/O线程上完成
+    private final ExecutorService callbackExecutor;
+    private final Scheduler callbackScheduler;
+
+    // 声明了cacheTtl的方法的响应缓存
+    private final McpResponseCache responseCache;
+
+    // 是否优先使用编译时生成的代理类
+    private boolean generatedProxiesEnabled = true;
 
     public McpServiceProxyFactory(McpClient mcpClient) {
+        this(mcpClient, new McpResponseCache(McpResponseCache.DEFAULT_MAX_ENTRIES));
+    }
+
+    /**
+     * 构造函数
+     * @param mcpClient MCP客户端
+     * @param responseCache 响应缓存，所有代理共享
+     */
+    public McpServiceProxyFactory(McpClient mcpClient, McpResponseCache responseCache) {
+        this(mcpClient, responseCache, McpProxyExecutors.create(new McpProxyExecutorConfig()));
+    }
+
+    /**
+     * 构造函数
+     * @param mcpClient MCP客户端
+     * @param responseCache 响应缓存，所有代理共享
+     * @param callbackExecutor 回调执行器，关闭工厂时一起关闭；为null时CompletableFuture在I/O线程上完成
+     */
+    public McpServiceProxyFactory(McpClient mcpClient, McpResponseCache responseCache,
+                                  ExecutorService callbackExecutor) {
         this.mcpClient = mcpClient;
-        this.executorService = Executors.newCachedThreadPool();
+        this.responseCache = responseCache;
+        this.callbackExecutor = callbackExecutor;
+        this.callbackScheduler = callbackExecutor != null
+                ? Schedulers.fromExecutorService(callbackExecutor, "mcp-proxy-callback") : null;
     }
 
     /**
@@ -56,7 +89,16 @@ public class McpServiceProxyFactory {
             }
         }
 
-        InvocationHandler handler = new McpServiceInvocationHandler(mcpClient, serviceInterface, serviceId);
+        McpServiceInvoker invoker = new McpServiceInvoker(mcpClient, serviceInterface, serviceId,
+                responseCache, callbackScheduler);
+        if (generatedProxiesEnabled) {
+            T generated = createGeneratedProxy(serviceInterface, invoker);
+            if (generated != null) {
+                return generated;
+            }
+        }
+
+        InvocationHandler handler = new McpServiceInvocationHandler(invoker);
         return (T) Proxy.newProxyInstance(
                 serviceInterface.getClassLoader(),
                 new Class<?>[]{serviceInterface}, 
@@ -65,25 +107,86 @@ public class McpServiceProxyFactory {
     }
 
     /**
-     * 关闭执行器服务
+     * 设置是否优先使用编译时生成的代理类，关闭后总是使用JDK动态代理
+     * @param generatedProxiesEnabled 是否使用生成的代理类
+     */
+    public void setGeneratedProxiesEnabled(boolean generatedProxiesEnabled) {
+        this.generatedProxiesEnabled = generatedProxiesEnabled;
+    }
+
+    /**
+     * 获取服务接口对应的生成代理类的类名
+     * @param serviceInterface 服务接口
+     * @return 生成代理类的全限定类名
+     */
+    public static String generatedProxyClassName(Class<?> serviceInterface) {
+        String name = serviceInterface.getName();
+        int lastDot = name.lastIndexOf('.');
+        String packagePrefix = lastDot >= 0 ? name.substring(0, lastDot + 1) : "";
+        return packagePrefix + name.substring(lastDot + 1).replace('$', '_') + GENERATED_PROXY_SUFFIX;
+    }
+
+    /**
+     * 获取响应缓存，用于查询命中率或清除缓存
+     * @return 响应缓存
+     */
+    public McpResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * 获取回调执行器，用于查询队列长度等运行状态
+     * @return 回调执行器，不切换线程时返回null
+     */
+    public ExecutorService getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * 关闭回调执行器
      */
     public void shutdown() {
-        executorService.shutdown();
+        if (callbackExecutor != null) {
+            callbackExecutor.shutdown();
+        }
+    }
+
+    // 创建编译时生成的代理类实例，没有生成代理类时返回null
+    @SuppressWarnings("unchecked")
+    private <T> T createGeneratedProxy(Class<T> serviceInterface, McpServiceInvoker invoker) {
+        Class<?> proxyClass;
+        try {
+            proxyClass = Class.forName(generatedProxyClassName(serviceInterface), true,
+                    serviceInterface.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        if (!serviceInterface.isAssignableFrom(proxyClass)) {
+            log.warn("Generated proxy {} does not implement {}, using JDK proxy",
+                    proxyClass.getName(), serviceInterface.getName());
+            return null;
+        }
+        try {
+            T proxy = (T) proxyClass.getConstructor(McpServiceInvoker.class).newInstance(invoker);
+            log.debug("Using generated proxy {} for {}", proxyClass.getName(), serviceInterface.getName());
+            return proxy;
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Failed to create generated proxy for " + serviceInterface.getName(),
+                    e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create generated proxy for " + serviceInterface.getName(), e);
+        }
     }
 
     /**
      * MCP服务调用处理器，实现InvocationHandler接口
      */
-    private class McpServiceInvocationHandler implements InvocationHandler {
+    private static class McpServiceInvocationHandler implements InvocationHandler {
 
-        private final McpClient mcpClient;
-        private final Class<?> serviceInterface;
-        private final String serviceId;
+        private final McpServiceInvoker invoker;
 
-        public McpServiceInvocationHandler(McpClient mcpClient, Class<?> serviceInterface, String serviceId) {
-            this.mcpClient = mcpClient;
-            this.serviceInterface = serviceInterface;
-            this.serviceId = serviceId;
+        public McpServiceInvocationHandler(McpServiceInvoker invoker) {
+            this.invoker = invoker;
         }
 
         @Override
@@ -93,104 +196,12 @@ public class McpServiceProxyFactory {
                 return method.invoke(this, args);
             }
 
-            McpMethod mcpMethod = method.getAnnotation(McpMethod.class);
-            if (mcpMethod == null) {
+            McpMethodPlan plan = invoker.plan(method);
+            if (plan == null) {
                 throw new McpClientException("Method must be annotated with @McpMethod");
             }
 
-            String methodName = mcpMethod.methodName();
-            if (methodName.isEmpty()) {
-                methodName = mcpMethod.value();
-                if (methodName.isEmpty()) {
-                    methodName = method.getName();
-                }
-            }
-
-            // 构建请求参数
-            Map<String, Object> params = buildParams(method, args);
-
-            // 判断返回类型
-            Class<?> returnType = method.getReturnType();
-            boolean isMono = Mono.class.isAssignableFrom(returnType);
-            boolean isCompletableFuture = CompletableFuture.class.isAssignableFrom(returnType);
-            boolean isAsync = mcpMethod.async() || isMono || isCompletableFuture;
-
-            if (isAsync) {
-                // 异步调用
-                return invokeAsync(method, methodName, params, returnType, mcpMethod);
-            } else {
-                // 同步调用
-                return invokeSync(methodName, params, returnType, mcpMethod);
-            }
-        }
-
-        private Map<String, Object> buildParams(Method method, Object[] args) {
-            Map<String, Object> params = new HashMap<>();
-            if (args != null && args.length > 0) {
-                String[] paramNames = getParamNames(method);
-                for (int i = 0; i < args.length; i++) {
-                    if (i < paramNames.length) {
-                        params.put(paramNames[i], args[i]);
-                    } else {
-                        params.put("param" + (i + 1), args[i]);
-                    }
-                }
-            }
-            return params;
-        }
-
-        private String[] getParamNames(Method method) {
-            // 注意：这里简化处理，实际应用中可能需要使用ParameterNameDiscoverer等工具获取参数名
-            // 或者通过@McpMethod注解的paramMappings属性来配置参数映射
-            return new String[0];
-        }
-
-        private Object invokeSync(String methodName, Map<String, Object> params, 
-                                  Class<?> returnType, McpMethod mcpMethod) {
-            try {
-                long startTime = System.currentTimeMillis();
-                Object result = mcpClient.invokeService(serviceId, methodName, params)
-                        .block(java.time.Duration.ofMillis(mcpMethod.timeout()));
-                long endTime = System.currentTimeMillis();
-                log.debug("Sync call to {}#{} completed in {}ms", serviceId, methodName, (endTime - startTime));
-                return result;
-            } catch (Exception e) {
-                log.error("Sync call to {}#{} failed: {}", serviceId, methodName, e.getMessage());
-                throw new McpClientException("Failed to invoke service method synchronously", e);
-            }
-        }
-
-        @SuppressWarnings({"rawtypes", "unchecked"})
-        private Object invokeAsync(Method method, String methodName, Map<String, Object> params, 
-                                  Class<?> returnType, McpMethod mcpMethod) {
-            Class<?> genericReturnType = getGenericReturnType(method);
-            Mono monoResult = mcpClient.invokeService(serviceId, methodName, params)
-                    .timeout(java.time.Duration.ofMillis(mcpMethod.timeout()))
-                    .doOnSuccess(result -> log.debug("Async call to {}#{} completed successfully", serviceId, methodName))
-                    .doOnError(error -> log.error("Async call to {}#{} failed: {}", serviceId, methodName, error.getMessage()));
-
-            if (returnType == Mono.class) {
-                // 返回Mono对象
-                return monoResult;
-            } else if (returnType == CompletableFuture.class) {
-                // 返回CompletableFuture对象
-                return monoResult.toFuture();
-            } else {
-                // 异步执行但返回具体类型（不推荐，因为会阻塞）
-                CompletableFuture future = CompletableFuture.supplyAsync(() -> {
-                    try {
-                        return monoResult.block(java.time.Duration.ofMillis(mcpMethod.timeout()));
-                    } catch (Exception e) {
-                        throw new McpClientException("Failed to invoke service method asynchronously", e);
-                    }
-                }, executorService);
-                return future;
-            }
-        }
-
-        private Class<?> getGenericReturnType(Method method) {
-            // 注意：这里简化处理，实际应用中可能需要更复杂的泛型类型解析
-            return Object.class;
+            return invoker.invoke(plan, plan.buildParams(args), args);
         }
     }
-}
\ No newline at end of file
+}
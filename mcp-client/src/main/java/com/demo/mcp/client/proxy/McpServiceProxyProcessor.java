@@ -0,0 +1,292 @@
+package com.demo.mcp.client.proxy;
+
+import com.demo.mcp.client.annotation.McpMethod;
+import com.demo.mcp.client.annotation.McpService;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 编译时为@McpService接口生成代理类的注解处理器
+ * 生成的代理类与接口在同一个包中，类名为接口名加McpProxy后缀，每个方法直接以类型化的参数构建请求参数并调用
+ * McpServiceInvoker，不经过InvocationHandler和参数数组。McpServiceProxyFactory找到生成的代理类时优先使用。
+ * 请求参数名在运行时从调用计划中取得，与JDK动态代理一致；生成代码中的类型使用全限定名并去掉类型注解。
+ * 生成失败时只输出警告，不影响使用方的编译，运行时使用JDK动态代理。
+ * 编译时传入-Amcp.proxy.generate=false可以关闭生成
+ */
+@SupportedAnnotationTypes("com.demo.mcp.client.annotation.McpService")
+@SupportedOptions(McpServiceProxyProcessor.GENERATE_OPTION)
+public class McpServiceProxyProcessor extends AbstractProcessor {
+
+    // 是否生成代理类的编译选项
+    static final String GENERATE_OPTION = "mcp.proxy.generate";
+
+    // 生成代码中引用的运行时类，使用类名避免在编译器中加载这些类
+    private static final String INVOKER = "com.demo.mcp.client.proxy.McpServiceInvoker";
+    private static final String PLAN = "com.demo.mcp.client.proxy.McpMethodPlan";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if ("false".equalsIgnoreCase(processingEnv.getOptions().get(GENERATE_OPTION))) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(McpService.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                continue;
+            }
+            TypeElement serviceInterface = (TypeElement) element;
+            if (serviceInterface.getModifiers().contains(Modifier.PRIVATE)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "Private @McpService interface is not supported, using JDK proxy", serviceInterface);
+                continue;
+            }
+            try {
+                generate(serviceInterface);
+            } catch (IOException | RuntimeException e) {
+                // 本处理器通过META-INF/services对所有使用方生效，生成失败不能中断使用方的编译
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "Failed to generate MCP service proxy, using JDK proxy: " + e, serviceInterface);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement serviceInterface) throws IOException {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+
+        String packageName = elements.getPackageOf(serviceInterface).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(serviceInterface).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                .replace('$', '_') + McpServiceProxyFactory.GENERATED_PROXY_SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        DeclaredType interfaceType = (DeclaredType) serviceInterface.asType();
+        List<ExecutableElement> methods = abstractMethods(serviceInterface);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n")
+                .append(" * ").append(serviceInterface.getSimpleName())
+                .append("的MCP服务代理，由McpServiceProxyProcessor生成，请勿修改\n")
+                .append(" */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(simpleName)
+                .append(typeParameters(serviceInterface.getTypeParameters()))
+                .append(" implements ").append(typeName(interfaceType)).append(" {\n\n")
+                .append("    private final ").append(INVOKER).append(" invoker;\n");
+        for (int i = 0; i < methods.size(); i++) {
+            if (methods.get(i).getAnnotation(McpMethod.class) != null) {
+                source.append("    private final ").append(PLAN).append(" plan").append(i).append(";\n");
+            }
+        }
+
+        source.append("\n    public ").append(simpleName).append("(").append(INVOKER).append(" invoker) {\n")
+                .append("        this.invoker = invoker;\n");
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            if (method.getAnnotation(McpMethod.class) == null) {
+                continue;
+            }
+            source.append("        this.plan").append(i).append(" = invoker.plan(\"")
+                    .append(method.getSimpleName()).append("\"");
+            for (VariableElement parameter : method.getParameters()) {
+                source.append(", ").append(typeName(types.erasure(parameter.asType()))).append(".class");
+            }
+            source.append(");\n");
+        }
+        source.append("    }\n");
+
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method = methods.get(i);
+            ExecutableType methodType = (ExecutableType) types.asMemberOf(interfaceType, method);
+            appendMethod(source, i, method, methodType);
+        }
+        source.append("}\n");
+
+        // 源码完整生成后再创建文件，生成过程中失败时不会留下不完整的代理类
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, serviceInterface);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private void appendMethod(StringBuilder source, int index, ExecutableElement method, ExecutableType methodType) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        List<? extends TypeMirror> parameterTypes = methodType.getParameterTypes();
+        TypeMirror returnType = methodType.getReturnType();
+
+        source.append("\n    @Override\n    public ");
+        String methodTypeParameters = typeParameters(method.getTypeParameters());
+        if (!methodTypeParameters.isEmpty()) {
+            source.append(methodTypeParameters).append(" ");
+        }
+        source.append(typeName(returnType)).append(" ").append(method.getSimpleName()).append("(");
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                source.append(", ");
+            }
+            TypeMirror parameterType = parameterTypes.get(i);
+            String type;
+            if (method.isVarArgs() && i == parameters.size() - 1 && parameterType.getKind() == TypeKind.ARRAY) {
+                type = typeName(((ArrayType) parameterType).getComponentType()) + "...";
+            } else {
+                type = typeName(parameterType);
+            }
+            source.append(type).append(" ").append(parameters.get(i).getSimpleName());
+        }
+        source.append(")");
+        if (!methodType.getThrownTypes().isEmpty()) {
+            source.append(" throws ").append(methodType.getThrownTypes().stream()
+                    .map(this::typeName)
+                    .collect(Collectors.joining(", ")));
+        }
+        source.append(" {\n");
+
+        McpMethod mcpMethod = method.getAnnotation(McpMethod.class);
+        if (mcpMethod == null) {
+            source.append("        throw new com.demo.mcp.client.McpClientException(")
+                    .append("\"Method must be annotated with @McpMethod\");\n    }\n");
+            return;
+        }
+
+        // 请求参数名取自调用计划，接口编译时没有保留参数名（-parameters）时与JDK动态代理同样使用paramN
+        source.append("        java.util.Map<java.lang.String, java.lang.Object> $params = new java.util.HashMap<>(")
+                .append((int) (parameters.size() / 0.75f) + 1).append(");\n");
+        for (int i = 0; i < parameters.size(); i++) {
+            source.append("        $params.put(this.plan").append(index).append(".paramName(").append(i).append("), ")
+                    .append(parameters.get(i).getSimpleName()).append(");\n");
+        }
+
+        // 只有缓存响应的方法需要参数数组组成缓存键
+        String args = "null";
+        if (mcpMethod.cacheTtl() > 0) {
+            args = parameters.stream()
+                    .map(parameter -> parameter.getSimpleName().toString())
+                    .collect(Collectors.joining(", ", "new java.lang.Object[]{", "}"));
+        }
+        String call = "this.invoker.invoke(this.plan" + index + ", $params, " + args + ")";
+        if (returnType.getKind() == TypeKind.VOID) {
+            source.append("        ").append(call).append(";\n");
+        } else {
+            source.append("        return (").append(typeName(returnType)).append(") ").append(call).append(";\n");
+        }
+        source.append("    }\n");
+    }
+
+    // 接口及其父接口中需要实现的抽象方法，签名相同的方法只保留一个
+    private List<ExecutableElement> abstractMethods(TypeElement serviceInterface) {
+        Types types = processingEnv.getTypeUtils();
+        Set<String> signatures = new HashSet<>();
+        return ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(serviceInterface)).stream()
+                .filter(method -> method.getModifiers().contains(Modifier.ABSTRACT))
+                .filter(method -> method.getEnclosingElement().getKind() == ElementKind.INTERFACE)
+                .filter(method -> signatures.add(method.getSimpleName() + method.getParameters().stream()
+                        .map(parameter -> typeName(types.erasure(parameter.asType())))
+                        .collect(Collectors.joining(",", "(", ")"))))
+                .collect(Collectors.toList());
+    }
+
+    private String typeParameters(List<? extends TypeParameterElement> typeParameters) {
+        if (typeParameters.isEmpty()) {
+            return "";
+        }
+        return typeParameters.stream()
+                .map(parameter -> {
+                    String bounds = parameter.getBounds().stream()
+                            .map(this::typeName)
+                            .filter(bound -> !bound.equals("java.lang.Object"))
+                            .collect(Collectors.joining(" & "));
+                    return bounds.isEmpty() ? parameter.getSimpleName().toString()
+                            : parameter.getSimpleName() + " extends " + bounds;
+                })
+                .collect(Collectors.joining(", ", "<", ">"));
+    }
+
+    /**
+     * 生成代码中使用的类型名：声明类型使用全限定名，不包含类型注解
+     * TypeMirror.toString()会带上类型注解，例如"@NonNull java.lang.String"，出现在类字面量中时无法编译
+     * @param type 类型
+     * @return 类型名
+     */
+    private String typeName(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+                return type.getKind().name().toLowerCase(Locale.ROOT);
+            case VOID:
+                return "void";
+            case ARRAY:
+                return typeName(((ArrayType) type).getComponentType()) + "[]";
+            case TYPEVAR:
+                return ((TypeVariable) type).asElement().getSimpleName().toString();
+            case WILDCARD:
+                WildcardType wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null) {
+                    return "? extends " + typeName(wildcard.getExtendsBound());
+                }
+                if (wildcard.getSuperBound() != null) {
+                    return "? super " + typeName(wildcard.getSuperBound());
+                }
+                return "?";
+            case DECLARED:
+                DeclaredType declared = (DeclaredType) type;
+                String name = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Local or anonymous type " + type + " is not supported");
+                }
+                if (declared.getTypeArguments().isEmpty()) {
+                    return name;
+                }
+                return name + declared.getTypeArguments().stream()
+                        .map(this::typeName)
+                        .collect(Collectors.joining(", ", "<", ">"));
+            default:
+                // 包括无法解析的类型（ERROR），交给调用方输出警告并跳过生成
+                throw new IllegalArgumentException("Unsupported type " + type + " (" + type.getKind() + ")");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.demo.mcp.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求批量合并的基准测试
+ * 本地启动一个桩服务器，对比逐个发送和批量合并发送同一组并发调用的耗时和HTTP往返次数，
+ * roundTrips为每轮测量中桩服务器收到的HTTP请求总数。
+ * 运行方式：在IDE中执行main方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class McpBatchDispatcherBenchmark {
+
+    private static final String SERVICE_ID = "recommendation";
+
+    // 每次操作并发发出的调用数
+    @Param({"8", "32"})
+    private int concurrentCalls;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private DisposableServer server;
+    private DefaultMcpClient unbatchedClient;
+    private DefaultMcpClient batchedClient;
+
+    @Setup
+    public void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/services/{serviceId}/batch", (request, response) -> {
+                            requestCount.incrementAndGet();
+                            return response.header("Content-Type", "application/json")
+                                    .sendString(request.receive().aggregate().asString().map(this::answerBatch));
+                        })
+                        .post("/services/{serviceId}/methods/{methodName}", (request, response) -> {
+                            requestCount.incrementAndGet();
+                            return response.header("Content-Type", "application/json")
+                                    .sendString(request.receive().aggregate().asString().map(body -> "{\"score\":1}"));
+                        }))
+                .bindNow();
+        String baseUrl = "http://127.0.0.1:" + server.port();
+        unbatchedClient = new DefaultMcpClient(new DefaultMcpClientConfig().setBaseUrl(baseUrl));
+        unbatchedClient.initialize();
+        batchedClient = new DefaultMcpClient(new DefaultMcpClientConfig().setBaseUrl(baseUrl)
+                .setBatch(new McpBatchConfig().setEnabled(true).setWindow(Duration.ofMillis(1)).setMaxBatchSize(64)));
+        batchedClient.initialize();
+    }
+
+    @TearDown
+    public void tearDown() {
+        unbatchedClient.shutdown();
+        batchedClient.shutdown();
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public void unbatched(RoundTrips roundTrips) {
+        invokeAll(unbatchedClient, roundTrips);
+    }
+
+    @Benchmark
+    public void batched(RoundTrips roundTrips) {
+        invokeAll(batchedClient, roundTrips);
+    }
+
+    private void invokeAll(DefaultMcpClient client, RoundTrips roundTrips) {
+        long before = requestCount.get();
+        Flux.range(0, concurrentCalls)
+                .flatMap(i -> client.<Score>invokeService(SERVICE_ID, "score", Map.of("itemId", i), Score.class),
+                        concurrentCalls)
+                .then()
+                .block(Duration.ofSeconds(10));
+        roundTrips.roundTrips += requestCount.get() - before;
+    }
+
+    // 桩服务器的批量接口：为每个调用返回一个结果
+    private String answerBatch(String body) {
+        try {
+            ArrayNode results = objectMapper.createArrayNode();
+            for (JsonNode call : objectMapper.readTree(body)) {
+                ObjectNode result = results.addObject();
+                result.put("requestId", call.get("requestId").asText());
+                result.putObject("result").put("score", 1);
+            }
+            return objectMapper.writeValueAsString(results);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 每轮测量的HTTP往返次数
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long roundTrips;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            roundTrips = 0;
+        }
+    }
+
+    /**
+     * 桩服务返回的结果
+     */
+    public static class Score {
+        public int score;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(McpBatchDispatcherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
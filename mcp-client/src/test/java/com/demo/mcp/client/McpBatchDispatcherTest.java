@@ -0,0 +1,259 @@
+package com.demo.mcp.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpBatchDispatcherTest {
+
+    private static final String TRACEPARENT = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private VirtualTimeScheduler scheduler;
+    private AtomicInteger requestCount;
+    private McpBatchDispatcher dispatcher;
+
+    // 桩服务器及其收到的批量请求体
+    private DisposableServer server;
+    private final List<JsonNode> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+        requestCount = new AtomicInteger();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requestCount.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("[]")
+                            .build());
+                })
+                .build();
+        dispatcher = new McpBatchDispatcher(webClient, new McpResponseDecoder(),
+                new McpBatchConfig().setWindow(Duration.ofMillis(10)).setMaxBatchSize(8), scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void testSubmit_cancelledCallIsNotSent() {
+        AtomicReference<Throwable> cancelledError = new AtomicReference<>();
+        Disposable cancelled = dispatcher.submit("svc", "a", Map.of(), String.class, null)
+                .subscribe(value -> { }, cancelledError::set);
+        AtomicReference<Throwable> sentError = new AtomicReference<>();
+        dispatcher.submit("svc", "b", Map.of(), String.class, null).subscribe(value -> { }, sentError::set);
+
+        cancelled.dispose();
+        scheduler.advanceTimeBy(Duration.ofMillis(10));
+
+        assertEquals(1, dispatcher.getBatchCount());
+        assertEquals(1, dispatcher.getCallCount());
+        assertNull(cancelledError.get());
+        // 桩服务器不返回结果，发送的调用失败
+        assertInstanceOf(McpClientException.class, sentError.get());
+    }
+
+    @Test
+    void testSubmit_timedOutCallIsNotSent() {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        dispatcher.submit("svc", "a", Map.of(), String.class, null)
+                .timeout(Duration.ofMillis(5), scheduler)
+                .subscribe(value -> { }, error::set);
+
+        scheduler.advanceTimeBy(Duration.ofMillis(20));
+        dispatcher.flushAll();
+
+        assertNotNull(error.get());
+        assertEquals(0, dispatcher.getBatchCount());
+        assertEquals(0, requestCount.get());
+    }
+
+    @Test
+    void testSubmit_routesResultsByRequestId() throws Exception {
+        McpBatchDispatcher http = startServer(calls -> {
+            ArrayNode results = objectMapper.createArrayNode();
+            // 倒序返回，只能按requestId分发
+            for (int i = calls.size() - 1; i >= 0; i--) {
+                JsonNode call = calls.get(i);
+                result(results, call).putObject("result")
+                        .put("method", call.get("methodName").asText())
+                        .put("n", call.get("params").get("n").asInt());
+            }
+            return results.toString();
+        });
+
+        CompletableFuture<Map<String, Object>> a = http.<Map<String, Object>>submit("svc", "a", Map.of("n", 1),
+                Map.class, TRACEPARENT).toFuture();
+        CompletableFuture<Map<String, Object>> b = http.<Map<String, Object>>submit("svc", "b", Map.of("n", 2),
+                Map.class, null).toFuture();
+        CompletableFuture<Map<String, Object>> c = http.<Map<String, Object>>submit("svc", "c", Map.of("n", 3),
+                Map.class, null).toFuture();
+        http.flushAll();
+
+        assertEquals(Map.of("method", "a", "n", 1), a.get(5, TimeUnit.SECONDS));
+        assertEquals(Map.of("method", "b", "n", 2), b.get(5, TimeUnit.SECONDS));
+        assertEquals(Map.of("method", "c", "n", 3), c.get(5, TimeUnit.SECONDS));
+        assertEquals(1, received.size());
+        assertEquals(1, http.getBatchCount());
+        assertEquals(3, http.getCallCount());
+
+        JsonNode first = received.get(0).get(0);
+        assertEquals("svc", first.get("serviceId").asText());
+        assertEquals("a", first.get("methodName").asText());
+        assertEquals(TRACEPARENT, first.get("traceparent").asText());
+        assertFalse(received.get(0).get(1).has("traceparent"));
+    }
+
+    @Test
+    void testSubmit_itemErrorFailsOnlyThatCall() throws Exception {
+        McpBatchDispatcher http = startServer(calls -> {
+            ArrayNode results = objectMapper.createArrayNode();
+            for (JsonNode call : calls) {
+                ObjectNode result = result(results, call);
+                if (call.get("methodName").asText().equals("bad")) {
+                    ObjectNode error = result.putObject("error")
+                            .put("code", "INVALID_PARAM")
+                            .put("message", "bad param");
+                    error.putObject("details").put("field", "n");
+                } else {
+                    result.putObject("result").put("ok", true);
+                }
+            }
+            return results.toString();
+        });
+
+        CompletableFuture<Object> bad = http.submit("svc", "bad", Map.of("n", 1), Map.class, null).toFuture();
+        CompletableFuture<Map<String, Object>> good = http.<Map<String, Object>>submit("svc", "good", Map.of(),
+                Map.class, null).toFuture();
+        http.flushAll();
+
+        assertEquals(Map.of("ok", true), good.get(5, TimeUnit.SECONDS));
+        McpClientException error = failure(bad);
+        assertEquals("bad param", error.getMessage());
+        assertEquals("INVALID_PARAM", error.getErrorCode());
+        assertEquals("n", ((JsonNode) error.getErrorDetails()).get("field").asText());
+    }
+
+    @Test
+    void testSubmit_missingResultFailsThatCall() throws Exception {
+        McpBatchDispatcher http = startServer(calls -> {
+            ArrayNode results = objectMapper.createArrayNode();
+            for (JsonNode call : calls) {
+                if (!call.get("methodName").asText().equals("lost")) {
+                    result(results, call).put("result", "done");
+                }
+            }
+            return results.toString();
+        });
+
+        CompletableFuture<Object> lost = http.submit("svc", "lost", Map.of(), String.class, null).toFuture();
+        CompletableFuture<String> found = http.<String>submit("svc", "found", Map.of(), String.class, null).toFuture();
+        http.flushAll();
+
+        assertEquals("done", found.get(5, TimeUnit.SECONDS));
+        McpClientException error = failure(lost);
+        assertTrue(error.getMessage().startsWith("No result for request "));
+        assertNull(error.getErrorCode());
+    }
+
+    @Test
+    void testSubmit_batchFailureFailsEveryCall() {
+        // 桩服务器返回500
+        McpBatchDispatcher http = startServer(calls -> null);
+
+        CompletableFuture<Object> a = http.submit("svc", "a", Map.of(), String.class, null).toFuture();
+        CompletableFuture<Object> b = http.submit("svc", "b", Map.of(), String.class, null).toFuture();
+        http.flushAll();
+
+        Throwable errorA = assertThrows(ExecutionException.class, () -> a.get(5, TimeUnit.SECONDS)).getCause();
+        Throwable errorB = assertThrows(ExecutionException.class, () -> b.get(5, TimeUnit.SECONDS)).getCause();
+        assertInstanceOf(WebClientResponseException.class, errorA);
+        assertEquals(500, ((WebClientResponseException) errorA).getStatusCode().value());
+        assertSame(errorA, errorB);
+        assertEquals(1, received.size());
+    }
+
+    /**
+     * 启动桩服务器，与McpBatchDispatcherBenchmark相同，批量接口的响应由answer根据请求体生成
+     * @param answer 根据调用数组生成响应体，返回null时响应500
+     * @return 向桩服务器发送请求的分发器
+     */
+    private McpBatchDispatcher startServer(Function<JsonNode, String> answer) {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/services/{serviceId}/batch", (request, response) -> request.receive()
+                                .aggregate()
+                                .asString()
+                                .flatMap(body -> {
+                                    JsonNode calls = readTree(body);
+                                    received.add(calls);
+                                    String reply = answer.apply(calls);
+                                    if (reply == null) {
+                                        return response.status(500).sendString(Mono.just("{}")).then();
+                                    }
+                                    return response.header("Content-Type", "application/json")
+                                            .sendString(Mono.just(reply))
+                                            .then();
+                                })))
+                .bindNow();
+        return new McpBatchDispatcher(WebClient.create("http://127.0.0.1:" + server.port()), new McpResponseDecoder(),
+                new McpBatchConfig().setWindow(Duration.ofMillis(10)).setMaxBatchSize(8), scheduler);
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 添加一个带有调用requestId的结果
+    private static ObjectNode result(ArrayNode results, JsonNode call) {
+        return results.addObject().put("requestId", call.get("requestId").asText());
+    }
+
+    private static McpClientException failure(CompletableFuture<?> future) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return assertInstanceOf(McpClientException.class, error.getCause());
+    }
+}
@@ -0,0 +1,153 @@
+package com.demo.mcp.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpCircuitBreakerTest {
+
+    private static final long OPEN_NANOS = Duration.ofSeconds(30).toNanos();
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void testOnResult_opensWhenFailureRateReachesThreshold() {
+        McpCircuitBreaker breaker = newBreaker(2);
+
+        breaker.tryAcquirePermission().onSuccess();
+        breaker.tryAcquirePermission().onSuccess();
+        breaker.tryAcquirePermission().onFailure();
+        // 调用数未达到最小值
+        assertEquals(McpCircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.tryAcquirePermission().onFailure();
+        assertEquals(McpCircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquirePermission());
+        assertFalse(breaker.isCallPermitted());
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    @Test
+    void testTryAcquirePermission_halfOpenLimitsProbesAndCloses() {
+        McpCircuitBreaker breaker = newBreaker(2);
+        trip(breaker);
+
+        clock.addAndGet(OPEN_NANOS - 1);
+        assertNull(breaker.tryAcquirePermission());
+
+        clock.addAndGet(1);
+        assertTrue(breaker.isCallPermitted());
+        McpCircuitBreaker.Permit first = breaker.tryAcquirePermission();
+        assertEquals(McpCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        McpCircuitBreaker.Permit second = breaker.tryAcquirePermission();
+        assertNotNull(first);
+        assertNotNull(second);
+        // 探测名额已用完
+        assertNull(breaker.tryAcquirePermission());
+
+        first.onSuccess();
+        assertEquals(McpCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        second.onSuccess();
+        assertEquals(McpCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0d, breaker.getFailureRate());
+    }
+
+    @Test
+    void testOnResult_halfOpenProbeFailureReopens() {
+        McpCircuitBreaker breaker = newBreaker(2);
+        trip(breaker);
+        clock.addAndGet(OPEN_NANOS);
+
+        breaker.tryAcquirePermission().onFailure();
+
+        assertEquals(McpCircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testPermit_releaseReturnsProbeSlot() {
+        McpCircuitBreaker breaker = newBreaker(1);
+        trip(breaker);
+        clock.addAndGet(OPEN_NANOS);
+
+        McpCircuitBreaker.Permit probe = breaker.tryAcquirePermission();
+        assertNull(breaker.tryAcquirePermission());
+        probe.release();
+        // 多次报告只有第一次生效
+        probe.onFailure();
+
+        assertEquals(McpCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNotNull(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void testPermit_resultFromEarlierGenerationIsIgnored() {
+        McpCircuitBreaker breaker = newBreaker(1);
+        McpCircuitBreaker.Permit stale = breaker.tryAcquirePermission();
+        trip(breaker);
+        clock.addAndGet(OPEN_NANOS);
+        McpCircuitBreaker.Permit probe = breaker.tryAcquirePermission();
+
+        // 熔断前开始的调用失败不会让半开状态重新熔断
+        stale.onFailure();
+        assertEquals(McpCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        probe.onSuccess();
+        assertEquals(McpCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0d, breaker.getFailureRate());
+    }
+
+    @Test
+    void testTryAcquireRetry_budgetRefillsFromRequestsAndTime() {
+        // 令牌上限为 1 + 0.5 * 4 = 3，初始为每秒最小重试次数
+        McpCircuitBreaker breaker = new McpCircuitBreaker("svc", config(2)
+                .setRetryBudgetRatio(0.5)
+                .setMinRetriesPerSecond(1), clock::get);
+
+        assertTrue(breaker.tryAcquireRetry());
+        assertFalse(breaker.tryAcquireRetry());
+        assertEquals(1, breaker.getRetryRejectedCount());
+
+        // 每次请求存入0.5个令牌
+        breaker.onRequest();
+        assertFalse(breaker.tryAcquireRetry());
+        breaker.onRequest();
+        assertTrue(breaker.tryAcquireRetry());
+
+        // 每秒补充一个令牌
+        clock.addAndGet(1_000_000_000L);
+        assertTrue(breaker.tryAcquireRetry());
+        assertFalse(breaker.tryAcquireRetry());
+
+        // 长时间空闲后不超过上限
+        clock.addAndGet(60_000_000_000L);
+        assertTrue(breaker.tryAcquireRetry());
+        assertTrue(breaker.tryAcquireRetry());
+        assertTrue(breaker.tryAcquireRetry());
+        assertFalse(breaker.tryAcquireRetry());
+    }
+
+    private McpCircuitBreaker newBreaker(int halfOpenProbes) {
+        return new McpCircuitBreaker("svc", config(halfOpenProbes), clock::get);
+    }
+
+    private static McpCircuitBreakerConfig config(int halfOpenProbes) {
+        return new McpCircuitBreakerConfig()
+                .setSlidingWindowSize(4)
+                .setMinimumCalls(4)
+                .setFailureRateThreshold(0.5)
+                .setOpenDuration(Duration.ofNanos(OPEN_NANOS))
+                .setHalfOpenProbes(halfOpenProbes);
+    }
+
+    // 连续失败直到熔断
+    private static void trip(McpCircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquirePermission().onFailure();
+        }
+        assertEquals(McpCircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,123 @@
+package com.demo.mcp.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpConnectionPoolsTest {
+
+    @Test
+    void testAcquire_equalConfigsShareOneProvider() {
+        int before = McpConnectionPools.getPoolCount();
+        McpConnectionPoolConfig config = poolConfig(17);
+
+        ConnectionProvider first = McpConnectionPools.acquire(config);
+        ConnectionProvider second = McpConnectionPools.acquire(poolConfig(17));
+        try {
+            assertSame(first, second);
+            assertEquals(before + 1, McpConnectionPools.getPoolCount());
+        } finally {
+            McpConnectionPools.release(config);
+            McpConnectionPools.release(config);
+        }
+        assertEquals(before, McpConnectionPools.getPoolCount());
+    }
+
+    @Test
+    void testAcquire_differentConfigsGetSeparateProviders() {
+        int before = McpConnectionPools.getPoolCount();
+        McpConnectionPoolConfig small = poolConfig(11);
+        McpConnectionPoolConfig large = poolConfig(13);
+
+        ConnectionProvider first = McpConnectionPools.acquire(small);
+        ConnectionProvider second = McpConnectionPools.acquire(large);
+        try {
+            assertNotSame(first, second);
+            assertNotEquals(first.name(), second.name());
+            assertEquals(before + 2, McpConnectionPools.getPoolCount());
+        } finally {
+            McpConnectionPools.release(small);
+            McpConnectionPools.release(large);
+        }
+        assertEquals(before, McpConnectionPools.getPoolCount());
+    }
+
+    @Test
+    void testRelease_lastReferenceDisposesProvider() {
+        int before = McpConnectionPools.getPoolCount();
+        McpConnectionPoolConfig config = poolConfig(19);
+        ConnectionProvider first = McpConnectionPools.acquire(config);
+        McpConnectionPools.acquire(config);
+
+        McpConnectionPools.release(config);
+        assertEquals(before + 1, McpConnectionPools.getPoolCount());
+
+        McpConnectionPools.release(config);
+        assertEquals(before, McpConnectionPools.getPoolCount());
+        // 多余的释放被忽略
+        McpConnectionPools.release(config);
+        assertEquals(before, McpConnectionPools.getPoolCount());
+
+        // 再次获取时创建新的连接池
+        ConnectionProvider recreated = McpConnectionPools.acquire(config);
+        try {
+            assertNotSame(first, recreated);
+        } finally {
+            McpConnectionPools.release(config);
+        }
+    }
+
+    @Test
+    void testAcquire_laterConfigChangesDoNotAffectRegisteredPool() {
+        int before = McpConnectionPools.getPoolCount();
+        McpConnectionPoolConfig config = poolConfig(23);
+        ConnectionProvider provider = McpConnectionPools.acquire(config);
+
+        // 注册表保存配置的副本，修改调用方持有的配置不影响已注册的连接池
+        config.setMaxConnections(29);
+        try {
+            assertNotSame(provider, McpConnectionPools.acquire(config));
+            assertEquals(before + 2, McpConnectionPools.getPoolCount());
+        } finally {
+            McpConnectionPools.release(config);
+            McpConnectionPools.release(poolConfig(23));
+        }
+        assertEquals(before, McpConnectionPools.getPoolCount());
+    }
+
+    @Test
+    void testShutdown_releasesClientReference() {
+        int before = McpConnectionPools.getPoolCount();
+        DefaultMcpClient first = new DefaultMcpClient(clientConfig(31));
+        DefaultMcpClient second = new DefaultMcpClient(clientConfig(31));
+
+        first.initialize();
+        second.initialize();
+        assertEquals(before + 1, McpConnectionPools.getPoolCount());
+
+        first.shutdown();
+        assertEquals(before + 1, McpConnectionPools.getPoolCount());
+        second.shutdown();
+        assertEquals(before, McpConnectionPools.getPoolCount());
+        // 重复关闭不会再次释放
+        second.shutdown();
+        assertEquals(before, McpConnectionPools.getPoolCount());
+    }
+
+    // 连接池注册表是全局的，各测试使用不同的最大连接数，互不影响
+    private static McpConnectionPoolConfig poolConfig(int maxConnections) {
+        return new McpConnectionPoolConfig()
+                .setMaxConnections(maxConnections)
+                .setEvictionInterval(Duration.ZERO)
+                .setMetricsEnabled(false);
+    }
+
+    private static DefaultMcpClientConfig clientConfig(int maxConnections) {
+        return new DefaultMcpClientConfig()
+                .setBaseUrl("http://localhost:1")
+                .setConnectionPool(poolConfig(maxConnections));
+    }
+}
@@ -0,0 +1,73 @@
+package com.demo.mcp.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpResponseDecoderTest {
+
+    private final McpResponseDecoder decoder = new McpResponseDecoder();
+
+    @Test
+    void testDecode_valueSplitAcrossBuffers() {
+        // 在字符串、数字和转义字符中间切分
+        Map<String, Object> value = decoder.<Map<String, Object>>decode(
+                body("{\"na", "me\":\"a\\", "\"b\",\"items\":[1,2", "3,{\"x\":null}]}"),
+                new TypeReference<Map<String, Object>>() { }.getType()).block();
+
+        assertNotNull(value);
+        assertEquals("a\"b", value.get("name"));
+        assertEquals(List.of(1, 23, Collections.singletonMap("x", null)), value.get("items"));
+    }
+
+    @Test
+    void testDecode_rootScalarCompletesAtEndOfInput() {
+        assertEquals(12345, decoder.<Integer>decode(body("12", "345"), Integer.class).block());
+    }
+
+    @Test
+    void testDecode_keepsDecimalPrecision() {
+        BigDecimal value = decoder.<BigDecimal>decode(body("0.1000000000000000000", "01"), BigDecimal.class).block();
+
+        assertEquals(new BigDecimal("0.100000000000000000001"), value);
+    }
+
+    @Test
+    void testDecode_emptyBodyAndNullAreEmpty() {
+        assertNull(decoder.decode(Flux.empty(), String.class).block());
+        assertNull(decoder.decode(body("nu", "ll"), String.class).block());
+    }
+
+    @Test
+    void testDecode_truncatedBodyFails() {
+        Flux<DataBuffer> truncated = body("{\"name\":", "\"a\"");
+
+        assertThrows(DecodingException.class, () -> decoder.decode(truncated, Map.class).block());
+    }
+
+    @Test
+    void testDecode_rejectsBodyOverLimit() {
+        McpResponseDecoder limited = new McpResponseDecoder(new ObjectMapper(), 8);
+
+        assertThrows(DataBufferLimitException.class,
+                () -> limited.decode(body("[1,2,3,", "4,5,6]"), List.class).block());
+    }
+
+    private static Flux<DataBuffer> body(String... chunks) {
+        DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+        return Flux.fromArray(chunks).map(chunk -> factory.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+    }
+}
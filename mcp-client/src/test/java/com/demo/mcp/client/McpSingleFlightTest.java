@@ -0,0 +1,116 @@
+package com.demo.mcp.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpSingleFlightTest {
+
+    private McpSingleFlight singleFlight;
+
+    // 上游请求：订阅次数、是否被取消，以及控制其结果的sink
+    private AtomicInteger subscriptions;
+    private AtomicBoolean cancelled;
+    private Sinks.One<String> response;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new McpSingleFlight();
+        subscriptions = new AtomicInteger();
+        cancelled = new AtomicBoolean();
+        response = Sinks.one();
+    }
+
+    @Test
+    void testExecute_concurrentIdenticalCallsShareOneRequest() throws Exception {
+        CompletableFuture<String> first = execute(Map.of("id", 1)).toFuture();
+        CompletableFuture<String> second = execute(Map.of("id", 1)).toFuture();
+
+        assertEquals(1, subscriptions.get());
+        assertEquals(1, singleFlight.getInFlightCount());
+        assertEquals(1, singleFlight.getCoalescedCount());
+
+        response.tryEmitValue("shared");
+        assertEquals("shared", first.get(1, TimeUnit.SECONDS));
+        assertEquals("shared", second.get(1, TimeUnit.SECONDS));
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void testExecute_differentPayloadsAreNotShared() {
+        execute(Map.of("id", 1)).subscribe();
+        execute(Map.of("id", 2)).subscribe();
+
+        assertEquals(2, subscriptions.get());
+        assertEquals(2, singleFlight.getInFlightCount());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void testExecute_oneCallerCancellingDoesNotAffectOthers() throws Exception {
+        Disposable leaving = execute(Map.of("id", 1)).subscribe();
+        CompletableFuture<String> staying = execute(Map.of("id", 1)).toFuture();
+
+        leaving.dispose();
+        assertFalse(cancelled.get());
+        assertEquals(1, singleFlight.getInFlightCount());
+
+        response.tryEmitValue("done");
+        assertEquals("done", staying.get(1, TimeUnit.SECONDS));
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    void testExecute_allCallersCancellingCancelsRequest() {
+        Disposable first = execute(Map.of("id", 1)).subscribe();
+        Disposable second = execute(Map.of("id", 1)).subscribe();
+
+        first.dispose();
+        second.dispose();
+
+        assertTrue(cancelled.get());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void testExecute_callAfterCompletionIssuesNewRequest() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<Integer> call = Mono.fromSupplier(calls::incrementAndGet);
+
+        assertEquals(1, singleFlight.execute("service", "svc", "get", Map.of(), Integer.class, call).block());
+        // 请求结束后不再共享，不会返回之前的结果
+        assertEquals(2, singleFlight.execute("service", "svc", "get", Map.of(), Integer.class, call).block());
+        assertEquals(0, singleFlight.getCoalescedCount());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void testExecute_errorIsSharedAndRemovesRequest() {
+        CompletableFuture<String> first = execute(Map.of("id", 1)).toFuture();
+        CompletableFuture<String> second = execute(Map.of("id", 1)).toFuture();
+
+        McpClientException error = new McpClientException("upstream failed");
+        response.tryEmitError(error);
+
+        assertSame(error, assertThrows(Exception.class, first::join).getCause());
+        assertSame(error, assertThrows(Exception.class, second::join).getCause());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    private Mono<String> execute(Object payload) {
+        Mono<String> call = response.asMono()
+                .doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+                .doOnCancel(() -> cancelled.set(true));
+        return singleFlight.execute("service", "svc", "get", payload, String.class, call);
+    }
+}
@@ -0,0 +1,159 @@
+package com.demo.mcp.client.loadbalance;
+
+import com.demo.mcp.client.McpLoadBalancerConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpLoadBalancerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final AtomicReference<List<McpEndpointAddress>> addresses = new AtomicReference<>();
+    private final McpLoadBalancerConfig config = new McpLoadBalancerConfig()
+            .setEjectionFailures(3)
+            .setEjectionDuration(Duration.ofSeconds(30))
+            .setLatencyDecay(Duration.ofSeconds(10))
+            .setFailurePenalty(Duration.ofSeconds(5));
+
+    @Test
+    void testChoose_prefersLowerLatencyAndFewerInFlight() {
+        McpLoadBalancer loadBalancer = newLoadBalancer("http://a", "http://b");
+        McpEndpoint a = endpoint(loadBalancer, "http://a");
+        McpEndpoint b = endpoint(loadBalancer, "http://b");
+        complete(a, 10, false);
+        complete(b, 50, false);
+
+        // 只有两个端点时两个候选总是都被选中，评分较低的端点胜出
+        for (int i = 0; i < 20; i++) {
+            assertSame(a, loadBalancer.choose());
+        }
+
+        // 进行中的请求数提高评分
+        for (int i = 0; i < 5; i++) {
+            a.onStart();
+        }
+        assertSame(b, loadBalancer.choose());
+    }
+
+    @Test
+    void testChoose_spreadsAcrossEqualEndpoints() {
+        McpLoadBalancer loadBalancer = newLoadBalancer("http://a", "http://b", "http://c");
+
+        Set<McpEndpoint> chosen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            chosen.add(loadBalancer.choose());
+        }
+        assertEquals(3, chosen.size());
+    }
+
+    @Test
+    void testChoose_fallsBackFromLocalZone() {
+        config.setLocalZone("zone-a");
+        McpLoadBalancer loadBalancer = newLoadBalancer("http://a zone-a", "http://b zone-b");
+        McpEndpoint a = endpoint(loadBalancer, "http://a");
+        McpEndpoint b = endpoint(loadBalancer, "http://b");
+        // 本地区域的端点即使更慢也优先
+        complete(a, 100, false);
+        complete(b, 10, false);
+        assertSame(a, loadBalancer.choose());
+
+        eject(a);
+        assertSame(b, loadBalancer.choose());
+
+        // 全部被摘除时仍然选择端点
+        eject(b);
+        assertNotNull(loadBalancer.choose());
+    }
+
+    @Test
+    void testOnComplete_ejectsAfterConsecutiveFailuresUntilDurationPasses() {
+        McpLoadBalancer loadBalancer = newLoadBalancer("http://a", "http://b");
+        McpEndpoint a = endpoint(loadBalancer, "http://a");
+        McpEndpoint b = endpoint(loadBalancer, "http://b");
+
+        assertFalse(complete(a, 1, true));
+        // 成功的请求重置连续失败次数
+        assertFalse(complete(a, 1, false));
+        assertFalse(complete(a, 1, true));
+        assertFalse(complete(a, 1, true));
+        assertTrue(complete(a, 1, true));
+        assertTrue(a.isEjected(clock.get()));
+        assertEquals(4, a.getFailureCount());
+        for (int i = 0; i < 20; i++) {
+            assertSame(b, loadBalancer.choose());
+        }
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertFalse(a.isEjected(clock.get()));
+    }
+
+    @Test
+    void testOnComplete_fastFailuresDoNotAttractTraffic() {
+        McpLoadBalancer loadBalancer = newLoadBalancer("http://a", "http://b");
+        McpEndpoint refusing = endpoint(loadBalancer, "http://a");
+        McpEndpoint slow = endpoint(loadBalancer, "http://b");
+        complete(slow, 200, false);
+
+        // 连接被拒绝的请求立即失败，按惩罚延迟计入
+        complete(refusing, 1, true);
+
+        assertTrue(refusing.getLatencyEwmaMillis() >= 5000);
+        for (int i = 0; i < 20; i++) {
+            assertSame(slow, loadBalancer.choose());
+        }
+    }
+
+    @Test
+    void testRefresh_newEndpointStartsAtAverageLatency() {
+        McpLoadBalancer loadBalancer = newLoadBalancer("http://a", "http://b");
+        complete(endpoint(loadBalancer, "http://a"), 100, false);
+        complete(endpoint(loadBalancer, "http://b"), 300, false);
+
+        addresses.set(List.of(McpEndpointAddress.parse("http://a"), McpEndpointAddress.parse("http://b"),
+                McpEndpointAddress.parse("http://c")));
+        loadBalancer.refresh();
+
+        McpEndpoint added = endpoint(loadBalancer, "http://c");
+        assertEquals(200d, added.getLatencyEwmaMillis(), 0.001);
+        // 收到第一个响应后使用实际延迟
+        complete(added, 50, false);
+        assertEquals(50d, added.getLatencyEwmaMillis(), 0.001);
+    }
+
+    private McpLoadBalancer newLoadBalancer(String... specs) {
+        addresses.set(Arrays.stream(specs).map(McpEndpointAddress::parse).toList());
+        return new McpLoadBalancer("http://base", addresses::get, config, clock::get);
+    }
+
+    private static McpEndpoint endpoint(McpLoadBalancer loadBalancer, String url) {
+        return loadBalancer.getEndpoints().stream()
+                .filter(endpoint -> endpoint.getAddress().getUrl().equals(url))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // 完成一次请求，返回端点是否因此被摘除
+    private boolean complete(McpEndpoint endpoint, long latencyMillis, boolean failed) {
+        endpoint.onStart();
+        return endpoint.onComplete(clock.get(), latencyMillis * MILLIS, failed,
+                config.getFailurePenalty().toNanos(), config.getLatencyDecay().toNanos(),
+                config.getEjectionFailures(), config.getEjectionDuration().toNanos());
+    }
+
+    private void eject(McpEndpoint endpoint) {
+        for (int i = 0; i < config.getEjectionFailures(); i++) {
+            complete(endpoint, 1, true);
+        }
+        assertTrue(endpoint.isEjected(clock.get()));
+    }
+}
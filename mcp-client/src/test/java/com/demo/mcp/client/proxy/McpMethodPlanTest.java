@@ -0,0 +1,184 @@
+package com.demo.mcp.client.proxy;
+
+import com.demo.mcp.client.annotation.McpMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpMethodPlanTest {
+
+    // 编译时不保留参数名的服务接口
+    private static final String UNNAMED_SERVICE = String.join("\n",
+            "package com.acme;",
+            "",
+            "import com.demo.mcp.client.annotation.McpMethod;",
+            "",
+            "public interface Unnamed {",
+            "",
+            "    @McpMethod(value = \"rename\", paramMappings = {\"userId\"})",
+            "    String rename(String id, String name);",
+            "}");
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    void testOf_paramNamesPreferMappingsThenCompiledNames() throws Exception {
+        McpMethodPlan plan = plan(UserApi.class, "find", String.class, String.class);
+
+        assertEquals("userId", plan.paramName(0));
+        // 测试代码使用-parameters编译，保留了参数名
+        assertEquals("name", plan.paramName(1));
+        assertEquals(Map.of("userId", "u1", "name", "a"), plan.buildParams(new Object[] {"u1", "a"}));
+    }
+
+    @Test
+    void testOf_paramNamesFallBackToPosition() throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {compileUnnamed().toUri().toURL()},
+                getClass().getClassLoader())) {
+            Method rename = classLoader.loadClass("com.acme.Unnamed").getMethod("rename", String.class, String.class);
+            McpMethodPlan plan = McpMethodPlan.of(rename.getDeclaringClass(), rename,
+                    rename.getAnnotation(McpMethod.class));
+
+            assertFalse(rename.getParameters()[1].isNamePresent());
+            assertEquals("userId", plan.paramName(0));
+            assertEquals("param2", plan.paramName(1));
+        }
+    }
+
+    @Test
+    void testOf_unknownCacheKeyIsRejected() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> plan(UserApi.class, "badKey", String.class));
+
+        assertEquals("Cache key parameter 'missing' not found in method badKey", error.getMessage());
+    }
+
+    @Test
+    void testOf_cacheKeySelectsNamedParameters() throws Exception {
+        McpMethodPlan plan = plan(UserApi.class, "cached", String.class, String.class);
+
+        assertTrue(plan.isCached());
+        assertEquals(1_000_000_000L, plan.getCacheTtlNanos());
+        assertEquals(500_000_000L, plan.getCacheStaleNanos());
+        assertArrayEquals(new Object[] {"a"}, plan.cacheKeyValues(new Object[] {"u1", "a"}));
+    }
+
+    @Test
+    void testOf_resolvesMonoGenericResponseType() throws Exception {
+        McpMethodPlan plan = plan(UserApi.class, "find", String.class, String.class);
+
+        ParameterizedType type = assertInstanceOf(ParameterizedType.class, plan.getResponseType());
+        assertEquals(List.class, type.getRawType());
+        assertEquals(User.class, type.getActualTypeArguments()[0]);
+    }
+
+    @Test
+    void testOf_resolvesFutureTypeVariableFromServiceInterface() throws Exception {
+        Method load = Repository.class.getMethod("load", String.class);
+
+        // 类型变量由子接口绑定
+        assertEquals(User.class,
+                McpMethodPlan.of(UserRepository.class, load, load.getAnnotation(McpMethod.class)).getResponseType());
+        // 无法解析时按Object解码
+        assertEquals(Object.class,
+                McpMethodPlan.of(Repository.class, load, load.getAnnotation(McpMethod.class)).getResponseType());
+    }
+
+    @Test
+    void testOf_voidResponseDecodesAsObject() throws Exception {
+        McpMethodPlan plan = plan(UserApi.class, "save", String.class);
+
+        assertEquals(Object.class, plan.getResponseType());
+        assertEquals(McpMethodPlan.ReturnKind.SYNC, plan.getReturnKind());
+    }
+
+    @Test
+    void testOf_resolvesReturnKind() throws Exception {
+        assertEquals(McpMethodPlan.ReturnKind.SYNC, plan(UserApi.class, "get", String.class).getReturnKind());
+        assertEquals(McpMethodPlan.ReturnKind.MONO,
+                plan(UserApi.class, "find", String.class, String.class).getReturnKind());
+        assertEquals(McpMethodPlan.ReturnKind.FUTURE,
+                plan(UserRepository.class, "load", String.class).getReturnKind());
+        assertEquals(McpMethodPlan.ReturnKind.ASYNC, plan(UserApi.class, "submit", String.class).getReturnKind());
+    }
+
+    @Test
+    void testOf_methodNameDefaultsToJavaName() throws Exception {
+        assertEquals("lookup", plan(UserApi.class, "get", String.class).getMethodName());
+        assertEquals("save", plan(UserApi.class, "save", String.class).getMethodName());
+    }
+
+    private static McpMethodPlan plan(Class<?> serviceInterface, String name, Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        Method method = serviceInterface.getMethod(name, parameterTypes);
+        return McpMethodPlan.of(serviceInterface, method, method.getAnnotation(McpMethod.class));
+    }
+
+    // 不带-parameters编译服务接口，返回class文件目录
+    private Path compileUnnamed() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path classes = Files.createDirectories(outputDir.resolve("classes"));
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///com/acme/Unnamed.java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return UNNAMED_SERVICE;
+            }
+        };
+        assertTrue(compiler.getTask(null, null, null,
+                List.of("-classpath", System.getProperty("java.class.path"), "-proc:none", "-d", classes.toString()),
+                null, List.of(file)).call());
+        return classes;
+    }
+
+    static class User {
+    }
+
+    interface UserApi {
+
+        @McpMethod("lookup")
+        String get(String id);
+
+        @McpMethod(value = "find", paramMappings = {"userId"})
+        Mono<List<User>> find(String id, String name);
+
+        @McpMethod
+        void save(String id);
+
+        @McpMethod(value = "submit", async = true)
+        Object submit(String id);
+
+        @McpMethod(value = "cached", cacheTtl = 1000, cacheStaleTtl = 500, cacheKey = {"name"})
+        String cached(String id, String name);
+
+        @McpMethod(value = "badKey", cacheTtl = 1000, cacheKey = {"missing"})
+        String badKey(String id);
+    }
+
+    interface Repository<T> {
+
+        @McpMethod("load")
+        CompletableFuture<T> load(String id);
+    }
+
+    interface UserRepository extends Repository<User> {
+    }
+}
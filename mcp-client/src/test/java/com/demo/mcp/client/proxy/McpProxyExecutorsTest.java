@@ -0,0 +1,54 @@
+package com.demo.mcp.client.proxy;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpProxyExecutorsTest {
+
+    @Test
+    void testBoundedExecutor_rejectsInsteadOfRunningOnSubmitter() throws Exception {
+        ExecutorService executor = McpProxyExecutors.newBoundedExecutor(1, 1);
+        Scheduler scheduler = Schedulers.fromExecutorService(executor, "test-callback");
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // 占满唯一的线程和队列
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> { });
+
+            AtomicReference<Thread> completedOn = new AtomicReference<>();
+            CompletableFuture<String> future = Mono.just("value")
+                    .publishOn(scheduler)
+                    .doOnNext(value -> completedOn.set(Thread.currentThread()))
+                    .toFuture();
+
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> future.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+            // 回调没有在提交任务的线程上执行
+            assertNull(completedOn.get());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
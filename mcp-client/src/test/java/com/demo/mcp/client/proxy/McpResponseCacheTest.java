@@ -0,0 +1,149 @@
+package com.demo.mcp.client.proxy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpResponseCacheTest {
+
+    private static final long TTL = Duration.ofSeconds(10).toNanos();
+    private static final long STALE = Duration.ofSeconds(30).toNanos();
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final McpResponseCache cache = new McpResponseCache(100, clock::get);
+
+    @Test
+    void testGet_hitsForSameTypeAndArguments() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            Object value = cache.get("svc", "profile", Map.class, new Object[] {"u1"}, TTL, 0,
+                    () -> Mono.just(Map.of("load", loads.incrementAndGet()))).block();
+            assertEquals(Map.of("load", 1), value);
+        }
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    void testGet_separatesEntriesByResponseType() {
+        Object asMap = cache.get("svc", "profile", Map.class, new Object[] {"u1"}, TTL, 0,
+                () -> Mono.just(Map.of("name", "a"))).block();
+        // 另一个接口把同一个方法映射为不同的返回类型
+        Object asList = cache.get("svc", "profile", List.class, new Object[] {"u1"}, TTL, 0,
+                () -> Mono.just(List.of("a"))).block();
+
+        assertInstanceOf(Map.class, asMap);
+        assertInstanceOf(List.class, asList);
+        assertEquals(2, cache.size());
+        assertInstanceOf(Map.class, cache.get("svc", "profile", Map.class, new Object[] {"u1"}, TTL, 0,
+                () -> Mono.error(new IllegalStateException("should hit"))).block());
+    }
+
+    @Test
+    void testGet_staleHitReturnsOldValueAndRefreshesInBackground() {
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("v1", get(() -> Mono.just("v" + loads.incrementAndGet())));
+
+        clock.addAndGet(TTL + 1);
+        // stale期内直接返回旧值，同时触发一次后台刷新
+        assertEquals("v1", get(() -> Mono.just("v" + loads.incrementAndGet())));
+        assertEquals(1, cache.getStaleHitCount());
+        assertEquals(2, loads.get());
+
+        // 刷新完成后返回新值
+        assertEquals("v2", get(() -> Mono.error(new IllegalStateException("should hit"))));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void testGet_failedRefreshKeepsOldValueUntilStalePeriodEnds() {
+        get(() -> Mono.just("v1"));
+        clock.addAndGet(TTL + 1);
+
+        assertEquals("v1", get(() -> Mono.error(new IllegalStateException("refresh failed"))));
+        assertEquals(1, cache.getLoadFailureCount());
+        // 刷新失败不影响旧值
+        assertEquals("v1", get(() -> Mono.error(new IllegalStateException("refresh failed"))));
+        assertEquals(2, cache.getStaleHitCount());
+
+        // stale期结束后不再返回旧值
+        clock.addAndGet(STALE);
+        assertThrows(IllegalStateException.class, () -> get(() -> Mono.error(new IllegalStateException("down"))));
+        assertEquals(3, cache.getLoadFailureCount());
+    }
+
+    @Test
+    void testGet_concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<Object> response = Sinks.one();
+        Supplier<Mono<Object>> loader = () -> {
+            loads.incrementAndGet();
+            return response.asMono();
+        };
+
+        CompletableFuture<Object> first = cache.get("svc", "profile", String.class, new Object[] {"u1"}, TTL, STALE,
+                loader).toFuture();
+        CompletableFuture<Object> second = cache.get("svc", "profile", String.class, new Object[] {"u1"}, TTL, STALE,
+                loader).toFuture();
+        assertFalse(first.isDone());
+        response.tryEmitValue("shared");
+
+        assertEquals("shared", first.get(1, TimeUnit.SECONDS));
+        assertEquals("shared", second.get(1, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testGet_loadCompletesAfterAllCallersCancel() {
+        Sinks.One<Object> response = Sinks.one();
+        Disposable caller = cache.get("svc", "profile", String.class, new Object[] {"u1"}, TTL, STALE,
+                response::asMono).subscribe();
+
+        caller.dispose();
+        response.tryEmitValue("late");
+
+        // 调用方取消后加载仍写入缓存
+        assertEquals("late", get(() -> Mono.error(new IllegalStateException("should hit"))));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void testBindTo_exportsCacheStatistics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        get(() -> Mono.just("v1"));
+        get(() -> Mono.just("unused"));
+        clock.addAndGet(TTL + 1);
+        get(() -> Mono.error(new IllegalStateException("refresh failed")));
+
+        assertEquals(1, requests(registry, "hit"));
+        assertEquals(1, requests(registry, "stale"));
+        assertEquals(1, requests(registry, "miss"));
+        assertEquals(1, registry.get("mcp.client.cache.load.failures").functionCounter().count());
+        assertEquals(1, registry.get("mcp.client.cache.size").gauge().value());
+    }
+
+    private Object get(Supplier<Mono<Object>> loader) {
+        return cache.get("svc", "profile", String.class, new Object[] {"u1"}, TTL, STALE, loader).block();
+    }
+
+    private static double requests(SimpleMeterRegistry registry, String result) {
+        return registry.get("mcp.client.cache.requests").tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,184 @@
+package com.demo.mcp.client.proxy;
+
+import com.demo.mcp.client.McpClient;
+import com.demo.mcp.client.McpClientConfig;
+import com.demo.mcp.client.annotation.McpMethod;
+import com.demo.mcp.client.annotation.McpService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务代理调用开销的基准测试
+ * 对比JDK动态代理和McpServiceProxyProcessor编译时生成的代理类，客户端直接返回固定结果，只测量代理本身的开销。
+ * 运行方式：在IDE中执行main方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class McpServiceProxyBenchmark {
+
+    private static final Map<String, Object> RESULT = Map.of("name", "catalog", "version", 3);
+
+    private McpServiceProxyFactory jdkProxyFactory;
+    private McpServiceProxyFactory generatedProxyFactory;
+    private CatalogService jdkProxy;
+    private CatalogService generatedProxy;
+
+    @Setup
+    public void setUp() {
+        jdkProxyFactory = new McpServiceProxyFactory(new StubMcpClient());
+        jdkProxyFactory.setGeneratedProxiesEnabled(false);
+        jdkProxy = jdkProxyFactory.createProxy(CatalogService.class);
+
+        generatedProxyFactory = new McpServiceProxyFactory(new StubMcpClient());
+        generatedProxy = generatedProxyFactory.createProxy(CatalogService.class);
+        if (Proxy.isProxyClass(generatedProxy.getClass())) {
+            throw new IllegalStateException("Generated proxy not found, check that McpServiceProxyProcessor ran");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdkProxyFactory.shutdown();
+        generatedProxyFactory.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Object> jdkProxySync() {
+        return jdkProxy.getCatalog("books", 3);
+    }
+
+    @Benchmark
+    public Map<String, Object> generatedProxySync() {
+        return generatedProxy.getCatalog("books", 3);
+    }
+
+    @Benchmark
+    public Map<String, Object> jdkProxyMono() {
+        return jdkProxy.getCatalogAsync("books", 3).block();
+    }
+
+    @Benchmark
+    public Map<String, Object> generatedProxyMono() {
+        return generatedProxy.getCatalogAsync("books", 3).block();
+    }
+
+    /**
+     * 基准测试使用的服务接口
+     */
+    @McpService("catalog-service")
+    public interface CatalogService {
+
+        @McpMethod("getCatalog")
+        Map<String, Object> getCatalog(String category, int version);
+
+        @McpMethod("getCatalog")
+        Mono<Map<String, Object>> getCatalogAsync(String category, int version);
+    }
+
+    /**
+     * 直接返回固定结果的客户端
+     */
+    private static class StubMcpClient implements McpClient {
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean isServiceAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean isServiceAvailable(String serviceId) {
+            return true;
+        }
+
+        @Override
+        public <T> Mono<T> invokeService(String serviceId, String methodName, Map<String, Object> params) {
+            return invokeService(serviceId, methodName, params, Object.class);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Mono<T> invokeService(String serviceId, String methodName, Map<String, Object> params,
+                                         Type responseType) {
+            return Mono.just((T) RESULT);
+        }
+
+        @Override
+        public CompletableFuture<Object> callServiceAsync(String serviceId, String methodName,
+                                                          Map<String, Object> params) {
+            return CompletableFuture.completedFuture(RESULT);
+        }
+
+        @Override
+        public <T> Mono<T> invokeModel(String modelId, Object request) {
+            return invokeModel(modelId, request, Object.class);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Mono<T> invokeModel(String modelId, Object request, Type responseType) {
+            return Mono.just((T) RESULT);
+        }
+
+        @Override
+        public CompletableFuture<Object> callModelAsync(String modelId, Object request) {
+            return CompletableFuture.completedFuture(RESULT);
+        }
+
+        @Override
+        public Mono<Boolean> publishEvent(String eventType, Map<String, Object> eventData) {
+            return Mono.just(true);
+        }
+
+        @Override
+        public boolean sendEvent(String eventType, Map<String, Object> eventData) {
+            return true;
+        }
+
+        @Override
+        public McpClientConfig getConfig() {
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(McpServiceProxyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.demo.mcp.client.proxy;
+
+import com.demo.mcp.client.McpClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpServiceProxyProcessorTest {
+
+    // 参数带有类型注解的服务接口
+    private static final String ANNOTATED_SERVICE = String.join("\n",
+            "package com.acme;",
+            "",
+            "import com.demo.mcp.client.annotation.McpMethod;",
+            "import com.demo.mcp.client.annotation.McpService;",
+            "import java.lang.annotation.ElementType;",
+            "import java.lang.annotation.Target;",
+            "import java.util.List;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "@McpService(\"ann\")",
+            "public interface Api {",
+            "",
+            "    @Target(ElementType.TYPE_USE)",
+            "    @interface NonNull {",
+            "    }",
+            "",
+            "    @McpMethod(\"lookup\")",
+            "    Mono<@NonNull String> lookup(@NonNull String id, List<@NonNull String> tags, int @NonNull [] counts);",
+            "",
+            "    @McpMethod(value = \"rename\", paramMappings = {\"userId\"})",
+            "    Mono<String> rename(String id, String name);",
+            "}");
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    void testProcess_typeAnnotationsDoNotBreakCompilation() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(ANNOTATED_SERVICE);
+
+        assertEquals(List.of(), problems(diagnostics));
+        String generated = Files.readString(outputDir.resolve("generated/com/acme/ApiMcpProxy.java"));
+        assertFalse(generated.contains("NonNull"));
+        assertTrue(generated.contains("invoker.plan(\"lookup\", java.lang.String.class, java.util.List.class, int[].class)"));
+    }
+
+    @Test
+    void testProcess_generatedProxySendsSameParamNamesAsJdkProxy() throws Exception {
+        // 编译时不保留参数名（没有-parameters）
+        assertEquals(List.of(), problems(compile(ANNOTATED_SERVICE)));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {outputDir.resolve("classes").toUri().toURL()},
+                getClass().getClassLoader())) {
+            Class<?> api = classLoader.loadClass("com.acme.Api");
+            Method lookup = api.getMethod("lookup", String.class, List.class, int[].class);
+            Method rename = api.getMethod("rename", String.class, String.class);
+            List<Map<String, Object>> sent = new ArrayList<>();
+            McpServiceProxyFactory factory = new McpServiceProxyFactory(recordingClient(sent),
+                    new McpResponseCache(100), null);
+
+            Object generated = factory.createProxy(api);
+            assertTrue(generated.getClass().getName().endsWith(McpServiceProxyFactory.GENERATED_PROXY_SUFFIX));
+            ((Mono<?>) lookup.invoke(generated, "a", List.of("t"), new int[] {1})).block();
+            ((Mono<?>) rename.invoke(generated, "a", "b")).block();
+
+            factory.setGeneratedProxiesEnabled(false);
+            Object jdkProxy = factory.createProxy(api);
+            assertTrue(Proxy.isProxyClass(jdkProxy.getClass()));
+            ((Mono<?>) lookup.invoke(jdkProxy, "a", List.of("t"), new int[] {1})).block();
+            ((Mono<?>) rename.invoke(jdkProxy, "a", "b")).block();
+
+            assertEquals(4, sent.size());
+            assertEquals(sent.get(2).keySet(), sent.get(0).keySet());
+            assertEquals(sent.get(3).keySet(), sent.get(1).keySet());
+            assertEquals(Set.of("param1", "param2", "param3"), sent.get(0).keySet());
+            assertEquals(Set.of("userId", "param2"), sent.get(1).keySet());
+        }
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String source) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path classes = Files.createDirectories(outputDir.resolve("classes"));
+        Path generated = Files.createDirectories(outputDir.resolve("generated"));
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///com/acme/Api.java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                List.of("-classpath", System.getProperty("java.class.path"),
+                        "-d", classes.toString(), "-s", generated.toString()),
+                null, List.of(file));
+        task.setProcessors(List.of(new McpServiceProxyProcessor()));
+        task.call();
+        return diagnostics.getDiagnostics();
+    }
+
+    // 编译错误和警告，处理器生成失败时输出警告
+    private static List<String> problems(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        return diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR
+                        || diagnostic.getKind() == Diagnostic.Kind.WARNING)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    // 记录每次服务调用的请求参数，响应为空
+    @SuppressWarnings("unchecked")
+    private static McpClient recordingClient(List<Map<String, Object>> sent) {
+        return (McpClient) Proxy.newProxyInstance(McpClient.class.getClassLoader(), new Class<?>[] {McpClient.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("invokeService") && args.length == 4) {
+                        sent.add((Map<String, Object>) args[2]);
+                        return Mono.empty();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
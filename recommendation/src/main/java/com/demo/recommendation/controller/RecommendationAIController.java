@@ -1,11 +1,14 @@
 package com.demo.recommendation.controller;
 
+import com.demo.core.license.LicenseInterceptor;
 import com.demo.core.model.AIRequest;
 import com.demo.core.model.AIResponse;
 import com.demo.core.registry.ModelRegistry;
+import com.demo.core.tracing.Span;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -19,29 +22,35 @@ public class RecommendationAIController {
      * 个性化推荐接口
      */
     @PostMapping(value = "/personalized", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<AIResponse> personalizedRecommendation(@RequestBody AIRequest request) {
+    public Mono<AIResponse> personalizedRecommendation(@RequestBody AIRequest request, ServerWebExchange exchange) {
         // 使用核心模块的能力处理个性化推荐请求
         request.setModelId("recommendation-personalized-001");
-        return Mono.just(modelRegistry.processRequest(request));
+        // 以网关的请求阶段为父阶段，使同一请求的各个阶段属于同一条追踪
+        Span parent = exchange.getAttribute(LicenseInterceptor.TRACE_SPAN_ATTRIBUTE);
+        return Mono.just(modelRegistry.processRequest(request, parent));
     }
 
     /**
      * 相似内容推荐接口
      */
     @PostMapping(value = "/similar-content", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<AIResponse> similarContentRecommendation(@RequestBody AIRequest request) {
+    public Mono<AIResponse> similarContentRecommendation(@RequestBody AIRequest request, ServerWebExchange exchange) {
         // 使用核心模块的能力处理相似内容推荐请求
         request.setModelId("recommendation-similar-001");
-        return Mono.just(modelRegistry.processRequest(request));
+        // 以网关的请求阶段为父阶段，使同一请求的各个阶段属于同一条追踪
+        Span parent = exchange.getAttribute(LicenseInterceptor.TRACE_SPAN_ATTRIBUTE);
+        return Mono.just(modelRegistry.processRequest(request, parent));
     }
 
     /**
      * 关联推荐接口
      */
     @PostMapping(value = "/correlation", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<AIResponse> correlationRecommendation(@RequestBody AIRequest request) {
+    public Mono<AIResponse> correlationRecommendation(@RequestBody AIRequest request, ServerWebExchange exchange) {
         // 使用核心模块的能力处理关联推荐请求
         request.setModelId("recommendation-correlation-001");
-        return Mono.just(modelRegistry.processRequest(request));
+        // 以网关的请求阶段为父阶段，使同一请求的各个阶段属于同一条追踪
+        Span parent = exchange.getAttribute(LicenseInterceptor.TRACE_SPAN_ATTRIBUTE);
+        return Mono.just(modelRegistry.processRequest(request, parent));
     }
 }
\ No newline at end of file
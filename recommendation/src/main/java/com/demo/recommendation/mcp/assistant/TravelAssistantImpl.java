@@ -13,7 +13,6 @@ import reactor.core.publisher.Mono;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 旅行助手实现类，集成各种网关服务，处理用户的智能旅行请求
@@ -43,8 +42,9 @@ public class TravelAssistantImpl implements TravelAssistant {
     @Autowired
     private EmergencyServiceGateway emergencyServiceGateway;
     
-    // 存储用户上下文
-    private final Map<String, Map<String, Object>> userContexts = new ConcurrentHashMap<>();
+    // 用户上下文存储，有界并按最近访问淘汰；未通过Spring注入时使用默认配置
+    @Autowired
+    private UserContextStore userContextStore = new UserContextStore();
 
     @Override
     public void initialize() {
@@ -71,7 +71,7 @@ public class TravelAssistantImpl implements TravelAssistant {
         emergencyServiceGateway.shutdown();
         
         // 清空用户上下文
-        userContexts.clear();
+        userContextStore.clear();
         
         initialized = false;
         System.out.println(ASSISTANT_NAME + "已关闭");
@@ -354,19 +354,16 @@ public class TravelAssistantImpl implements TravelAssistant {
      * 保存用户上下文
      */
     private void saveUserContext(AssistantRequest request) {
-        String userId = request.getUserId();
-        if (userId != null && !userId.isEmpty()) {
-            Map<String, Object> context = userContexts.computeIfAbsent(userId, k -> new HashMap<>());
-            context.put("lastRequestTime", request.getTimestamp());
-            context.put("lastRequestType", request.getRequestType());
-            context.put("userPreferences", request.getUserPreferences());
-            
-            // 限制上下文大小，防止内存泄漏
-            if (context.size() > 100) {
-                // 简单的清理逻辑，可以根据实际需求优化
-                context.clear();
-            }
-        }
+        userContextStore.recordRequest(request);
+    }
+    
+    /**
+     * 获取用户上下文，包含用户最近的请求，用于个性化推荐
+     * @param userId 用户ID
+     * @return 用户上下文，不存在或已过期时返回null
+     */
+    public UserContext getUserContext(String userId) {
+        return userContextStore.getUserContext(userId);
     }
 
     /**
@@ -0,0 +1,197 @@
+package com.demo.recommendation.mcp.assistant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用户上下文，记录用户最近的请求，用于个性化推荐
+ * 最近请求保存在固定大小的环形缓冲区中，写满后覆盖最早的请求，内存占用不随请求次数增长。
+ * 所有方法按用户加锁，不同用户之间互不影响
+ */
+public class UserContext {
+
+    // 请求内容保留的最大长度，更长的内容截断后保存
+    static final int MAX_CONTENT_LENGTH = 256;
+
+    // 估算内存占用时使用的对象开销（字节）
+    private static final int CONTEXT_OVERHEAD = 160;
+    private static final int REQUEST_OVERHEAD = 48;
+    private static final int STRING_OVERHEAD = 40;
+    private static final int MAP_ENTRY_OVERHEAD = 64;
+
+    // 用户ID
+    private final String userId;
+
+    // 最近请求的环形缓冲区，next指向下一个写入位置
+    private final RecentRequest[] recentRequests;
+    private int next;
+    private int recentCount;
+
+    // 累计请求次数
+    private long requestCount;
+
+    // 最后一次请求的时间和类型
+    private long lastRequestTime;
+    private String lastRequestType;
+
+    // 用户偏好，每次请求携带偏好时整体替换
+    private Map<String, Object> userPreferences = Collections.emptyMap();
+
+    // 估算的内存占用（字节）
+    private long estimatedBytes;
+
+    // 估算的内存占用是否已计入UserContextStore的总量，由UserContextStore在本对象的锁内读写
+    boolean accounted;
+
+    /**
+     * 构造函数
+     * @param userId 用户ID
+     * @param recentCapacity 保留的最近请求数量
+     */
+    public UserContext(String userId, int recentCapacity) {
+        if (recentCapacity <= 0) {
+            throw new IllegalArgumentException("Recent request capacity must be positive");
+        }
+        this.userId = userId;
+        this.recentRequests = new RecentRequest[recentCapacity];
+        this.estimatedBytes = CONTEXT_OVERHEAD + stringBytes(userId) + 4L * recentCapacity;
+    }
+
+    /**
+     * 记录一次请求
+     * @param request 助手请求
+     * @return 估算内存占用的变化量（字节）
+     */
+    public synchronized long record(AssistantRequest request) {
+        long before = estimatedBytes;
+        String content = request.getContent();
+        if (content != null && content.length() > MAX_CONTENT_LENGTH) {
+            content = content.substring(0, MAX_CONTENT_LENGTH);
+        }
+        RecentRequest recent = new RecentRequest(request.getRequestType(), content, request.getTimestamp());
+        RecentRequest overwritten = recentRequests[next];
+        if (overwritten != null) {
+            estimatedBytes -= overwritten.estimatedBytes();
+        }
+        recentRequests[next] = recent;
+        estimatedBytes += recent.estimatedBytes();
+        next = (next + 1) % recentRequests.length;
+        recentCount = Math.min(recentCount + 1, recentRequests.length);
+
+        requestCount++;
+        lastRequestTime = request.getTimestamp();
+        lastRequestType = request.getRequestType();
+        Map<String, Object> preferences = request.getUserPreferences();
+        if (preferences != null && !preferences.isEmpty()) {
+            estimatedBytes -= mapBytes(userPreferences);
+            userPreferences = Collections.unmodifiableMap(new HashMap<>(preferences));
+            estimatedBytes += mapBytes(userPreferences);
+        }
+        return estimatedBytes - before;
+    }
+
+    /**
+     * 获取最近的请求
+     * @return 最近的请求，按时间从新到旧排列
+     */
+    public synchronized List<RecentRequest> getRecentRequests() {
+        List<RecentRequest> result = new ArrayList<>(recentCount);
+        for (int i = 1; i <= recentCount; i++) {
+            result.add(recentRequests[(next - i + recentRequests.length) % recentRequests.length]);
+        }
+        return result;
+    }
+
+    /**
+     * 统计最近请求中各请求类型的次数
+     * @return 请求类型到次数的映射
+     */
+    public synchronized Map<String, Integer> getRecentRequestTypeCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < recentCount; i++) {
+            String requestType = recentRequests[i].getRequestType();
+            if (requestType != null) {
+                counts.merge(requestType, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    public synchronized long getLastRequestTime() {
+        return lastRequestTime;
+    }
+
+    public synchronized String getLastRequestType() {
+        return lastRequestType;
+    }
+
+    public synchronized Map<String, Object> getUserPreferences() {
+        return userPreferences;
+    }
+
+    /**
+     * 获取估算的内存占用
+     * @return 内存占用（字节）
+     */
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    private static long stringBytes(String value) {
+        // 按UTF-16估算，不考虑紧凑字符串
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+
+    private static long mapBytes(Map<String, Object> map) {
+        long bytes = 0;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            bytes += MAP_ENTRY_OVERHEAD + stringBytes(entry.getKey());
+            if (entry.getValue() instanceof String) {
+                bytes += stringBytes((String) entry.getValue());
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 最近的一次请求
+     */
+    public static final class RecentRequest {
+        private final String requestType;
+        private final String content;
+        private final long timestamp;
+
+        public RecentRequest(String requestType, String content, long timestamp) {
+            this.requestType = requestType;
+            this.content = content;
+            this.timestamp = timestamp;
+        }
+
+        public String getRequestType() {
+            return requestType;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        long estimatedBytes() {
+            return REQUEST_OVERHEAD + stringBytes(requestType) + stringBytes(content);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.demo.recommendation.mcp.assistant;
+
+import com.demo.core.cache.BoundedCache;
+import com.demo.core.cache.CacheStats;
+import com.demo.core.metrics.MetricsCollector;
+import io.micrometer.core.instrument.Counter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户上下文存储
+ * 用户数量有上限，超出时淘汰最近最少使用的用户；超过存活时间没有新请求的用户上下文过期，由定时任务清理。
+ * 提供用户数量、估算内存占用和按原因统计的淘汰次数指标
+ */
+@Component
+public class UserContextStore {
+
+    // 按用户ID分段加锁，保证同一用户的上下文只创建一次
+    private static final int LOCK_STRIPES = 64;
+
+    private final BoundedCache<String, UserContext> contexts;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    // 每个用户保留的最近请求数量
+    private final int recentCapacity;
+
+    // 清理过期用户上下文的间隔（秒），不大于0时不启动定时清理
+    private final long cleanupIntervalSeconds;
+
+    // 所有用户上下文估算的内存占用（字节）
+    private final AtomicLong estimatedBytes = new AtomicLong();
+
+    // 按淘汰原因预先绑定的计数器，未配置指标时为空
+    private final Map<BoundedCache.RemovalCause, Counter> evictionCounters = new EnumMap<>(BoundedCache.RemovalCause.class);
+
+    private Scheduler scheduler;
+    private Disposable cleanupTask;
+
+    /**
+     * 使用默认配置创建存储，不注册指标
+     */
+    public UserContextStore() {
+        this(10000, 30, 16, 0, null);
+    }
+
+    /**
+     * 构造函数
+     * @param maxUsers 最大用户数量
+     * @param ttlMinutes 用户上下文在最后一次请求后的存活时间（分钟）
+     * @param recentCapacity 每个用户保留的最近请求数量
+     * @param cleanupIntervalSeconds 清理过期用户上下文的间隔（秒），不大于0时只在访问时清理
+     * @param metricsCollector 指标收集器，为null时不注册指标
+     */
+    @Autowired
+    public UserContextStore(@Value("${assistant.user-context.max-users:10000}") int maxUsers,
+                            @Value("${assistant.user-context.ttl-minutes:30}") long ttlMinutes,
+                            @Value("${assistant.user-context.recent-requests:16}") int recentCapacity,
+                            @Value("${assistant.user-context.cleanup-interval-seconds:60}") long cleanupIntervalSeconds,
+                            MetricsCollector metricsCollector) {
+        this.recentCapacity = recentCapacity;
+        this.cleanupIntervalSeconds = cleanupIntervalSeconds;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.contexts = BoundedCache.<String, UserContext>builder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .evictionListener((userId, context, cause) -> onEviction(context, cause))
+                .build();
+        if (metricsCollector != null) {
+            for (BoundedCache.RemovalCause cause : BoundedCache.RemovalCause.values()) {
+                evictionCounters.put(cause, metricsCollector.counter("assistant.user.context.evictions",
+                        "cause", cause.name().toLowerCase()));
+            }
+            metricsCollector.registerGauge("assistant.user.context.size", contexts, BoundedCache::size);
+            metricsCollector.registerGauge("assistant.user.context.estimated.bytes", estimatedBytes, AtomicLong::get);
+        }
+    }
+
+    /**
+     * 启动定时清理任务
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (cleanupTask != null || cleanupIntervalSeconds <= 0) {
+            return;
+        }
+        scheduler = Schedulers.newSingle("user-context-cleanup", true);
+        cleanupTask = scheduler.schedulePeriodically(contexts::cleanUp,
+                cleanupIntervalSeconds, cleanupIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止定时清理任务
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (cleanupTask != null) {
+            cleanupTask.dispose();
+            cleanupTask = null;
+        }
+        if (scheduler != null) {
+            scheduler.dispose();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * 记录用户的一次请求，用户上下文不存在时创建
+     * 每次记录都会重新写入缓存，存活时间从最后一次请求开始计算
+     * @param request 助手请求
+     * @return 用户上下文，请求没有用户ID时返回null
+     */
+    public UserContext recordRequest(AssistantRequest request) {
+        String userId = request.getUserId();
+        if (userId == null || userId.isEmpty()) {
+            return null;
+        }
+        synchronized (locks[(userId.hashCode() & 0x7FFFFFFF) % LOCK_STRIPES]) {
+            UserContext context = contexts.get(userId);
+            if (context == null) {
+                context = new UserContext(userId, recentCapacity);
+            }
+            long delta = context.record(request);
+            contexts.put(userId, context);
+            synchronized (context) {
+                // 刚被其他线程的写入淘汰又重新写入的上下文需要重新计入内存占用
+                if (context.accounted) {
+                    estimatedBytes.addAndGet(delta);
+                } else {
+                    context.accounted = true;
+                    estimatedBytes.addAndGet(context.getEstimatedBytes());
+                }
+            }
+            return context;
+        }
+    }
+
+    /**
+     * 获取用户上下文
+     * @param userId 用户ID
+     * @return 用户上下文，不存在或已过期时返回null
+     */
+    public UserContext getUserContext(String userId) {
+        return userId != null ? contexts.get(userId) : null;
+    }
+
+    /**
+     * 删除用户上下文
+     * @param userId 用户ID
+     */
+    public void remove(String userId) {
+        contexts.invalidate(userId);
+    }
+
+    /**
+     * 清空所有用户上下文
+     */
+    public void clear() {
+        contexts.invalidateAll();
+    }
+
+    /**
+     * 获取用户数量
+     * @return 用户数量
+     */
+    public long size() {
+        return contexts.size();
+    }
+
+    /**
+     * 获取所有用户上下文估算的内存占用
+     * @return 内存占用（字节）
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    /**
+     * 获取缓存统计信息
+     * @return 统计信息
+     */
+    public CacheStats getStats() {
+        return contexts.getStats();
+    }
+
+    private void onEviction(UserContext context, BoundedCache.RemovalCause cause) {
+        synchronized (context) {
+            if (context.accounted) {
+                context.accounted = false;
+                estimatedBytes.addAndGet(-context.getEstimatedBytes());
+            }
+        }
+        Counter counter = evictionCounters.get(cause);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
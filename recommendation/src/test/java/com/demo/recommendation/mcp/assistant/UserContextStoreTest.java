@@ -0,0 +1,60 @@
+package com.demo.recommendation.mcp.assistant;
+
+import com.demo.core.metrics.MetricsCollector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserContextStoreTest {
+
+    private static AssistantRequest request(String userId, String requestType, long timestamp) {
+        AssistantRequest request = new AssistantRequest();
+        request.setUserId(userId);
+        request.setRequestType(requestType);
+        request.setContent("内容" + timestamp);
+        request.setTimestamp(timestamp);
+        return request;
+    }
+
+    @Test
+    void testRecordRequest_keepsMostRecentRequestsInRingBuffer() {
+        UserContextStore store = new UserContextStore(10, 30, 3, 0, null);
+
+        for (int i = 1; i <= 5; i++) {
+            store.recordRequest(request("user_001", i % 2 == 0 ? "chat" : "routePlanning", i));
+        }
+
+        UserContext context = store.getUserContext("user_001");
+        assertEquals(5, context.getRequestCount());
+        assertEquals("routePlanning", context.getLastRequestType());
+        assertEquals(List.of(5L, 4L, 3L), context.getRecentRequests().stream()
+                .map(UserContext.RecentRequest::getTimestamp).toList());
+        assertEquals(Map.of("chat", 1, "routePlanning", 2), context.getRecentRequestTypeCounts());
+        assertNull(store.recordRequest(request(null, "chat", 6)));
+    }
+
+    @Test
+    void testRecordRequest_evictsLeastRecentlyUsedUserAndTracksMemory() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UserContextStore store = new UserContextStore(2, 30, 4, 0, new MetricsCollector(registry));
+
+        store.recordRequest(request("user_001", "chat", 1));
+        store.recordRequest(request("user_002", "chat", 2));
+        long twoUsersBytes = store.getEstimatedBytes();
+        store.recordRequest(request("user_003", "chat", 3));
+
+        assertNull(store.getUserContext("user_001"));
+        assertEquals(2, store.size());
+        assertEquals(twoUsersBytes, store.getEstimatedBytes());
+        assertEquals(1.0, registry.get("assistant.user.context.evictions").tag("cause", "size").counter().count());
+        assertEquals(2.0, registry.get("assistant.user.context.size").gauge().value());
+
+        store.clear();
+        assertEquals(0, store.getEstimatedBytes());
+        assertEquals(0.0, registry.get("assistant.user.context.estimated.bytes").gauge().value());
+    }
+}